@@ -0,0 +1,239 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.gateway.common.param;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayParamFlowItem;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.function.Predicate;
+
+/**
+ * <p>The precompiled plan to extract the parameters of a gateway resource from requests, which is built
+ * when gateway rules are loaded (see {@link com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager}).</p>
+ *
+ * <p>The parameter items of the rules are sorted by the request field they read, so that each field
+ * (e.g. a header) is read at most once even if several rules refer to it. Extracting the parameters
+ * allocates nothing but the returned array.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class GatewayParamExtractionPlan {
+
+    private static final Object[] EMPTY_PARAMS = new Object[0];
+
+    private static final int FIELD_CLIENT_IP = 0;
+    private static final int FIELD_HEADER = 1;
+    private static final int FIELD_URL_PARAM = 2;
+    private static final int FIELD_COOKIE = 3;
+    private static final int FIELD_UNKNOWN = 4;
+
+    private static final int MATCH_NONE = -1;
+
+    private static final String HOST_HEADER = "Host";
+
+    private final GatewayFlowRule[] paramRules;
+    private final boolean hasNonParamRule;
+    private final int size;
+
+    // Extraction steps, sorted by the field to read.
+    private final int[] fieldTypes;
+    private final String[] fieldNames;
+    private final boolean[] readFields;
+    private final int[] indexes;
+    private final int[] matchStrategies;
+    private final String[] patterns;
+    private final Pattern[] regexes;
+
+    /**
+     * @param rules valid gateway rules of the resource, whose parameter indexes have been generated
+     */
+    public GatewayParamExtractionPlan(Collection<GatewayFlowRule> rules) {
+        List<GatewayFlowRule> ruleList = new ArrayList<>();
+        boolean nonParam = false;
+        for (GatewayFlowRule rule : rules) {
+            if (rule.getParamItem() != null) {
+                ruleList.add(rule);
+            } else {
+                nonParam = true;
+            }
+        }
+        Collections.sort(ruleList, new Comparator<GatewayFlowRule>() {
+            @Override
+            public int compare(GatewayFlowRule r1, GatewayFlowRule r2) {
+                int c = Integer.compare(fieldTypeOf(r1.getParamItem()), fieldTypeOf(r2.getParamItem()));
+                if (c != 0) {
+                    return c;
+                }
+                String n1 = fieldNameOf(r1.getParamItem());
+                String n2 = fieldNameOf(r2.getParamItem());
+                return n1 == null ? (n2 == null ? 0 : -1) : (n2 == null ? 1 : n1.compareTo(n2));
+            }
+        });
+
+        int count = ruleList.size();
+        this.paramRules = ruleList.toArray(new GatewayFlowRule[count]);
+        this.hasNonParamRule = nonParam;
+        this.size = nonParam ? count + 1 : count;
+        this.fieldTypes = new int[count];
+        this.fieldNames = new String[count];
+        this.readFields = new boolean[count];
+        this.indexes = new int[count];
+        this.matchStrategies = new int[count];
+        this.patterns = new String[count];
+        this.regexes = new Pattern[count];
+        for (int i = 0; i < count; i++) {
+            GatewayParamFlowItem item = paramRules[i].getParamItem();
+            fieldTypes[i] = fieldTypeOf(item);
+            fieldNames[i] = fieldNameOf(item);
+            readFields[i] = i == 0 || fieldTypes[i] != fieldTypes[i - 1]
+                || !StringUtil.equals(fieldNames[i], fieldNames[i - 1]);
+            indexes[i] = item.getIndex();
+            String pattern = item.getPattern();
+            if (StringUtil.isEmpty(pattern)) {
+                matchStrategies[i] = MATCH_NONE;
+            } else {
+                matchStrategies[i] = item.getMatchStrategy();
+                patterns[i] = pattern;
+                if (item.getMatchStrategy() == SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX) {
+                    regexes[i] = GatewayRegexCache.getRegexPattern(pattern);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether the parameters should be extracted for the rule predicate. The parameters are extracted only
+     * if all the parameter rules of the resource satisfy the predicate.
+     *
+     * @param rulePredicate rule predicate indicating the rules to refer
+     * @return true if the parameters should be extracted
+     */
+    public boolean appliesTo(Predicate<GatewayFlowRule> rulePredicate) {
+        for (GatewayFlowRule rule : paramRules) {
+            if (!rulePredicate.test(rule)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extract the parameters from the request.
+     *
+     * @param request valid request
+     * @param parser  parser of request items
+     * @param <T>     type of the request
+     * @return the parameter array
+     */
+    public <T> Object[] extract(T request, RequestItemParser<T> parser) {
+        if (size == 0) {
+            return EMPTY_PARAMS;
+        }
+        Object[] params = new Object[size];
+        String value = null;
+        for (int i = 0; i < indexes.length; i++) {
+            if (readFields[i]) {
+                value = readField(fieldTypes[i], fieldNames[i], request, parser);
+            }
+            params[indexes[i]] = matchValue(i, value);
+        }
+        if (hasNonParamRule) {
+            params[size - 1] = SentinelGatewayConstants.GATEWAY_DEFAULT_PARAM;
+        }
+        return params;
+    }
+
+    private static <T> String readField(int fieldType, String fieldName, T request, RequestItemParser<T> parser) {
+        switch (fieldType) {
+            case FIELD_CLIENT_IP:
+                return parser.getRemoteAddress(request);
+            case FIELD_HEADER:
+                // TODO: what if the header has multiple values?
+                return parser.getHeader(request, fieldName);
+            case FIELD_URL_PARAM:
+                return parser.getUrlParam(request, fieldName);
+            case FIELD_COOKIE:
+                return parser.getCookieValue(request, fieldName);
+            default:
+                return null;
+        }
+    }
+
+    private String matchValue(int i, String value) {
+        if (value == null) {
+            return null;
+        }
+        String pattern = patterns[i];
+        switch (matchStrategies[i]) {
+            case MATCH_NONE:
+                return value;
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_EXACT:
+                return value.equals(pattern) ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS:
+                return value.contains(pattern) ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX:
+                Pattern regex = regexes[i];
+                if (regex == null) {
+                    return value;
+                }
+                return regex.matcher(value).matches() ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            default:
+                return value;
+        }
+    }
+
+    private static int fieldTypeOf(GatewayParamFlowItem item) {
+        switch (item.getParseStrategy()) {
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_CLIENT_IP:
+                return FIELD_CLIENT_IP;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST:
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER:
+                return FIELD_HEADER;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM:
+                return FIELD_URL_PARAM;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE:
+                return FIELD_COOKIE;
+            default:
+                return FIELD_UNKNOWN;
+        }
+    }
+
+    private static String fieldNameOf(GatewayParamFlowItem item) {
+        switch (item.getParseStrategy()) {
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST:
+                return HOST_HEADER;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER:
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM:
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE:
+                return item.getFieldName();
+            default:
+                return null;
+        }
+    }
+
+    public int getParamCount() {
+        return size;
+    }
+}
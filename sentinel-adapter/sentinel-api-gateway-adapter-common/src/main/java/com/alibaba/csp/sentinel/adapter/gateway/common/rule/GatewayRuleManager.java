@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamExtractionPlan;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayRegexCache;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
@@ -50,6 +51,11 @@ public final class GatewayRuleManager {
 
     private static final Map<String, List<ParamFlowRule>> CONVERTED_PARAM_RULE_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * Parameter extraction plan map: (resource, plan)
+     */
+    private static final Map<String, GatewayParamExtractionPlan> PARAM_PLAN_MAP = new ConcurrentHashMap<>();
+
     private static final GatewayRulePropertyListener LISTENER = new GatewayRulePropertyListener();
     private static SentinelProperty<Set<GatewayFlowRule>> currentProperty = new DynamicSentinelProperty<>();
 
@@ -111,6 +117,20 @@ public final class GatewayRuleManager {
         return CONVERTED_PARAM_RULE_MAP.get(resourceName);
     }
 
+    /**
+     * Get the precompiled plan to extract parameters of the resource from requests.
+     *
+     * @param resourceName valid resource name
+     * @return the plan, or null if there are no rules for the resource
+     * @since 1.7.0
+     */
+    public static GatewayParamExtractionPlan getParamExtractionPlan(String resourceName) {
+        if (StringUtil.isBlank(resourceName)) {
+            return null;
+        }
+        return PARAM_PLAN_MAP.get(resourceName);
+    }
+
     private static final class GatewayRulePropertyListener implements PropertyListener<Set<GatewayFlowRule>> {
 
         @Override
@@ -147,6 +167,7 @@ public final class GatewayRuleManager {
             if (conf == null || conf.isEmpty()) {
                 applyToConvertedParamMap(new HashSet<ParamFlowRule>());
                 GATEWAY_RULE_MAP.clear();
+                PARAM_PLAN_MAP.clear();
                 return;
             }
             Map<String, Set<GatewayFlowRule>> gatewayRuleMap = new ConcurrentHashMap<>();
@@ -199,8 +220,16 @@ public final class GatewayRuleManager {
 
             applyToConvertedParamMap(paramFlowRules);
 
+            // Build the parameter extraction plans after the parameter indexes are generated.
+            Map<String, GatewayParamExtractionPlan> planMap = new HashMap<>();
+            for (Map.Entry<String, Set<GatewayFlowRule>> e : gatewayRuleMap.entrySet()) {
+                planMap.put(e.getKey(), new GatewayParamExtractionPlan(e.getValue()));
+            }
+
             GATEWAY_RULE_MAP.clear();
             GATEWAY_RULE_MAP.putAll(gatewayRuleMap);
+            PARAM_PLAN_MAP.clear();
+            PARAM_PLAN_MAP.putAll(planMap);
         }
 
         private void applyToConvertedParamMap(Set<ParamFlowRule> paramFlowRules) {
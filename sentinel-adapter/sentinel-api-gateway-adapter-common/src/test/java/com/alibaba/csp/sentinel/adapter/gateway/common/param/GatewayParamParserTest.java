@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.adapter.gateway.common.param;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -36,6 +37,8 @@ import org.junit.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -305,6 +308,50 @@ public class GatewayParamParserTest {
             .isEqualTo(SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM);
     }
 
+    @Test
+    public void testParseParametersReadEachFieldOnce() {
+        RequestItemParser<Object> itemParser = mock(RequestItemParser.class);
+        GatewayParamParser<Object> paramParser = new GatewayParamParser<>(itemParser);
+        Object request = new Object();
+
+        final String routeId = "my_test_route_C";
+        final String headerName = "X-Sentinel-Flag";
+        GatewayFlowRule exactRule = new GatewayFlowRule(routeId)
+            .setCount(10)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName(headerName)
+                .setPattern("Sentinel")
+                .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_EXACT)
+            );
+        GatewayFlowRule containsRule = new GatewayFlowRule(routeId)
+            .setCount(20)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName(headerName)
+                .setPattern("Foo")
+                .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS)
+            );
+        GatewayFlowRule hostRule = new GatewayFlowRule(routeId)
+            .setCount(30)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST)
+            );
+        GatewayRuleManager.loadRules(new HashSet<>(Arrays.asList(exactRule, containsRule, hostRule)));
+        mockSingleHeader(itemParser, headerName, "Sentinel");
+        mockSingleHeader(itemParser, "Host", "hello.test.sentinel");
+
+        Object[] params = paramParser.parseParameterFor(routeId, request, routeIdPredicate);
+        assertThat(params.length).isEqualTo(3);
+        assertThat(params[exactRule.getParamItem().getIndex()]).isEqualTo("Sentinel");
+        assertThat(params[containsRule.getParamItem().getIndex()])
+            .isEqualTo(SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM);
+        assertThat(params[hostRule.getParamItem().getIndex()]).isEqualTo("hello.test.sentinel");
+        // The header shared by two rules is read only once.
+        verify(itemParser, times(1)).getHeader(any(), eq(headerName));
+        verify(itemParser, times(1)).getHeader(any(), eq("Host"));
+    }
+
     private void mockClientHostAddress(/*@Mock*/ RequestItemParser parser, String address) {
         when(parser.getRemoteAddress(any())).thenReturn(address);
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.reactor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <p>Subscription of upstream that is delayed until the waiting time required by a pacing rule elapses.</p>
+ *
+ * <p>Many sources start their work once subscribed regardless of the demand (e.g. {@code Mono.fromCallable},
+ * or the filter chains of WebFlux), so the subscription itself is delayed by a timer. Downstream is subscribed
+ * at once, and the requests are accumulated until upstream is subscribed.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class DelayedSubscription {
+
+    private static final AtomicLongFieldUpdater<DelayedSubscription> REQUESTED =
+        AtomicLongFieldUpdater.newUpdater(DelayedSubscription.class, "requested");
+    private static final AtomicIntegerFieldUpdater<DelayedSubscription> WIP =
+        AtomicIntegerFieldUpdater.newUpdater(DelayedSubscription.class, "wip");
+
+    private volatile Subscription upstream;
+    private volatile long requested;
+    private volatile int wip;
+    private volatile boolean cancelled;
+    private volatile Disposable timer;
+
+    /**
+     * Subscribe upstream after the waiting time. The subscription runs on the Sentinel context of the entry,
+     * so that the work started by upstream belongs to the entry.
+     *
+     * @param waitInMs  waiting time in milliseconds
+     * @param context   the Sentinel context of the entry, or null if absent
+     * @param subscribe the action to subscribe upstream
+     */
+    void subscribeAfter(long waitInMs, Context context, Runnable subscribe) {
+        this.timer = Schedulers.parallel().schedule(() -> {
+            if (cancelled) {
+                return;
+            }
+            if (context == null) {
+                subscribe.run();
+            } else {
+                ContextUtil.runOnContext(context, subscribe);
+            }
+        }, waitInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pass the accumulated demand to upstream once subscribed.
+     *
+     * @param s the subscription of upstream
+     */
+    void setUpstream(Subscription s) {
+        this.upstream = s;
+        if (cancelled) {
+            s.cancel();
+            return;
+        }
+        drain();
+    }
+
+    void request(long n) {
+        Operators.addCap(REQUESTED, this, n);
+        drain();
+    }
+
+    /**
+     * Stop the timer, or cancel upstream if already subscribed.
+     *
+     * @return true if upstream has not been subscribed yet
+     */
+    boolean cancel() {
+        this.cancelled = true;
+        Disposable timer = this.timer;
+        if (timer != null) {
+            timer.dispose();
+        }
+        Subscription s = this.upstream;
+        if (s == null) {
+            return true;
+        }
+        s.cancel();
+        return false;
+    }
+
+    private void drain() {
+        // Serialize the requests from downstream and the timer.
+        if (WIP.getAndIncrement(this) != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Subscription s = this.upstream;
+            if (s != null) {
+                long n = REQUESTED.getAndSet(this, 0);
+                if (n > 0) {
+                    s.request(n);
+                }
+            }
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+}
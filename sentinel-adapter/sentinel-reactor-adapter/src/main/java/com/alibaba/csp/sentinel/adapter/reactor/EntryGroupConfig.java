@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.reactor;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Config of several resources that protect the same publisher. The resources are entered together
+ * as an {@link com.alibaba.csp.sentinel.EntryGroup} and exited together.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class EntryGroupConfig {
+
+    private final String[] resourceNames;
+    private final EntryType entryType;
+    private final int acquireCount;
+    private final Object[][] args;
+    private final ContextConfig contextConfig;
+
+    public EntryGroupConfig(String[] resourceNames, EntryType entryType) {
+        this(resourceNames, entryType, 1, null, null);
+    }
+
+    public EntryGroupConfig(String[] resourceNames, EntryType entryType, int acquireCount, Object[][] args,
+                            ContextConfig contextConfig) {
+        AssertUtil.isTrue(resourceNames != null && resourceNames.length > 0, "resourceNames cannot be empty");
+        for (String resourceName : resourceNames) {
+            AssertUtil.assertNotBlank(resourceName, "resourceName cannot be blank");
+        }
+        AssertUtil.notNull(entryType, "entryType cannot be null");
+        AssertUtil.isTrue(acquireCount > 0, "acquireCount should be positive");
+        AssertUtil.isTrue(args == null || args.length == resourceNames.length,
+            "args should be paired with resourceNames");
+        this.resourceNames = resourceNames;
+        this.entryType = entryType;
+        this.acquireCount = acquireCount;
+        this.args = args;
+        // Constructed ContextConfig should be valid here. Null is allowed here.
+        this.contextConfig = contextConfig;
+    }
+
+    static EntryGroupConfig of(EntryConfig entryConfig) {
+        AssertUtil.notNull(entryConfig, "entryConfig cannot be null");
+        return new EntryGroupConfig(new String[] {entryConfig.getResourceName()}, entryConfig.getEntryType(),
+            entryConfig.getAcquireCount(), new Object[][] {entryConfig.getArgs()}, entryConfig.getContextConfig());
+    }
+
+    public String[] getResourceNames() {
+        return resourceNames;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public int getAcquireCount() {
+        return acquireCount;
+    }
+
+    public Object[][] getArgs() {
+        return args;
+    }
+
+    public ContextConfig getContextConfig() {
+        return contextConfig;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryGroupConfig{" +
+            "resourceNames=" + Arrays.toString(resourceNames) +
+            ", entryType=" + entryType +
+            ", acquireCount=" + acquireCount +
+            ", args=" + Arrays.deepToString(args) +
+            ", contextConfig=" + contextConfig +
+            '}';
+    }
+}
@@ -27,9 +27,13 @@ import reactor.core.publisher.FluxOperator;
  */
 public class FluxSentinelOperator<T> extends FluxOperator<T, T> {
 
-    private final EntryConfig entryConfig;
+    private final EntryGroupConfig entryConfig;
 
     public FluxSentinelOperator(Flux<? extends T> source, EntryConfig entryConfig) {
+        this(source, EntryGroupConfig.of(entryConfig));
+    }
+
+    public FluxSentinelOperator(Flux<? extends T> source, EntryGroupConfig entryConfig) {
         super(source);
         AssertUtil.notNull(entryConfig, "entryConfig cannot be null");
         this.entryConfig = entryConfig;
@@ -37,6 +41,6 @@ public class FluxSentinelOperator<T> extends FluxOperator<T, T> {
 
     @Override
     public void subscribe(CoreSubscriber<? super T> actual) {
-        source.subscribe(new SentinelReactorSubscriber<>(entryConfig, actual, false));
+        new SentinelReactorSubscriber<>(entryConfig, actual, false).subscribeTo(source);
     }
 }
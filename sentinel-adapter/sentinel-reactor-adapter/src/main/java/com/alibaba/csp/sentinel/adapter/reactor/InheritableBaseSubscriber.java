@@ -29,7 +29,7 @@ import reactor.core.publisher.SignalType;
  * <p>
  * Copied from {@link reactor.core.publisher.BaseSubscriber} of reactor-core,
  * but allow sub-classes to override {@code onSubscribe}, {@code onNext},
- * {@code onError} and {@code onComplete} method for customization.
+ * {@code onError}, {@code onComplete} and {@code request} method for customization.
  * </p>
  * <p>This base subscriber also provides predicate for {@code onErrorDropped} hook as a workaround for Sentinel.</p>
  */
@@ -199,7 +199,7 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
     }
 
     @Override
-    public final void request(long n) {
+    public void request(long n) {
         if (Operators.validate(n)) {
             Subscription s = this.subscription;
             if (s != null) {
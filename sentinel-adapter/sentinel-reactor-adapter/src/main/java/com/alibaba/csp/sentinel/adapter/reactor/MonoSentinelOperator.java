@@ -27,9 +27,13 @@ import reactor.core.publisher.MonoOperator;
  */
 public class MonoSentinelOperator<T> extends MonoOperator<T, T> {
 
-    private final EntryConfig entryConfig;
+    private final EntryGroupConfig entryConfig;
 
     public MonoSentinelOperator(Mono<? extends T> source, EntryConfig entryConfig) {
+        this(source, EntryGroupConfig.of(entryConfig));
+    }
+
+    public MonoSentinelOperator(Mono<? extends T> source, EntryGroupConfig entryConfig) {
         super(source);
         AssertUtil.notNull(entryConfig, "entryConfig cannot be null");
         this.entryConfig = entryConfig;
@@ -37,6 +41,6 @@ public class MonoSentinelOperator<T> extends MonoOperator<T, T> {
 
     @Override
     public void subscribe(CoreSubscriber<? super T> actual) {
-        source.subscribe(new SentinelReactorSubscriber<>(entryConfig, actual, true));
+        new SentinelReactorSubscriber<>(entryConfig, actual, true).subscribeTo(source);
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.adapter.reactor;
 
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
@@ -42,9 +43,14 @@ public final class ReactorSphU {
         final AtomicReference<AsyncEntry> entryWrapper = new AtomicReference<>(null);
         return Mono.defer(() -> {
             try {
-                AsyncEntry entry = SphU.asyncEntry(resourceName, entryType);
+                AsyncEntry entry = SphU.asyncEntryNonBlocking(resourceName, entryType, 1);
                 entryWrapper.set(entry);
-                return actual.subscriberContext(context -> {
+                Mono<R> paced = actual;
+                if (entry.getWaitInMs() > 0) {
+                    // Delay with a timer instead of parking current thread.
+                    paced = Mono.delay(Duration.ofMillis(entry.getWaitInMs())).then(actual);
+                }
+                return paced.subscriberContext(context -> {
                     if (entry == null) {
                         return context;
                     }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.reactor;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import com.alibaba.csp.sentinel.EntryGroup;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * <p>A lean subscriber that acts as both the subscriber of upstream and the subscription of downstream.
+ * The entry state is tracked by a single field updater, and the Sentinel context is bound to the Reactor
+ * context lazily, only when downstream asks for it.</p>
+ *
+ * <p>Different from {@link SentinelReactorSubscriber}, the signals are not delivered on the Sentinel
+ * context of the entry. Nested Sentinel operators should retrieve the context from the Reactor context
+ * (see {@link SentinelReactorConstants#SENTINEL_CONTEXT_KEY}).</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class SentinelFusedSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+    private static final int STATE_INIT = 0;
+    /**
+     * The entry has been taken and not exited yet.
+     */
+    private static final int STATE_ENTERED = 1;
+    /**
+     * The entry has been exited, while the signals are still delivered (e.g. onComplete after onNext of Mono).
+     */
+    private static final int STATE_EXITED = 2;
+    /**
+     * Blocked. Downstream has been terminated with the block exception, so all signals are dropped.
+     */
+    private static final int STATE_TERMINATED = 3;
+
+    private static final AtomicIntegerFieldUpdater<SentinelFusedSubscriber> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(SentinelFusedSubscriber.class, "state");
+
+    private final EntryGroupConfig entryConfig;
+    private final CoreSubscriber<? super T> actual;
+    private final boolean unary;
+
+    private Subscription upstream;
+    /**
+     * Published by the volatile write of the state.
+     */
+    private EntryGroup entry;
+    /**
+     * The Reactor context bound with the Sentinel context, which is immutable, so racy caching is fine.
+     */
+    private Context boundContext;
+    /**
+     * Subscription of upstream delayed by a pacing rule, or null if not paced.
+     */
+    private volatile DelayedSubscription delayedSubscription;
+
+    private volatile int state = STATE_INIT;
+
+    SentinelFusedSubscriber(EntryGroupConfig entryConfig, CoreSubscriber<? super T> actual, boolean unary) {
+        this.entryConfig = entryConfig;
+        this.actual = actual;
+        this.unary = unary;
+    }
+
+    @Override
+    public Context currentContext() {
+        if (state != STATE_ENTERED) {
+            return actual.currentContext();
+        }
+        Context context = boundContext;
+        if (context == null) {
+            com.alibaba.csp.sentinel.context.Context sentinelContext = entry.getAsyncContext();
+            if (sentinelContext == null) {
+                return actual.currentContext();
+            }
+            context = actual.currentContext().put(SentinelReactorConstants.SENTINEL_CONTEXT_KEY, sentinelContext);
+            this.boundContext = context;
+        }
+        return context;
+    }
+
+    /**
+     * Take the entry and then subscribe upstream. The entry is taken before the subscription, as upstream
+     * may start its work once subscribed (e.g. the filter chains of WebFlux) regardless of the demand.
+     *
+     * @param source the upstream publisher
+     */
+    void subscribeTo(Publisher<? extends T> source) {
+        com.alibaba.csp.sentinel.context.Context sentinelContext = actual.currentContext()
+            .getOrDefault(SentinelReactorConstants.SENTINEL_CONTEXT_KEY, null);
+        if (sentinelContext == null) {
+            entryAndSubscribe(source);
+        } else {
+            // Nested in the entry of a downstream Sentinel operator.
+            ContextUtil.runOnContext(sentinelContext, () -> entryAndSubscribe(source));
+        }
+    }
+
+    private void entryAndSubscribe(Publisher<? extends T> source) {
+        ContextConfig contextConfig = entryConfig.getContextConfig();
+        // If current we're already in a context, the context config won't work.
+        boolean contextEntered = contextConfig != null && ContextUtil.getContext() == null;
+        if (contextEntered) {
+            ContextUtil.enter(contextConfig.getContextName(), contextConfig.getOrigin());
+        }
+        try {
+            EntryGroup entry = SphU.asyncEntryGroupNonBlocking(entryConfig.getResourceNames(),
+                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
+            this.entry = entry;
+            this.state = STATE_ENTERED;
+            long waitInMs = entry.getWaitInMs();
+            if (waitInMs > 0) {
+                // Paced by a rate limiter rule: subscribe downstream at once, but delay the subscription
+                // of upstream with a timer.
+                DelayedSubscription delayed = new DelayedSubscription();
+                this.delayedSubscription = delayed;
+                actual.onSubscribe(this);
+                delayed.subscribeAfter(waitInMs, entry.getAsyncContext(), () -> source.subscribe(this));
+            } else {
+                source.subscribe(this);
+            }
+        } catch (BlockException ex) {
+            // Upstream is never subscribed.
+            this.state = STATE_TERMINATED;
+            Operators.error(actual, ex);
+        } finally {
+            if (contextEntered) {
+                ContextUtil.exit();
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (!Operators.validate(upstream, s)) {
+            return;
+        }
+        this.upstream = s;
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed == null) {
+            actual.onSubscribe(this);
+        } else {
+            delayed.setUpstream(s);
+        }
+    }
+
+    @Override
+    public void onNext(T value) {
+        if (state == STATE_TERMINATED) {
+            return;
+        }
+        actual.onNext(value);
+        if (unary) {
+            // The entry of Mono completes with the value, as onComplete may not come after cancellation.
+            tryExit();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (state == STATE_TERMINATED) {
+            // Dropped implicitly, as upstream may still signal the error after blocked.
+            return;
+        }
+        if (state == STATE_ENTERED) {
+            Tracer.traceEntryGroup(t, entry);
+        }
+        tryExit();
+        actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+        if (state == STATE_TERMINATED) {
+            return;
+        }
+        tryExit();
+        actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed == null) {
+            upstream.request(n);
+        } else if (Operators.validate(n)) {
+            delayed.request(n);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed == null) {
+            upstream.cancel();
+        } else {
+            // Upstream may not be subscribed yet.
+            delayed.cancel();
+        }
+        tryExit();
+    }
+
+    private void tryExit() {
+        if (STATE.compareAndSet(this, STATE_ENTERED, STATE_EXITED)) {
+            entry.exit();
+        }
+    }
+}
@@ -18,7 +18,7 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.EntryGroup;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -26,8 +26,10 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.function.Supplier;
 
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
 import reactor.util.context.Context;
 
 /**
@@ -36,24 +38,38 @@ import reactor.util.context.Context;
  */
 public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
-    private final EntryConfig entryConfig;
+    private final EntryGroupConfig entryConfig;
 
     private final CoreSubscriber<? super T> actual;
     private final boolean unary;
 
-    private volatile AsyncEntry currentEntry;
+    private volatile EntryGroup currentEntry;
     private final AtomicBoolean entryExited = new AtomicBoolean(false);
+    /**
+     * Subscription of upstream delayed by a pacing rule, or null if the entry is not paced.
+     */
+    private volatile DelayedSubscription delayedSubscription;
+    /**
+     * Whether the entry is taken before subscribing upstream (see {@link #subscribeTo(Publisher)}).
+     */
+    private volatile boolean enteredBeforeSubscribe;
 
     public SentinelReactorSubscriber(EntryConfig entryConfig,
                                      CoreSubscriber<? super T> actual,
                                      boolean unary) {
+        this(EntryGroupConfig.of(entryConfig), actual, unary);
+    }
+
+    public SentinelReactorSubscriber(EntryGroupConfig entryConfig,
+                                     CoreSubscriber<? super T> actual,
+                                     boolean unary) {
         checkEntryConfig(entryConfig);
         this.entryConfig = entryConfig;
         this.actual = actual;
         this.unary = unary;
     }
 
-    private void checkEntryConfig(EntryConfig config) {
+    private void checkEntryConfig(EntryGroupConfig config) {
         AssertUtil.notNull(config, "entryConfig cannot be null");
     }
 
@@ -82,17 +98,40 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
         }
     }
 
-    private void entryWhenSubscribed() {
+    /**
+     * Take the entry and then subscribe upstream. The entry is taken before the subscription, as upstream
+     * may start its work once subscribed (e.g. {@code Mono.fromCallable}) regardless of the demand.
+     *
+     * @param source the upstream publisher
+     */
+    void subscribeTo(Publisher<? extends T> source) {
+        this.enteredBeforeSubscribe = true;
+        doWithContextOrCurrent(() -> actual.currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
+            () -> entryAndThen(() -> source.subscribe(this)));
+    }
+
+    private void entryAndThen(Runnable subscribe) {
         ContextConfig sentinelContextConfig = entryConfig.getContextConfig();
         if (sentinelContextConfig != null) {
             // If current we're already in a context, the context config won't work.
             ContextUtil.enter(sentinelContextConfig.getContextName(), sentinelContextConfig.getOrigin());
         }
         try {
-            AsyncEntry entry = SphU.asyncEntry(entryConfig.getResourceName(), entryConfig.getEntryType(),
-                entryConfig.getAcquireCount(), entryConfig.getArgs());
+            EntryGroup entry = SphU.asyncEntryGroupNonBlocking(entryConfig.getResourceNames(),
+                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
             this.currentEntry = entry;
-            actual.onSubscribe(this);
+            long waitInMs = entry.getWaitInMs();
+            if (waitInMs > 0) {
+                // Paced by a rate limiter rule: delay the subscription of upstream with a timer rather than
+                // parking current thread (which may be an event loop). Downstream is subscribed at once,
+                // so that it could cancel while waiting.
+                DelayedSubscription delayed = new DelayedSubscription();
+                this.delayedSubscription = delayed;
+                actual.onSubscribe(this);
+                delayed.subscribeAfter(waitInMs, entry.getAsyncContext(), subscribe);
+            } else {
+                subscribe.run();
+            }
         } catch (BlockException ex) {
             // Mark as completed (exited) explicitly.
             entryExited.set(true);
@@ -109,8 +148,22 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnSubscribe(Subscription subscription) {
-        doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
-            this::entryWhenSubscribed);
+        if (enteredBeforeSubscribe) {
+            onUpstreamSubscribed(subscription);
+        } else {
+            // Subscribed directly rather than by the Sentinel operators, so upstream has already been subscribed.
+            doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
+                () -> entryAndThen(() -> onUpstreamSubscribed(subscription)));
+        }
+    }
+
+    private void onUpstreamSubscribed(Subscription subscription) {
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed == null) {
+            actual.onSubscribe(this);
+        } else {
+            delayed.setUpstream(subscription);
+        }
     }
 
     @Override
@@ -119,7 +172,7 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
             tryCompleteEntry();
             return;
         }
-        doWithContextOrCurrent(() -> Optional.ofNullable(currentEntry).map(AsyncEntry::getAsyncContext),
+        doWithContextOrCurrent(() -> Optional.ofNullable(currentEntry).map(EntryGroup::getAsyncContext),
             () -> actual.onNext(value));
 
         if (unary) {
@@ -147,20 +200,34 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
     protected void hookOnError(Throwable t) {
         if (currentEntry != null && currentEntry.getAsyncContext() != null) {
             // Normal requests with non-BlockException will go through here.
-            Tracer.traceContext(t, 1, currentEntry.getAsyncContext());
+            Tracer.traceEntryGroup(t, currentEntry);
         }
         tryCompleteEntry();
         actual.onError(t);
     }
 
     @Override
-    protected void hookOnCancel() {
+    public void request(long n) {
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed == null) {
+            super.request(n);
+        } else if (Operators.validate(n)) {
+            delayed.request(n);
+        }
+    }
 
+    @Override
+    protected void hookOnCancel() {
+        DelayedSubscription delayed = this.delayedSubscription;
+        if (delayed != null && delayed.cancel()) {
+            // Cancelled while waiting, so no signal will come from upstream to complete the entry.
+            tryCompleteEntry();
+        }
     }
 
     private boolean tryCompleteEntry() {
         if (currentEntry != null && entryExited.compareAndSet(false, true)) {
-            currentEntry.exit(1, entryConfig.getArgs());
+            currentEntry.exit();
             return true;
         }
         return false;
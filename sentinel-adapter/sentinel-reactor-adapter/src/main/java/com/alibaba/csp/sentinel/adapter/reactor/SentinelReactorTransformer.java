@@ -31,13 +31,24 @@ import reactor.core.publisher.Mono;
  */
 public class SentinelReactorTransformer<T> implements Function<Publisher<T>, Publisher<T>> {
 
-    private final EntryConfig entryConfig;
+    private final EntryGroupConfig entryConfig;
 
     public SentinelReactorTransformer(String resourceName) {
         this(new EntryConfig(resourceName));
     }
 
     public SentinelReactorTransformer(EntryConfig entryConfig) {
+        this(EntryGroupConfig.of(entryConfig));
+    }
+
+    /**
+     * Guard the publisher with several resources at once. The resources are entered as one group,
+     * which is cheaper than transforming the publisher with a transformer per resource.
+     *
+     * @param entryConfig config of the resources
+     * @since 1.7.0
+     */
+    public SentinelReactorTransformer(EntryGroupConfig entryConfig) {
         AssertUtil.notNull(entryConfig, "entryConfig cannot be null");
         this.entryConfig = entryConfig;
     }
@@ -3,12 +3,14 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -55,6 +57,102 @@ public class MonoSentinelOperatorIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testTransformMonoWithEntryGroupBlocked() {
+        String routeName = createResourceName("testTransformMonoWithEntryGroupRoute");
+        String apiName = createResourceName("testTransformMonoWithEntryGroupApi");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(apiName).setCount(0)
+        ));
+        StepVerifier.create(Mono.just(2)
+            .transform(new SentinelReactorTransformer<>(
+                new EntryGroupConfig(new String[] {routeName, apiName}, EntryType.IN)))
+        )
+            .expectError(BlockException.class)
+            .verify();
+
+        // The route entered before the blocked API should have been exited.
+        ClusterNode routeNode = ClusterBuilderSlot.getClusterNode(routeName);
+        assertNotNull(routeNode);
+        assertEquals(1, routeNode.passQps(), 0.01);
+        assertEquals(0, routeNode.curThreadNum());
+        ClusterNode apiNode = ClusterBuilderSlot.getClusterNode(apiName);
+        assertNotNull(apiNode);
+        assertEquals(1, apiNode.blockRequest());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testDelaySubscriptionWhenPaced() {
+        String resourceName = createResourceName("testDelaySubscriptionWhenPaced");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(2000)
+        ));
+        StepVerifier.create(Mono.empty()
+            .transform(new SentinelReactorTransformer<>(resourceName)))
+            .verifyComplete();
+        // The side effect of a deferred Mono<Void> (e.g. a filter chain of WebFlux) starts once subscribed,
+        // so it should be delayed for about 200 ms.
+        AtomicLong startTime = new AtomicLong();
+        long subscribeTime = System.currentTimeMillis();
+        StepVerifier.create(Mono.<Void>defer(() -> {
+            startTime.set(System.currentTimeMillis());
+            return Mono.empty();
+        }).transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectSubscription()
+            .verifyComplete();
+        assertTrue(startTime.get() - subscribeTime >= 150);
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.blockRequest());
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testEmitEmptyOrErrorWhenPaced() {
+        String resourceName = createResourceName("testEmitEmptyOrErrorWhenPaced");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(10)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(2000)
+        ));
+        // Each of the following requests has to wait for about 100 ms.
+        StepVerifier.create(Mono.just(1)
+            .transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectNext(1)
+            .verifyComplete();
+        // Downstream should be subscribed before the terminal signal of upstream.
+        StepVerifier.create(Mono.empty()
+            .transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectSubscription()
+            .verifyComplete();
+        StepVerifier.create(Mono.error(new IllegalStateException())
+            .transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectSubscription()
+            .expectError(IllegalStateException.class)
+            .verify();
+        // The subscription of upstream is delayed as well.
+        StepVerifier.create(Mono.just(2)
+            .transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            .expectNext(2)
+            .verifyComplete();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.blockRequest());
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     @Test
     public void testFluxToMonoNextThenCancelSuccess() {
         String resourceName = createResourceName("testFluxToMonoNextThenCancelSuccess");
@@ -0,0 +1,181 @@
+package com.alibaba.csp.sentinel.adapter.reactor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class SentinelFusedTransformerIntegrationTest {
+
+    @Test
+    public void testEmitSingleSuccess() {
+        String resourceName = createResourceName("testEmitSingleSuccess");
+        StepVerifier.create(Mono.just(1)
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectNext(1)
+            .verifyComplete();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(1, cn.passQps(), 0.01);
+        assertEquals(0, cn.curThreadNum());
+    }
+
+    @Test
+    public void testEmitMultipleValueThenCancel() {
+        String resourceName = createResourceName("testEmitMultipleValueThenCancel");
+        StepVerifier.create(Flux.range(1, 10)
+            .transform(new SentinelFusedTransformer<>(resourceName))
+            .take(2))
+            .expectNext(1, 2)
+            .verifyComplete();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(1, cn.passQps(), 0.01);
+        // The entry should be exited when cancelled.
+        assertEquals(0, cn.curThreadNum());
+    }
+
+    @Test
+    public void testEmitExceptionTraced() {
+        String resourceName = createResourceName("testEmitExceptionTraced");
+        StepVerifier.create(Flux.error(new IllegalAccessException("oops"))
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectError(IllegalAccessException.class)
+            .verify();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(1, cn.totalException());
+        assertEquals(0, cn.curThreadNum());
+    }
+
+    @Test
+    public void testEmitWhenFlowControlTriggered() {
+        String resourceName = createResourceName("testEmitWhenFlowControlTriggered");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(0)
+        ));
+        StepVerifier.create(Mono.just(1)
+            .transform(new SentinelFusedTransformer<>(
+                new EntryGroupConfig(new String[] {resourceName}, EntryType.IN))))
+            .expectError(BlockException.class)
+            .verify();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.passQps(), 0.01);
+        assertEquals(1, cn.blockRequest());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testDelaySubscriptionWhenPaced() {
+        String resourceName = createResourceName("testDelaySubscriptionWhenPaced");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(2000)
+        ));
+        StepVerifier.create(Mono.empty()
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .verifyComplete();
+        // The side effect of a deferred Mono<Void> (e.g. a filter chain of WebFlux) starts once subscribed,
+        // so it should be delayed for about 200 ms.
+        AtomicLong startTime = new AtomicLong();
+        long subscribeTime = System.currentTimeMillis();
+        StepVerifier.create(Mono.<Void>defer(() -> {
+            startTime.set(System.currentTimeMillis());
+            return Mono.empty();
+        }).transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectSubscription()
+            .verifyComplete();
+        assertTrue(startTime.get() - subscribeTime >= 150);
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.blockRequest());
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testEmitEmptyOrErrorWhenPaced() {
+        String resourceName = createResourceName("testEmitEmptyOrErrorWhenPaced");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(10)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(2000)
+        ));
+        // Each of the following requests has to wait for about 100 ms.
+        StepVerifier.create(Mono.just(1)
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectNext(1)
+            .verifyComplete();
+        // Downstream should be subscribed before the terminal signal of upstream.
+        StepVerifier.create(Mono.empty()
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectSubscription()
+            .verifyComplete();
+        StepVerifier.create(Mono.error(new IllegalStateException())
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectSubscription()
+            .expectError(IllegalStateException.class)
+            .verify();
+        // The subscription of upstream is delayed as well.
+        StepVerifier.create(Mono.just(2)
+            .transform(new SentinelFusedTransformer<>(resourceName)))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            .expectNext(2)
+            .verifyComplete();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.blockRequest());
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testNestedSentinelContextBound() {
+        String outerResource = createResourceName("testNestedSentinelContextBoundOuter");
+        String innerResource = createResourceName("testNestedSentinelContextBoundInner");
+        StepVerifier.create(Mono.just(1)
+            .transform(new SentinelFusedTransformer<>(innerResource))
+            .transform(new SentinelFusedTransformer<>(outerResource)))
+            .expectNext(1)
+            .verifyComplete();
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(innerResource);
+        assertNotNull(cn);
+        assertEquals(1, cn.passQps(), 0.01);
+        assertEquals(0, cn.curThreadNum());
+    }
+
+    private String createResourceName(String resourceName) {
+        return "reactor_test_fused_" + resourceName;
+    }
+}
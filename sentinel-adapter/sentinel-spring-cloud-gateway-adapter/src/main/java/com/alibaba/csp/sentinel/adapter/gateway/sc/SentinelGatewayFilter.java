@@ -17,17 +17,15 @@ package com.alibaba.csp.sentinel.adapter.gateway.sc;
 
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamParser;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.callback.GatewayCallbackManager;
 import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
-import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
-import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryGroupConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelFusedTransformer;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.api.GatewayApiMatcherManager;
-import com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher.WebExchangeApiMatcher;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -60,31 +58,38 @@ public class SentinelGatewayFilter implements GatewayFilter, GlobalFilter, Order
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Set<String> matchingApis = pickMatchingApiDefinitions(exchange);
 
         Mono<Void> asyncResult = chain.filter(exchange);
+        int size = (route == null ? 0 : 1) + matchingApis.size();
+        if (size == 0) {
+            return asyncResult;
+        }
+        // The route and the matching APIs are entered as one group, which shares the context and is exited
+        // together, rather than each resource having its own transformer. As the filter chain emits no value,
+        // the lean operator could be used.
+        String[] resourceNames = new String[size];
+        Object[][] args = new Object[size][];
+        ContextConfig contextConfig = null;
+        int i = 0;
         if (route != null) {
             String routeId = route.getId();
-            Object[] params = paramParser.parseParameterFor(routeId, exchange,
+            resourceNames[i] = routeId;
+            args[i++] = paramParser.parseParameterFor(routeId, exchange,
                 r -> r.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_ROUTE_ID);
             String origin = Optional.ofNullable(GatewayCallbackManager.getRequestOriginParser())
                 .map(f -> f.apply(exchange))
                 .orElse("");
-            asyncResult = asyncResult.transform(
-                new SentinelReactorTransformer<>(new EntryConfig(routeId, EntryType.IN,
-                    1, params, new ContextConfig(contextName(routeId), origin)))
-            );
+            contextConfig = new ContextConfig(contextName(routeId), origin);
         }
-
-        Set<String> matchingApis = pickMatchingApiDefinitions(exchange);
         for (String apiName : matchingApis) {
-            Object[] params = paramParser.parseParameterFor(apiName, exchange,
+            resourceNames[i] = apiName;
+            args[i++] = paramParser.parseParameterFor(apiName, exchange,
                 r -> r.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME);
-            asyncResult = asyncResult.transform(
-                new SentinelReactorTransformer<>(new EntryConfig(apiName, EntryType.IN, 1, params))
-            );
         }
 
-        return asyncResult;
+        return asyncResult.transform(new SentinelFusedTransformer<>(
+            new EntryGroupConfig(resourceNames, EntryType.IN, 1, args, contextConfig)));
     }
 
     private String contextName(String route) {
@@ -92,11 +97,7 @@ public class SentinelGatewayFilter implements GatewayFilter, GlobalFilter, Order
     }
 
     Set<String> pickMatchingApiDefinitions(ServerWebExchange exchange) {
-        return GatewayApiMatcherManager.getApiMatcherMap().values()
-            .stream()
-            .filter(m -> m.test(exchange))
-            .map(WebExchangeApiMatcher::getApiName)
-            .collect(Collectors.toSet());
+        return GatewayApiMatcherManager.getApiPathIndex().match(exchange.getRequest().getPath().value());
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher.ApiPathMatcherIndex;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher.WebExchangeApiMatcher;
 
 /**
@@ -33,6 +34,8 @@ public final class GatewayApiMatcherManager {
 
     private static final Map<String, WebExchangeApiMatcher> API_MATCHER_MAP = new ConcurrentHashMap<>();
 
+    private static volatile ApiPathMatcherIndex apiPathIndex = new ApiPathMatcherIndex(null);
+
     public static Map<String, WebExchangeApiMatcher> getApiMatcherMap() {
         return Collections.unmodifiableMap(API_MATCHER_MAP);
     }
@@ -42,6 +45,16 @@ public final class GatewayApiMatcherManager {
             .map(e -> API_MATCHER_MAP.get(apiName));
     }
 
+    /**
+     * Get the path index of all API definitions, which is rebuilt once API definitions are loaded.
+     *
+     * @return the path index of all API definitions
+     * @since 1.7.0
+     */
+    public static ApiPathMatcherIndex getApiPathIndex() {
+        return apiPathIndex;
+    }
+
     public static Set<ApiDefinition> getApiDefinitionSet() {
         return API_MATCHER_MAP.values()
             .stream()
@@ -52,9 +65,10 @@ public final class GatewayApiMatcherManager {
     static synchronized void loadApiDefinitions(/*@Valid*/ Set<ApiDefinition> definitions) {
         if (definitions == null || definitions.isEmpty()) {
             API_MATCHER_MAP.clear();
-            return;
+        } else {
+            definitions.forEach(GatewayApiMatcherManager::addApiDefinition);
         }
-        definitions.forEach(GatewayApiMatcherManager::addApiDefinition);
+        apiPathIndex = new ApiPathMatcherIndex(getApiDefinitionSet());
     }
 
     static void addApiDefinition(ApiDefinition definition) {
@@ -0,0 +1,261 @@
+/*
+ * Copyright 1999-2019 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPathPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPredicateItem;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * <p>An index of the path predicates of all API definitions, so that all APIs matching a request path
+ * are resolved in a single pass, rather than testing every API matcher one by one.</p>
+ *
+ * <ul>
+ * <li>Exact paths are looked up in a hash map.</li>
+ * <li>Prefix patterns in the form of {@code /literal/path/**} are kept in a trie of path segments, so
+ * all of them are matched by walking the segments of the path once.</li>
+ * <li>Other Ant-style patterns are tested one by one.</li>
+ * <li>Regex patterns are tested one by one, but only if the path starts with the literal prefix of the regex.</li>
+ * </ul>
+ *
+ * <p>The same pattern shared by several APIs is evaluated only once. The semantics is the same as
+ * {@link WebExchangeApiMatcher}. The index is immutable, so it should be rebuilt when API definitions change.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class ApiPathMatcherIndex {
+
+    private static final String ANY_SUFFIX = "/**";
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    private static final AntPathMatcher ANT_MATCHER = new AntPathMatcher();
+
+    private final Map<String, Set<String>> exactMap = new HashMap<>();
+    private final TrieNode prefixRoot = new TrieNode();
+    private final Map<String, Set<String>> antPatternMap = new LinkedHashMap<>();
+    private final List<RegexEntry> regexList = new ArrayList<>();
+
+    public ApiPathMatcherIndex(Collection<ApiDefinition> definitions) {
+        Map<String, Set<String>> regexMap = new LinkedHashMap<>();
+        if (definitions != null) {
+            for (ApiDefinition definition : definitions) {
+                if (definition.getPredicateItems() == null) {
+                    continue;
+                }
+                for (ApiPredicateItem item : definition.getPredicateItems()) {
+                    if (item instanceof ApiPathPredicateItem) {
+                        addPathPredicate(definition.getApiName(), (ApiPathPredicateItem)item, regexMap);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> e : regexMap.entrySet()) {
+            try {
+                regexList.add(new RegexEntry(e.getKey(), e.getValue()));
+            } catch (Exception ex) {
+                RecordLog.warn("[ApiPathMatcherIndex] Ignoring invalid regex pattern: " + e.getKey(), ex);
+            }
+        }
+    }
+
+    private void addPathPredicate(String apiName, ApiPathPredicateItem item, Map<String, Set<String>> regexMap) {
+        String pattern = item.getPattern();
+        if (StringUtil.isBlank(pattern)) {
+            return;
+        }
+        switch (item.getMatchStrategy()) {
+            case SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX:
+                addTo(regexMap, pattern, apiName);
+                break;
+            case SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX:
+                // Same as AntRoutePathMatcher: a pattern without any wildcard never matches.
+                if (!ANT_MATCHER.isPattern(pattern)) {
+                    break;
+                }
+                if (isLiteralPrefixPattern(pattern)) {
+                    prefixRoot.insert(pattern.substring(0, pattern.length() - ANY_SUFFIX.length()), apiName);
+                } else {
+                    addTo(antPatternMap, pattern, apiName);
+                }
+                break;
+            default:
+                addTo(exactMap, pattern, apiName);
+        }
+    }
+
+    /**
+     * Get names of all APIs matching the path.
+     *
+     * @param path the request path
+     * @return names of matching APIs, or an empty set if no API matches
+     */
+    public Set<String> match(String path) {
+        if (path == null) {
+            return Collections.emptySet();
+        }
+        Set<String> result = null;
+        Set<String> exactApis = exactMap.get(path);
+        if (exactApis != null) {
+            result = addAll(result, exactApis);
+        }
+        if (path.startsWith("/")) {
+            result = prefixRoot.collect(path, result);
+        }
+        for (Map.Entry<String, Set<String>> e : antPatternMap.entrySet()) {
+            if (ANT_MATCHER.match(e.getKey(), path)) {
+                result = addAll(result, e.getValue());
+            }
+        }
+        for (RegexEntry entry : regexList) {
+            if (path.startsWith(entry.literalPrefix) && entry.regex.matcher(path).matches()) {
+                result = addAll(result, entry.apiNames);
+            }
+        }
+        return result == null ? Collections.<String>emptySet() : result;
+    }
+
+    /**
+     * Check whether the pattern is in the form of {@code /literal/path/**}, where the literal part has no wildcard.
+     */
+    static boolean isLiteralPrefixPattern(String pattern) {
+        if (!pattern.startsWith("/") || !pattern.endsWith(ANY_SUFFIX)) {
+            return false;
+        }
+        String prefix = pattern.substring(0, pattern.length() - ANY_SUFFIX.length());
+        return !ANT_MATCHER.isPattern(prefix);
+    }
+
+    /**
+     * Get the literal string that every path matching the regex should start with.
+     */
+    static String literalPrefixOf(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            // Alternatives might have different prefixes.
+            return "";
+        }
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = start;
+        while (end < regex.length() && REGEX_META_CHARS.indexOf(regex.charAt(end)) < 0) {
+            end++;
+        }
+        // The last literal char is optional if followed by a quantifier such as '?', '*' or '{0,n}'.
+        if (end > start && end < regex.length() && "?*{".indexOf(regex.charAt(end)) >= 0) {
+            end--;
+        }
+        return regex.substring(start, end);
+    }
+
+    private static void addTo(Map<String, Set<String>> map, String pattern, String apiName) {
+        Set<String> apiNames = map.get(pattern);
+        if (apiNames == null) {
+            apiNames = new HashSet<>();
+            map.put(pattern, apiNames);
+        }
+        apiNames.add(apiName);
+    }
+
+    private static Set<String> addAll(Set<String> result, Set<String> apiNames) {
+        if (result == null) {
+            result = new HashSet<>();
+        }
+        result.addAll(apiNames);
+        return result;
+    }
+
+    /**
+     * A node of path segments. The APIs of the node match all paths under the node (including itself).
+     */
+    private static final class TrieNode {
+
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private Set<String> apiNames;
+
+        void insert(String prefix, String apiName) {
+            TrieNode node = this;
+            // Empty segments are ignored, the same as AntPathMatcher.
+            for (String segment : prefix.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                TrieNode child = node.children.get(segment);
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+            if (node.apiNames == null) {
+                node.apiNames = new HashSet<>();
+            }
+            node.apiNames.add(apiName);
+        }
+
+        Set<String> collect(String path, Set<String> result) {
+            TrieNode node = this;
+            int length = path.length();
+            int start = 0;
+            while (node != null) {
+                if (node.apiNames != null) {
+                    result = addAll(result, node.apiNames);
+                }
+                // Skip separators of the next segment.
+                while (start < length && path.charAt(start) == '/') {
+                    start++;
+                }
+                if (start >= length || node.children.isEmpty()) {
+                    break;
+                }
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = length;
+                }
+                node = node.children.get(path.substring(start, end));
+                start = end;
+            }
+            return result;
+        }
+    }
+
+    private static final class RegexEntry {
+
+        private final String literalPrefix;
+        private final Pattern regex;
+        private final Set<String> apiNames;
+
+        RegexEntry(String pattern, Set<String> apiNames) {
+            this.regex = Pattern.compile(pattern);
+            this.literalPrefix = literalPrefixOf(pattern);
+            this.apiNames = apiNames;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.alibaba.csp.sentinel.adapter.gateway.sc;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPathPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.GatewayApiDefinitionManager;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager;
+
+import org.junit.After;
+import org.junit.Before;
+package com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPathPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPredicateItem;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link ApiPathMatcherIndex}.
+ *
+ * @author agent
+ */
+public class ApiPathMatcherIndexTest {
+
+    @Test
+    public void testMatchAllApisInOnePass() {
+        ApiDefinition productApi = new ApiDefinition("product_api")
+            .setPredicateItems(new HashSet<ApiPredicateItem>(Arrays.asList(
+                prefix("/product/**"),
+                exact("/item")
+            )));
+        ApiDefinition detailApi = new ApiDefinition("detail_api")
+            .setPredicateItems(new HashSet<ApiPredicateItem>(Arrays.asList(
+                prefix("/product/detail/**"),
+                regex("/order/\\d+")
+            )));
+        ApiDefinition allApi = new ApiDefinition("all_api")
+            .setPredicateItems(new HashSet<ApiPredicateItem>(Arrays.asList(
+                prefix("/**"),
+                // Prefix pattern without wildcard never matches.
+                prefix("/never")
+            )));
+        ApiPathMatcherIndex index = new ApiPathMatcherIndex(Arrays.asList(productApi, detailApi, allApi));
+
+        assertThat(index.match("/product/detail/1")).containsOnly("product_api", "detail_api", "all_api");
+        assertThat(index.match("/product")).containsOnly("product_api", "all_api");
+        assertThat(index.match("/products")).containsOnly("all_api");
+        assertThat(index.match("/item")).containsOnly("all_api", "product_api");
+        assertThat(index.match("/item/1")).containsOnly("all_api");
+        assertThat(index.match("/order/12")).containsOnly("all_api", "detail_api");
+        assertThat(index.match("/order/ab")).containsOnly("all_api");
+        assertThat(index.match("/never")).containsOnly("all_api");
+    }
+
+    @Test
+    public void testMatchOtherPatterns() {
+        ApiDefinition api = new ApiDefinition("api")
+            .setPredicateItems(new HashSet<ApiPredicateItem>(Arrays.asList(
+                prefix("/a/*/c/**"),
+                regex("^/b/.*")
+            )));
+        ApiPathMatcherIndex index = new ApiPathMatcherIndex(Arrays.asList(api));
+
+        assertThat(index.match("/a/x/c/d")).containsOnly("api");
+        assertThat(index.match("/b/c")).containsOnly("api");
+        assertThat(index.match("/c")).isEmpty();
+        assertThat(new ApiPathMatcherIndex(null).match("/c")).isEmpty();
+    }
+
+    @Test
+    public void testLiteralPrefixOfRegex() {
+        assertThat(ApiPathMatcherIndex.literalPrefixOf("/order/\\d+")).isEqualTo("/order/");
+        assertThat(ApiPathMatcherIndex.literalPrefixOf("^/b/.*")).isEqualTo("/b/");
+        assertThat(ApiPathMatcherIndex.literalPrefixOf("/items?")).isEqualTo("/item");
+        assertThat(ApiPathMatcherIndex.literalPrefixOf("/a|/b")).isEmpty();
+    }
+
+    private static ApiPathPredicateItem exact(String pattern) {
+        return new ApiPathPredicateItem().setPattern(pattern);
+    }
+
+    private static ApiPathPredicateItem prefix(String pattern) {
+        return new ApiPathPredicateItem().setPattern(pattern)
+            .setMatchStrategy(SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX);
+    }
+
+    private static ApiPathPredicateItem regex(String pattern) {
+        return new ApiPathPredicateItem().setPattern(pattern)
+            .setMatchStrategy(SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX);
+    }
+}
@@ -20,7 +20,7 @@ import java.util.Optional;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
 import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
-import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelFusedTransformer;
 import com.alibaba.csp.sentinel.adapter.spring.webflux.callback.WebFluxCallbackManager;
 
 import org.springframework.web.server.ServerWebExchange;
@@ -40,7 +40,7 @@ public class SentinelWebFluxFilter implements WebFilter {
             .transform(buildSentinelTransformer(exchange));
     }
 
-    private SentinelReactorTransformer<Void> buildSentinelTransformer(ServerWebExchange exchange) {
+    private SentinelFusedTransformer<Void> buildSentinelTransformer(ServerWebExchange exchange) {
         // Maybe we can get the URL pattern elsewhere via:
         // exchange.getAttributeOrDefault(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, path)
 
@@ -52,7 +52,8 @@ public class SentinelWebFluxFilter implements WebFilter {
             .map(f -> f.apply(exchange))
             .orElse(EMPTY_ORIGIN);
 
-        return new SentinelReactorTransformer<>(
+        // The filter chain emits no value, so the lean operator could be used.
+        return new SentinelFusedTransformer<>(
             new EntryConfig(finalPath, EntryType.IN, new ContextConfig(finalPath, origin)));
     }
 
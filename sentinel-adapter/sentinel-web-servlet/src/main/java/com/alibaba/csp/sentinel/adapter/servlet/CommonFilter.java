@@ -26,7 +26,7 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryGroup;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
@@ -35,7 +35,10 @@ import com.alibaba.csp.sentinel.adapter.servlet.callback.UrlCleaner;
 import com.alibaba.csp.sentinel.adapter.servlet.callback.WebCallbackManager;
 import com.alibaba.csp.sentinel.adapter.servlet.config.WebServletConfig;
 import com.alibaba.csp.sentinel.adapter.servlet.util.FilterUtil;
+import com.alibaba.csp.sentinel.adapter.servlet.util.UrlResource;
+import com.alibaba.csp.sentinel.adapter.servlet.util.UrlResourceCache;
 import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -48,42 +51,71 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 public class CommonFilter implements Filter {
 
     private final static String HTTP_METHOD_SPECIFY = "HTTP_METHOD_SPECIFY";
+    /**
+     * Max amount of request URIs whose cleaned targets are cached. The cache is disabled by default
+     * (or if not positive). Note that the cleaned target is cached per raw request URI, so it should only
+     * be enabled when the {@link UrlCleaner} depends on nothing but the request URI.
+     */
+    private final static String URL_RESOURCE_CACHE_SIZE = "URL_RESOURCE_CACHE_SIZE";
     private final static String COLON = ":";
     private boolean httpMethodSpecify = false;
+    private UrlResourceCache urlResourceCache = null;
 
     @Override
     public void init(FilterConfig filterConfig) {
         httpMethodSpecify = Boolean.parseBoolean(filterConfig.getInitParameter(HTTP_METHOD_SPECIFY));
+        int capacity = parseUrlResourceCacheSize(filterConfig.getInitParameter(URL_RESOURCE_CACHE_SIZE));
+        if (capacity > 0) {
+            urlResourceCache = new UrlResourceCache(capacity);
+        }
+    }
+
+    private int parseUrlResourceCacheSize(String cacheSize) {
+        if (StringUtil.isBlank(cacheSize)) {
+            return 0;
+        }
+        try {
+            int capacity = Integer.parseInt(cacheSize.trim());
+            if (capacity < 0) {
+                RecordLog.warn("[CommonFilter] Negative " + URL_RESOURCE_CACHE_SIZE + ": " + cacheSize
+                    + ", the URL resource cache is disabled");
+                return 0;
+            }
+            return capacity;
+        } catch (NumberFormatException ex) {
+            RecordLog.warn("[CommonFilter] Invalid " + URL_RESOURCE_CACHE_SIZE + ": " + cacheSize
+                + ", the URL resource cache is disabled", ex);
+            return 0;
+        }
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         HttpServletRequest sRequest = (HttpServletRequest) request;
-        Entry urlEntry = null;
-        Entry httpMethodUrlEntry = null;
+        EntryGroup urlEntries = null;
 
         try {
-            String target = FilterUtil.filterTarget(sRequest);
-            // Clean and unify the URL.
-            // For REST APIs, you have to clean the URL (e.g. `/foo/1` and `/foo/2` -> `/foo/:id`), or
-            // the amount of context and resources will exceed the threshold.
-            UrlCleaner urlCleaner = WebCallbackManager.getUrlCleaner();
-            if (urlCleaner != null) {
-                target = urlCleaner.clean(target);
-            }
-
-            // If you intend to exclude some URLs, you can convert the URLs to the empty string ""
-            // in the UrlCleaner implementation.
-            if (!StringUtil.isEmpty(target)) {
-                // Parse the request origin using registered origin parser.
-                String origin = parseOrigin(sRequest);
-                ContextUtil.enter(WebServletConfig.WEB_SERVLET_CONTEXT_NAME, origin);
-                urlEntry = SphU.entry(target, EntryType.IN);
-                // Add method specification if necessary
-                if (httpMethodSpecify) {
-                    httpMethodUrlEntry = SphU.entry(sRequest.getMethod().toUpperCase() + COLON + target,
-                            EntryType.IN);
+            UrlResourceCache urlResourceCache = this.urlResourceCache;
+            if (urlResourceCache == null) {
+                String target = cleanTarget(sRequest, WebCallbackManager.getUrlCleaner());
+                // If you intend to exclude some URLs, you can convert the URLs to the empty string ""
+                // in the UrlCleaner implementation.
+                if (!StringUtil.isEmpty(target)) {
+                    enterContext(sRequest);
+                    // Add method specification if necessary. The URL and the method URL are entered as a group,
+                    // so they share the context and are exited together.
+                    String[] resources = httpMethodSpecify
+                        ? new String[] {target, sRequest.getMethod().toUpperCase() + COLON + target}
+                        : new String[] {target};
+                    urlEntries = SphU.entryGroup(resources, EntryType.IN);
+                }
+            } else {
+                UrlResource urlResource = resolveUrlResource(sRequest, urlResourceCache);
+                if (!urlResource.isExcluded()) {
+                    enterContext(sRequest);
+                    urlEntries = SphU.entryGroup(httpMethodSpecify ? urlResource.getHandles(sRequest.getMethod())
+                        : urlResource.getHandles());
                 }
             }
             chain.doFilter(request, response);
@@ -92,20 +124,44 @@ public class CommonFilter implements Filter {
             // Return the block page, or redirect to another URL.
             WebCallbackManager.getUrlBlockHandler().blocked(sRequest, sResponse, e);
         } catch (IOException | ServletException | RuntimeException e2) {
-            Tracer.traceEntry(e2, urlEntry);
-            Tracer.traceEntry(e2, httpMethodUrlEntry);
+            Tracer.traceEntryGroup(e2, urlEntries);
             throw e2;
         } finally {
-            if (httpMethodUrlEntry != null) {
-                httpMethodUrlEntry.exit();
-            }
-            if (urlEntry != null) {
-                urlEntry.exit();
+            if (urlEntries != null) {
+                urlEntries.exit();
             }
             ContextUtil.exit();
         }
     }
 
+    private UrlResource resolveUrlResource(HttpServletRequest request, UrlResourceCache urlResourceCache) {
+        UrlCleaner urlCleaner = WebCallbackManager.getUrlCleaner();
+        String requestUri = request.getRequestURI();
+        UrlResource urlResource = urlResourceCache.get(requestUri, urlCleaner);
+        if (urlResource != null) {
+            return urlResource;
+        }
+        return urlResourceCache.put(requestUri, urlCleaner, cleanTarget(request, urlCleaner));
+    }
+
+    private String cleanTarget(HttpServletRequest request, UrlCleaner urlCleaner) {
+        String target = FilterUtil.filterTarget(request);
+        // Clean and unify the URL.
+        // For REST APIs, you have to clean the URL (e.g. `/foo/1` and `/foo/2` -> `/foo/:id`), or
+        // the amount of context and resources will exceed the threshold.
+        // See UrlTemplateCleaner for the built-in route template cleaner.
+        if (urlCleaner != null) {
+            target = urlCleaner.clean(target);
+        }
+        return target;
+    }
+
+    private void enterContext(HttpServletRequest request) {
+        // Parse the request origin using registered origin parser.
+        String origin = parseOrigin(request);
+        ContextUtil.enter(WebServletConfig.WEB_SERVLET_CONTEXT_NAME, origin);
+    }
+
     private String parseOrigin(HttpServletRequest request) {
         RequestOriginParser originParser = WebCallbackManager.getRequestOriginParser();
         String origin = EMPTY_ORIGIN;
@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.callback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>A {@link UrlCleaner} that normalizes URLs to the matching route templates, so that REST URLs with
+ * path variables share one resource, e.g. {@code /users/1/orders/2} will be converted to
+ * {@code /users/{userId}/orders/{orderId}}.</p>
+ *
+ * <p>The templates are compiled to a segment tree, where each segment of a template could be:</p>
+ * <ul>
+ *   <li>a literal segment, which matches the same segment only</li>
+ *   <li>a path variable ({@code {name}} or {@code *}), which matches any non-empty segment</li>
+ *   <li>{@code **} as the last segment, which matches all remaining segments</li>
+ * </ul>
+ * <p>Literal segments take precedence over path variables. The URLs matching no template are kept as is,
+ * or converted to the empty string (excluded from Sentinel) if {@code excludeUnmatched} is set.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class UrlTemplateCleaner implements UrlCleaner {
+
+    private static final String PATH_SPLIT = "/";
+    private static final String WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Node root = new Node(null);
+    private final boolean excludeUnmatched;
+
+    public UrlTemplateCleaner(Collection<String> templates) {
+        this(templates, false);
+    }
+
+    /**
+     * @param templates        route templates, e.g. {@code /users/{userId}}
+     * @param excludeUnmatched whether the URLs matching no template should be excluded
+     */
+    public UrlTemplateCleaner(Collection<String> templates, boolean excludeUnmatched) {
+        AssertUtil.notNull(templates, "templates cannot be null");
+        for (String template : templates) {
+            addTemplate(template);
+        }
+        this.excludeUnmatched = excludeUnmatched;
+    }
+
+    private void addTemplate(String template) {
+        AssertUtil.isTrue(StringUtil.isNotBlank(template) && template.startsWith(PATH_SPLIT),
+            "template should start with /: " + template);
+        String[] segments = template.substring(1).split(PATH_SPLIT);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                // Tolerate the trailing slash.
+                AssertUtil.isTrue(i == segments.length - 1, "empty segment in template: " + template);
+                break;
+            }
+            if (MULTI_WILDCARD.equals(segment)) {
+                AssertUtil.isTrue(i == segments.length - 1, "** should be the last segment: " + template);
+                if (node.restTemplate == null) {
+                    node.restTemplate = template;
+                }
+                return;
+            }
+            node = isVariable(segment) ? node.variableChild() : node.literalChild(segment);
+        }
+        if (node.template == null) {
+            node.template = template;
+        }
+    }
+
+    private static boolean isVariable(String segment) {
+        return WILDCARD.equals(segment) || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    @Override
+    public String clean(String originUrl) {
+        if (originUrl == null || !originUrl.startsWith(PATH_SPLIT)) {
+            return originUrl;
+        }
+        String template = match(root, originUrl, 1);
+        if (template != null) {
+            return template;
+        }
+        return excludeUnmatched ? "" : originUrl;
+    }
+
+    private static String match(Node node, String url, int start) {
+        int length = url.length();
+        if (start >= length) {
+            return node.template != null ? node.template : node.restTemplate;
+        }
+        int end = url.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+        int segmentLength = end - start;
+        int next = end + 1;
+        List<Node> literalChildren = node.literalChildren;
+        for (int i = 0; i < literalChildren.size(); i++) {
+            Node child = literalChildren.get(i);
+            String segment = child.segment;
+            if (segment.length() == segmentLength && url.regionMatches(start, segment, 0, segmentLength)) {
+                String template = match(child, url, next);
+                if (template != null) {
+                    return template;
+                }
+            }
+        }
+        if (node.variableChild != null && segmentLength > 0) {
+            String template = match(node.variableChild, url, next);
+            if (template != null) {
+                return template;
+            }
+        }
+        return node.restTemplate;
+    }
+
+    private static final class Node {
+
+        private final String segment;
+        private final List<Node> literalChildren = new ArrayList<>();
+        private Node variableChild;
+
+        /**
+         * The template ending at this node.
+         */
+        private String template;
+        /**
+         * The template ending with {@code **} at this node.
+         */
+        private String restTemplate;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node literalChild(String segment) {
+            for (Node child : literalChildren) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            literalChildren.add(child);
+            return child;
+        }
+
+        private Node variableChild() {
+            if (variableChild == null) {
+                variableChild = new Node(null);
+            }
+            return variableChild;
+        }
+    }
+}
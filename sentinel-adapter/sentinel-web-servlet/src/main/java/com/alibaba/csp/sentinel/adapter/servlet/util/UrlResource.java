@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.util;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceHandle;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * The resource of a cleaned URL target, with pre-resolved handles of the URL resource and
+ * the HTTP method specified URL resources (e.g. {@code GET:/foo}).
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class UrlResource {
+
+    private static final String COLON = ":";
+    private static final String[] HTTP_METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS",
+        "TRACE"};
+
+    private final String target;
+    private final ResourceHandle[] urlHandles;
+    /**
+     * Handles of the URL resource and the method URL resource, indexed as {@link #HTTP_METHODS}.
+     */
+    private final ResourceHandle[][] methodUrlHandles;
+
+    UrlResource(String target) {
+        this.target = target;
+        if (StringUtil.isEmpty(target)) {
+            this.urlHandles = null;
+            this.methodUrlHandles = null;
+        } else {
+            this.urlHandles = new ResourceHandle[] {ResourceHandle.of(target, EntryType.IN)};
+            // Built eagerly, so that the handles are safely published by the final field.
+            this.methodUrlHandles = new ResourceHandle[HTTP_METHODS.length][];
+            for (int i = 0; i < HTTP_METHODS.length; i++) {
+                methodUrlHandles[i] = newMethodUrlHandles(HTTP_METHODS[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the cleaned URL target
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return true if the URL is excluded from Sentinel, i.e. the cleaned target is empty
+     */
+    public boolean isExcluded() {
+        return urlHandles == null;
+    }
+
+    /**
+     * Get the handles of the URL resource.
+     *
+     * @return handles of the URL resource
+     */
+    public ResourceHandle[] getHandles() {
+        return urlHandles;
+    }
+
+    /**
+     * Get the handles of the URL resource and the method URL resource.
+     *
+     * @param httpMethod the HTTP method of the request
+     * @return handles of the URL resource and the method URL resource
+     */
+    public ResourceHandle[] getHandles(String httpMethod) {
+        int index = indexOf(httpMethod);
+        if (index < 0) {
+            return newMethodUrlHandles(httpMethod.toUpperCase());
+        }
+        return methodUrlHandles[index];
+    }
+
+    private ResourceHandle[] newMethodUrlHandles(String httpMethod) {
+        return new ResourceHandle[] {urlHandles[0], ResourceHandle.of(httpMethod + COLON + target, EntryType.IN)};
+    }
+
+    private static int indexOf(String httpMethod) {
+        for (int i = 0; i < HTTP_METHODS.length; i++) {
+            if (HTTP_METHODS[i].equals(httpMethod)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
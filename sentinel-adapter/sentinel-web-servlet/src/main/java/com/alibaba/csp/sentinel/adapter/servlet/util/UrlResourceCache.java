@@ -0,0 +1,159 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.adapter.servlet.callback.UrlCleaner;
+
+/**
+ * <p>A bounded cache from the raw request URI to the {@link UrlResource} of the cleaned target, so the
+ * target needn't be filtered and cleaned for every request. The raw URIs of the same target share the
+ * same {@link UrlResource} (and thus the pre-resolved resource handles).</p>
+ *
+ * <p>The cached targets are bound to the {@link UrlCleaner} that produced them, so the cache will be dropped
+ * once the URL cleaner is replaced. When the cache exceeds its capacity, the eldest entries are evicted.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class UrlResourceCache {
+
+    private final int capacity;
+    private final AtomicReference<Generation> generation = new AtomicReference<>();
+
+    /**
+     * @param capacity max amount of cached URIs; the cache is disabled if not positive
+     */
+    public UrlResourceCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the cached resource of the request URI.
+     *
+     * @param requestUri raw request URI
+     * @param urlCleaner current URL cleaner
+     * @return the cached resource, or null if absent
+     */
+    public UrlResource get(String requestUri, UrlCleaner urlCleaner) {
+        Generation current = generation.get();
+        if (current == null || current.urlCleaner != urlCleaner) {
+            return null;
+        }
+        return current.resourceByUri.get(requestUri);
+    }
+
+    /**
+     * Cache the cleaned target of the request URI.
+     *
+     * @param requestUri raw request URI
+     * @param urlCleaner the URL cleaner that produced the target
+     * @param target     cleaned target of the request URI
+     * @return the resource of the target
+     */
+    public UrlResource put(String requestUri, UrlCleaner urlCleaner, String target) {
+        if (target == null) {
+            target = "";
+        }
+        if (capacity <= 0) {
+            return new UrlResource(target);
+        }
+        Generation current = currentGeneration(urlCleaner);
+        UrlResource resource = current.resourceByTarget.get(target);
+        if (resource == null) {
+            resource = new UrlResource(target);
+            UrlResource old = current.resourceByTarget.putIfAbsent(target, resource);
+            if (old != null) {
+                resource = old;
+            }
+        }
+        current.resourceByUri.putIfAbsent(requestUri, resource);
+        return resource;
+    }
+
+    private Generation currentGeneration(UrlCleaner urlCleaner) {
+        while (true) {
+            Generation current = generation.get();
+            if (current != null && current.urlCleaner == urlCleaner) {
+                return current;
+            }
+            // Start a new generation, so that stale targets computed concurrently would be put to the old one.
+            Generation next = new Generation(urlCleaner, capacity);
+            if (generation.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Drop all cached resources.
+     */
+    public void clear() {
+        generation.set(null);
+    }
+
+    private static final class Generation {
+
+        private final UrlCleaner urlCleaner;
+        private final BoundedMap<String, UrlResource> resourceByUri;
+        private final BoundedMap<String, UrlResource> resourceByTarget;
+
+        private Generation(UrlCleaner urlCleaner, int capacity) {
+            this.urlCleaner = urlCleaner;
+            this.resourceByUri = new BoundedMap<>(capacity);
+            this.resourceByTarget = new BoundedMap<>(capacity);
+        }
+    }
+
+    /**
+     * A concurrent map which evicts the eldest entries (in insertion order) once it exceeds the capacity.
+     */
+    private static final class BoundedMap<K, V> {
+
+        private final int capacity;
+        private final ConcurrentMap<K, V> map = new ConcurrentHashMap<>();
+        private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+        private BoundedMap(int capacity) {
+            this.capacity = capacity;
+        }
+
+        V get(K key) {
+            return map.get(key);
+        }
+
+        V putIfAbsent(K key, V value) {
+            V old = map.putIfAbsent(key, value);
+            if (old == null) {
+                // Each key present in the map is queued exactly once.
+                insertionOrder.offer(key);
+                while (map.size() > capacity) {
+                    K eldest = insertionOrder.poll();
+                    if (eldest == null) {
+                        break;
+                    }
+                    map.remove(eldest);
+                }
+            }
+            return old;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.callback;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class UrlTemplateCleanerTest {
+
+    @Test
+    public void testCleanWithTemplates() {
+        UrlCleaner cleaner = new UrlTemplateCleaner(Arrays.asList(
+            "/users/{userId}",
+            "/users/{userId}/orders/{orderId}",
+            "/users/me",
+            "/items/*/detail",
+            "/static/**",
+            "/"
+        ));
+        assertEquals("/users/{userId}", cleaner.clean("/users/1"));
+        assertEquals("/users/{userId}", cleaner.clean("/users/1/"));
+        assertEquals("/users/{userId}/orders/{orderId}", cleaner.clean("/users/1/orders/2"));
+        // Literal segments take precedence.
+        assertEquals("/users/me", cleaner.clean("/users/me"));
+        assertEquals("/users/{userId}/orders/{orderId}", cleaner.clean("/users/me/orders/2"));
+        assertEquals("/items/*/detail", cleaner.clean("/items/abc/detail"));
+        assertEquals("/static/**", cleaner.clean("/static/js/app.js"));
+        assertEquals("/static/**", cleaner.clean("/static"));
+        assertEquals("/", cleaner.clean("/"));
+
+        // Unmatched URLs are kept.
+        assertEquals("/users", cleaner.clean("/users"));
+        assertEquals("/users/1/orders", cleaner.clean("/users/1/orders"));
+        assertEquals("/items//detail", cleaner.clean("/items//detail"));
+    }
+
+    @Test
+    public void testExcludeUnmatched() {
+        UrlCleaner cleaner = new UrlTemplateCleaner(Collections.singletonList("/users/{userId}"), true);
+        assertEquals("/users/{userId}", cleaner.clean("/users/1"));
+        assertEquals("", cleaner.clean("/orders/1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiWildcardNotLast() {
+        new UrlTemplateCleaner(Collections.singletonList("/static/**/foo"));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.servlet.util;
+
+import com.alibaba.csp.sentinel.ResourceHandle;
+import com.alibaba.csp.sentinel.adapter.servlet.callback.DefaultUrlCleaner;
+import com.alibaba.csp.sentinel.adapter.servlet.callback.UrlCleaner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class UrlResourceCacheTest {
+
+    @Test
+    public void testSharedResourceOfTarget() {
+        UrlResourceCache cache = new UrlResourceCache(16);
+        UrlCleaner cleaner = new DefaultUrlCleaner();
+        assertNull(cache.get("/foo/1", cleaner));
+
+        UrlResource resource = cache.put("/foo/1", cleaner, "/foo/*");
+        assertSame(resource, cache.get("/foo/1", cleaner));
+        assertSame(resource, cache.put("/foo/2", cleaner, "/foo/*"));
+        assertFalse(resource.isExcluded());
+        assertEquals("/foo/*", resource.getHandles()[0].getName());
+
+        ResourceHandle[] handles = resource.getHandles("GET");
+        assertSame(handles, resource.getHandles("GET"));
+        assertSame(resource.getHandles()[0], handles[0]);
+        assertEquals("GET:/foo/*", handles[1].getName());
+        assertEquals("LOCK:/foo/*", resource.getHandles("lock")[1].getName());
+
+        assertTrue(cache.put("/exclude/1", cleaner, "").isExcluded());
+        assertTrue(cache.put("/exclude/2", cleaner, null).isExcluded());
+    }
+
+    @Test
+    public void testDropOnCleanerChanged() {
+        UrlResourceCache cache = new UrlResourceCache(16);
+        UrlCleaner cleaner = new DefaultUrlCleaner();
+        cache.put("/foo/1", cleaner, "/foo/1");
+        assertNotNull(cache.get("/foo/1", cleaner));
+        assertNull(cache.get("/foo/1", new DefaultUrlCleaner()));
+
+        UrlResourceCache disabled = new UrlResourceCache(0);
+        disabled.put("/foo/1", cleaner, "/foo/1");
+        assertNull(disabled.get("/foo/1", cleaner));
+    }
+
+    @Test
+    public void testEvictEldestWhenFull() {
+        UrlResourceCache cache = new UrlResourceCache(2);
+        UrlCleaner cleaner = new DefaultUrlCleaner();
+        cache.put("/foo/1", cleaner, "/foo/1");
+        UrlResource resource2 = cache.put("/foo/2", cleaner, "/foo/2");
+        UrlResource resource3 = cache.put("/foo/3", cleaner, "/foo/3");
+
+        // Only the eldest entry is evicted, while the others are kept.
+        assertNull(cache.get("/foo/1", cleaner));
+        assertSame(resource2, cache.get("/foo/2", cleaner));
+        assertSame(resource3, cache.get("/foo/3", cleaner));
+
+        UrlResource resource4 = cache.put("/foo/4", cleaner, "/foo/4");
+        assertNull(cache.get("/foo/2", cleaner));
+        assertSame(resource3, cache.get("/foo/3", cleaner));
+        assertSame(resource4, cache.get("/foo/4", cleaner));
+    }
+}
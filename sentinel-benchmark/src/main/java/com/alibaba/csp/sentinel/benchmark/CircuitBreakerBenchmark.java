@@ -0,0 +1,94 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for entry and exit of a resource guarded by a degrade rule of given grade, which never trips.
+ * Run with {@code -prof gc} to check the allocation of the circuit breakers.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-circuit-breaker";
+
+    @Param({"0", "1", "3"})
+    private int grade;
+
+    @Setup
+    public void prepare() {
+        DegradeRule rule = new DegradeRule(RESOURCE_NAME)
+            .setGrade(grade)
+            .setTimeWindow(10)
+            .setMinRequestAmount(Integer.MAX_VALUE);
+        if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO) {
+            rule.setCount(1);
+        } else {
+            rule.setCount(4000);
+        }
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+    }
+
+    private void doEntry() {
+        Entry e = null;
+        try {
+            e = SphU.entry(RESOURCE_NAME);
+        } catch (BlockException ex) {
+            // Ignore.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testEntryAndExit1Thread() {
+        doEntry();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testEntryAndExit4Threads() {
+        doEntry();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.DefaultRequestEntityWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.DefaultResponseEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowResponseDataDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.ParamFlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.registry.RequestDataWriterRegistry;
+import com.alibaba.csp.sentinel.cluster.client.codec.registry.ResponseDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultRequestEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultResponseEntityWriter;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowResponseDataWriter;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.ParamFlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.RequestDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.ResponseDataWriterRegistry;
+import com.alibaba.csp.sentinel.cluster.server.recycle.Recyclable;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode/decode throughput of the cluster token protocol on direct buffers.
+ *
+ * <p>The benchmarks should be run with {@code -prof gc}. The server side (request decoding and response encoding)
+ * works on pooled entities, so its normalized allocation rate ({@code gc.alloc.rate.norm}) should be nearly zero
+ * for flow requests.</p>
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ClusterCodecBenchmark {
+
+    private final DefaultRequestEntityWriter requestWriter = new DefaultRequestEntityWriter();
+    private final DefaultRequestEntityDecoder requestDecoder = new DefaultRequestEntityDecoder();
+    private final DefaultResponseEntityWriter responseWriter = new DefaultResponseEntityWriter();
+    private final DefaultResponseEntityDecoder responseDecoder = new DefaultResponseEntityDecoder();
+
+    private ClusterRequest<FlowRequestData> flowRequest;
+
+    private ByteBuf buf;
+    private ByteBuf flowRequestFrame;
+    private ByteBuf paramFlowRequestFrame;
+    private ByteBuf flowResponseFrame;
+
+    @Setup
+    public void prepare() {
+        RequestDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_PARAM_FLOW, new ParamFlowRequestDataWriter());
+        ResponseDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_FLOW, new FlowResponseDataDecoder());
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestDataDecoder());
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_PARAM_FLOW, new ParamFlowRequestDataDecoder());
+        ResponseDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_FLOW, new FlowResponseDataWriter());
+
+        buf = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+
+        flowRequest = new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(111L).setCount(1).setPriority(false));
+        flowRequestFrame = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+        requestWriter.writeTo(flowRequest, flowRequestFrame);
+
+        List<Object> params = new ArrayList<>();
+        params.add(12345);
+        params.add("sentinel");
+        ClusterRequest<ParamFlowRequestData> paramFlowRequest = new ClusterRequest<>(2,
+            ClusterConstants.MSG_TYPE_PARAM_FLOW,
+            new ParamFlowRequestData().setFlowId(222L).setCount(1).setParams(params));
+        paramFlowRequestFrame = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+        requestWriter.writeTo(paramFlowRequest, paramFlowRequestFrame);
+
+        flowResponseFrame = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+        responseWriter.writeTo(new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            ClusterConstants.RESPONSE_STATUS_OK, new FlowTokenResponseData().setRemainingCount(10)), flowResponseFrame);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+        flowRequestFrame.release();
+        paramFlowRequestFrame.release();
+        flowResponseFrame.release();
+    }
+
+    @Benchmark
+    public int testEncodeFlowRequest() {
+        buf.clear();
+        requestWriter.writeTo(flowRequest, buf);
+        return buf.writerIndex();
+    }
+
+    @Benchmark
+    public int testDecodeFlowRequest() {
+        flowRequestFrame.readerIndex(0);
+        ClusterRequest request = requestDecoder.decode(flowRequestFrame);
+        int id = request.getId();
+        ((Recyclable)request).recycle();
+        return id;
+    }
+
+    @Benchmark
+    public int testDecodeParamFlowRequest() {
+        paramFlowRequestFrame.readerIndex(0);
+        ClusterRequest request = requestDecoder.decode(paramFlowRequestFrame);
+        int id = request.getId();
+        ((Recyclable)request).recycle();
+        return id;
+    }
+
+    @Benchmark
+    public int testEncodeFlowResponse() {
+        buf.clear();
+        FlowTokenResponseData data = RecyclableFlowTokenResponseData.newInstance(10, 0);
+        RecyclableClusterResponse<FlowTokenResponseData> response = RecyclableClusterResponse.newInstance(1,
+            ClusterConstants.MSG_TYPE_FLOW, ClusterConstants.RESPONSE_STATUS_OK, data);
+        responseWriter.writeTo(response, buf);
+        response.recycle();
+        return buf.writerIndex();
+    }
+
+    @Benchmark
+    public ClusterResponse testDecodeFlowResponse() {
+        flowResponseFrame.readerIndex(0);
+        return responseDecoder.decode(flowResponseFrame);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.init.DefaultClusterClientInitFunc;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.NettyTransportServer;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.init.DefaultClusterServerInitFunc;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loopback load test of the token server, comparing the event-loop execution mode ({@code shardCount = 0})
+ * with the sharded mode. Each benchmark thread drives its own client connection and requests tokens of
+ * random flows.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClusterTokenServerBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+    private static final int PORT = 18730;
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        @Param({"0", "4"})
+        private int shardCount;
+
+        @Param({"64"})
+        private int flowCount;
+
+        private NettyTransportServer server;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            new DefaultClusterServerInitFunc().init();
+            new DefaultClusterClientInitFunc().init();
+            ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(1000));
+            ClusterServerConfigManager.setMaxAllowedQps(Double.MAX_VALUE);
+
+            List<FlowRule> rules = new ArrayList<>(flowCount);
+            for (int i = 1; i <= flowCount; i++) {
+                rules.add(new FlowRule("resource-" + i)
+                    .setCount(Integer.MAX_VALUE)
+                    .setClusterMode(true)
+                    .setClusterConfig(new ClusterFlowConfig()
+                        .setFlowId((long)i)
+                        .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL)));
+            }
+            ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+            ClusterFlowRuleManager.loadRules(NAMESPACE, rules);
+
+            server = new NettyTransportServer(PORT, shardCount);
+            server.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+
+        private NettyTransportClient client;
+        private int flowCount;
+
+        @Setup(Level.Trial)
+        public void setUp(ServerState serverState) throws Exception {
+            this.flowCount = serverState.flowCount;
+            client = new NettyTransportClient("127.0.0.1", PORT);
+            client.start();
+            while (!client.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            client.stop();
+        }
+    }
+
+    private ClusterResponse doRequest(ClientState state) throws Exception {
+        long flowId = ThreadLocalRandom.current().nextInt(state.flowCount) + 1;
+        FlowRequestData data = new FlowRequestData().setFlowId(flowId).setCount(1);
+        return state.client.sendRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ClusterResponse requestToken8Clients(ServerState server, ClientState client) throws Exception {
+        return doRequest(client);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public ClusterResponse requestToken32Clients(ServerState server, ClientState client) throws Exception {
+        return doRequest(client);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamParser;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.RequestItemParser;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayParamFlowItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager;
+import com.alibaba.csp.sentinel.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for parsing gateway parameters of a request, which matches a route and two customized APIs
+ * with several parameter rules. The request carries headers, URL parameters and cookies of a typical
+ * browser request, backed by maps as in a Spring Cloud Gateway exchange.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GatewayParamParserBenchmark {
+
+    private static final String ROUTE_ID = "product_route";
+    private static final String API_NAME_1 = "product_detail_api";
+    private static final String API_NAME_2 = "product_search_api";
+
+    private static final Predicate<GatewayFlowRule> ROUTE_PREDICATE = new Predicate<GatewayFlowRule>() {
+        @Override
+        public boolean test(GatewayFlowRule rule) {
+            return rule.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_ROUTE_ID;
+        }
+    };
+    private static final Predicate<GatewayFlowRule> API_PREDICATE = new Predicate<GatewayFlowRule>() {
+        @Override
+        public boolean test(GatewayFlowRule rule) {
+            return rule.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME;
+        }
+    };
+
+    private final GatewayParamParser<MockRequest> paramParser = new GatewayParamParser<>(new MockRequestItemParser());
+    private final MockRequest request = new MockRequest();
+
+    @Setup
+    public void prepare() {
+        Set<GatewayFlowRule> rules = new HashSet<>();
+        rules.add(new GatewayFlowRule(ROUTE_ID).setCount(1000));
+        rules.add(new GatewayFlowRule(ROUTE_ID).setCount(100)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_CLIENT_IP)));
+        rules.add(new GatewayFlowRule(ROUTE_ID).setCount(50)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName("X-User-Id")));
+        rules.add(new GatewayFlowRule(ROUTE_ID).setCount(10)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName("X-User-Id")
+                .setPattern("vip-.*")
+                .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX)));
+        rules.add(new GatewayFlowRule(ROUTE_ID).setCount(200)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST)));
+        rules.add(new GatewayFlowRule(API_NAME_1).setCount(20)
+            .setResourceMode(SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM)
+                .setFieldName("productId")));
+        rules.add(new GatewayFlowRule(API_NAME_1).setCount(5)
+            .setResourceMode(SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE)
+                .setFieldName("SESSION")));
+        rules.add(new GatewayFlowRule(API_NAME_2).setCount(30)
+            .setResourceMode(SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM)
+                .setFieldName("keyword")
+                .setPattern("phone")
+                .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS)));
+        GatewayRuleManager.loadRules(rules);
+
+        request.remoteAddress = "10.12.34.56";
+        request.headers.put("Host", "api.example.com");
+        request.headers.put("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_14_6) AppleWebKit/537.36");
+        request.headers.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        request.headers.put("Accept-Encoding", "gzip, deflate, br");
+        request.headers.put("Accept-Language", "en-US,en;q=0.9,zh-CN;q=0.8");
+        request.headers.put("Cache-Control", "no-cache");
+        request.headers.put("Connection", "keep-alive");
+        request.headers.put("X-Forwarded-For", "10.12.34.56, 10.0.0.1");
+        request.headers.put("X-Request-Id", "3f2a9c1e-7b4d-4e0a-9f1c-2d3e4f5a6b7c");
+        request.headers.put("X-User-Id", "vip-10086");
+        request.urlParams.put("productId", "1234567");
+        request.urlParams.put("keyword", "smart phone");
+        request.urlParams.put("page", "2");
+        request.cookies.put("SESSION", "MTIzNDU2Nzg5MGFiY2RlZg");
+        request.cookies.put("locale", "en_US");
+    }
+
+    @TearDown
+    public void tearDown() {
+        GatewayRuleManager.loadRules(new HashSet<GatewayFlowRule>());
+    }
+
+    @Benchmark
+    public void testParseRouteAndApis(Blackhole blackhole) {
+        blackhole.consume(paramParser.parseParameterFor(ROUTE_ID, request, ROUTE_PREDICATE));
+        blackhole.consume(paramParser.parseParameterFor(API_NAME_1, request, API_PREDICATE));
+        blackhole.consume(paramParser.parseParameterFor(API_NAME_2, request, API_PREDICATE));
+    }
+
+    static class MockRequest {
+        String remoteAddress;
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final Map<String, String> urlParams = new HashMap<>();
+        final Map<String, String> cookies = new HashMap<>();
+    }
+
+    static class MockRequestItemParser implements RequestItemParser<MockRequest> {
+
+        @Override
+        public String getPath(MockRequest request) {
+            return "/product/detail";
+        }
+
+        @Override
+        public String getRemoteAddress(MockRequest request) {
+            return request.remoteAddress;
+        }
+
+        @Override
+        public String getHeader(MockRequest request, String key) {
+            return request.headers.get(key);
+        }
+
+        @Override
+        public String getUrlParam(MockRequest request, String paramName) {
+            return request.urlParams.get(paramName);
+        }
+
+        @Override
+        public String getCookieValue(MockRequest request, String cookieName) {
+            return request.cookies.get(cookieName);
+        }
+    }
+}
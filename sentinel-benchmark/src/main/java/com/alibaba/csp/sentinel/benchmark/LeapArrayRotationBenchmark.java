@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for bucket rotation of {@link BucketLeapArray} at window boundaries.
+ *
+ * <p>The leap array is driven by a scaled clock (one "millisecond" equals {@code tickNanos} nanoseconds)
+ * and has two buckets of one tick each, so that nearly every tick all threads race on a deprecated bucket.</p>
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayRotationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean lockFree;
+
+    @Param({"2000", "20000"})
+    private long tickNanos;
+
+    private BucketLeapArray leapArray;
+
+    @Setup
+    public void prepare() {
+        leapArray = new BucketLeapArray(2, 2, lockFree);
+    }
+
+    private WindowWrap<MetricBucket> doRotate() {
+        WindowWrap<MetricBucket> wrap = leapArray.currentWindow(System.nanoTime() / tickNanos);
+        wrap.value().addPass(1);
+        return wrap;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public WindowWrap<MetricBucket> testRotation1Thread() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public WindowWrap<MetricBucket> testRotation2Threads() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public WindowWrap<MetricBucket> testRotation4Threads() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public WindowWrap<MetricBucket> testRotation8Threads() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public WindowWrap<MetricBucket> testRotation16Threads() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public WindowWrap<MetricBucket> testRotation32Threads() {
+        return doRotate();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public WindowWrap<MetricBucket> testRotation64Threads() {
+        return doRotate();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.PackedMetricBucket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comparison between the {@code LongAdder} based {@link MetricBucket} and {@link PackedMetricBucket}.
+ *
+ * <p>The {@code testNewBucket} benchmark should be run with {@code -prof gc}, where the normalized allocation
+ * rate ({@code gc.alloc.rate.norm}) is the footprint of a single bucket. Note that the footprint of
+ * {@code LongAdder} buckets grows further under contention as cells are created lazily.</p>
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricBucketBenchmark {
+
+    @Param({"adder", "packed"})
+    private String bucketType;
+
+    private MetricBucket bucket;
+
+    @Setup
+    public void prepare() {
+        bucket = newBucket();
+    }
+
+    private MetricBucket newBucket() {
+        if ("packed".equals(bucketType)) {
+            return new PackedMetricBucket();
+        }
+        return new MetricBucket();
+    }
+
+    private long doAddAndRead() {
+        bucket.addPass(1);
+        bucket.addSuccess(1);
+        bucket.addRT(3);
+        return bucket.pass();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MetricBucket testNewBucket() {
+        return newBucket();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long testAdd1Thread() {
+        return doAddAndRead();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long testAdd4Threads() {
+        return doAddAndRead();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long testAdd16Threads() {
+        return doAddAndRead();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long testAdd32Threads() {
+        return doAddAndRead();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the cost of a metric flush versus the count of resources, of which only a few are active.
+ * {@code testFullSnapshot} visits all resources like the previous metric timer did, while
+ * {@code testIncrementalFlush} runs {@link MetricTimerListener}, which only visits the written resources.
+ * Run with {@code -prof gc} to check the allocation.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MetricFlushBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int resourceCount;
+
+    @Param({"10"})
+    private int activeCount;
+
+    private final List<ClusterNode> nodes = new ArrayList<ClusterNode>();
+    private final MetricTimerListener listener = new MetricTimerListener();
+
+    @Setup
+    public void prepare() {
+        for (int i = 0; i < resourceCount; i++) {
+            ClusterNode node = new ClusterNode("benchmark-metric-flush-" + i);
+            node.addPassRequest(1);
+            nodes.add(node);
+        }
+    }
+
+    private void touchActiveNodes() {
+        for (int i = 0; i < activeCount; i++) {
+            nodes.get(i).addPassRequest(1);
+        }
+    }
+
+    @Benchmark
+    public Object testFullSnapshot() {
+        touchActiveNodes();
+        Map<Long, List<MetricNode>> maps = new TreeMap<Long, List<MetricNode>>();
+        for (ClusterNode node : nodes) {
+            for (Map.Entry<Long, MetricNode> e : node.metrics().entrySet()) {
+                MetricNode metricNode = e.getValue();
+                metricNode.setResource(node.getName());
+                List<MetricNode> list = maps.get(e.getKey());
+                if (list == null) {
+                    list = new ArrayList<MetricNode>();
+                    maps.put(e.getKey(), list);
+                }
+                list.add(metricNode);
+            }
+        }
+        return maps;
+    }
+
+    @Benchmark
+    public void testIncrementalFlush() {
+        touchActiveNodes();
+        listener.run();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.ResourceHandle;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for entering a resource by name ({@code SphU.entry(String)}) and by the pre-resolved
+ * {@link ResourceHandle}, with a flow rule and a degrade rule that never block.
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ResourceHandleBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-resource-handle";
+
+    private final ResourceHandle handle = ResourceHandle.of(RESOURCE_NAME);
+
+    @Setup
+    public void prepare() {
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(RESOURCE_NAME).setCount(Integer.MAX_VALUE)));
+        DegradeRuleManager.loadRules(Collections.singletonList(new DegradeRule(RESOURCE_NAME)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(Integer.MAX_VALUE)
+            .setTimeWindow(1)));
+    }
+
+    private void doEntryByName() {
+        Entry e = null;
+        try {
+            e = SphU.entry(RESOURCE_NAME);
+        } catch (BlockException ex) {
+            // Ignore.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    private void doEntryByHandle() {
+        Entry e = null;
+        try {
+            e = handle.entry();
+        } catch (BlockException ex) {
+            // Ignore.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testEntryByName1Thread() {
+        doEntryByName();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void testEntryByHandle1Thread() {
+        doEntryByHandle();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testEntryByName4Threads() {
+        doEntryByName();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testEntryByHandle4Threads() {
+        doEntryByHandle();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.DenseIdRegistry;
+import com.alibaba.csp.sentinel.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the resource registry of slot chains ({@link DenseIdRegistry}), compared with
+ * the former copy-on-write {@code HashMap} guarded by a global lock.
+ *
+ * <ul>
+ * <li>{@code testWarmUp*}: registering {@code resourceCount} distinct resources from scratch.</li>
+ * <li>{@code testLookup*}: steady-state lookup of registered resources.</li>
+ * <li>{@code testEntry*}: steady-state {@code SphU.entry} among {@code resourceCount} resources.</li>
+ * </ul>
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ResourceRegistryBenchmark {
+
+    private static final Object VALUE = new Object();
+    private static final Supplier<Object> VALUE_FACTORY = new Supplier<Object>() {
+        @Override
+        public Object get() {
+            return VALUE;
+        }
+    };
+
+    @Param({"1000", "5000"})
+    private int resourceCount;
+
+    private String[] names;
+
+    private volatile Map<String, Object> cowMap;
+    private final Object lock = new Object();
+    private DenseIdRegistry<Object> registry;
+
+    @Setup(Level.Trial)
+    public void prepareNames() {
+        names = new String[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            names[i] = "benchmark-resource-" + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        cowMap = new HashMap<>();
+        registry = new DenseIdRegistry<>(Integer.MAX_VALUE);
+        for (String name : names) {
+            cowMapLookup(name);
+            registry.register(name, VALUE_FACTORY);
+        }
+    }
+
+    private Object cowMapLookup(String name) {
+        Object value = cowMap.get(name);
+        if (value == null) {
+            synchronized (lock) {
+                value = cowMap.get(name);
+                if (value == null) {
+                    value = VALUE;
+                    Map<String, Object> newMap = new HashMap<>(cowMap.size() + 1);
+                    newMap.putAll(cowMap);
+                    newMap.put(name, value);
+                    cowMap = newMap;
+                }
+            }
+        }
+        return value;
+    }
+
+    private String randomName() {
+        return names[ThreadLocalRandom.current().nextInt(resourceCount)];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Object> testWarmUpCopyOnWriteMap() {
+        cowMap = new HashMap<>();
+        for (String name : names) {
+            cowMapLookup(name);
+        }
+        return cowMap;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DenseIdRegistry<Object> testWarmUpDenseRegistry() {
+        DenseIdRegistry<Object> registry = new DenseIdRegistry<>(Integer.MAX_VALUE);
+        for (String name : names) {
+            registry.register(name, VALUE_FACTORY);
+        }
+        return registry;
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object testLookupCopyOnWriteMap() {
+        return cowMapLookup(randomName());
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object testLookupDenseRegistry() {
+        return registry.get(registry.register(randomName(), VALUE_FACTORY));
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void testEntryAmongResources() {
+        Entry e = null;
+        try {
+            e = SphU.entry(randomName());
+        } catch (BlockException ex) {
+            // Ignore.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelFusedTransformer;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Benchmark for the Sentinel reactor operators. Each request subscribes a publisher guarded by
+ * a resource in a named context with origin, as the WebFlux filter does. The lean operator
+ * ({@link SentinelFusedTransformer}) is compared to the original one ({@link SentinelReactorTransformer}).
+ *
+ * @author agent
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SentinelReactorOperatorBenchmark {
+
+    private static final String RESOURCE_NAME = "/foo/bar";
+    private static final EntryConfig ENTRY_CONFIG = new EntryConfig(RESOURCE_NAME, EntryType.IN,
+        new ContextConfig(RESOURCE_NAME, "origin"));
+
+    @Benchmark
+    @Threads(4)
+    public void testMonoReactorTransformer(Blackhole blackhole) {
+        Mono.just(1)
+            .transform(new SentinelReactorTransformer<>(ENTRY_CONFIG))
+            .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testMonoFusedTransformer(Blackhole blackhole) {
+        Mono.just(1)
+            .transform(new SentinelFusedTransformer<>(ENTRY_CONFIG))
+            .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testFluxReactorTransformer(Blackhole blackhole) {
+        Flux.range(1, 8)
+            .transform(new SentinelReactorTransformer<>(ENTRY_CONFIG))
+            .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testFluxFusedTransformer(Blackhole blackhole) {
+        Flux.range(1, 8)
+            .transform(new SentinelFusedTransformer<>(ENTRY_CONFIG))
+            .subscribe(blackhole::consume);
+    }
+}
@@ -24,6 +24,11 @@ public final class ClientConstants {
     public static final int TYPE_PING = 0;
     public static final int TYPE_FLOW = 1;
     public static final int TYPE_PARAM_FLOW = 2;
+    public static final int TYPE_FLOW_LEASE = 3;
+    public static final int TYPE_BATCH_FLOW = 4;
+    public static final int TYPE_CONCURRENT_FLOW_ACQUIRE = 6;
+    public static final int TYPE_CONCURRENT_FLOW_RELEASE = 7;
+    public static final int TYPE_METRIC_SUBSCRIBE = 8;
 
     public static final int CLIENT_STATUS_OFF = 0;
     public static final int CLIENT_STATUS_PENDING = 1;
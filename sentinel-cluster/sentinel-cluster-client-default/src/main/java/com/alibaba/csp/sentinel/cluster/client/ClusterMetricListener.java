@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+
+/**
+ * Listener of the per-second cluster flow stats pushed by the token server.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface ClusterMetricListener {
+
+    /**
+     * Called on the I/O thread for each received frame, so it should not block.
+     *
+     * @param data stats of flows in one second of a namespace
+     */
+    void onMetric(MetricExportResponseData data);
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.concurrent.GenericFutureListener;
+
+/**
+ * <p>Subscribes the per-second cluster flow stats of namespaces from a token server, e.g. for the dashboard
+ * to receive the stats as they are produced instead of polling the server.</p>
+ *
+ * <p>The subscriber uses its own connection, which is not counted as a token client by the server.
+ * The subscriptions are re-sent every {@link #RESUBSCRIBE_INTERVAL_MS} to keep the connection active,
+ * and the subscriber reconnects if the connection is closed.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ClusterMetricSubscriber {
+
+    public static final int RESUBSCRIBE_INTERVAL_MS = 30 * 1000;
+    private static final int RECONNECT_DELAY_MS = 2000;
+
+    private final String host;
+    private final int port;
+    private final List<String> namespaces;
+    private final ClusterMetricListener listener;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger idGenerator = new AtomicInteger(0);
+
+    private NioEventLoopGroup eventLoopGroup;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> resubscribeTask;
+    private volatile Channel channel;
+
+    public ClusterMetricSubscriber(String host, int port, Collection<String> namespaces,
+                                   ClusterMetricListener listener) {
+        AssertUtil.assertNotBlank(host, "host cannot be blank");
+        AssertUtil.isTrue(port > 0, "port should be positive");
+        AssertUtil.isTrue(namespaces != null && !namespaces.isEmpty(), "namespaces cannot be empty");
+        AssertUtil.notNull(listener, "listener cannot be null");
+        this.host = host;
+        this.port = port;
+        this.namespaces = new ArrayList<>(namespaces);
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        this.eventLoopGroup = new NioEventLoopGroup(1,
+            new NamedThreadFactory("sentinel-cluster-metric-subscriber", true));
+        this.scheduler = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("sentinel-cluster-metric-subscriber-scheduler", true));
+        this.resubscribeTask = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                Channel c = channel;
+                if (c != null && c.isActive()) {
+                    subscribe(c);
+                }
+            }
+        }, RESUBSCRIBE_INTERVAL_MS, RESUBSCRIBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        connect();
+    }
+
+    public synchronized void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        resubscribeTask.cancel(false);
+        scheduler.shutdownNow();
+        Channel c = channel;
+        if (c != null) {
+            c.close();
+            channel = null;
+        }
+        eventLoopGroup.shutdownGracefully();
+        RecordLog.info("[ClusterMetricSubscriber] Metric subscriber of <" + host + ":" + port + "> stopped");
+    }
+
+    private void connect() {
+        Bootstrap b = new Bootstrap();
+        b.group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                public void initChannel(SocketChannel ch) throws Exception {
+                    ChannelPipeline pipeline = ch.pipeline();
+                    pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    pipeline.addLast(new NettyResponseDecoder());
+                    pipeline.addLast(new NettyRequestEncoder());
+                    pipeline.addLast(new MetricSubscriberHandler());
+                }
+            });
+        b.connect(host, port)
+            .addListener(new GenericFutureListener<ChannelFuture>() {
+                @Override
+                public void operationComplete(ChannelFuture future) {
+                    if (future.cause() != null) {
+                        RecordLog.warn("[ClusterMetricSubscriber] Could not connect to <" + host + ":" + port + ">",
+                            future.cause());
+                        scheduleReconnect();
+                    } else {
+                        channel = future.channel();
+                    }
+                }
+            });
+    }
+
+    private void scheduleReconnect() {
+        if (!running.get()) {
+            return;
+        }
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (running.get()) {
+                        connect();
+                    }
+                }
+            }, RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // The subscriber has been stopped.
+        }
+    }
+
+    private void subscribe(Channel c) {
+        for (String namespace : namespaces) {
+            if (StringUtil.isNotBlank(namespace)) {
+                c.writeAndFlush(new ClusterRequest<>(nextId(), ClusterConstants.MSG_TYPE_METRIC_SUBSCRIBE, namespace));
+            }
+        }
+    }
+
+    private int nextId() {
+        return idGenerator.incrementAndGet() & Integer.MAX_VALUE;
+    }
+
+    private class MetricSubscriberHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            RecordLog.info("[ClusterMetricSubscriber] Subscribing cluster metrics of " + namespaces
+                + " from <" + host + ":" + port + ">");
+            subscribe(ctx.channel());
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (!(msg instanceof ClusterResponse)) {
+                return;
+            }
+            ClusterResponse<?> response = (ClusterResponse<?>)msg;
+            if (response.getType() != ClusterConstants.MSG_TYPE_METRIC_SUBSCRIBE) {
+                return;
+            }
+            if (response.getStatus() != ClusterConstants.RESPONSE_STATUS_OK) {
+                RecordLog.warn("[ClusterMetricSubscriber] Subscription rejected by <" + host + ":" + port + ">");
+                return;
+            }
+            // The acknowledgement of subscription carries no data.
+            if (response.getData() instanceof MetricExportResponseData) {
+                try {
+                    listener.onMetric((MetricExportResponseData)response.getData());
+                } catch (Throwable e) {
+                    RecordLog.warn("[ClusterMetricSubscriber] Error when handling metric frame", e);
+                }
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            RecordLog.warn("[ClusterMetricSubscriber] Subscriber exception caught", cause);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            RecordLog.info("[ClusterMetricSubscriber] Connection to <" + host + ":" + port + "> closed");
+            channel = null;
+            scheduleReconnect();
+        }
+    }
+}
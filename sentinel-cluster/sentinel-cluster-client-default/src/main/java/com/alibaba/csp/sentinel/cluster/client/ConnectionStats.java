@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+/**
+ * Statistics of a connection to the token server.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ConnectionStats {
+
+    private final String server;
+    private final int index;
+    private final int state;
+    private final long smoothedRttMicros;
+    private final long rttVarMicros;
+    private final int requestTimeout;
+    private final int inFlightCount;
+    private final int failConnectedTime;
+
+    public ConnectionStats(String server, int index, int state, long smoothedRttMicros, long rttVarMicros,
+                           int requestTimeout, int inFlightCount, int failConnectedTime) {
+        this.server = server;
+        this.index = index;
+        this.state = state;
+        this.smoothedRttMicros = smoothedRttMicros;
+        this.rttVarMicros = rttVarMicros;
+        this.requestTimeout = requestTimeout;
+        this.inFlightCount = inFlightCount;
+        this.failConnectedTime = failConnectedTime;
+    }
+
+    /**
+     * @return address of the token server, in {@code host:port} format
+     */
+    public String getServer() {
+        return server;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return state of the connection, see {@link ClientConstants}
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * @return smoothed RTT in microseconds, or -1 if there is no sample yet
+     */
+    public long getSmoothedRttMicros() {
+        return smoothedRttMicros;
+    }
+
+    public long getRttVarMicros() {
+        return rttVarMicros;
+    }
+
+    /**
+     * @return current timeout (in ms) of requests on the connection
+     */
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    public int getFailConnectedTime() {
+        return failConnectedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionStats{" +
+            "server='" + server + '\'' +
+            ", index=" + index +
+            ", state=" + state +
+            ", smoothedRttMicros=" + smoothedRttMicros +
+            ", rttVarMicros=" + rttVarMicros +
+            ", requestTimeout=" + requestTimeout +
+            ", inFlightCount=" + inFlightCount +
+            ", failConnectedTime=" + failConnectedTime +
+            '}';
+    }
+}
@@ -15,26 +15,40 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.AsyncTokenService;
+import com.alibaba.csp.sentinel.cluster.BatchTokenService;
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
-import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
 import com.alibaba.csp.sentinel.cluster.client.config.ServerChangeObserver;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
 import com.alibaba.csp.sentinel.cluster.log.ClusterClientStatLogUtil;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ConcurrentReleaseRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.log.RecordLog;
-import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.node.OccupyTimeoutProperty;
 
 /**
  * Default implementation of {@link ClusterTokenClient}.
@@ -42,13 +56,30 @@ import com.alibaba.csp.sentinel.util.StringUtil;
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class DefaultClusterTokenClient implements ClusterTokenClient {
+public class DefaultClusterTokenClient implements ClusterTokenClient, AsyncTokenService,
+    BatchTokenService, ConcurrentTokenService, TokenLeaseService {
 
-    private ClusterTransportClient transportClient;
-    private TokenServerDescriptor serverDescriptor;
+    /**
+     * Connections to all token servers in order of preference. All connections are kept alive,
+     * so that requests could be sent to a standby server as soon as the assigned server is unavailable.
+     */
+    private volatile List<ServerConnection> connections = Collections.emptyList();
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
+    private final TokenReleaseBatcher releaseBatcher = new TokenReleaseBatcher() {
+        @Override
+        protected void send(long[] tokenIds) {
+            ServerConnection connection = activeConnection();
+            if (connection == null) {
+                // Permits will be reclaimed by the token server when their lease expires.
+                return;
+            }
+            connection.client.sendOneway(new ClusterRequest<>(ClusterConstants.MSG_TYPE_CONCURRENT_FLOW_RELEASE,
+                new ConcurrentReleaseRequestData().setTokenIds(tokenIds)));
+        }
+    };
+
     public DefaultClusterTokenClient() {
         ClusterClientConfigManager.addServerChangeObserver(new ServerChangeObserver() {
             @Override
@@ -59,64 +90,72 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         initNewConnection();
     }
 
-    private boolean serverEqual(TokenServerDescriptor descriptor, ClusterClientAssignConfig config) {
-        if (descriptor == null || config == null) {
-            return false;
-        }
-        return descriptor.getHost().equals(config.getServerHost()) && descriptor.getPort() == config.getServerPort();
-    }
-
     private void initNewConnection() {
-        if (transportClient != null) {
-            return;
-        }
-        String host = ClusterClientConfigManager.getServerHost();
-        int port = ClusterClientConfigManager.getServerPort();
-        if (StringUtil.isBlank(host) || port <= 0) {
+        if (!connections.isEmpty()) {
             return;
         }
-
-        try {
-            this.transportClient = new NettyTransportClient(host, port);
-            this.serverDescriptor = new TokenServerDescriptor(host, port);
-            RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
-        } catch (Exception ex) {
-            RecordLog.warn("[DefaultClusterTokenClient] Failed to initialize new token client", ex);
+        List<ServerConnection> newConnections = new ArrayList<>();
+        for (ClusterServerAddress address : ClusterClientConfigManager.getServerList()) {
+            try {
+                newConnections.add(new ServerConnection(address.getHost(), address.getPort()));
+                RecordLog.info("[DefaultClusterTokenClient] New client created: " + address);
+            } catch (Exception ex) {
+                RecordLog.warn("[DefaultClusterTokenClient] Failed to initialize new token client", ex);
+            }
         }
+        this.connections = newConnections;
     }
 
-    private void changeServer(/*@Valid*/ ClusterClientAssignConfig config) {
-        if (serverEqual(serverDescriptor, config)) {
-            return;
+    private synchronized void changeServer(/*@Valid*/ ClusterClientAssignConfig config) {
+        List<ClusterServerAddress> serverList = new ArrayList<>();
+        serverList.add(new ClusterServerAddress(config.getServerHost(), config.getServerPort()));
+        if (config.getStandbyServers() != null) {
+            serverList.addAll(config.getStandbyServers());
         }
+        List<ServerConnection> oldConnections = this.connections;
+        List<ServerConnection> newConnections = new ArrayList<>(serverList.size());
         try {
-            if (transportClient != null) {
-                transportClient.stop();
-            }
-            // Replace with new, even if the new client is not ready.
-            this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
-            this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
-            startClientIfScheduled();
-            RecordLog.info("[DefaultClusterTokenClient] New client created: " + serverDescriptor);
+            for (ClusterServerAddress address : serverList) {
+                ServerConnection connection = findConnection(oldConnections, address);
+                if (connection == null) {
+                    // Replace with new, even if the new client is not ready.
+                    connection = new ServerConnection(address.getHost(), address.getPort());
+                    startClientIfScheduled(connection);
+                    RecordLog.info("[DefaultClusterTokenClient] New client created: " + connection.descriptor);
+                }
+                newConnections.add(connection);
+            }
+            this.connections = newConnections;
+            for (ServerConnection connection : oldConnections) {
+                if (!newConnections.contains(connection)) {
+                    connection.client.stop();
+                }
+            }
         } catch (Exception ex) {
             RecordLog.warn("[DefaultClusterTokenClient] Failed to change remote token server", ex);
         }
     }
 
-    private void startClientIfScheduled() throws Exception {
-        if (shouldStart.get()) {
-            if (transportClient != null) {
-                transportClient.start();
-            } else {
-                RecordLog.warn("[DefaultClusterTokenClient] Cannot start transport client: client not created");
+    private ServerConnection findConnection(List<ServerConnection> connections, ClusterServerAddress address) {
+        for (ServerConnection connection : connections) {
+            if (connection.descriptor.getHost().equals(address.getHost())
+                && connection.descriptor.getPort() == address.getPort()) {
+                return connection;
             }
         }
+        return null;
+    }
+
+    private void startClientIfScheduled(ServerConnection connection) throws Exception {
+        if (shouldStart.get()) {
+            connection.client.start();
+        }
     }
 
     private void stopClientIfStarted() throws Exception {
         if (shouldStart.compareAndSet(true, false)) {
-            if (transportClient != null) {
-                transportClient.stop();
+            for (ServerConnection connection : connections) {
+                connection.client.stop();
             }
         }
     }
@@ -124,36 +163,195 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     @Override
     public void start() throws Exception {
         if (shouldStart.compareAndSet(false, true)) {
-            startClientIfScheduled();
+            if (connections.isEmpty()) {
+                RecordLog.warn("[DefaultClusterTokenClient] Cannot start transport client: client not created");
+            }
+            for (ServerConnection connection : connections) {
+                startClientIfScheduled(connection);
+            }
         }
     }
 
     @Override
     public void stop() throws Exception {
+        releaseBatcher.flush();
         stopClientIfStarted();
     }
 
     @Override
     public int getState() {
-        if (transportClient == null) {
-            return ClientConstants.CLIENT_STATUS_OFF;
-        }
-        return transportClient.isReady() ? ClientConstants.CLIENT_STATUS_STARTED : ClientConstants.CLIENT_STATUS_OFF;
+        return activeConnection() != null ? ClientConstants.CLIENT_STATUS_STARTED : ClientConstants.CLIENT_STATUS_OFF;
     }
 
     @Override
     public TokenServerDescriptor currentServer() {
-        return serverDescriptor;
+        ServerConnection connection = activeConnection();
+        if (connection != null) {
+            return connection.descriptor;
+        }
+        List<ServerConnection> connections = this.connections;
+        return connections.isEmpty() ? null : connections.get(0).descriptor;
+    }
+
+    /**
+     * Get statistics of connections to all token servers, in order of preference.
+     *
+     * @return statistics of connections
+     * @since 1.7.0
+     */
+    public List<ConnectionStats> getConnectionStats() {
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (ServerConnection connection : connections) {
+            if (connection.client instanceof NettyTransportClient) {
+                stats.addAll(((NettyTransportClient)connection.client).getConnectionStats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @return the most preferred connection which is ready, or null if no connection is ready
+     */
+    private ServerConnection activeConnection() {
+        for (ServerConnection connection : connections) {
+            if (connection.client.isReady()) {
+                return connection;
+            }
+        }
+        return null;
     }
 
     @Override
     public TokenResult requestToken(Long flowId, int acquireCount, boolean prioritized) {
+        if (notValidRequest(flowId, acquireCount)) {
+            return badRequest();
+        }
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW,
+            newFlowRequestData(flowId, acquireCount, prioritized));
+        try {
+            TokenResult result = sendTokenRequest(request);
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+    }
+
+    @Override
+    public void requestTokenAsync(Long flowId, int acquireCount, boolean prioritized,
+                                  final TokenResultCallback callback) {
+        if (notValidRequest(flowId, acquireCount)) {
+            callback.onComplete(badRequest());
+            return;
+        }
+        if (connections.isEmpty()) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            callback.onComplete(clientFail());
+            return;
+        }
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW,
+            newFlowRequestData(flowId, acquireCount, prioritized));
+        sendRequestAsync(request, connections, 0, callback);
+    }
+
+    private void sendRequestAsync(final ClusterRequest request, final List<ServerConnection> connections,
+                                  final int from, final TokenResultCallback callback) {
+        int index = from;
+        while (index < connections.size() && !connections.get(index).client.isReady()) {
+            index++;
+        }
+        if (index >= connections.size()) {
+            ClusterClientStatLogUtil.log(ClusterErrorMessages.CLIENT_NOT_READY);
+            callback.onComplete(clientFail());
+            return;
+        }
+        final int next = index + 1;
+        connections.get(index).client.sendRequestAsync(request, new ClusterResponseCallback() {
+            @Override
+            public void onResponse(ClusterResponse response) {
+                TokenResult result = toTokenResult(response);
+                logForResult(result);
+                callback.onComplete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                if (isNotSent(ex)) {
+                    // The server is gone before the request is written, fail over to the next server.
+                    sendRequestAsync(request, connections, next, callback);
+                    return;
+                }
+                ClusterClientStatLogUtil.log(ex.getMessage());
+                callback.onComplete(clientFail());
+            }
+        });
+    }
+
+    @Override
+    public List<TokenResult> requestTokens(List<Long> flowIds, int acquireCount, boolean prioritized) {
+        if (flowIds == null || flowIds.isEmpty() || flowIds.size() > ClusterConstants.MAX_BATCH_FLOW_COUNT) {
+            return resultsOf(flowIds == null ? 0 : flowIds.size(), TokenResultStatus.BAD_REQUEST);
+        }
+        List<FlowRequestData> requestList = new ArrayList<>(flowIds.size());
+        for (Long flowId : flowIds) {
+            if (notValidRequest(flowId, acquireCount)) {
+                return resultsOf(flowIds.size(), TokenResultStatus.BAD_REQUEST);
+            }
+            requestList.add(new FlowRequestData().setCount(acquireCount).setFlowId(flowId).setPriority(prioritized));
+        }
+        if (connections.isEmpty()) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return resultsOf(flowIds.size(), TokenResultStatus.FAIL);
+        }
+        ClusterRequest<BatchFlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_BATCH_FLOW,
+            new BatchFlowRequestData().setRequestList(requestList));
+        try {
+            ClusterResponse response = sendRequest(request);
+            BatchFlowTokenResponseData responseData = (BatchFlowTokenResponseData)response.getData();
+            if (responseData == null || responseData.getResultList() == null
+                || responseData.getResultList().size() != flowIds.size()) {
+                return resultsOf(flowIds.size(), TokenResultStatus.FAIL);
+            }
+            for (TokenResult result : responseData.getResultList()) {
+                logForResult(result);
+            }
+            return responseData.getResultList();
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return resultsOf(flowIds.size(), TokenResultStatus.FAIL);
+        }
+    }
+
+    @Override
+    public TokenResult requestTokenLease(Long flowId, int leaseCount) {
+        if (notValidRequest(flowId, leaseCount)) {
+            return badRequest();
+        }
+        FlowRequestData data = new FlowRequestData().setCount(leaseCount)
+            .setFlowId(flowId).setPriority(false);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data);
+        try {
+            TokenResult result = sendTokenRequest(request);
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+    }
+
+    @Override
+    public TokenResult requestConcurrentToken(Long flowId, int acquireCount) {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
         FlowRequestData data = new FlowRequestData().setCount(acquireCount)
-            .setFlowId(flowId).setPriority(prioritized);
-        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
+            .setFlowId(flowId).setPriority(false);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(
+            ClusterConstants.MSG_TYPE_CONCURRENT_FLOW_ACQUIRE, data);
         try {
             TokenResult result = sendTokenRequest(request);
             logForResult(result);
@@ -164,6 +362,15 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public void releaseConcurrentToken(Long tokenId) {
+        if (tokenId == null || tokenId <= 0) {
+            return;
+        }
+        // Releases are sent in batch without waiting for the response.
+        releaseBatcher.release(tokenId);
+    }
+
     @Override
     public TokenResult requestParamToken(Long flowId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
@@ -195,17 +402,50 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     }
 
     private TokenResult sendTokenRequest(ClusterRequest request) throws Exception {
-        if (transportClient == null) {
+        if (connections.isEmpty()) {
             RecordLog.warn(
                 "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
             return clientFail();
         }
-        ClusterResponse response = transportClient.sendRequest(request);
+        return toTokenResult(sendRequest(request));
+    }
+
+    /**
+     * Send the request to the most preferred server which is ready. If the request could not be sent
+     * (e.g. the connection is lost before writing), the request is sent to the next server at once.
+     */
+    private ClusterResponse sendRequest(ClusterRequest request) throws Exception {
+        Exception failure = null;
+        for (ServerConnection connection : connections) {
+            if (!connection.client.isReady()) {
+                continue;
+            }
+            try {
+                return connection.client.sendRequest(request);
+            } catch (Exception ex) {
+                if (!isNotSent(ex)) {
+                    throw ex;
+                }
+                failure = ex;
+            }
+        }
+        throw failure != null ? failure : new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+    }
+
+    private boolean isNotSent(Throwable ex) {
+        // Requests that have been written are never sent again, even if the connection is closed before
+        // the response arrives (the same as time-out requests), as they might have been counted by the server.
+        return ex instanceof SentinelClusterException
+            && ClusterErrorMessages.CLIENT_NOT_READY.equals(ex.getMessage());
+    }
+
+    private TokenResult toTokenResult(ClusterResponse response) {
         TokenResult result = new TokenResult(response.getStatus());
         if (response.getData() != null) {
             FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
             result.setRemaining(responseData.getRemainingCount())
-                .setWaitInMs(responseData.getWaitInMs());
+                .setWaitInMs(responseData.getWaitInMs())
+                .setTokenId(responseData.getTokenId());
         }
         return result;
     }
@@ -214,6 +454,25 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         return id == null || id <= 0 || count <= 0;
     }
 
+    private List<TokenResult> resultsOf(int size, int status) {
+        List<TokenResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(new TokenResult(status));
+        }
+        return results;
+    }
+
+    private FlowRequestData newFlowRequestData(Long flowId, int acquireCount, boolean prioritized) {
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(prioritized);
+        if (prioritized) {
+            // The token server could hold a prioritized request until tokens are granted (if admission queue
+            // is enabled), as long as the caller could have waited locally.
+            data.setMaxWaitMs(OccupyTimeoutProperty.getOccupyTimeout());
+        }
+        return data;
+    }
+
     private TokenResult badRequest() {
         return new TokenResult(TokenResultStatus.BAD_REQUEST);
     }
@@ -221,4 +480,14 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     private TokenResult clientFail() {
         return new TokenResult(TokenResultStatus.FAIL);
     }
+
+    private static final class ServerConnection {
+        private final AsyncClusterTransportClient client;
+        private final TokenServerDescriptor descriptor;
+
+        ServerConnection(String host, int port) {
+            this.client = new NettyTransportClient(host, port);
+            this.descriptor = new TokenServerDescriptor(host, port);
+        }
+    }
 }
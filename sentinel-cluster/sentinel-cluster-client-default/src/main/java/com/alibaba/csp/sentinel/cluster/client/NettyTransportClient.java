@@ -15,27 +15,35 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
-import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.cluster.AsyncClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
-import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.handler.InFlightRequests;
+import com.alibaba.csp.sentinel.cluster.client.handler.RttEstimator;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
-import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromiseHolder;
 import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
@@ -44,136 +52,122 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.ChannelPromise;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.util.concurrent.GenericFutureListener;
 
 /**
- * Netty transport client implementation for Sentinel cluster transport.
+ * <p>Netty transport client implementation for Sentinel cluster transport.</p>
+ *
+ * <p>Since 1.7.0, the client keeps a small pool of connections to the token server, and every request is sent
+ * on the ready connection with least in-flight requests, so that a stalled connection won't block all requests.
+ * The timeout of a request is derived from the RTT of its connection (bounded by the configured request timeout),
+ * so callers could fall back to local checking as soon as the server is evidently slower than usual.</p>
  *
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class NettyTransportClient implements ClusterTransportClient {
+public class NettyTransportClient implements AsyncClusterTransportClient {
 
     @SuppressWarnings("PMD.ThreadPoolCreationRule")
     private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1,
         new NamedThreadFactory("sentinel-cluster-transport-client-scheduler"));
 
     public static final int RECONNECT_DELAY_MS = 2000;
+    public static final int MAX_RECONNECT_DELAY_MS = 30000;
+    public static final int TIMEOUT_CHECK_INTERVAL_MS = 5;
+
+    private static final SentinelClusterException NOT_READY_EXCEPTION =
+        new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+    private static final SentinelClusterException BAD_REQUEST_EXCEPTION =
+        new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
+    private static final SentinelClusterException TOO_MANY_IN_FLIGHT_EXCEPTION =
+        new SentinelClusterException(ClusterErrorMessages.TOO_MANY_IN_FLIGHT_REQUESTS);
 
     private final String host;
     private final int port;
 
-    private Channel channel;
-    private NioEventLoopGroup eventLoopGroup;
-    private TokenClientHandler clientHandler;
+    private final ClientChannel[] channels;
+    private volatile NioEventLoopGroup eventLoopGroup;
+    private ScheduledFuture<?> timeoutChecker;
 
     private final AtomicInteger idGenerator = new AtomicInteger(0);
-    private final AtomicInteger currentState = new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF);
-    private final AtomicInteger failConnectedTime = new AtomicInteger(0);
+    private final AtomicInteger nextChannel = new AtomicInteger(0);
 
     private final AtomicBoolean shouldRetry = new AtomicBoolean(true);
 
     public NettyTransportClient(String host, int port) {
+        this(host, port, ClusterClientConfigManager.getConnectionPoolSize());
+    }
+
+    /**
+     * @param host     host of the token server
+     * @param port     port of the token server
+     * @param poolSize count of connections to the token server
+     * @since 1.7.0
+     */
+    public NettyTransportClient(String host, int port, int poolSize) {
         AssertUtil.assertNotBlank(host, "remote host cannot be blank");
         AssertUtil.isTrue(port > 0, "port should be positive");
+        AssertUtil.isTrue(poolSize > 0, "poolSize should be positive");
         this.host = host;
         this.port = port;
-    }
-
-    private Bootstrap initClientBootstrap() {
-        Bootstrap b = new Bootstrap();
-        eventLoopGroup = new NioEventLoopGroup();
-        b.group(eventLoopGroup)
-            .channel(NioSocketChannel.class)
-            .option(ChannelOption.TCP_NODELAY, true)
-            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
-            .handler(new ChannelInitializer<SocketChannel>() {
-                @Override
-                public void initChannel(SocketChannel ch) throws Exception {
-                    clientHandler = new TokenClientHandler(currentState, disconnectCallback);
-
-                    ChannelPipeline pipeline = ch.pipeline();
-                    pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
-                    pipeline.addLast(new NettyResponseDecoder());
-                    pipeline.addLast(new LengthFieldPrepender(2));
-                    pipeline.addLast(new NettyRequestEncoder());
-                    pipeline.addLast(clientHandler);
-                }
-            });
-
-        return b;
-    }
-
-    private void connect(Bootstrap b) {
-        if (currentState.compareAndSet(ClientConstants.CLIENT_STATUS_OFF, ClientConstants.CLIENT_STATUS_PENDING)) {
-            b.connect(host, port)
-                .addListener(new GenericFutureListener<ChannelFuture>() {
-                @Override
-                public void operationComplete(ChannelFuture future) {
-                    if (future.cause() != null) {
-                        RecordLog.warn(
-                            String.format("[NettyTransportClient] Could not connect to <%s:%d> after %d times",
-                                host, port, failConnectedTime.get()), future.cause());
-                        failConnectedTime.incrementAndGet();
-                        channel = null;
-                    } else {
-                        failConnectedTime.set(0);
-                        channel = future.channel();
-                        RecordLog.info(
-                            "[NettyTransportClient] Successfully connect to server <" + host + ":" + port + ">");
-                    }
-                }
-            });
+        this.channels = new ClientChannel[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            channels[i] = new ClientChannel(i);
         }
     }
 
-    private Runnable disconnectCallback = new Runnable() {
-        @Override
-        public void run() {
-            if (!shouldRetry.get()) {
-                return;
-            }
-            SCHEDULER.schedule(new Runnable() {
-                @Override
-                public void run() {
-                    if (shouldRetry.get()) {
-                        RecordLog.info("[NettyTransportClient] Reconnecting to server <" + host + ":" + port + ">");
-                        try {
-                            startInternal();
-                        } catch (Exception e) {
-                            RecordLog.warn("[NettyTransportClient] Failed to reconnect to server", e);
-                        }
-                    }
-                }
-            }, RECONNECT_DELAY_MS * (failConnectedTime.get() + 1), TimeUnit.MILLISECONDS);
-            cleanUp();
-        }
-    };
-
     @Override
     public void start() throws Exception {
         shouldRetry.set(true);
-        startInternal();
+        NioEventLoopGroup group = startEventLoopGroup();
+        startTimeoutChecker();
+        for (ClientChannel channel : channels) {
+            channel.connect(group);
+        }
     }
 
-    private void startInternal() {
-        connect(initClientBootstrap());
+    private synchronized NioEventLoopGroup startEventLoopGroup() {
+        if (eventLoopGroup == null) {
+            eventLoopGroup = new NioEventLoopGroup(channels.length,
+                new NamedThreadFactory("sentinel-cluster-transport-client-" + host + "-" + port));
+        }
+        return eventLoopGroup;
     }
 
-    private void cleanUp() {
-        if (channel != null) {
-            channel.close();
-            channel = null;
-        }
+    private synchronized void stopEventLoopGroup() {
         if (eventLoopGroup != null) {
             eventLoopGroup.shutdownGracefully();
+            eventLoopGroup = null;
+        }
+    }
+
+    private synchronized void startTimeoutChecker() {
+        if (timeoutChecker != null) {
+            return;
+        }
+        timeoutChecker = SCHEDULER.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    long currentTime = TimeUtil.currentTimeMillis();
+                    for (ClientChannel channel : channels) {
+                        channel.inFlightRequests.checkTimeout(currentTime);
+                    }
+                } catch (Throwable e) {
+                    RecordLog.warn("[NettyTransportClient] Failed to check timeout of in-flight requests", e);
+                }
+            }
+        }, TIMEOUT_CHECK_INTERVAL_MS, TIMEOUT_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopTimeoutChecker() {
+        if (timeoutChecker != null) {
+            timeoutChecker.cancel(false);
+            timeoutChecker = null;
         }
     }
 
@@ -182,16 +176,20 @@ public class NettyTransportClient implements ClusterTransportClient {
         // Stop retrying for connection.
         shouldRetry.set(false);
 
-        while (currentState.get() == ClientConstants.CLIENT_STATUS_PENDING) {
-            try {
-                Thread.sleep(200);
-            } catch (Exception ex) {
-                // Ignore.
+        for (ClientChannel channel : channels) {
+            while (channel.currentState.get() == ClientConstants.CLIENT_STATUS_PENDING) {
+                try {
+                    Thread.sleep(200);
+                } catch (Exception ex) {
+                    // Ignore.
+                }
             }
+            channel.close();
+            channel.inFlightRequests.failAll();
+            channel.failConnectedTime.set(0);
         }
-
-        cleanUp();
-        failConnectedTime.set(0);
+        stopTimeoutChecker();
+        stopEventLoopGroup();
 
         RecordLog.info("[NettyTransportClient] Cluster transport client stopped");
     }
@@ -202,41 +200,147 @@ public class NettyTransportClient implements ClusterTransportClient {
 
     @Override
     public boolean isReady() {
-        return channel != null && clientHandler != null && clientHandler.hasStarted();
+        for (ClientChannel channel : channels) {
+            if (channel.isReady()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Select the ready connection with least in-flight requests. Ties are broken in round-robin order.
+     *
+     * @return the selected connection, or null if no connection is ready
+     */
+    private ClientChannel selectChannel() {
+        ClientChannel[] channels = this.channels;
+        int n = channels.length;
+        int start = n == 1 ? 0 : (nextChannel.getAndIncrement() & Integer.MAX_VALUE) % n;
+        ClientChannel selected = null;
+        int minInFlight = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            ClientChannel channel = channels[(start + i) % n];
+            if (!channel.isReady()) {
+                continue;
+            }
+            int inFlight = channel.inFlightRequests.getInFlightCount();
+            if (inFlight < minInFlight) {
+                selected = channel;
+                minInFlight = inFlight;
+                if (inFlight == 0) {
+                    break;
+                }
+            }
+        }
+        return selected;
     }
 
     @Override
     public ClusterResponse sendRequest(ClusterRequest request) throws Exception {
-        if (!isReady()) {
+        ClientChannel clientChannel = selectChannel();
+        if (clientChannel == null) {
             throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
         }
         if (!validRequest(request)) {
             throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
         }
         int xid = getCurrentId();
+        request.setId(xid);
+        InFlightRequests inFlightRequests = clientChannel.inFlightRequests;
+        int maxWaitMs = maxWaitOf(request);
+        int timeout = clientChannel.getRequestTimeout() + maxWaitMs;
+        SyncResponseCallback callback = new SyncResponseCallback();
+        // Register before writing, so that the response could never arrive before the slot is ready.
+        if (!inFlightRequests.register(xid, callback, TimeUtil.currentTimeMillis() + timeout, maxWaitMs == 0)) {
+            throw new SentinelClusterException(ClusterErrorMessages.TOO_MANY_IN_FLIGHT_REQUESTS);
+        }
         try {
-            request.setId(xid);
-
+            Channel channel = clientChannel.channel;
+            if (channel == null) {
+                throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+            }
             channel.writeAndFlush(request);
 
-            ChannelPromise promise = channel.newPromise();
-            TokenClientPromiseHolder.putPromise(xid, promise);
-
-            if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
+            if (!callback.await(timeout, TimeUnit.MILLISECONDS)) {
+                // The elapsed time is still a sample of RTT, so that the timeout backs off on a slow connection.
+                inFlightRequests.expire(xid);
                 throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
             }
-
-            SimpleEntry<ChannelPromise, ClusterResponse> entry = TokenClientPromiseHolder.getEntry(xid);
-            if (entry == null || entry.getValue() == null) {
+            if (callback.error != null) {
+                throw callback.error instanceof Exception ? (Exception)callback.error
+                    : new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+            }
+            if (callback.response == null) {
                 // Should not go through here.
                 throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
             }
-            return entry.getValue();
+            return callback.response;
         } finally {
-            TokenClientPromiseHolder.remove(xid);
+            inFlightRequests.cancel(xid);
         }
     }
 
+    @Override
+    public void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback) {
+        ClientChannel clientChannel = selectChannel();
+        if (clientChannel == null) {
+            callback.onFailure(NOT_READY_EXCEPTION);
+            return;
+        }
+        if (!validRequest(request)) {
+            callback.onFailure(BAD_REQUEST_EXCEPTION);
+            return;
+        }
+        int xid = getCurrentId();
+        request.setId(xid);
+        InFlightRequests inFlightRequests = clientChannel.inFlightRequests;
+        int maxWaitMs = maxWaitOf(request);
+        long deadline = TimeUtil.currentTimeMillis() + clientChannel.getRequestTimeout() + maxWaitMs;
+        if (!inFlightRequests.register(xid, callback, deadline, maxWaitMs == 0)) {
+            callback.onFailure(TOO_MANY_IN_FLIGHT_EXCEPTION);
+            return;
+        }
+        Channel channel = clientChannel.channel;
+        if (channel == null) {
+            if (inFlightRequests.cancel(xid)) {
+                callback.onFailure(NOT_READY_EXCEPTION);
+            }
+            return;
+        }
+        // A failed write will be reported by the timeout checker or on connection closed,
+        // so the void promise is used to avoid allocating a future for every request.
+        channel.writeAndFlush(request, channel.voidPromise());
+    }
+
+    @Override
+    public boolean sendOneway(ClusterRequest request) {
+        ClientChannel clientChannel = selectChannel();
+        if (clientChannel == null || !validRequest(request)) {
+            return false;
+        }
+        Channel channel = clientChannel.channel;
+        if (channel == null) {
+            return false;
+        }
+        request.setId(getCurrentId());
+        // Nothing is registered as in flight, since the server never responds.
+        channel.writeAndFlush(request, channel.voidPromise());
+        return true;
+    }
+
+    /**
+     * Prioritized flow requests might be held by the token server until tokens are granted, for at most
+     * their max wait time.
+     */
+    private static int maxWaitOf(ClusterRequest request) {
+        Object data = request.getData();
+        if (data instanceof FlowRequestData && ((FlowRequestData)data).isPriority()) {
+            return Math.max(((FlowRequestData)data).getMaxWaitMs(), 0);
+        }
+        return 0;
+    }
+
     private int getCurrentId() {
         if (idGenerator.get() > MAX_ID) {
             idGenerator.set(0);
@@ -244,27 +348,170 @@ public class NettyTransportClient implements ClusterTransportClient {
         return idGenerator.incrementAndGet();
     }
 
-    /*public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
-        // Uncomment this when min target JDK is 1.8.
-        if (!validRequest(request)) {
-            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad request"));
+    /**
+     * Get current statistics of every connection in the pool.
+     *
+     * @return statistics of connections, in order of connection index
+     * @since 1.7.0
+     */
+    public List<ConnectionStats> getConnectionStats() {
+        int maxTimeout = ClusterClientConfigManager.getRequestTimeout();
+        List<ConnectionStats> list = new ArrayList<ConnectionStats>(channels.length);
+        for (ClientChannel channel : channels) {
+            list.add(new ConnectionStats(host + ":" + port, channel.index, channel.currentState.get(),
+                channel.rttEstimator.getSmoothedRttMicros(), channel.rttEstimator.getRttVarMicros(),
+                channel.rttEstimator.getTimeoutMs(maxTimeout), channel.inFlightRequests.getInFlightCount(),
+                channel.failConnectedTime.get()));
         }
-        int xid = getCurrentId();
-        request.setId(xid);
+        return list;
+    }
+
+    /**
+     * Get in-flight requests of the connection at given index. Package-private for test.
+     *
+     * @param index index of the connection
+     * @return in-flight requests of the connection
+     */
+    InFlightRequests getInFlightRequests(int index) {
+        return channels[index].inFlightRequests;
+    }
 
-        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
-        channel.writeAndFlush(request)
-            .addListener(f -> {
-                if (f.isSuccess()) {
-                    future.complete(someResult);
-                } else if (f.cause() != null) {
-                    future.completeExceptionally(f.cause());
-                } else {
-                    future.cancel(false);
+    static long reconnectDelay(int failedTimes) {
+        long delay = (long)RECONNECT_DELAY_MS << Math.min(failedTimes, 4);
+        delay = Math.min(delay, MAX_RECONNECT_DELAY_MS);
+        // Add jitter so that clients (and connections of a client) won't reconnect in lockstep.
+        return delay + ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+    }
+
+    /**
+     * A connection of the pool, with its own state, in-flight requests and RTT estimation.
+     */
+    private final class ClientChannel {
+
+        private final int index;
+        private final RttEstimator rttEstimator = new RttEstimator();
+        private final InFlightRequests inFlightRequests =
+            new InFlightRequests(InFlightRequests.DEFAULT_CAPACITY, rttEstimator);
+        private final AtomicInteger currentState = new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF);
+        private final AtomicInteger failConnectedTime = new AtomicInteger(0);
+
+        private volatile Channel channel;
+        private volatile TokenClientHandler clientHandler;
+
+        private final Runnable disconnectCallback = new Runnable() {
+            @Override
+            public void run() {
+                if (!shouldRetry.get()) {
+                    return;
                 }
-            });
-        return future;
-    }*/
+                SCHEDULER.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        NioEventLoopGroup group = eventLoopGroup;
+                        if (shouldRetry.get() && group != null) {
+                            RecordLog.info("[NettyTransportClient] Reconnecting to server <" + host + ":" + port
+                                + ">, connection index: " + index);
+                            try {
+                                connect(group);
+                            } catch (Exception e) {
+                                RecordLog.warn("[NettyTransportClient] Failed to reconnect to server", e);
+                            }
+                        }
+                    }
+                }, reconnectDelay(failConnectedTime.get()), TimeUnit.MILLISECONDS);
+                close();
+            }
+        };
+
+        ClientChannel(int index) {
+            this.index = index;
+        }
+
+        private void connect(NioEventLoopGroup group) {
+            if (!currentState.compareAndSet(ClientConstants.CLIENT_STATUS_OFF, ClientConstants.CLIENT_STATUS_PENDING)) {
+                return;
+            }
+            Bootstrap b = new Bootstrap();
+            b.group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    public void initChannel(SocketChannel ch) throws Exception {
+                        // Only the first connection pings, so that the server counts the client only once.
+                        clientHandler = new TokenClientHandler(currentState, disconnectCallback,
+                            inFlightRequests, index == 0);
+
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                        pipeline.addLast(new NettyResponseDecoder());
+                        pipeline.addLast(new NettyRequestEncoder());
+                        pipeline.addLast(clientHandler);
+                    }
+                });
+            b.connect(host, port)
+                .addListener(new GenericFutureListener<ChannelFuture>() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        if (future.cause() != null) {
+                            RecordLog.warn(
+                                String.format("[NettyTransportClient] Could not connect to <%s:%d> after %d times",
+                                    host, port, failConnectedTime.get()), future.cause());
+                            failConnectedTime.incrementAndGet();
+                            channel = null;
+                        } else {
+                            failConnectedTime.set(0);
+                            channel = future.channel();
+                            RecordLog.info("[NettyTransportClient] Successfully connect to server <" + host + ":"
+                                + port + ">, connection index: " + index);
+                        }
+                    }
+                });
+        }
+
+        private boolean isReady() {
+            // The channel is checked as well, so that a closed connection is detected before the handler is notified.
+            Channel c = channel;
+            TokenClientHandler handler = clientHandler;
+            return c != null && c.isActive() && handler != null && handler.hasStarted();
+        }
+
+        private int getRequestTimeout() {
+            return rttEstimator.getTimeoutMs(ClusterClientConfigManager.getRequestTimeout());
+        }
+
+        private void close() {
+            Channel c = channel;
+            if (c != null) {
+                c.close();
+                channel = null;
+            }
+        }
+    }
+
+    private static final class SyncResponseCallback extends CountDownLatch implements ClusterResponseCallback {
+
+        private volatile ClusterResponse response;
+        private volatile Throwable error;
+
+        SyncResponseCallback() {
+            super(1);
+        }
+
+        @Override
+        public void onResponse(ClusterResponse response) {
+            this.response = response;
+            countDown();
+        }
+
+        @Override
+        public void onFailure(Throwable ex) {
+            this.error = ex;
+            countDown();
+        }
+    }
 
     private static final int MAX_ID = 999_999_999;
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Batches releases of cluster concurrency permits, so that many permits are released in one one-way frame.</p>
+ *
+ * <p>A batch is sent as soon as it is full, or {@link #FLUSH_INTERVAL_MS} after its first permit is added.
+ * A permit whose release is lost (e.g. the connection is closed) is reclaimed by the token server when its
+ * lease expires, so no retry is needed.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+abstract class TokenReleaseBatcher {
+
+    static final int FLUSH_INTERVAL_MS = 10;
+
+    private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newScheduledThreadPool(1,
+        new NamedThreadFactory("sentinel-cluster-token-release-flusher", true));
+
+    private final long[] buffer;
+    private int size;
+    private boolean flushScheduled;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    TokenReleaseBatcher() {
+        this(ClusterConstants.MAX_RELEASE_TOKEN_COUNT);
+    }
+
+    TokenReleaseBatcher(int batchSize) {
+        this.buffer = new long[batchSize];
+    }
+
+    /**
+     * Add the permit to current batch.
+     *
+     * @param tokenId ID of the permit to release
+     */
+    void release(long tokenId) {
+        long[] batch = null;
+        synchronized (this) {
+            buffer[size++] = tokenId;
+            if (size == buffer.length) {
+                batch = drain();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                FLUSH_SCHEDULER.schedule(flushTask, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        sendBatch(batch);
+    }
+
+    /**
+     * Send current batch at once.
+     */
+    void flush() {
+        long[] batch;
+        synchronized (this) {
+            flushScheduled = false;
+            batch = drain();
+        }
+        sendBatch(batch);
+    }
+
+    private long[] drain() {
+        if (size == 0) {
+            return null;
+        }
+        long[] batch = Arrays.copyOf(buffer, size);
+        size = 0;
+        return batch;
+    }
+
+    private void sendBatch(long[] batch) {
+        if (batch == null) {
+            return;
+        }
+        try {
+            send(batch);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenReleaseBatcher] Failed to release cluster concurrency tokens", ex);
+        }
+    }
+
+    /**
+     * Send the batch of permits to release.
+     *
+     * @param tokenIds IDs of the permits
+     */
+    protected abstract void send(long[] tokenIds);
+}
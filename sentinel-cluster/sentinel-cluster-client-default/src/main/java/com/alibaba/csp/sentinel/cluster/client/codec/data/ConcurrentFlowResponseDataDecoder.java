@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Decoder for {@link FlowTokenResponseData} of concurrency permit requests. The layout:</p>
+ * <pre>
+ * | remaining (4) | token ID (8) |
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ConcurrentFlowResponseDataDecoder implements EntityDecoder<ByteBuf, FlowTokenResponseData> {
+
+    @Override
+    public FlowTokenResponseData decode(ByteBuf source) {
+        FlowTokenResponseData data = new FlowTokenResponseData();
+
+        if (source.readableBytes() == 12) {
+            data.setRemainingCount(source.readInt());
+            data.setTokenId(source.readLong());
+        }
+        return data;
+    }
+}
@@ -21,9 +21,12 @@ import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import io.netty.buffer.ByteBuf;
 
 /**
- * +-------------------+--------------+----------------+---------------+------------------+
- * | RequestID(8 byte) | Type(1 byte) | FlowID(4 byte) | Count(4 byte) | PriorityFlag (1) |
- * +-------------------+--------------+----------------+---------------+------------------+
+ * +-------------------+--------------+----------------+---------------+------------------+-------------------------+
+ * | RequestID(8 byte) | Type(1 byte) | FlowID(4 byte) | Count(4 byte) | PriorityFlag (1) | MaxWaitMs (4, optional) |
+ * +-------------------+--------------+----------------+---------------+------------------+-------------------------+
+ *
+ * The max wait time is only written when positive, so the frame is the same as before for servers that
+ * don't support admission queue.
  *
  * @author Eric Zhao
  * @since 1.4.0
@@ -35,5 +38,8 @@ public class FlowRequestDataWriter implements EntityWriter<FlowRequestData, Byte
         target.writeLong(entity.getFlowId());
         target.writeInt(entity.getCount());
         target.writeBoolean(entity.isPriority());
+        if (entity.getMaxWaitMs() > 0) {
+            target.writeInt(entity.getMaxWaitMs());
+        }
     }
 }
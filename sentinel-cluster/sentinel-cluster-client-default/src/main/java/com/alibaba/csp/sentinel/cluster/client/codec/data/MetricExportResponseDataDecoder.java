@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowMetricStat;
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Decoder for {@link MetricExportResponseData}. The layout:</p>
+ * <pre>
+ * | timestamp (8) | namespace length (1) | namespace (UTF-8) | amount (2) |
+ * | flow ID (8) | pass (4) | block (4) | waiting (4) | occupied pass (4) | ... (repeated for each flow)
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricExportResponseDataDecoder implements EntityDecoder<ByteBuf, MetricExportResponseData> {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Override
+    public MetricExportResponseData decode(ByteBuf source) {
+        if (source.readableBytes() < 9) {
+            return null;
+        }
+        long timestamp = source.readLong();
+        int length = source.readUnsignedByte();
+        if (source.readableBytes() < length + 2) {
+            return null;
+        }
+        byte[] namespace = new byte[length];
+        source.readBytes(namespace);
+        int amount = source.readUnsignedShort();
+        if (source.readableBytes() < amount * 24) {
+            return null;
+        }
+        List<FlowMetricStat> statList = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            statList.add(new FlowMetricStat().setFlowId(source.readLong())
+                .setPassCount(source.readInt())
+                .setBlockCount(source.readInt())
+                .setWaitingCount(source.readInt())
+                .setOccupiedPassCount(source.readInt()));
+        }
+        return new MetricExportResponseData().setTimestamp(timestamp)
+            .setNamespace(new String(namespace, UTF_8))
+            .setStatList(statList);
+    }
+}
@@ -26,6 +26,9 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
+ * <p>Encoder of cluster requests. The length field (2 bytes) of the frame is reserved ahead and filled in place
+ * after the request is written, so no separate buffer is needed for the length prefix.</p>
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
@@ -39,6 +42,15 @@ public class NettyRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
             return;
         }
 
+        int lengthIndex = out.writerIndex();
+        out.writeShort(0);
         requestEntityWriter.writeTo(request, out);
+        int length = out.writerIndex() - lengthIndex - 2;
+        if (length == 0) {
+            // Nothing written (e.g. no writer for the type), drop the request.
+            out.writerIndex(lengthIndex);
+            return;
+        }
+        out.setShort(lengthIndex, length);
     }
 }
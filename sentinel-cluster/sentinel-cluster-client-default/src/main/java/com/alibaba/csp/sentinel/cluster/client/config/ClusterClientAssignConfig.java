@@ -15,6 +15,10 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.config;
 
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+
 /**
  * @author Eric Zhao
  * @since 1.4.1
@@ -23,6 +27,11 @@ public class ClusterClientAssignConfig {
 
     private String serverHost;
     private Integer serverPort;
+    /**
+     * Standby token servers in order of preference, which the client fails over to
+     * when the assigned server is unavailable.
+     */
+    private List<ClusterServerAddress> standbyServers;
 
     public ClusterClientAssignConfig() {}
 
@@ -49,11 +58,21 @@ public class ClusterClientAssignConfig {
         return this;
     }
 
+    public List<ClusterServerAddress> getStandbyServers() {
+        return standbyServers;
+    }
+
+    public ClusterClientAssignConfig setStandbyServers(List<ClusterServerAddress> standbyServers) {
+        this.standbyServers = standbyServers;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientAssignConfig{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", standbyServers=" + standbyServers +
             '}';
     }
 }
@@ -21,7 +21,18 @@ package com.alibaba.csp.sentinel.cluster.client.config;
  */
 public class ClusterClientConfig {
 
+    public static final int DEFAULT_CONNECTION_POOL_SIZE = 2;
+    public static final int MAX_CONNECTION_POOL_SIZE = 16;
+
+    /**
+     * Upper bound of request timeout (in ms). The actual timeout is derived from the RTT of the connection.
+     */
     private Integer requestTimeout;
+    /**
+     * Count of connections to the token server. Requests are sent on the connection with least in-flight
+     * requests, so that a stalled connection won't block all requests.
+     */
+    private Integer connectionPoolSize;
 
     public Integer getRequestTimeout() {
         return requestTimeout;
@@ -32,10 +43,20 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public Integer getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public ClusterClientConfig setConnectionPoolSize(Integer connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", connectionPoolSize=" + connectionPoolSize +
             '}';
     }
 }
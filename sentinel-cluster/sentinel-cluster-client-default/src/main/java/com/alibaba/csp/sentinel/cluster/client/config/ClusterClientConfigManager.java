@@ -16,9 +16,11 @@
 package com.alibaba.csp.sentinel.cluster.client.config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
@@ -37,9 +39,11 @@ public final class ClusterClientConfigManager {
      */
     private static volatile String serverHost = null;
     private static volatile int serverPort = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
+    private static volatile List<ClusterServerAddress> standbyServers = Collections.emptyList();
 
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private static volatile int connectionPoolSize = ClusterClientConfig.DEFAULT_CONNECTION_POOL_SIZE;
 
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
@@ -127,7 +131,8 @@ public final class ClusterClientConfigManager {
                     "[ClusterClientConfigManager] Invalid cluster client assign config, ignoring: " + config);
                 return;
             }
-            if (serverPort == config.getServerPort() && config.getServerHost().equals(serverHost)) {
+            if (serverPort == config.getServerPort() && config.getServerHost().equals(serverHost)
+                && standbyServersOf(config).equals(standbyServers)) {
                 return;
             }
 
@@ -170,6 +175,10 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        // Takes effect on transport clients created afterwards.
+        if (config.getConnectionPoolSize() != null) {
+            connectionPoolSize = config.getConnectionPoolSize();
+        }
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
@@ -182,16 +191,35 @@ public final class ClusterClientConfigManager {
 
         serverHost = host;
         serverPort = port;
+        standbyServers = standbyServersOf(config);
+    }
+
+    private static List<ClusterServerAddress> standbyServersOf(ClusterClientAssignConfig config) {
+        if (config.getStandbyServers() == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(config.getStandbyServers()));
     }
 
     public static boolean isValidAssignConfig(ClusterClientAssignConfig config) {
-        return config != null && StringUtil.isNotBlank(config.getServerHost())
-            && config.getServerPort() > 0
-            && config.getServerPort() <= 65535;
+        if (config == null || StringUtil.isBlank(config.getServerHost())
+            || config.getServerPort() == null || config.getServerPort() <= 0 || config.getServerPort() > 65535) {
+            return false;
+        }
+        if (config.getStandbyServers() != null) {
+            for (ClusterServerAddress address : config.getStandbyServers()) {
+                if (address == null || !address.isValid()) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     public static boolean isValidClientConfig(ClusterClientConfig config) {
-        return config != null && config.getRequestTimeout() > 0;
+        return config != null && config.getRequestTimeout() > 0
+            && (config.getConnectionPoolSize() == null || (config.getConnectionPoolSize() > 0
+            && config.getConnectionPoolSize() <= ClusterClientConfig.MAX_CONNECTION_POOL_SIZE));
     }
 
     public static String getServerHost() {
@@ -202,6 +230,26 @@ public final class ClusterClientConfigManager {
         return serverPort;
     }
 
+    public static List<ClusterServerAddress> getStandbyServers() {
+        return standbyServers;
+    }
+
+    /**
+     * Get all token servers in order of preference, the assigned server is the first.
+     *
+     * @return all token servers, or empty list if no server is assigned
+     * @since 1.7.0
+     */
+    public static List<ClusterServerAddress> getServerList() {
+        if (StringUtil.isBlank(serverHost)) {
+            return Collections.emptyList();
+        }
+        List<ClusterServerAddress> serverList = new ArrayList<>(standbyServers.size() + 1);
+        serverList.add(new ClusterServerAddress(serverHost, serverPort));
+        serverList.addAll(standbyServers);
+        return serverList;
+    }
+
     public static int getRequestTimeout() {
         return requestTimeout;
     }
@@ -210,5 +258,9 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    public static int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
     private ClusterClientConfigManager() {}
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A preallocated ring of in-flight request slots of one connection. The slot of a request is
+ * indexed by {@code xid & (capacity - 1)}, so matching a response costs no allocation or hashing.</p>
+ *
+ * <p>As request ids are generated sequentially, a slot is reused only after {@code capacity} later
+ * requests have been sent. If the slot is still occupied then (i.e. too many requests are in flight),
+ * the new request fails fast.</p>
+ *
+ * <p>If an {@link RttEstimator} is provided, the elapsed time of every completed or timed-out request
+ * is reported to it.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class InFlightRequests {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int FREE = 0;
+    private static final int RESERVED = -1;
+
+    private static final SentinelClusterException TIMEOUT_EXCEPTION =
+        new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+    private static final SentinelClusterException CLOSED_EXCEPTION =
+        new SentinelClusterException(ClusterErrorMessages.CONNECTION_CLOSED);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicInteger inFlightCount = new AtomicInteger(0);
+    private final RttEstimator rttEstimator;
+
+    public InFlightRequests() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InFlightRequests(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity     max count of in-flight requests, should be a power of two
+     * @param rttEstimator estimator to report the RTT of requests to, or null if RTT is not needed
+     * @since 1.7.0
+     */
+    public InFlightRequests(int capacity, RttEstimator rttEstimator) {
+        AssertUtil.isTrue(capacity > 0 && (capacity & (capacity - 1)) == 0, "capacity should be a power of two");
+        this.rttEstimator = rttEstimator;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Register an in-flight request.
+     *
+     * @param xid      positive id of the request
+     * @param callback callback of the request
+     * @param deadline the time (in ms) after which the request times out
+     * @return true if registered, false if the slot is still occupied by a previous request
+     */
+    public boolean register(int xid, ClusterResponseCallback callback, long deadline) {
+        return register(xid, callback, deadline, true);
+    }
+
+    /**
+     * Register an in-flight request.
+     *
+     * @param xid       positive id of the request
+     * @param callback  callback of the request
+     * @param deadline  the time (in ms) after which the request times out
+     * @param sampleRtt whether to report the elapsed time of the request as RTT, which should be false
+     *                  if the server might hold the request on purpose (e.g. queued for tokens)
+     * @return true if registered, false if the slot is still occupied by a previous request
+     * @since 1.7.0
+     */
+    public boolean register(int xid, ClusterResponseCallback callback, long deadline, boolean sampleRtt) {
+        Slot slot = slots[xid & mask];
+        if (!slot.compareAndSet(FREE, RESERVED)) {
+            return false;
+        }
+        slot.callback = callback;
+        slot.deadline = deadline;
+        slot.sampleRtt = sampleRtt;
+        slot.sendTime = System.nanoTime();
+        inFlightCount.incrementAndGet();
+        // Publish the slot, then it's visible to the response handler and the timeout checker.
+        slot.set(xid);
+        return true;
+    }
+
+    /**
+     * Complete the in-flight request with its response.
+     *
+     * @param xid      id of the request
+     * @param response response of the request
+     * @return true if completed, false if the request has been completed or timed out
+     */
+    public boolean complete(int xid, ClusterResponse response) {
+        ClusterResponseCallback callback = release(slots[xid & mask], xid, true);
+        if (callback == null) {
+            return false;
+        }
+        callback.onResponse(response);
+        return true;
+    }
+
+    /**
+     * Remove the in-flight request as timed out without notifying the callback (e.g. the caller has stopped
+     * waiting for the response).
+     *
+     * @param xid id of the request
+     * @return true if removed, false if the request has been completed or timed out
+     * @since 1.7.0
+     */
+    public boolean expire(int xid) {
+        return release(slots[xid & mask], xid, true) != null;
+    }
+
+    /**
+     * Remove the in-flight request without notifying the callback.
+     *
+     * @param xid id of the request
+     * @return true if removed, false if the request has been completed or timed out
+     */
+    public boolean cancel(int xid) {
+        return release(slots[xid & mask], xid, false) != null;
+    }
+
+    /**
+     * Fail all requests that are due before {@code currentTime}.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    public void checkTimeout(long currentTime) {
+        if (inFlightCount.get() == 0) {
+            return;
+        }
+        for (Slot slot : slots) {
+            int xid = slot.get();
+            if (xid > 0 && slot.deadline <= currentTime) {
+                ClusterResponseCallback callback = release(slot, xid, true);
+                if (callback != null) {
+                    callback.onFailure(TIMEOUT_EXCEPTION);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fail all in-flight requests, e.g. when the connection is closed.
+     */
+    public void failAll() {
+        if (inFlightCount.get() == 0) {
+            return;
+        }
+        for (Slot slot : slots) {
+            int xid = slot.get();
+            if (xid > 0) {
+                ClusterResponseCallback callback = release(slot, xid, false);
+                if (callback != null) {
+                    callback.onFailure(CLOSED_EXCEPTION);
+                }
+            }
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    private ClusterResponseCallback release(Slot slot, int xid, boolean sampleRtt) {
+        if (xid <= 0 || slot.get() != xid) {
+            return null;
+        }
+        // The callback must be read before the slot is released for reuse.
+        ClusterResponseCallback callback = slot.callback;
+        long sendTime = slot.sendTime;
+        sampleRtt = sampleRtt && slot.sampleRtt;
+        if (!slot.compareAndSet(xid, FREE)) {
+            return null;
+        }
+        inFlightCount.decrementAndGet();
+        if (sampleRtt && rttEstimator != null) {
+            rttEstimator.update(System.nanoTime() - sendTime);
+        }
+        return callback;
+    }
+
+    /**
+     * The value of the slot is the id of the in-flight request ({@link #FREE} if available).
+     */
+    @SuppressWarnings("serial")
+    private static final class Slot extends AtomicInteger {
+        private ClusterResponseCallback callback;
+        private long deadline;
+        private long sendTime;
+        private boolean sampleRtt;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+/**
+ * <p>Round-trip time estimator of a connection, which derives the timeout of requests from the smoothed RTT
+ * and its mean deviation (i.e. {@code srtt + 4 * rttvar}, the same as the retransmission timeout of TCP).</p>
+ *
+ * <p>A request that times out is accounted as a sample of its elapsed time, so that the timeout backs off
+ * when the server slows down.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class RttEstimator {
+
+    /**
+     * The timeout will never be shorter than this, to tolerate jitters of scheduling.
+     */
+    public static final int MIN_TIMEOUT_MS = 2;
+
+    private volatile long smoothedRttMicros = -1;
+    private volatile long rttVarMicros = 0;
+
+    /**
+     * Add a new RTT sample.
+     *
+     * @param rttNanos RTT of a request in nanoseconds
+     */
+    public synchronized void update(long rttNanos) {
+        long rtt = Math.max(rttNanos / 1000, 0);
+        long srtt = smoothedRttMicros;
+        if (srtt < 0) {
+            this.rttVarMicros = rtt / 2;
+            this.smoothedRttMicros = rtt;
+            return;
+        }
+        // rttvar = 3/4 * rttvar + 1/4 * |srtt - rtt|, srtt = 7/8 * srtt + 1/8 * rtt
+        this.rttVarMicros = rttVarMicros - (rttVarMicros >> 2) + (Math.abs(srtt - rtt) >> 2);
+        this.smoothedRttMicros = srtt - (srtt >> 3) + (rtt >> 3);
+    }
+
+    /**
+     * Get the timeout of next request.
+     *
+     * @param maxTimeoutMs upper bound of the timeout, which is also used when there is no sample yet
+     * @return timeout in milliseconds
+     */
+    public int getTimeoutMs(int maxTimeoutMs) {
+        long srtt = smoothedRttMicros;
+        if (srtt < 0) {
+            return maxTimeoutMs;
+        }
+        long timeoutMs = (srtt + 4 * rttVarMicros + 999) / 1000;
+        return (int)Math.max(Math.min(timeoutMs, maxTimeoutMs), Math.min(MIN_TIMEOUT_MS, maxTimeoutMs));
+    }
+
+    /**
+     * @return smoothed RTT in microseconds, or -1 if there is no sample yet
+     */
+    public long getSmoothedRttMicros() {
+        return smoothedRttMicros;
+    }
+
+    public long getRttVarMicros() {
+        return rttVarMicros;
+    }
+}
@@ -38,16 +38,33 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
+    private final InFlightRequests inFlightRequests;
+    private final boolean pingOnActive;
 
-    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              InFlightRequests inFlightRequests) {
+        this(currentState, disconnectCallback, inFlightRequests, true);
+    }
+
+    /**
+     * @param pingOnActive whether to ping with the namespace when connected. Only one connection of a client
+     *                     should ping, otherwise the server would count the client more than once
+     * @since 1.7.0
+     */
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              InFlightRequests inFlightRequests, boolean pingOnActive) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
+        this.inFlightRequests = inFlightRequests;
+        this.pingOnActive = pingOnActive;
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         currentState.set(ClientConstants.CLIENT_STATUS_STARTED);
-        fireClientPing(ctx);
+        if (pingOnActive) {
+            fireClientPing(ctx);
+        }
         RecordLog.info("[TokenClientHandler] Client handler active, remote address: " + getRemoteAddress(ctx));
     }
 
@@ -61,7 +78,7 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            TokenClientPromiseHolder.completePromise(response.getId(), response);
+            inFlightRequests.complete(response.getId(), response);
         }
     }
 
@@ -91,6 +108,8 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         RecordLog.info("[TokenClientHandler] Client handler inactive, remote address: " + getRemoteAddress(ctx));
+        // Responses of in-flight requests will never arrive.
+        inFlightRequests.failAll();
     }
 
     @Override
@@ -16,6 +16,11 @@
 package com.alibaba.csp.sentinel.cluster.client.init;
 
 import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.BatchFlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.BatchFlowResponseDataDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.ConcurrentFlowResponseDataDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.ConcurrentReleaseRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.MetricExportResponseDataDecoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowRequestDataWriter;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowResponseDataDecoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.ParamFlowRequestDataWriter;
@@ -43,11 +48,23 @@ public class DefaultClusterClientInitFunc implements InitFunc {
         RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_PING, new PingRequestDataWriter());
         RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_FLOW, new FlowRequestDataWriter());
         RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_PARAM_FLOW, new ParamFlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_FLOW_LEASE, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_BATCH_FLOW, new BatchFlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_CONCURRENT_FLOW_ACQUIRE, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_CONCURRENT_FLOW_RELEASE,
+            new ConcurrentReleaseRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_METRIC_SUBSCRIBE, new PingRequestDataWriter());
     }
 
     private void initDefaultEntityDecoders() {
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_PING, new PingResponseDataDecoder());
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_FLOW, new FlowResponseDataDecoder());
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_PARAM_FLOW, new FlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_FLOW_LEASE, new FlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_BATCH_FLOW, new BatchFlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_CONCURRENT_FLOW_ACQUIRE,
+            new ConcurrentFlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_METRIC_SUBSCRIBE,
+            new MetricExportResponseDataDecoder());
     }
 }
@@ -15,6 +15,10 @@
  */
 package com.alibaba.csp.sentinel.command.entity;
 
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
 
@@ -26,10 +30,12 @@ public class ClusterClientStateEntity {
 
     private String serverHost;
     private Integer serverPort;
+    private List<ClusterServerAddress> standbyServers;
 
     private Integer clientState;
 
     private Integer requestTimeout;
+    private Integer connectionPoolSize;
 
     public String getServerHost() {
         return serverHost;
@@ -49,6 +55,15 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public List<ClusterServerAddress> getStandbyServers() {
+        return standbyServers;
+    }
+
+    public ClusterClientStateEntity setStandbyServers(List<ClusterServerAddress> standbyServers) {
+        this.standbyServers = standbyServers;
+        return this;
+    }
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -58,6 +73,15 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public Integer getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public ClusterClientStateEntity setConnectionPoolSize(Integer connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+        return this;
+    }
+
     public Integer getClientState() {
         return clientState;
     }
@@ -68,13 +92,16 @@ public class ClusterClientStateEntity {
     }
 
     public ClusterClientConfig toClientConfig() {
-        return new ClusterClientConfig().setRequestTimeout(requestTimeout);
+        return new ClusterClientConfig()
+            .setRequestTimeout(requestTimeout)
+            .setConnectionPoolSize(connectionPoolSize);
     }
 
     public ClusterClientAssignConfig toAssignConfig() {
         return new ClusterClientAssignConfig()
             .setServerHost(serverHost)
-            .setServerPort(serverPort);
+            .setServerPort(serverPort)
+            .setStandbyServers(standbyServers);
     }
 
     @Override
@@ -82,8 +109,10 @@ public class ClusterClientStateEntity {
         return "ClusterClientStateEntity{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", standbyServers=" + standbyServers +
             ", clientState=" + clientState +
             ", requestTimeout=" + requestTimeout +
+            ", connectionPoolSize=" + connectionPoolSize +
             '}';
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class BatchFlowRequestDataWriterTest {
+
+    @Test
+    public void testWriteTo() {
+        List<FlowRequestData> requestList = new ArrayList<>();
+        requestList.add(new FlowRequestData().setFlowId(111L).setCount(1).setPriority(false));
+        requestList.add(new FlowRequestData().setFlowId(222L).setCount(2).setPriority(true));
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            new BatchFlowRequestDataWriter().writeTo(new BatchFlowRequestData().setRequestList(requestList), buf);
+
+            assertEquals(2 + 2 * 13, buf.readableBytes());
+            assertEquals(2, buf.readShort());
+            assertEquals(111L, buf.readLong());
+            assertEquals(1, buf.readInt());
+            assertFalse(buf.readBoolean());
+            assertEquals(222L, buf.readLong());
+            assertEquals(2, buf.readInt());
+            assertTrue(buf.readBoolean());
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import com.alibaba.csp.sentinel.cluster.ClusterResponseCallback;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class InFlightRequestsTest {
+
+    @Test
+    public void testRegisterAndComplete() {
+        InFlightRequests requests = new InFlightRequests(4);
+        RecordingCallback callback = new RecordingCallback();
+        assertTrue(requests.register(1, callback, 100));
+        assertEquals(1, requests.getInFlightCount());
+
+        ClusterResponse response = new ClusterResponse().setId(1);
+        // Response of another request should not complete it.
+        assertFalse(requests.complete(5, response));
+        assertTrue(requests.complete(1, response));
+        assertSame(response, callback.response);
+        assertEquals(0, requests.getInFlightCount());
+
+        // Duplicate response is ignored.
+        assertFalse(requests.complete(1, response));
+        assertEquals(1, callback.count);
+    }
+
+    @Test
+    public void testSlotOccupied() {
+        InFlightRequests requests = new InFlightRequests(4);
+        assertTrue(requests.register(1, new RecordingCallback(), 100));
+        // Request 5 shares the slot with request 1.
+        assertFalse(requests.register(5, new RecordingCallback(), 100));
+        assertTrue(requests.register(2, new RecordingCallback(), 100));
+
+        assertTrue(requests.cancel(1));
+        assertFalse(requests.cancel(1));
+        assertTrue(requests.register(5, new RecordingCallback(), 100));
+        assertEquals(2, requests.getInFlightCount());
+    }
+
+    @Test
+    public void testCheckTimeoutAndFailAll() {
+        InFlightRequests requests = new InFlightRequests(8);
+        RecordingCallback timeout = new RecordingCallback();
+        RecordingCallback pending = new RecordingCallback();
+        assertTrue(requests.register(1, timeout, 100));
+        assertTrue(requests.register(2, pending, 200));
+
+        requests.checkTimeout(150);
+        assertNotNull(timeout.error);
+        assertNull(pending.error);
+        assertFalse(requests.complete(1, new ClusterResponse()));
+
+        requests.failAll();
+        assertNotNull(pending.error);
+        assertEquals(1, pending.count);
+        assertEquals(0, requests.getInFlightCount());
+    }
+
+    @Test
+    public void testSampleRtt() {
+        RttEstimator estimator = new RttEstimator();
+        InFlightRequests requests = new InFlightRequests(4, estimator);
+        RecordingCallback callback = new RecordingCallback();
+        assertTrue(requests.register(1, callback, 100));
+        assertTrue(requests.register(2, callback, 100));
+
+        // Cancelled requests are not sampled.
+        assertTrue(requests.cancel(1));
+        assertEquals(-1, estimator.getSmoothedRttMicros());
+
+        // Expired requests are sampled without notifying the callback.
+        assertTrue(requests.expire(2));
+        assertFalse(requests.expire(2));
+        assertTrue(estimator.getSmoothedRttMicros() >= 0);
+        assertEquals(0, callback.count);
+    }
+
+    private static class RecordingCallback implements ClusterResponseCallback {
+        private ClusterResponse response;
+        private Throwable error;
+        private int count;
+
+        @Override
+        public void onResponse(ClusterResponse response) {
+            this.response = response;
+            count++;
+        }
+
+        @Override
+        public void onFailure(Throwable ex) {
+            this.error = ex;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class RttEstimatorTest {
+
+    @Test
+    public void testTimeoutWithoutSample() {
+        RttEstimator estimator = new RttEstimator();
+        assertEquals(-1, estimator.getSmoothedRttMicros());
+        assertEquals(20, estimator.getTimeoutMs(20));
+    }
+
+    @Test
+    public void testTimeoutFollowsRtt() {
+        RttEstimator estimator = new RttEstimator();
+        estimator.update(TimeUnit.MILLISECONDS.toNanos(4));
+        // srtt = 4ms, rttvar = 2ms
+        assertEquals(4000, estimator.getSmoothedRttMicros());
+        assertEquals(2000, estimator.getRttVarMicros());
+        assertEquals(12, estimator.getTimeoutMs(20));
+        // Bounded by the max timeout.
+        assertEquals(10, estimator.getTimeoutMs(10));
+
+        for (int i = 0; i < 100; i++) {
+            estimator.update(TimeUnit.MICROSECONDS.toNanos(200));
+        }
+        // Stable RTT converges to the lower bound.
+        assertEquals(RttEstimator.MIN_TIMEOUT_MS, estimator.getTimeoutMs(20));
+        assertEquals(1, estimator.getTimeoutMs(1));
+    }
+
+    @Test
+    public void testTimeoutBacksOffOnSlowSamples() {
+        RttEstimator estimator = new RttEstimator();
+        for (int i = 0; i < 100; i++) {
+            estimator.update(TimeUnit.MICROSECONDS.toNanos(500));
+        }
+        int timeout = estimator.getTimeoutMs(50);
+        estimator.update(TimeUnit.MILLISECONDS.toNanos(timeout));
+        estimator.update(TimeUnit.MILLISECONDS.toNanos(timeout));
+        assertTrue(estimator.getTimeoutMs(50) > timeout);
+    }
+}
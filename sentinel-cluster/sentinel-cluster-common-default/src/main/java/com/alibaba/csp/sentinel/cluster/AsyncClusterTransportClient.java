@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+
+/**
+ * {@link ClusterTransportClient} which could send requests without waiting for the response,
+ * or without any response at all.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface AsyncClusterTransportClient extends ClusterTransportClient {
+
+    /**
+     * Send request to remote server without waiting for the response. Many requests can be in flight
+     * on the same connection at the same time.
+     *
+     * @param request  Sentinel cluster request
+     * @param callback callback to receive the response or failure (e.g. time out), which is usually invoked
+     *                 in the I/O thread, so it should never block
+     */
+    void sendRequestAsync(ClusterRequest request, ClusterResponseCallback callback);
+
+    /**
+     * Send one-way request to remote server, for which no response is expected.
+     *
+     * @param request Sentinel cluster request
+     * @return true if the request has been written, false if the client is not ready
+     */
+    boolean sendOneway(ClusterRequest request);
+}
@@ -24,6 +24,33 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PING = 0;
     public static final int MSG_TYPE_FLOW = 1;
     public static final int MSG_TYPE_PARAM_FLOW = 2;
+    public static final int MSG_TYPE_FLOW_LEASE = 3;
+    public static final int MSG_TYPE_BATCH_FLOW = 4;
+    public static final int MSG_TYPE_METRIC_SYNC = 5;
+    public static final int MSG_TYPE_CONCURRENT_FLOW_ACQUIRE = 6;
+    public static final int MSG_TYPE_CONCURRENT_FLOW_RELEASE = 7;
+    public static final int MSG_TYPE_METRIC_SUBSCRIBE = 8;
+
+    /**
+     * Max count of flow token requests in one batch frame, so that the frame never exceeds 1024 bytes.
+     */
+    public static final int MAX_BATCH_FLOW_COUNT = 64;
+    /**
+     * Max count of bucket deltas in one metric sync frame, so that the frame never exceeds 1024 bytes.
+     */
+    public static final int MAX_METRIC_SYNC_DELTA_COUNT = 20;
+    /**
+     * Max count of token IDs in one concurrency release frame, so that the frame never exceeds 1024 bytes.
+     */
+    public static final int MAX_RELEASE_TOKEN_COUNT = 120;
+    /**
+     * Max count of flow stats in one metric export frame, so that the frame never exceeds 1024 bytes.
+     */
+    public static final int MAX_METRIC_EXPORT_FLOW_COUNT = 30;
+    /**
+     * Max length (in bytes) of the namespace in a metric export frame.
+     */
+    public static final int MAX_METRIC_EXPORT_NAMESPACE_LENGTH = 255;
 
     public static final int RESPONSE_STATUS_BAD = -1;
     public static final int RESPONSE_STATUS_OK = 0;
@@ -24,6 +24,12 @@ public class FlowRequestData {
     private long flowId;
     private int count;
     private boolean priority;
+    /**
+     * Max time (in ms) the client would wait for the tokens of a prioritized request. If positive, the token
+     * server could hold the request in its admission queue until the tokens are granted, rather than replying
+     * {@code SHOULD_WAIT} immediately.
+     */
+    private int maxWaitMs;
 
     public long getFlowId() {
         return flowId;
@@ -52,12 +58,22 @@ public class FlowRequestData {
         return this;
     }
 
+    public int getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public FlowRequestData setMaxWaitMs(int maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "FlowRequestData{" +
             "flowId=" + flowId +
             ", count=" + count +
             ", priority=" + priority +
+            ", maxWaitMs=" + maxWaitMs +
             '}';
     }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+import java.util.Arrays;
+
+/**
+ * Counts added to a metric bucket of a cluster flow since last replication.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricBucketDelta {
+
+    private long flowId;
+    private long windowStart;
+    /**
+     * Count deltas indexed by the ordinal of cluster flow events.
+     */
+    private long[] counts;
+
+    public long getFlowId() {
+        return flowId;
+    }
+
+    public MetricBucketDelta setFlowId(long flowId) {
+        this.flowId = flowId;
+        return this;
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    public MetricBucketDelta setWindowStart(long windowStart) {
+        this.windowStart = windowStart;
+        return this;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public MetricBucketDelta setCounts(long[] counts) {
+        this.counts = counts;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricBucketDelta{" +
+            "flowId=" + flowId +
+            ", windowStart=" + windowStart +
+            ", counts=" + Arrays.toString(counts) +
+            '}';
+    }
+}
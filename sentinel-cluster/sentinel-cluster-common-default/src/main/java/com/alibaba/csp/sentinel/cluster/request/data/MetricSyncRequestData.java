@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+import java.util.List;
+
+/**
+ * Request data of replicating metric bucket deltas from a token server to its standby servers.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricSyncRequestData {
+
+    private List<MetricBucketDelta> deltaList;
+
+    public List<MetricBucketDelta> getDeltaList() {
+        return deltaList;
+    }
+
+    public MetricSyncRequestData setDeltaList(List<MetricBucketDelta> deltaList) {
+        this.deltaList = deltaList;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricSyncRequestData{" +
+            "deltaList=" + deltaList +
+            '}';
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+
+/**
+ * Response data of {@link com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData}.
+ * The results are in the same order as the requests.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class BatchFlowTokenResponseData {
+
+    private List<TokenResult> resultList;
+
+    public List<TokenResult> getResultList() {
+        return resultList;
+    }
+
+    public BatchFlowTokenResponseData setResultList(List<TokenResult> resultList) {
+        this.resultList = resultList;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFlowTokenResponseData{" +
+            "resultList=" + resultList +
+            '}';
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+/**
+ * Aggregated stats of a cluster flow in one second.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class FlowMetricStat {
+
+    private long flowId;
+    private int passCount;
+    private int blockCount;
+    private int waitingCount;
+    private int occupiedPassCount;
+
+    public long getFlowId() {
+        return flowId;
+    }
+
+    public FlowMetricStat setFlowId(long flowId) {
+        this.flowId = flowId;
+        return this;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public FlowMetricStat setPassCount(int passCount) {
+        this.passCount = passCount;
+        return this;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public FlowMetricStat setBlockCount(int blockCount) {
+        this.blockCount = blockCount;
+        return this;
+    }
+
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    public FlowMetricStat setWaitingCount(int waitingCount) {
+        this.waitingCount = waitingCount;
+        return this;
+    }
+
+    public int getOccupiedPassCount() {
+        return occupiedPassCount;
+    }
+
+    public FlowMetricStat setOccupiedPassCount(int occupiedPassCount) {
+        this.occupiedPassCount = occupiedPassCount;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowMetricStat{" +
+            "flowId=" + flowId +
+            ", passCount=" + passCount +
+            ", blockCount=" + blockCount +
+            ", waitingCount=" + waitingCount +
+            ", occupiedPassCount=" + occupiedPassCount +
+            '}';
+    }
+}
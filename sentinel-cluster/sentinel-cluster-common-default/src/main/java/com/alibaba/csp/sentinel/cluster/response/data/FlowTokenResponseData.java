@@ -23,6 +23,10 @@ public class FlowTokenResponseData {
 
     private int remainingCount;
     private int waitInMs;
+    /**
+     * ID of the granted concurrency permits (since 1.7.0).
+     */
+    private long tokenId;
 
     public int getRemainingCount() {
         return remainingCount;
@@ -42,11 +46,21 @@ public class FlowTokenResponseData {
         return this;
     }
 
+    public long getTokenId() {
+        return tokenId;
+    }
+
+    public FlowTokenResponseData setTokenId(long tokenId) {
+        this.tokenId = tokenId;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "FlowTokenResponseData{" +
             "remainingCount=" + remainingCount +
             ", waitInMs=" + waitInMs +
+            ", tokenId=" + tokenId +
             '}';
     }
 }
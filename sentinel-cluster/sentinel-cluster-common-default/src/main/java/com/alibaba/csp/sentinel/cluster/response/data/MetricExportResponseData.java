@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import java.util.List;
+
+/**
+ * A frame of the per-second cluster flow stats pushed to metric subscribers. The stats of one second
+ * of a namespace might be split into several frames with the same timestamp. Flows without any traffic
+ * in the second are omitted.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricExportResponseData {
+
+    /**
+     * Start time of the second in milliseconds.
+     */
+    private long timestamp;
+    private String namespace;
+    private List<FlowMetricStat> statList;
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public MetricExportResponseData setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public MetricExportResponseData setNamespace(String namespace) {
+        this.namespace = namespace;
+        return this;
+    }
+
+    public List<FlowMetricStat> getStatList() {
+        return statList;
+    }
+
+    public MetricExportResponseData setStatList(List<FlowMetricStat> statList) {
+        this.statList = statList;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricExportResponseData{" +
+            "timestamp=" + timestamp +
+            ", namespace='" + namespace + '\'' +
+            ", statList=" + statList +
+            '}';
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.log.ClusterServerStatLogUtil;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Admission queue of prioritized token requests of a flow.</p>
+ *
+ * <p>Tokens of a flow are released only when buckets slide out of the window, so a prioritized request that
+ * could not pass now is held in the queue, and tokens are granted to pending requests in order of their
+ * deadline as soon as they are released. A request is rejected once its deadline could not be met, i.e.
+ * when it is added (tokens released before the deadline are not enough for the requests ahead) or when
+ * no more token will be released before the deadline.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class ClusterAdmissionQueue {
+
+    static final int MAX_PENDING_COUNT = 1024;
+    static final int DRAIN_INTERVAL_MS = 5;
+
+    private static final ConcurrentHashMap<Long, ClusterAdmissionQueue> QUEUE_MAP = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1,
+        new NamedThreadFactory("sentinel-cluster-admission-queue", true));
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean(false);
+
+    private static final Comparator<PendingRequest> DEADLINE_ORDER = new Comparator<PendingRequest>() {
+        @Override
+        public int compare(PendingRequest o1, PendingRequest o2) {
+            if (o1.deadline != o2.deadline) {
+                return o1.deadline < o2.deadline ? -1 : 1;
+            }
+            return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+        }
+    };
+
+    private final long flowId;
+    private final PriorityQueue<PendingRequest> pending = new PriorityQueue<>(16, DEADLINE_ORDER);
+    private long sequence = 0;
+
+    private ClusterAdmissionQueue(long flowId) {
+        this.flowId = flowId;
+    }
+
+    static ClusterAdmissionQueue getQueue(long flowId) {
+        ClusterAdmissionQueue queue = QUEUE_MAP.get(flowId);
+        if (queue == null) {
+            queue = new ClusterAdmissionQueue(flowId);
+            ClusterAdmissionQueue old = QUEUE_MAP.putIfAbsent(flowId, queue);
+            if (old != null) {
+                queue = old;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Try to acquire tokens now, or hold the request until tokens are granted.
+     *
+     * @param metric          metric of the flow
+     * @param globalThreshold global threshold of the flow
+     * @param acquireCount    token count to acquire
+     * @param maxWaitMs       max time to wait for tokens (in ms)
+     * @param callback        callback to receive the result
+     */
+    void acquire(ClusterMetric metric, double globalThreshold, int acquireCount, int maxWaitMs,
+                 TokenResultCallback callback) {
+        boolean passed;
+        synchronized (this) {
+            // Pending requests go first, so a request could pass directly only if nobody is waiting.
+            passed = pending.isEmpty() && ClusterFlowChecker.tryPassPrioritized(metric, globalThreshold, acquireCount);
+            if (!passed) {
+                long deadline = TimeUtil.currentTimeMillis() + maxWaitMs;
+                if (pending.size() < MAX_PENDING_COUNT
+                    && canMeetDeadline(metric, globalThreshold, acquireCount, deadline)) {
+                    pending.add(new PendingRequest(acquireCount, deadline, sequence++, callback));
+                    metric.add(ClusterFlowEvent.WAITING, acquireCount);
+                    ClusterServerStatLogUtil.log("flow|waiting|" + flowId);
+                    scheduleDrainIfNeeded();
+                    return;
+                }
+            }
+        }
+        if (passed) {
+            callback.onComplete(passedResult());
+        } else {
+            ClusterFlowChecker.recordBlock(flowId, metric, acquireCount, true);
+            callback.onComplete(ClusterFlowChecker.blockedResult());
+        }
+    }
+
+    private boolean canMeetDeadline(ClusterMetric metric, double globalThreshold, int acquireCount, long deadline) {
+        long demand = acquireCount;
+        for (PendingRequest request : pending) {
+            if (request.deadline <= deadline) {
+                demand += request.acquireCount;
+            }
+        }
+        return globalThreshold - metric.getAvgAt(ClusterFlowEvent.PASS_REQUEST, deadline) - demand >= 0;
+    }
+
+    /**
+     * Grant tokens to pending requests in order of deadline, and reject the requests whose deadline
+     * could not be met.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if the queue is empty after draining
+     */
+    boolean drain(long currentTime) {
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(flowId);
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(flowId);
+        List<PendingRequest> completed = new ArrayList<>();
+        boolean empty;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return true;
+            }
+            if (rule == null || metric == null) {
+                // The rule has been removed.
+                while (!pending.isEmpty()) {
+                    completed.add(pending.poll().setStatus(TokenResultStatus.NO_RULE_EXISTS));
+                }
+            } else {
+                double globalThreshold = ClusterFlowChecker.calcGlobalThreshold(rule)
+                    * ClusterServerConfigManager.getExceedCount();
+                PendingRequest head;
+                while ((head = pending.peek()) != null
+                    && ClusterFlowChecker.tryPassPrioritized(metric, globalThreshold, head.acquireCount)) {
+                    completed.add(pending.poll().setStatus(TokenResultStatus.OK));
+                }
+                // No more token will be released until next bucket.
+                long nextRelease = metric.nextWindowStart(currentTime);
+                while ((head = pending.peek()) != null && head.deadline < nextRelease) {
+                    pending.poll();
+                    ClusterFlowChecker.recordBlock(flowId, metric, head.acquireCount, true);
+                    completed.add(head.setStatus(TokenResultStatus.BLOCKED));
+                }
+            }
+            empty = pending.isEmpty();
+        }
+        for (PendingRequest request : completed) {
+            request.complete();
+        }
+        return empty;
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private static TokenResult passedResult() {
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(0)
+            .setWaitInMs(0);
+    }
+
+    private static void scheduleDrainIfNeeded() {
+        if (SCHEDULED.get() || !SCHEDULED.compareAndSet(false, true)) {
+            return;
+        }
+        SCHEDULER.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    drainAll(TimeUtil.currentTimeMillis());
+                } catch (Throwable e) {
+                    RecordLog.warn("[ClusterAdmissionQueue] Failed to drain admission queues", e);
+                }
+            }
+        }, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    static void drainAll(long currentTime) {
+        Iterator<Map.Entry<Long, ClusterAdmissionQueue>> it = QUEUE_MAP.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, ClusterAdmissionQueue> e = it.next();
+            if (e.getValue().drain(currentTime) && ClusterFlowRuleManager.getFlowRuleById(e.getKey()) == null) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class PendingRequest {
+        private final int acquireCount;
+        private final long deadline;
+        private final long sequence;
+        private final TokenResultCallback callback;
+        private int status;
+
+        PendingRequest(int acquireCount, long deadline, long sequence, TokenResultCallback callback) {
+            this.acquireCount = acquireCount;
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.callback = callback;
+        }
+
+        PendingRequest setStatus(int status) {
+            this.status = status;
+            return this;
+        }
+
+        void complete() {
+            try {
+                callback.onComplete(status == TokenResultStatus.OK ? passedResult()
+                    : new TokenResult(status).setRemaining(0).setWaitInMs(0));
+            } catch (Throwable e) {
+                RecordLog.warn("[ClusterAdmissionQueue] Failed to complete pending token request", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * Checker for cluster flow rules whose threshold is the global count of in-flight invocations
+ * (i.e. the grade is thread count). Clients hold the granted permits until the invocations complete.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class ClusterConcurrencyChecker {
+
+    /**
+     * Token IDs start from current time, so that permits granted before a restart of the token server
+     * are unlikely to be confused with new ones.
+     */
+    private static final ClusterPermitTable PERMIT_TABLE = new ClusterPermitTable(
+        ClusterPermitTable.DEFAULT_CAPACITY, (TimeUtil.currentTimeMillis() << 20) + 1);
+
+    static TokenResult acquireConcurrentToken(/*@Valid*/ FlowRule rule, int acquireCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!ClusterFlowChecker.allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        double globalThreshold = ClusterFlowChecker.calcGlobalThreshold(rule)
+            * ClusterServerConfigManager.getExceedCount();
+        long tokenId = PERMIT_TABLE.tryAcquire(id, acquireCount, globalThreshold,
+            rule.getClusterConfig().getPermitLeaseMs(), TimeUtil.currentTimeMillis());
+        if (tokenId == ClusterPermitTable.TABLE_FULL) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (tokenId == ClusterPermitTable.BLOCKED) {
+            if (metric != null) {
+                ClusterFlowChecker.recordBlock(id, metric, acquireCount, false);
+            }
+            return ClusterFlowChecker.blockedResult();
+        }
+        if (metric != null) {
+            metric.add(ClusterFlowEvent.PASS, acquireCount);
+            metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+        }
+        int remaining = (int)(globalThreshold - PERMIT_TABLE.getInFlightCount(id));
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(Math.max(remaining, 0))
+            .setWaitInMs(0)
+            .setTokenId(tokenId);
+    }
+
+    static void releaseConcurrentToken(long tokenId) {
+        PERMIT_TABLE.release(tokenId);
+    }
+
+    private ClusterConcurrencyChecker() {}
+}
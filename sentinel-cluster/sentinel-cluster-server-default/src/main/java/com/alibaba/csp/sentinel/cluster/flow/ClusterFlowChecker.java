@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.cluster.flow;
 
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.limit.GlobalRequestLimiter;
@@ -35,7 +36,7 @@ import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
  */
 final class ClusterFlowChecker {
 
-    private static double calcGlobalThreshold(FlowRule rule) {
+    static double calcGlobalThreshold(FlowRule rule) {
         double count = rule.getCount();
         switch (rule.getClusterConfig().getThresholdType()) {
             case ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL:
@@ -97,21 +98,104 @@ final class ClusterFlowChecker {
                 }
             }
             // Blocked.
-            metric.add(ClusterFlowEvent.BLOCK, acquireCount);
-            metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
-            ClusterServerStatLogUtil.log("flow|block|" + id, acquireCount);
-            ClusterServerStatLogUtil.log("flow|block_request|" + id, 1);
-            if (prioritized) {
-                // Add prioritized block.
-                metric.add(ClusterFlowEvent.OCCUPIED_BLOCK, acquireCount);
-                ClusterServerStatLogUtil.log("flow|occupied_block|" + id, 1);
-            }
-
+            recordBlock(id, metric, acquireCount, prioritized);
             return blockedResult();
         }
     }
 
-    private static TokenResult blockedResult() {
+    /**
+     * Acquire tokens for a prioritized request that could wait for at most {@code maxWaitMs}. If no token is
+     * available now, the request is held in the admission queue of the flow, and the callback will be completed
+     * once tokens are granted, or the deadline could not be met any more.
+     *
+     * @param rule         valid cluster flow rule
+     * @param acquireCount token count to acquire
+     * @param maxWaitMs    max time to wait for tokens (in ms)
+     * @param callback     callback to receive the result
+     */
+    static void acquireClusterTokenQueued(/*@Valid*/ FlowRule rule, int acquireCount, int maxWaitMs,
+                                          TokenResultCallback callback) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!allowProceed(id)) {
+            callback.onComplete(new TokenResult(TokenResultStatus.TOO_MANY_REQUEST));
+            return;
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            callback.onComplete(new TokenResult(TokenResultStatus.FAIL));
+            return;
+        }
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        ClusterAdmissionQueue.getQueue(id).acquire(metric, globalThreshold, acquireCount, maxWaitMs, callback);
+    }
+
+    /**
+     * Pass the prioritized request if tokens are available now.
+     *
+     * @return true if passed, otherwise false (nothing is recorded)
+     */
+    static boolean tryPassPrioritized(ClusterMetric metric, double globalThreshold, int acquireCount) {
+        double latestQps = metric.getAvg(ClusterFlowEvent.PASS_REQUEST);
+        if (globalThreshold - latestQps - acquireCount < 0) {
+            return false;
+        }
+        metric.add(ClusterFlowEvent.PASS, acquireCount);
+        metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+        metric.add(ClusterFlowEvent.OCCUPIED_PASS, acquireCount);
+        return true;
+    }
+
+    static void recordBlock(long id, ClusterMetric metric, int acquireCount, boolean prioritized) {
+        metric.add(ClusterFlowEvent.BLOCK, acquireCount);
+        metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
+        ClusterServerStatLogUtil.log("flow|block|" + id, acquireCount);
+        ClusterServerStatLogUtil.log("flow|block_request|" + id, 1);
+        if (prioritized) {
+            // Add prioritized block.
+            metric.add(ClusterFlowEvent.OCCUPIED_BLOCK, acquireCount);
+            ClusterServerStatLogUtil.log("flow|occupied_block|" + id, 1);
+        }
+    }
+
+    /**
+     * Grant a lease of at most {@code leaseCount} tokens, which will be spent by the client locally.
+     * The granted tokens are accounted as passed immediately, so the global threshold still holds.
+     *
+     * @param rule       valid cluster flow rule
+     * @param leaseCount max count of tokens to lease
+     * @return the result, where the remaining count is the granted token count
+     */
+    static TokenResult acquireClusterTokenLease(/*@Valid*/ FlowRule rule, int leaseCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+
+        double latestQps = metric.getAvg(ClusterFlowEvent.PASS_REQUEST);
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        int granted = (int) Math.min(leaseCount, Math.floor(globalThreshold - latestQps));
+
+        if (granted > 0) {
+            metric.add(ClusterFlowEvent.PASS, granted);
+            metric.add(ClusterFlowEvent.PASS_REQUEST, granted);
+            return new TokenResult(TokenResultStatus.OK)
+                .setRemaining(granted)
+                .setWaitInMs(0);
+        }
+        metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
+        ClusterServerStatLogUtil.log("flow|lease_block|" + id, 1);
+        return blockedResult();
+    }
+
+    static TokenResult blockedResult() {
         return new TokenResult(TokenResultStatus.BLOCKED)
             .setRemaining(0)
             .setWaitInMs(0);
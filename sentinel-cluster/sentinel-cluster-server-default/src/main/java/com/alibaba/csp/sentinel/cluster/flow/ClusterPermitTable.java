@@ -0,0 +1,232 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Table of concurrency permits granted by the token server, which are held by clients until released.</p>
+ *
+ * <p>Permits are kept in parallel primitive arrays indexed by open addressing (linear probing) on the
+ * token ID, so an outstanding permit costs no object allocation. Removed entries are filled by shifting
+ * later entries of the probe sequence backward, so no tombstone is left. Every permit carries an expire time,
+ * and expired permits (e.g. of crashed clients) are swept lazily, at most once per {@link #SWEEP_INTERVAL_MS}.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class ClusterPermitTable {
+
+    static final int DEFAULT_CAPACITY = 1024;
+    static final int MAX_CAPACITY = 1 << 20;
+    static final long SWEEP_INTERVAL_MS = 1000;
+
+    /**
+     * The permit is not granted as the table is full.
+     */
+    static final long TABLE_FULL = -1;
+    /**
+     * The permit is not granted as the threshold would be exceeded.
+     */
+    static final long BLOCKED = 0;
+
+    private static final long EMPTY = 0;
+
+    private long[] tokenIds;
+    private long[] flowIds;
+    private int[] counts;
+    private long[] expireTimes;
+    private int mask;
+    private int size;
+
+    /**
+     * Count of permits in flight of each flow.
+     */
+    private final Map<Long, int[]> inFlightCounts = new HashMap<Long, int[]>();
+
+    private long nextTokenId;
+    private long nextSweepTime;
+
+    ClusterPermitTable(int initialCapacity, long firstTokenId) {
+        AssertUtil.isTrue(initialCapacity > 0 && (initialCapacity & (initialCapacity - 1)) == 0,
+            "initialCapacity should be a power of two");
+        AssertUtil.isTrue(firstTokenId > 0, "firstTokenId should be positive");
+        allocate(initialCapacity);
+        this.nextTokenId = firstTokenId;
+    }
+
+    /**
+     * Grant a permit of {@code count} to the flow, if the count of permits in flight would not exceed the threshold.
+     *
+     * @param flowId      flow ID
+     * @param count       permit count to acquire
+     * @param threshold   max count of permits in flight of the flow
+     * @param leaseMs     lease of the permit (in ms)
+     * @param currentTime current time in milliseconds
+     * @return positive ID of the granted permit, or {@link #BLOCKED}, or {@link #TABLE_FULL}
+     */
+    synchronized long tryAcquire(long flowId, int count, double threshold, long leaseMs, long currentTime) {
+        if (currentTime >= nextSweepTime) {
+            sweep(currentTime);
+        }
+        int[] inFlight = inFlightCounts.get(flowId);
+        int current = inFlight == null ? 0 : inFlight[0];
+        if (current + count > threshold) {
+            return BLOCKED;
+        }
+        if ((size + 1) * 2 > tokenIds.length) {
+            if (tokenIds.length >= MAX_CAPACITY) {
+                return TABLE_FULL;
+            }
+            resize(tokenIds.length * 2);
+        }
+        long tokenId = nextTokenId++;
+        if (nextTokenId <= 0) {
+            nextTokenId = 1;
+        }
+        insert(tokenId, flowId, count, currentTime + leaseMs);
+        if (inFlight == null) {
+            inFlightCounts.put(flowId, new int[] {count});
+        } else {
+            inFlight[0] += count;
+        }
+        return tokenId;
+    }
+
+    /**
+     * Release the permit. Unknown (e.g. expired) permits are ignored.
+     *
+     * @param tokenId ID of the permit
+     * @return true if released, otherwise false
+     */
+    synchronized boolean release(long tokenId) {
+        if (tokenId == EMPTY) {
+            return false;
+        }
+        int i = indexOf(tokenId);
+        while (tokenIds[i] != EMPTY) {
+            if (tokenIds[i] == tokenId) {
+                removeAt(i);
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all permits that expire before {@code currentTime}.
+     *
+     * @param currentTime current time in milliseconds
+     * @return count of removed permits
+     */
+    synchronized int sweep(long currentTime) {
+        nextSweepTime = currentTime + SWEEP_INTERVAL_MS;
+        if (size == 0) {
+            return 0;
+        }
+        int removed = 0;
+        for (int i = 0; i < tokenIds.length; i++) {
+            // Removing shifts a later entry into the slot, so check the slot again.
+            while (tokenIds[i] != EMPTY && expireTimes[i] <= currentTime) {
+                removeAt(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int getInFlightCount(long flowId) {
+        int[] inFlight = inFlightCounts.get(flowId);
+        return inFlight == null ? 0 : inFlight[0];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void insert(long tokenId, long flowId, int count, long expireTime) {
+        int i = indexOf(tokenId);
+        while (tokenIds[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        tokenIds[i] = tokenId;
+        flowIds[i] = flowId;
+        counts[i] = count;
+        expireTimes[i] = expireTime;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        int[] inFlight = inFlightCounts.get(flowIds[i]);
+        if (inFlight != null) {
+            inFlight[0] -= counts[i];
+            if (inFlight[0] <= 0) {
+                inFlightCounts.remove(flowIds[i]);
+            }
+        }
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (tokenIds[j] == EMPTY) {
+                break;
+            }
+            int home = indexOf(tokenIds[j]);
+            // The entry could fill the hole only if its home slot is not cyclically within (hole, j].
+            boolean reachable = hole < j ? (home > hole && home <= j) : (home > hole || home <= j);
+            if (!reachable) {
+                tokenIds[hole] = tokenIds[j];
+                flowIds[hole] = flowIds[j];
+                counts[hole] = counts[j];
+                expireTimes[hole] = expireTimes[j];
+                hole = j;
+            }
+        }
+        tokenIds[hole] = EMPTY;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldTokenIds = tokenIds;
+        long[] oldFlowIds = flowIds;
+        int[] oldCounts = counts;
+        long[] oldExpireTimes = expireTimes;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldTokenIds.length; i++) {
+            if (oldTokenIds[i] != EMPTY) {
+                insert(oldTokenIds[i], oldFlowIds[i], oldCounts[i], oldExpireTimes[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.tokenIds = new long[capacity];
+        this.flowIds = new long[capacity];
+        this.counts = new int[capacity];
+        this.expireTimes = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private int indexOf(long tokenId) {
+        long h = tokenId * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+}
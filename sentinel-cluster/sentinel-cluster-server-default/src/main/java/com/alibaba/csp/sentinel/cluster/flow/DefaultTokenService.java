@@ -15,10 +15,17 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import com.alibaba.csp.sentinel.cluster.AsyncTokenService;
+import com.alibaba.csp.sentinel.cluster.BatchTokenService;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
@@ -31,7 +38,8 @@ import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class DefaultTokenService implements TokenService {
+public class DefaultTokenService implements TokenService, AsyncTokenService, BatchTokenService,
+    ConcurrentTokenService, TokenLeaseService {
 
     @Override
     public TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized) {
@@ -47,6 +55,83 @@ public class DefaultTokenService implements TokenService {
         return ClusterFlowChecker.acquireClusterToken(rule, acquireCount, prioritized);
     }
 
+    @Override
+    public void requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized, TokenResultCallback callback) {
+        // Tokens are acquired from local rules directly, so just complete in the caller thread.
+        callback.onComplete(requestToken(ruleId, acquireCount, prioritized));
+    }
+
+    /**
+     * Request tokens for a prioritized request that could wait for at most {@code maxWaitMs}. If no token is
+     * available now, the request is queued in the token server, and the callback is completed once tokens are
+     * granted or the deadline could not be met.
+     *
+     * @param ruleId       the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param maxWaitMs    max time to wait for tokens (in ms)
+     * @param callback     callback to receive the result, which might be invoked in another thread
+     * @since 1.7.0
+     */
+    public void requestQueuedToken(Long ruleId, int acquireCount, int maxWaitMs, TokenResultCallback callback) {
+        if (notValidRequest(ruleId, acquireCount) || maxWaitMs <= 0) {
+            callback.onComplete(badRequest());
+            return;
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            callback.onComplete(new TokenResult(TokenResultStatus.NO_RULE_EXISTS));
+            return;
+        }
+
+        ClusterFlowChecker.acquireClusterTokenQueued(rule, acquireCount, maxWaitMs, callback);
+    }
+
+    @Override
+    public List<TokenResult> requestTokens(List<Long> ruleIds, int acquireCount, boolean prioritized) {
+        List<TokenResult> results = new ArrayList<>(ruleIds.size());
+        for (Long ruleId : ruleIds) {
+            results.add(requestToken(ruleId, acquireCount, prioritized));
+        }
+        return results;
+    }
+
+    @Override
+    public TokenResult requestTokenLease(Long ruleId, int leaseCount) {
+        if (notValidRequest(ruleId, leaseCount)) {
+            return badRequest();
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.acquireClusterTokenLease(rule, leaseCount);
+    }
+
+    @Override
+    public TokenResult requestConcurrentToken(Long ruleId, int acquireCount) {
+        if (notValidRequest(ruleId, acquireCount)) {
+            return badRequest();
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterConcurrencyChecker.acquireConcurrentToken(rule, acquireCount);
+    }
+
+    @Override
+    public void releaseConcurrentToken(Long tokenId) {
+        if (tokenId == null || tokenId <= 0) {
+            return;
+        }
+        ClusterConcurrencyChecker.releaseConcurrentToken(tokenId);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(ruleId, acquireCount) || params == null || params.isEmpty()) {
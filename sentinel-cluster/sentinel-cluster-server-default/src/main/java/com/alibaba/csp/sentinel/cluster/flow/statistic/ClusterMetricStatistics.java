@@ -15,11 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
 import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
@@ -57,6 +59,18 @@ public final class ClusterMetricStatistics {
         return METRIC_MAP.get(id);
     }
 
+    /**
+     * Collect the counts added locally since last collection of all flows.
+     *
+     * @param deltaList list to add the bucket deltas to
+     * @since 1.7.0
+     */
+    public static void collectDeltas(List<MetricBucketDelta> deltaList) {
+        for (Map.Entry<Long, ClusterMetric> entry : METRIC_MAP.entrySet()) {
+            entry.getValue().collectDeltas(entry.getKey(), deltaList);
+        }
+    }
+
     public static void resetFlowMetrics() {
         Set<Long> keySet = METRIC_MAP.keySet();
         for (Long id : keySet) {
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 
 /**
@@ -23,7 +25,19 @@ import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
  */
 public class ClusterMetricBucket {
 
+    /**
+     * Whether to track the counts added locally, so that they could be replicated to standby servers.
+     */
+    private static volatile boolean deltaTracking = false;
+
+    private static final AtomicReferenceFieldUpdater<ClusterMetricBucket, LongAdder[]> DELTAS_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(ClusterMetricBucket.class, LongAdder[].class, "deltas");
+
     private final LongAdder[] counters;
+    /**
+     * Counts added locally, which are only allocated once delta tracking is enabled (i.e. there are standby servers).
+     */
+    private volatile LongAdder[] deltas;
 
     public ClusterMetricBucket() {
         ClusterFlowEvent[] events = ClusterFlowEvent.values();
@@ -34,8 +48,12 @@ public class ClusterMetricBucket {
     }
 
     public void reset() {
+        LongAdder[] deltas = this.deltas;
         for (ClusterFlowEvent event : ClusterFlowEvent.values()) {
             counters[event.ordinal()].reset();
+            if (deltas != null) {
+                deltas[event.ordinal()].reset();
+            }
         }
     }
 
@@ -44,7 +62,69 @@ public class ClusterMetricBucket {
     }
 
     public ClusterMetricBucket add(ClusterFlowEvent event, long count) {
+        counters[event.ordinal()].add(count);
+        if (deltaTracking) {
+            getOrCreateDeltas()[event.ordinal()].add(count);
+        }
+        return this;
+    }
+
+    /**
+     * Add counts replicated from another token server, which won't be replicated again.
+     *
+     * @param event event to add
+     * @param count count to add
+     * @return the bucket
+     * @since 1.7.0
+     */
+    public ClusterMetricBucket merge(ClusterFlowEvent event, long count) {
         counters[event.ordinal()].add(count);
         return this;
     }
+
+    /**
+     * Get the count added locally since last call, then reset it.
+     *
+     * @param event event to get
+     * @return the count added locally since last call
+     * @since 1.7.0
+     */
+    public long takeDelta(ClusterFlowEvent event) {
+        LongAdder[] deltas = this.deltas;
+        if (deltas == null) {
+            return 0;
+        }
+        // Subtract what has been read rather than reset, so that the counts added meanwhile are not lost.
+        LongAdder delta = deltas[event.ordinal()];
+        long sum = delta.sum();
+        if (sum != 0) {
+            delta.add(-sum);
+        }
+        return sum;
+    }
+
+    private LongAdder[] getOrCreateDeltas() {
+        LongAdder[] deltas = this.deltas;
+        if (deltas != null) {
+            return deltas;
+        }
+        ClusterFlowEvent[] events = ClusterFlowEvent.values();
+        LongAdder[] newDeltas = new LongAdder[events.length];
+        for (ClusterFlowEvent event : events) {
+            newDeltas[event.ordinal()] = new LongAdder();
+        }
+        // Only one of the racing threads wins, so that no count is added to a discarded array.
+        if (DELTAS_UPDATER.compareAndSet(this, null, newDeltas)) {
+            return newDeltas;
+        }
+        return this.deltas;
+    }
+
+    public static boolean isDeltaTracking() {
+        return deltaTracking;
+    }
+
+    public static void setDeltaTracking(boolean deltaTracking) {
+        ClusterMetricBucket.deltaTracking = deltaTracking;
+    }
 }
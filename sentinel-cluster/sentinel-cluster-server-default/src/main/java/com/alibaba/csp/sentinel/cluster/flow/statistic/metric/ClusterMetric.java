@@ -19,7 +19,10 @@ import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author Eric Zhao
@@ -27,6 +30,8 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  */
 public class ClusterMetric {
 
+    private static final ClusterFlowEvent[] EVENTS = ClusterFlowEvent.values();
+
     private final ClusterMetricLeapArray metric;
 
     public ClusterMetric(int sampleCount, int intervalInMs) {
@@ -71,6 +76,118 @@ public class ClusterMetric {
         return getSum(event) / metric.getIntervalInSecond();
     }
 
+    /**
+     * Get the average count per second for provided event at given future time, if no more count is added
+     * until then. Counts are released only when their buckets slide out of the window.
+     *
+     * @param event event to calculate
+     * @param time  the future time in milliseconds
+     * @return average count per second for event at the time
+     * @since 1.7.0
+     */
+    public double getAvgAt(ClusterFlowEvent event, long time) {
+        metric.currentWindow();
+        long sum = 0;
+        int intervalInMs = metric.getIntervalInMs();
+        for (WindowWrap<ClusterMetricBucket> w : metric.list()) {
+            if (w.windowStart() + intervalInMs > time) {
+                sum += w.value().get(event);
+            }
+        }
+        return sum / metric.getIntervalInSecond();
+    }
+
+    /**
+     * @param time time in milliseconds
+     * @return start time of the bucket next to the bucket of given time
+     * @since 1.7.0
+     */
+    public long nextWindowStart(long time) {
+        int windowLengthInMs = metric.getIntervalInMs() / metric.getSampleCount();
+        return time - time % windowLengthInMs + windowLengthInMs;
+    }
+
+    /**
+     * Add the counts of completed buckets whose start time is in {@code [startTime, endTime)} to {@code counts}.
+     * The bucket of {@code currentTime} is not completed yet, so it's never collected. Deprecated buckets
+     * are collected as long as they have not been reused.
+     *
+     * @param startTime   start time (inclusive) in milliseconds
+     * @param endTime     end time (exclusive) in milliseconds
+     * @param currentTime current time in milliseconds
+     * @param counts      counts indexed by the ordinal of events
+     * @return the time to start next collection from, i.e. the start time of the first bucket not collected
+     * @since 1.7.0
+     */
+    public long sumCompletedBuckets(long startTime, long endTime, long currentTime, long[] counts) {
+        int windowLengthInMs = metric.getIntervalInMs() / metric.getSampleCount();
+        long end = Math.min(endTime, currentTime - currentTime % windowLengthInMs);
+        if (end <= startTime) {
+            return startTime;
+        }
+        for (WindowWrap<ClusterMetricBucket> w : metric.listAll()) {
+            long windowStart = w.windowStart();
+            if (windowStart >= startTime && windowStart < end) {
+                for (int i = 0; i < counts.length && i < EVENTS.length; i++) {
+                    counts[i] += w.value().get(EVENTS[i]);
+                }
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Collect the counts added locally since last collection from all valid buckets.
+     *
+     * @param flowId    flow ID of the metric
+     * @param deltaList list to add the bucket deltas to
+     * @since 1.7.0
+     */
+    public void collectDeltas(long flowId, List<MetricBucketDelta> deltaList) {
+        for (WindowWrap<ClusterMetricBucket> w : metric.list()) {
+            long[] counts = null;
+            for (ClusterFlowEvent event : EVENTS) {
+                long delta = w.value().takeDelta(event);
+                if (delta != 0) {
+                    if (counts == null) {
+                        counts = new long[EVENTS.length];
+                    }
+                    counts[event.ordinal()] = delta;
+                }
+            }
+            if (counts != null) {
+                deltaList.add(new MetricBucketDelta().setFlowId(flowId)
+                    .setWindowStart(w.windowStart()).setCounts(counts));
+            }
+        }
+    }
+
+    /**
+     * Merge the counts replicated from another token server to the bucket at {@code windowStart}.
+     * Deltas out of current sliding window (e.g. due to clock skew between servers) are dropped.
+     *
+     * @param windowStart start time of the bucket in milliseconds
+     * @param counts      count deltas indexed by the ordinal of events
+     * @return true if merged, otherwise false
+     * @since 1.7.0
+     */
+    public boolean mergeDelta(long windowStart, long[] counts) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (windowStart > currentTime || currentTime - windowStart >= metric.getIntervalInMs()) {
+            return false;
+        }
+        WindowWrap<ClusterMetricBucket> w = metric.currentWindow(windowStart);
+        if (w == null) {
+            return false;
+        }
+        for (int i = 0; i < counts.length && i < EVENTS.length; i++) {
+            if (counts[i] != 0) {
+                w.value().merge(EVENTS[i], counts[i]);
+            }
+        }
+        return true;
+    }
+
     /**
      * Try to pre-occupy upcoming buckets.
      *
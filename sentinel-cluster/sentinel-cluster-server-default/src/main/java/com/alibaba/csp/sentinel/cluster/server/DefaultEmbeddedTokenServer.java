@@ -15,9 +15,16 @@
  */
 package com.alibaba.csp.sentinel.cluster.server;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import com.alibaba.csp.sentinel.cluster.AsyncTokenService;
+import com.alibaba.csp.sentinel.cluster.BatchTokenService;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 
@@ -28,7 +35,8 @@ import com.alibaba.csp.sentinel.cluster.TokenService;
  * @author Eric Zhao
  * @since 1.4.0
  */
-public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
+public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer, AsyncTokenService,
+    BatchTokenService, ConcurrentTokenService, TokenLeaseService {
 
     private final TokenService tokenService = TokenServiceProvider.getService();
     private final ClusterTokenServer server = new SentinelDefaultTokenServer(true);
@@ -51,6 +59,51 @@ public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
         return new TokenResult(TokenResultStatus.FAIL);
     }
 
+    @Override
+    public void requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized, TokenResultCallback callback) {
+        if (tokenService instanceof AsyncTokenService) {
+            ((AsyncTokenService)tokenService).requestTokenAsync(ruleId, acquireCount, prioritized, callback);
+        } else {
+            // Token services from SPI without the asynchronous capability are requested in the caller thread.
+            callback.onComplete(requestToken(ruleId, acquireCount, prioritized));
+        }
+    }
+
+    @Override
+    public List<TokenResult> requestTokens(List<Long> ruleIds, int acquireCount, boolean prioritized) {
+        if (tokenService instanceof BatchTokenService) {
+            return ((BatchTokenService)tokenService).requestTokens(ruleIds, acquireCount, prioritized);
+        }
+        List<TokenResult> results = new ArrayList<>(ruleIds.size());
+        for (Long ruleId : ruleIds) {
+            results.add(requestToken(ruleId, acquireCount, prioritized));
+        }
+        return results;
+    }
+
+    @Override
+    public TokenResult requestTokenLease(Long ruleId, int leaseCount) {
+        if (tokenService instanceof TokenLeaseService) {
+            return ((TokenLeaseService)tokenService).requestTokenLease(ruleId, leaseCount);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
+    @Override
+    public TokenResult requestConcurrentToken(Long ruleId, int acquireCount) {
+        if (tokenService instanceof ConcurrentTokenService) {
+            return ((ConcurrentTokenService)tokenService).requestConcurrentToken(ruleId, acquireCount);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
+    @Override
+    public void releaseConcurrentToken(Long tokenId) {
+        if (tokenService instanceof ConcurrentTokenService) {
+            ((ConcurrentTokenService)tokenService).releaseConcurrentToken(tokenId);
+        }
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (tokenService != null) {
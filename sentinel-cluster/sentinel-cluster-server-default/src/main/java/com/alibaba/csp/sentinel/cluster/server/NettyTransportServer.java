@@ -24,6 +24,7 @@ import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyResponseEncoder;
 import com.alibaba.csp.sentinel.cluster.server.connection.Connection;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
 import com.alibaba.csp.sentinel.cluster.server.handler.TokenServerHandler;
+import com.alibaba.csp.sentinel.cluster.server.shard.TokenShardGroup;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.bootstrap.ServerBootstrap;
@@ -36,7 +37,6 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -56,9 +56,11 @@ public class NettyTransportServer implements ClusterTokenServer {
     private static final int RETRY_SLEEP_MS = 2000;
 
     private final int port;
+    private final int shardCount;
 
     private NioEventLoopGroup bossGroup;
     private NioEventLoopGroup workerGroup;
+    private TokenShardGroup shardGroup;
 
     private final ConnectionPool connectionPool = new ConnectionPool();
 
@@ -66,7 +68,16 @@ public class NettyTransportServer implements ClusterTokenServer {
     private final AtomicInteger failedTimes = new AtomicInteger(0);
 
     public NettyTransportServer(int port) {
+        this(port, 0);
+    }
+
+    /**
+     * @param port       port of the token server
+     * @param shardCount count of token shards, or 0 to process token requests on the event loops
+     */
+    public NettyTransportServer(int port, int shardCount) {
         this.port = port;
+        this.shardCount = shardCount;
     }
 
     @Override
@@ -78,6 +89,11 @@ public class NettyTransportServer implements ClusterTokenServer {
         ServerBootstrap b = new ServerBootstrap();
         this.bossGroup = new NioEventLoopGroup(1);
         this.workerGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
+        final TokenShardGroup shardGroup = shardCount > 0 ? new TokenShardGroup(shardCount) : null;
+        if (shardGroup != null) {
+            shardGroup.start();
+        }
+        this.shardGroup = shardGroup;
         b.group(bossGroup, workerGroup)
             .channel(NioServerSocketChannel.class)
             .option(ChannelOption.SO_BACKLOG, 128)
@@ -88,9 +104,8 @@ public class NettyTransportServer implements ClusterTokenServer {
                     ChannelPipeline p = ch.pipeline();
                     p.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
                     p.addLast(new NettyRequestDecoder());
-                    p.addLast(new LengthFieldPrepender(2));
                     p.addLast(new NettyResponseEncoder());
-                    p.addLast(new TokenServerHandler(connectionPool));
+                    p.addLast(new TokenServerHandler(connectionPool, shardGroup));
                 }
             })
             .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
@@ -106,6 +121,9 @@ public class NettyTransportServer implements ClusterTokenServer {
                     RecordLog.info("[NettyTransportServer] Token server start failed (port=" + port + "), failedTimes: " + failedTimes.get(),
                         future.cause());
                     currentState.compareAndSet(SERVER_STATUS_STARTING, SERVER_STATUS_OFF);
+                    if (shardGroup != null) {
+                        shardGroup.shutdown();
+                    }
                     int failCount = failedTimes.incrementAndGet();
                     if (failCount > MAX_RETRY_TIMES) {
                         return;
@@ -140,6 +158,10 @@ public class NettyTransportServer implements ClusterTokenServer {
             try {
                 bossGroup.shutdownGracefully();
                 workerGroup.shutdownGracefully();
+                if (shardGroup != null) {
+                    shardGroup.shutdown();
+                    shardGroup = null;
+                }
                 connectionPool.shutdownAll();
 
                 failedTimes.set(0);
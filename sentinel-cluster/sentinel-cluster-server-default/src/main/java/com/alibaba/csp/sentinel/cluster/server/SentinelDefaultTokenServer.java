@@ -15,16 +15,20 @@
  */
 package com.alibaba.csp.sentinel.cluster.server;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.registry.ConfigSupplierRegistry;
 import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfigObserver;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
+import com.alibaba.csp.sentinel.cluster.server.replication.ClusterMetricReplicator;
 import com.alibaba.csp.sentinel.init.InitExecutor;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.HostNameUtil;
@@ -40,6 +44,9 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
 
     private ClusterTokenServer server;
     private int port;
+    private int shardCount;
+    private List<ClusterServerAddress> standbyServers = Collections.emptyList();
+    private ClusterMetricReplicator replicator;
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
     static {
@@ -67,9 +74,11 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
         }
         int port = ClusterServerConfigManager.getPort();
         if (port > 0) {
-            this.server = new NettyTransportServer(port);
+            this.shardCount = ClusterServerConfigManager.getShardCount();
+            this.server = new NettyTransportServer(port, shardCount);
             this.port = port;
         }
+        this.standbyServers = ClusterServerConfigManager.getStandbyServers();
     }
 
     private synchronized void changeServerConfig(ServerTransportConfig config) {
@@ -77,18 +86,25 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
             return;
         }
         int newPort = config.getPort();
-        if (newPort == port) {
-            return;
-        }
-        try {
-            if (server != null) {
-                stopServer();
+        if (newPort != port || config.getShardCount() != shardCount) {
+            try {
+                if (server != null) {
+                    stopServer();
+                }
+                this.server = new NettyTransportServer(newPort, config.getShardCount());
+                this.port = newPort;
+                this.shardCount = config.getShardCount();
+                startServerIfScheduled();
+            } catch (Exception ex) {
+                RecordLog.warn("[SentinelDefaultTokenServer] Failed to apply modification to token server", ex);
             }
-            this.server = new NettyTransportServer(newPort);
-            this.port = newPort;
-            startServerIfScheduled();
-        } catch (Exception ex) {
-            RecordLog.warn("[SentinelDefaultTokenServer] Failed to apply modification to token server", ex);
+        }
+        List<ClusterServerAddress> newStandbyServers = ClusterServerConfigManager.getStandbyServers();
+        if (!newStandbyServers.equals(standbyServers)) {
+            // The statistics are kept in place, so only the replication needs to be restarted.
+            stopReplicator();
+            this.standbyServers = newStandbyServers;
+            startReplicatorIfScheduled();
         }
     }
 
@@ -105,6 +121,20 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
         }
     }
 
+    private synchronized void startReplicatorIfScheduled() {
+        if (shouldStart.get() && replicator == null && !standbyServers.isEmpty()) {
+            this.replicator = new ClusterMetricReplicator(standbyServers);
+            replicator.start();
+        }
+    }
+
+    private synchronized void stopReplicator() {
+        if (replicator != null) {
+            replicator.stop();
+            this.replicator = null;
+        }
+    }
+
     private void stopServer() throws Exception {
         if (server != null) {
             server.stop();
@@ -141,6 +171,7 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
     public void start() throws Exception {
         if (shouldStart.compareAndSet(false, true)) {
             startServerIfScheduled();
+            startReplicatorIfScheduled();
         }
     }
 
@@ -148,6 +179,7 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
     public void stop() throws Exception {
         if (shouldStart.compareAndSet(true, false)) {
             stopServer();
+            stopReplicator();
         }
     }
 }
@@ -19,6 +19,7 @@ import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
 import com.alibaba.csp.sentinel.cluster.codec.request.RequestEntityDecoder;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.server.codec.registry.RequestDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterRequest;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.buffer.ByteBuf;
@@ -57,7 +58,7 @@ public class DefaultRequestEntityDecoder implements RequestEntityDecoder<ByteBuf
                 data = dataDecoder.decode(source);
             }
 
-            return new ClusterRequest<>(xid, type, data);
+            return RecyclableClusterRequest.newInstance(xid, type, data);
         }
         return null;
     }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Writer for {@link BatchFlowTokenResponseData}. The layout:</p>
+ * <pre>
+ * | amount (2) | status (1) | remaining (4) | waitInMs (4) | ... (repeated for each result)
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class BatchFlowResponseDataWriter implements EntityWriter<BatchFlowTokenResponseData, ByteBuf> {
+
+    @Override
+    public void writeTo(BatchFlowTokenResponseData entity, ByteBuf out) {
+        out.writeShort(entity.getResultList().size());
+        for (TokenResult result : entity.getResultList()) {
+            out.writeByte(result.getStatus());
+            out.writeInt(result.getRemaining());
+            out.writeInt(result.getWaitInMs());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.data.ConcurrentReleaseRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Decoder for {@link ConcurrentReleaseRequestData} from {@code ByteBuf} stream. The layout:</p>
+ * <pre>
+ * | amount (2) | token ID (8) | ... (repeated for each permit)
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ConcurrentReleaseRequestDataDecoder implements EntityDecoder<ByteBuf, ConcurrentReleaseRequestData> {
+
+    @Override
+    public ConcurrentReleaseRequestData decode(ByteBuf source) {
+        if (source.readableBytes() < 2) {
+            return null;
+        }
+        int amount = source.readUnsignedShort();
+        if (amount > ClusterConstants.MAX_RELEASE_TOKEN_COUNT || source.readableBytes() < amount * 8) {
+            return null;
+        }
+        long[] tokenIds = new long[amount];
+        for (int i = 0; i < amount; i++) {
+            tokenIds[i] = source.readLong();
+        }
+        return new ConcurrentReleaseRequestData().setTokenIds(tokenIds);
+    }
+}
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.cluster.server.codec.data;
 
 import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowRequestData;
 
 import io.netty.buffer.ByteBuf;
 
@@ -25,7 +26,7 @@ import io.netty.buffer.ByteBuf;
  * Decoder for {@link FlowRequestData} from {@code ByteBuf} stream. The layout:
  * </p>
  * <pre>
- * | flow ID (4) | count (4) | priority flag (1) |
+ * | flow ID (4) | count (4) | priority flag (1) | max wait in ms (4, optional) |
  * </pre>
  *
  * @author Eric Zhao
@@ -36,13 +37,11 @@ public class FlowRequestDataDecoder implements EntityDecoder<ByteBuf, FlowReques
     @Override
     public FlowRequestData decode(ByteBuf source) {
         if (source.readableBytes() >= 12) {
-            FlowRequestData requestData = new FlowRequestData()
-                .setFlowId(source.readLong())
-                .setCount(source.readInt());
-            if (source.readableBytes() >= 1) {
-                requestData.setPriority(source.readBoolean());
-            }
-            return requestData;
+            long flowId = source.readLong();
+            int count = source.readInt();
+            boolean priority = source.readableBytes() >= 1 && source.readBoolean();
+            int maxWaitMs = source.readableBytes() >= 4 ? source.readInt() : 0;
+            return RecyclableFlowRequestData.newInstance(flowId, count, priority, maxWaitMs);
         }
         return null;
     }
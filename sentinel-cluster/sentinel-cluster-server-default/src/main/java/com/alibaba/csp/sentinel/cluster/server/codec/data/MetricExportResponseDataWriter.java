@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowMetricStat;
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Writer for {@link MetricExportResponseData}. The layout:</p>
+ * <pre>
+ * | timestamp (8) | namespace length (1) | namespace (UTF-8) | amount (2) |
+ * | flow ID (8) | pass (4) | block (4) | waiting (4) | occupied pass (4) | ... (repeated for each flow)
+ * </pre>
+ * <p>The acknowledgement of the subscribe request has no data.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricExportResponseDataWriter implements EntityWriter<MetricExportResponseData, ByteBuf> {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Override
+    public void writeTo(MetricExportResponseData entity, ByteBuf out) {
+        if (entity == null) {
+            return;
+        }
+        out.writeLong(entity.getTimestamp());
+        byte[] namespace = entity.getNamespace() == null ? new byte[0] : entity.getNamespace().getBytes(UTF_8);
+        int length = Math.min(namespace.length, ClusterConstants.MAX_METRIC_EXPORT_NAMESPACE_LENGTH);
+        out.writeByte(length);
+        out.writeBytes(namespace, 0, length);
+
+        List<FlowMetricStat> statList = entity.getStatList();
+        int amount = statList == null ? 0 : Math.min(statList.size(), ClusterConstants.MAX_METRIC_EXPORT_FLOW_COUNT);
+        out.writeShort(amount);
+        for (int i = 0; i < amount; i++) {
+            FlowMetricStat stat = statList.get(i);
+            out.writeLong(stat.getFlowId());
+            out.writeInt(stat.getPassCount());
+            out.writeInt(stat.getBlockCount());
+            out.writeInt(stat.getWaitingCount());
+            out.writeInt(stat.getOccupiedPassCount());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Decoder for {@link MetricSyncRequestData} from {@code ByteBuf} stream. The layout:</p>
+ * <pre>
+ * | amount (2) | flow ID (8) | window start (8) | event mask (1) | count (4) ... (for each event in mask) | ...
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricSyncRequestDataDecoder implements EntityDecoder<ByteBuf, MetricSyncRequestData> {
+
+    @Override
+    public MetricSyncRequestData decode(ByteBuf source) {
+        if (source.readableBytes() < 2) {
+            return null;
+        }
+        int amount = source.readUnsignedShort();
+        if (amount > ClusterConstants.MAX_METRIC_SYNC_DELTA_COUNT) {
+            return null;
+        }
+        List<MetricBucketDelta> deltaList = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            if (source.readableBytes() < 17) {
+                return null;
+            }
+            long flowId = source.readLong();
+            long windowStart = source.readLong();
+            int mask = source.readUnsignedByte();
+            if (source.readableBytes() < Integer.bitCount(mask) * 4) {
+                return null;
+            }
+            long[] counts = new long[8];
+            for (int event = 0; event < 8; event++) {
+                if ((mask & (1 << event)) != 0) {
+                    counts[event] = source.readInt();
+                }
+            }
+            deltaList.add(new MetricBucketDelta().setFlowId(flowId).setWindowStart(windowStart).setCounts(counts));
+        }
+        return new MetricSyncRequestData().setDeltaList(deltaList);
+    }
+}
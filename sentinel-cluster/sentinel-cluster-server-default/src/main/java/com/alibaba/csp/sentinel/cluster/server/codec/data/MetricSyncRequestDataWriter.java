@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Writer for {@link MetricSyncRequestData}, which is sent from a token server to its standby servers.
+ * Only non-zero counts are written. The layout:</p>
+ * <pre>
+ * | amount (2) | flow ID (8) | window start (8) | event mask (1) | count (4) ... (for each event in mask) | ...
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricSyncRequestDataWriter implements EntityWriter<MetricSyncRequestData, ByteBuf> {
+
+    @Override
+    public void writeTo(MetricSyncRequestData entity, ByteBuf target) {
+        target.writeShort(entity.getDeltaList().size());
+        for (MetricBucketDelta delta : entity.getDeltaList()) {
+            long[] counts = delta.getCounts();
+            int events = Math.min(counts.length, 8);
+            int mask = 0;
+            for (int event = 0; event < events; event++) {
+                if (counts[event] != 0) {
+                    mask |= 1 << event;
+                }
+            }
+            target.writeLong(delta.getFlowId());
+            target.writeLong(delta.getWindowStart());
+            target.writeByte(mask);
+            for (int event = 0; event < events; event++) {
+                if (counts[event] != 0) {
+                    target.writeInt((int)Math.max(Math.min(counts[event], Integer.MAX_VALUE), Integer.MIN_VALUE));
+                }
+            }
+        }
+    }
+}
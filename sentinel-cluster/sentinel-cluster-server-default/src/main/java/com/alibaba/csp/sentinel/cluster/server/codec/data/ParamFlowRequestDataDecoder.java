@@ -15,12 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.codec.data;
 
-import java.util.ArrayList;
+import java.nio.charset.Charset;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableParamFlowRequestData;
 
 import io.netty.buffer.ByteBuf;
 
@@ -34,18 +35,16 @@ public class ParamFlowRequestDataDecoder implements EntityDecoder<ByteBuf, Param
     @Override
     public ParamFlowRequestData decode(ByteBuf source) {
         if (source.readableBytes() >= 16) {
-            ParamFlowRequestData requestData = new ParamFlowRequestData()
-                .setFlowId(source.readLong())
-                .setCount(source.readInt());
+            long flowId = source.readLong();
+            int count = source.readInt();
 
             int amount = source.readInt();
             if (amount > 0) {
-                List<Object> params = new ArrayList<>(amount);
+                RecyclableParamFlowRequestData requestData = RecyclableParamFlowRequestData.newInstance(flowId, count);
+                List<Object> params = requestData.paramList(amount);
                 for (int i = 0; i < amount; i++) {
                     decodeParam(source, params);
                 }
-
-                requestData.setParams(params);
                 return requestData;
             }
         }
@@ -61,10 +60,10 @@ public class ParamFlowRequestDataDecoder implements EntityDecoder<ByteBuf, Param
                 return true;
             case ClusterConstants.PARAM_TYPE_STRING:
                 int length = source.readInt();
-                byte[] bytes = new byte[length];
-                source.readBytes(bytes);
+                // Decode in place without copying to an intermediate byte array.
                 // TODO: take care of charset?
-                params.add(new String(bytes));
+                params.add(source.toString(source.readerIndex(), length, Charset.defaultCharset()));
+                source.skipBytes(length);
                 return true;
             case ClusterConstants.PARAM_TYPE_BOOLEAN:
                 params.add(source.readBoolean());
@@ -22,6 +22,7 @@ import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.cluster.response.Response;
 import com.alibaba.csp.sentinel.cluster.server.codec.ServerEntityCodecProvider;
 import com.alibaba.csp.sentinel.cluster.server.codec.registry.ResponseDataWriterRegistry;
+import com.alibaba.csp.sentinel.cluster.server.recycle.Recyclable;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
 import io.netty.buffer.ByteBuf;
@@ -29,6 +30,9 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
+ * <p>Encoder of cluster responses. The length field (2 bytes) of the frame is reserved ahead and filled in place
+ * after the response is written, so no separate buffer is needed for the length prefix.</p>
+ *
  * @author Eric Zhao
  * @since 1.4.0
  */
@@ -36,6 +40,19 @@ public class NettyResponseEncoder extends MessageToByteEncoder<ClusterResponse>
 
     @Override
     protected void encode(ChannelHandlerContext ctx, ClusterResponse response, ByteBuf out) throws Exception {
+        try {
+            int lengthIndex = out.writerIndex();
+            out.writeShort(0);
+            writeResponse(response, out);
+            out.setShort(lengthIndex, out.writerIndex() - lengthIndex - 2);
+        } finally {
+            if (response instanceof Recyclable) {
+                ((Recyclable)response).recycle();
+            }
+        }
+    }
+
+    private void writeResponse(ClusterResponse response, ByteBuf out) {
         ResponseEntityWriter<ClusterResponse, ByteBuf> responseEntityWriter = ServerEntityCodecProvider.getResponseEntityWriter();
         if (responseEntityWriter == null) {
             RecordLog.warn("[NettyResponseEncoder] Cannot resolve the global response entity writer, reply bad status");
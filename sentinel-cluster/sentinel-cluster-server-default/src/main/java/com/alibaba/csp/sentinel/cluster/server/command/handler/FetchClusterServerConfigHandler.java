@@ -55,10 +55,13 @@ public class FetchClusterServerConfigHandler implements CommandHandler<String> {
     private CommandResponse<String> globalConfigResult() {
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setShardCount(ClusterServerConfigManager.getShardCount())
+            .setStandbyServers(ClusterServerConfigManager.getStandbyServers());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
+            .setAdmissionQueueEnabled(ClusterServerConfigManager.isAdmissionQueueEnabled())
             .setIntervalMs(ClusterServerConfigManager.getIntervalMs())
             .setSampleCount(ClusterServerConfigManager.getSampleCount());
         JSONObject config = new JSONObject()
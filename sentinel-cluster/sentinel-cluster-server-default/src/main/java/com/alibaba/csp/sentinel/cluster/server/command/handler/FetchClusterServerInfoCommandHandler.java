@@ -52,10 +52,13 @@ public class FetchClusterServerInfoCommandHandler implements CommandHandler<Stri
 
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setShardCount(ClusterServerConfigManager.getShardCount())
+            .setStandbyServers(ClusterServerConfigManager.getStandbyServers());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
+            .setAdmissionQueueEnabled(ClusterServerConfigManager.isAdmissionQueueEnabled())
             .setIntervalMs(ClusterServerConfigManager.getIntervalMs())
             .setSampleCount(ClusterServerConfigManager.getSampleCount())
             .setMaxAllowedQps(ClusterServerConfigManager.getMaxAllowedQps());
@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
@@ -51,6 +52,8 @@ public final class ClusterServerConfigManager {
      */
     private static volatile int port = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
     private static volatile int idleSeconds = ServerTransportConfig.DEFAULT_IDLE_SECONDS;
+    private static volatile int shardCount = 0;
+    private static volatile List<ClusterServerAddress> standbyServers = Collections.emptyList();
     private static volatile Set<String> namespaceSet = Collections.singleton(ServerConstants.DEFAULT_NAMESPACE);
 
     /**
@@ -61,6 +64,7 @@ public final class ClusterServerConfigManager {
     private static volatile int intervalMs = ServerFlowConfig.DEFAULT_INTERVAL_MS;
     private static volatile int sampleCount = ServerFlowConfig.DEFAULT_SAMPLE_COUNT;
     private static volatile double maxAllowedQps = ServerFlowConfig.DEFAULT_MAX_ALLOWED_QPS;
+    private static volatile boolean admissionQueueEnabled = false;
 
     /**
      * Namespace-specific flow config for token server.
@@ -290,10 +294,15 @@ public final class ClusterServerConfigManager {
     private static void updateTokenServer(ServerTransportConfig config) {
         int newPort = config.getPort();
         AssertUtil.isTrue(newPort > 0, "token server port should be valid (positive)");
-        if (newPort == port) {
+        List<ClusterServerAddress> newStandbyServers = config.getStandbyServers() == null
+            ? Collections.<ClusterServerAddress>emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(config.getStandbyServers()));
+        if (newPort == port && config.getShardCount() == shardCount && newStandbyServers.equals(standbyServers)) {
             return;
         }
         ClusterServerConfigManager.port = newPort;
+        ClusterServerConfigManager.shardCount = config.getShardCount();
+        ClusterServerConfigManager.standbyServers = newStandbyServers;
 
         for (ServerTransportConfigObserver observer : TRANSPORT_CONFIG_OBSERVERS) {
             observer.onTransportConfigChange(config);
@@ -325,6 +334,7 @@ public final class ClusterServerConfigManager {
             if (config.getMaxOccupyRatio() != maxOccupyRatio) {
                 maxOccupyRatio = config.getMaxOccupyRatio();
             }
+            admissionQueueEnabled = config.isAdmissionQueueEnabled();
             if (config.getMaxAllowedQps() != maxAllowedQps) {
                 maxAllowedQps = config.getMaxAllowedQps();
                 GlobalRequestLimiter.applyMaxQpsChange(maxAllowedQps);
@@ -346,7 +356,20 @@ public final class ClusterServerConfigManager {
     }
 
     public static boolean isValidTransportConfig(ServerTransportConfig config) {
-        return config != null && config.getPort() > 0 && config.getPort() <= 65535;
+        return config != null && config.getPort() > 0 && config.getPort() <= 65535 && config.getShardCount() >= 0
+            && isValidStandbyServers(config.getStandbyServers());
+    }
+
+    private static boolean isValidStandbyServers(List<ClusterServerAddress> standbyServers) {
+        if (standbyServers == null) {
+            return true;
+        }
+        for (ClusterServerAddress address : standbyServers) {
+            if (address == null || !address.isValid()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public static boolean isValidFlowConfig(ServerFlowConfig config) {
@@ -418,6 +441,10 @@ public final class ClusterServerConfigManager {
         return maxOccupyRatio;
     }
 
+    public static boolean isAdmissionQueueEnabled() {
+        return admissionQueueEnabled;
+    }
+
     public static Set<String> getNamespaceSet() {
         return namespaceSet;
     }
@@ -430,6 +457,14 @@ public final class ClusterServerConfigManager {
         return idleSeconds;
     }
 
+    public static int getShardCount() {
+        return shardCount;
+    }
+
+    public static List<ClusterServerAddress> getStandbyServers() {
+        return standbyServers;
+    }
+
     public static int getIntervalMs() {
         return intervalMs;
     }
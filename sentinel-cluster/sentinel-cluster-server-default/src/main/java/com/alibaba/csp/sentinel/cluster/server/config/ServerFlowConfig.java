@@ -39,6 +39,12 @@ public class ServerFlowConfig {
 
     private double maxAllowedQps = DEFAULT_MAX_ALLOWED_QPS;
 
+    /**
+     * Whether to hold prioritized requests in a deadline-ordered queue until tokens are available,
+     * rather than replying {@code SHOULD_WAIT} for the next bucket.
+     */
+    private boolean admissionQueueEnabled = false;
+
     public ServerFlowConfig() {
         this(ServerConstants.DEFAULT_NAMESPACE);
     }
@@ -96,6 +102,15 @@ public class ServerFlowConfig {
         return this;
     }
 
+    public boolean isAdmissionQueueEnabled() {
+        return admissionQueueEnabled;
+    }
+
+    public ServerFlowConfig setAdmissionQueueEnabled(boolean admissionQueueEnabled) {
+        this.admissionQueueEnabled = admissionQueueEnabled;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerFlowConfig{" +
@@ -105,6 +120,7 @@ public class ServerFlowConfig {
             ", intervalMs=" + intervalMs +
             ", sampleCount=" + sampleCount +
             ", maxAllowedQps=" + maxAllowedQps +
+            ", admissionQueueEnabled=" + admissionQueueEnabled +
             '}';
     }
 }
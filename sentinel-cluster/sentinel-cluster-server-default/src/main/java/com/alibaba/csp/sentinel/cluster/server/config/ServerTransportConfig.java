@@ -15,7 +15,10 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.config;
 
+import java.util.List;
+
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
 
 /**
  * @author Eric Zhao
@@ -27,6 +30,16 @@ public class ServerTransportConfig {
 
     private int port;
     private int idleSeconds;
+    /**
+     * Count of token shards. If positive, token requests are processed on shard threads
+     * pinned by flow ID, rather than on the event loops.
+     */
+    private int shardCount = 0;
+    /**
+     * Standby token servers to replicate the flow statistics to, so that clients could fail over to them
+     * without resetting the statistics.
+     */
+    private List<ClusterServerAddress> standbyServers;
 
     public ServerTransportConfig() {
         this(ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT, DEFAULT_IDLE_SECONDS);
@@ -55,11 +68,31 @@ public class ServerTransportConfig {
         return this;
     }
 
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public ServerTransportConfig setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public List<ClusterServerAddress> getStandbyServers() {
+        return standbyServers;
+    }
+
+    public ServerTransportConfig setStandbyServers(List<ClusterServerAddress> standbyServers) {
+        this.standbyServers = standbyServers;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerTransportConfig{" +
             "port=" + port +
             ", idleSeconds=" + idleSeconds +
+            ", shardCount=" + shardCount +
+            ", standbyServers=" + standbyServers +
             '}';
     }
 }
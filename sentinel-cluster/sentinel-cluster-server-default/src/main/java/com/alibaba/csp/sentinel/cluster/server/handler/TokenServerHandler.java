@@ -18,12 +18,22 @@ package com.alibaba.csp.sentinel.cluster.server.handler;
 import java.net.InetSocketAddress;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
+import com.alibaba.csp.sentinel.cluster.server.metric.ClusterMetricExporter;
+import com.alibaba.csp.sentinel.cluster.server.processor.AsyncRequestProcessor;
 import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
 import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessorProvider;
+import com.alibaba.csp.sentinel.cluster.server.recycle.Recyclable;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.shard.TokenShardGroup;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -39,9 +49,19 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 public class TokenServerHandler extends ChannelInboundHandlerAdapter {
 
     private final ConnectionPool globalConnectionPool;
+    private final TokenShardGroup shardGroup;
 
     public TokenServerHandler(ConnectionPool globalConnectionPool) {
+        this(globalConnectionPool, null);
+    }
+
+    /**
+     * @param globalConnectionPool connection pool of the server
+     * @param shardGroup           token shards to process flow requests, or null to process on the event loop
+     */
+    public TokenServerHandler(ConnectionPool globalConnectionPool, TokenShardGroup shardGroup) {
         this.globalConnectionPool = globalConnectionPool;
+        this.shardGroup = shardGroup;
     }
 
     @Override
@@ -55,28 +75,85 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
         String remoteAddress = getRemoteAddress(ctx);
         globalConnectionPool.remove(ctx.channel());
         ConnectionManager.removeConnection(remoteAddress);
+        ClusterMetricExporter.unsubscribe(ctx.channel());
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         globalConnectionPool.refreshLastReadTime(ctx.channel());
         if (msg instanceof ClusterRequest) {
             ClusterRequest request = (ClusterRequest)msg;
-
-            // Client ping with its namespace, add to connection manager.
-            if (request.getType() == ClusterConstants.MSG_TYPE_PING) {
-                handlePingRequest(ctx, request);
+            if (shardGroup != null && dispatchToShard(ctx, request)) {
                 return;
             }
+            try {
+                handleRequest(ctx, request);
+            } finally {
+                // The request has been processed synchronously, so it could be returned to the pool.
+                if (request instanceof Recyclable) {
+                    ((Recyclable)request).recycle();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand off a request of a single flow to the shard owning the flow.
+     *
+     * @return true if the request has been taken over, otherwise it should be processed here
+     */
+    private boolean dispatchToShard(ChannelHandlerContext ctx, ClusterRequest request) {
+        long flowId = flowIdOf(request);
+        if (flowId <= 0) {
+            return false;
+        }
+        RequestProcessor<?, ?> processor = RequestProcessorProvider.getProcessor(request.getType());
+        if (processor == null) {
+            return false;
+        }
+        if (!shardGroup.dispatch(flowId, ctx, processor, request)) {
+            // The shard is overloaded, so the client should fall back.
+            FlowTokenResponseData data = RecyclableFlowTokenResponseData.newInstance(0, 0);
+            writeResponse(ctx, RecyclableClusterResponse.newInstance(request.getId(), request.getType(),
+                TokenResultStatus.TOO_MANY_REQUEST, data));
+            if (request instanceof Recyclable) {
+                ((Recyclable)request).recycle();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return flow ID of the request, or -1 if the request does not belong to a single flow
+     */
+    private static long flowIdOf(ClusterRequest request) {
+        Object data = request.getData();
+        if (data instanceof FlowRequestData) {
+            return ((FlowRequestData)data).getFlowId();
+        }
+        if (data instanceof ParamFlowRequestData) {
+            return ((ParamFlowRequestData)data).getFlowId();
+        }
+        return -1;
+    }
 
-            // Pick request processor for request type.
-            RequestProcessor<?, ?> processor = RequestProcessorProvider.getProcessor(request.getType());
-            if (processor == null) {
-                RecordLog.warn("[TokenServerHandler] No processor for request type: " + request.getType());
-                writeBadResponse(ctx, request);
-            } else {
-                ClusterResponse<?> response = processor.processRequest(request);
+    @SuppressWarnings("unchecked")
+    private void handleRequest(ChannelHandlerContext ctx, ClusterRequest request) {
+        // Client ping with its namespace, add to connection manager.
+        if (request.getType() == ClusterConstants.MSG_TYPE_PING) {
+            handlePingRequest(ctx, request);
+            return;
+        }
+
+        // Pick request processor for request type.
+        RequestProcessor<?, ?> processor = RequestProcessorProvider.getProcessor(request.getType());
+        if (processor == null) {
+            RecordLog.warn("[TokenServerHandler] No processor for request type: " + request.getType());
+            writeBadResponse(ctx, request);
+        } else {
+            ClusterResponse<?> response = processor instanceof AsyncRequestProcessor
+                ? ((AsyncRequestProcessor)processor).processRequest(request, ctx) : processor.processRequest(request);
+            if (response != null) {
                 writeResponse(ctx, response);
             }
         }
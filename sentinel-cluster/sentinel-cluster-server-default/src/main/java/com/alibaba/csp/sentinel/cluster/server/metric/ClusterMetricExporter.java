@@ -0,0 +1,272 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowMetricStat;
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import io.netty.channel.Channel;
+
+/**
+ * <p>Pushes the per-second stats of cluster flows to subscribed channels, so that the dashboard (or other
+ * tooling) does not need to poll the server and rebuild the metric nodes from the sliding windows.</p>
+ *
+ * <p>Every {@link #COLLECT_INTERVAL_MS}, the buckets completed since last collection are summed up into
+ * the stats of current second, so no bucket is missed even if the sliding window is shorter than one second.
+ * When a second ends, its stats are pushed to the subscribers of each namespace as compact binary frames
+ * (at least one frame per second, even if there is no traffic).</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class ClusterMetricExporter {
+
+    /**
+     * Interval to collect completed buckets. It should be shorter than the sliding window of the flows,
+     * otherwise buckets might be reused before collected.
+     */
+    public static final int COLLECT_INTERVAL_MS = 100;
+
+    private static final int PASS = ClusterFlowEvent.PASS.ordinal();
+    private static final int BLOCK = ClusterFlowEvent.BLOCK.ordinal();
+    private static final int WAITING = ClusterFlowEvent.WAITING.ordinal();
+    private static final int OCCUPIED_PASS = ClusterFlowEvent.OCCUPIED_PASS.ordinal();
+
+    private static final Map<Channel, Subscription> SUBSCRIPTIONS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean STARTED = new AtomicBoolean(false);
+
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Stats of current second being collected, only accessed by the scheduler thread.
+     */
+    private static final Map<Long, FlowCounter> COUNTERS = new HashMap<>();
+    private static long currentSecond = -1;
+
+    /**
+     * Subscribe the per-second stats of flows in given namespace. The frames are pushed to the channel as
+     * responses of the subscribe request (i.e. with the same request ID).
+     *
+     * @param channel   channel to push the stats to
+     * @param xid       ID of the subscribe request
+     * @param namespace namespace to subscribe
+     */
+    public static void subscribe(Channel channel, int xid, String namespace) {
+        Subscription subscription = SUBSCRIPTIONS.get(channel);
+        if (subscription == null) {
+            subscription = new Subscription();
+            SUBSCRIPTIONS.put(channel, subscription);
+        }
+        subscription.xid = xid;
+        subscription.namespaces.add(namespace);
+        startIfNeeded();
+    }
+
+    /**
+     * Remove all subscriptions of the channel, e.g. when the channel is closed.
+     *
+     * @param channel the channel
+     */
+    public static void unsubscribe(Channel channel) {
+        SUBSCRIPTIONS.remove(channel);
+    }
+
+    public static int getSubscriberCount() {
+        return SUBSCRIPTIONS.size();
+    }
+
+    private static void startIfNeeded() {
+        if (!STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("sentinel-cluster-metric-exporter", true));
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    collect(TimeUtil.currentTimeMillis());
+                } catch (Throwable e) {
+                    RecordLog.warn("[ClusterMetricExporter] Failed to export cluster metrics", e);
+                }
+            }
+        }, COLLECT_INTERVAL_MS, COLLECT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        RecordLog.info("[ClusterMetricExporter] Cluster metric exporter started");
+    }
+
+    static void collect(long currentTime) {
+        if (SUBSCRIPTIONS.isEmpty()) {
+            COUNTERS.clear();
+            currentSecond = -1;
+            return;
+        }
+        long second = currentTime - currentTime % 1000;
+        if (currentSecond < 0) {
+            currentSecond = second;
+        }
+        boolean secondEnded = second > currentSecond;
+        Map<String, List<FlowMetricStat>> statMap = secondEnded ? new HashMap<String, List<FlowMetricStat>>() : null;
+
+        Map<Long, FlowCounter> counters = new HashMap<>();
+        for (String namespace : subscribedNamespaces()) {
+            Set<Long> flowIds = ClusterFlowRuleManager.getFlowIdSet(namespace);
+            List<FlowMetricStat> statList = new ArrayList<>();
+            for (Long flowId : flowIds) {
+                ClusterMetric metric = ClusterMetricStatistics.getMetric(flowId);
+                if (metric == null) {
+                    continue;
+                }
+                FlowCounter counter = COUNTERS.get(flowId);
+                if (counter == null) {
+                    counter = new FlowCounter(currentSecond);
+                }
+                counters.put(flowId, counter);
+                if (secondEnded) {
+                    FlowMetricStat stat = counter.finish(flowId, metric, currentSecond + 1000, second, currentTime);
+                    if (stat != null) {
+                        statList.add(stat);
+                    }
+                }
+                counter.collect(metric, second + 1000, currentTime);
+            }
+            if (secondEnded) {
+                statMap.put(namespace, statList);
+            }
+        }
+        // Counters of removed flows are dropped.
+        COUNTERS.clear();
+        COUNTERS.putAll(counters);
+
+        if (secondEnded) {
+            push(currentSecond, statMap);
+            currentSecond = second;
+        }
+    }
+
+    private static Set<String> subscribedNamespaces() {
+        Set<String> namespaces = new HashSet<>();
+        for (Subscription subscription : SUBSCRIPTIONS.values()) {
+            namespaces.addAll(subscription.namespaces);
+        }
+        return namespaces;
+    }
+
+    private static void push(long timestamp, Map<String, List<FlowMetricStat>> statMap) {
+        Iterator<Map.Entry<Channel, Subscription>> iterator = SUBSCRIPTIONS.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Channel, Subscription> entry = iterator.next();
+            Channel channel = entry.getKey();
+            if (!channel.isActive()) {
+                iterator.remove();
+                continue;
+            }
+            Subscription subscription = entry.getValue();
+            for (String namespace : subscription.namespaces) {
+                List<FlowMetricStat> statList = statMap.get(namespace);
+                if (statList != null) {
+                    pushFrames(channel, subscription.xid, timestamp, namespace, statList);
+                }
+            }
+        }
+    }
+
+    private static void pushFrames(Channel channel, int xid, long timestamp, String namespace,
+                                   List<FlowMetricStat> statList) {
+        int from = 0;
+        do {
+            int to = Math.min(from + ClusterConstants.MAX_METRIC_EXPORT_FLOW_COUNT, statList.size());
+            MetricExportResponseData data = new MetricExportResponseData().setTimestamp(timestamp)
+                .setNamespace(namespace)
+                .setStatList(statList.subList(from, to));
+            channel.writeAndFlush(new ClusterResponse<>(xid, ClusterConstants.MSG_TYPE_METRIC_SUBSCRIBE,
+                ClusterConstants.RESPONSE_STATUS_OK, data));
+            from = to;
+        } while (from < statList.size());
+    }
+
+    private static class Subscription {
+        private volatile int xid;
+        private final Set<String> namespaces = Collections.newSetFromMap(
+            new ConcurrentHashMap<String, Boolean>());
+    }
+
+    /**
+     * Counts of a flow collected in current second.
+     */
+    static class FlowCounter {
+
+        private final long[] counts = new long[ClusterFlowEvent.values().length];
+        /**
+         * Start time of the first bucket not collected yet.
+         */
+        private long nextStart;
+
+        FlowCounter(long nextStart) {
+            this.nextStart = nextStart;
+        }
+
+        void collect(ClusterMetric metric, long endTime, long currentTime) {
+            nextStart = metric.sumCompletedBuckets(nextStart, endTime, currentTime, counts);
+        }
+
+        /**
+         * Collect the rest buckets of the ended second and reset for the new second.
+         *
+         * @return stats of the ended second, or null if there's no traffic
+         */
+        FlowMetricStat finish(long flowId, ClusterMetric metric, long secondEnd, long newSecond, long currentTime) {
+            collect(metric, secondEnd, currentTime);
+            FlowMetricStat stat = null;
+            if (counts[PASS] != 0 || counts[BLOCK] != 0 || counts[WAITING] != 0 || counts[OCCUPIED_PASS] != 0) {
+                stat = new FlowMetricStat().setFlowId(flowId)
+                    .setPassCount((int)counts[PASS])
+                    .setBlockCount((int)counts[BLOCK])
+                    .setWaitingCount((int)counts[WAITING])
+                    .setOccupiedPassCount((int)counts[OCCUPIED_PASS]);
+            }
+            Arrays.fill(counts, 0);
+            // Seconds missed (e.g. the collector is delayed) are skipped.
+            nextStart = Math.max(nextStart, newSecond);
+            return stat;
+        }
+    }
+
+    private ClusterMetricExporter() {}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Cluster request processor that could defer the response, e.g. until tokens are granted.
+ *
+ * @param <T> type of request body
+ * @param <R> type of response body
+ * @author agent
+ * @since 1.7.0
+ */
+public interface AsyncRequestProcessor<T, R> extends RequestProcessor<T, R> {
+
+    /**
+     * Process the cluster request. The request will be recycled after the method returns, so the
+     * deferred response should not refer to the request.
+     *
+     * @param request Sentinel cluster request
+     * @param ctx     channel context to write the deferred response to
+     * @return the response after processed, or null if the response is deferred (or the request is one-way)
+     */
+    ClusterResponse<R> processRequest(ClusterRequest<T> request, ChannelHandlerContext ctx);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowTokenResponseData;
+
+/**
+ * Processor for acquiring concurrency permits of cluster rules whose threshold is the count of in-flight
+ * invocations. The token ID of the response identifies the granted permits.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+@RequestType(ClusterConstants.MSG_TYPE_CONCURRENT_FLOW_ACQUIRE)
+public class ConcurrentFlowRequestProcessor implements RequestProcessor<FlowRequestData, FlowTokenResponseData> {
+
+    @Override
+    public ClusterResponse<FlowTokenResponseData> processRequest(ClusterRequest<FlowRequestData> request) {
+        TokenService tokenService = TokenServiceProvider.getService();
+
+        long flowId = request.getData().getFlowId();
+        int count = request.getData().getCount();
+
+        TokenResult result = tokenService instanceof ConcurrentTokenService
+            ? ((ConcurrentTokenService)tokenService).requestConcurrentToken(flowId, count)
+            : new TokenResult(TokenResultStatus.FAIL);
+        FlowTokenResponseData data = RecyclableFlowTokenResponseData.newInstance(result.getRemaining(), 0)
+            .setTokenId(result.getTokenId());
+        return RecyclableClusterResponse.newInstance(request.getId(), request.getType(), result.getStatus(), data);
+    }
+}
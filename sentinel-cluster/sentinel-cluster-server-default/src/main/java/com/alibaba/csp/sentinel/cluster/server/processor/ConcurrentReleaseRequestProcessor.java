@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.ConcurrentReleaseRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+
+/**
+ * Processor for releasing concurrency permits in batch. The request is one-way, so no response is written.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+@RequestType(ClusterConstants.MSG_TYPE_CONCURRENT_FLOW_RELEASE)
+public class ConcurrentReleaseRequestProcessor implements RequestProcessor<ConcurrentReleaseRequestData, Void> {
+
+    @Override
+    public ClusterResponse<Void> processRequest(ClusterRequest<ConcurrentReleaseRequestData> request) {
+        ConcurrentReleaseRequestData data = request.getData();
+        if (data == null || data.getTokenIds() == null) {
+            return null;
+        }
+        TokenService tokenService = TokenServiceProvider.getService();
+        if (!(tokenService instanceof ConcurrentTokenService)) {
+            return null;
+        }
+        for (long tokenId : data.getTokenIds()) {
+            ((ConcurrentTokenService)tokenService).releaseConcurrentToken(tokenId);
+        }
+        return null;
+    }
+}
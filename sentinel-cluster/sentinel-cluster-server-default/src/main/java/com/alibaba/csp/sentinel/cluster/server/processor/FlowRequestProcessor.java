@@ -17,20 +17,49 @@ package com.alibaba.csp.sentinel.cluster.server.processor;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.flow.DefaultTokenService;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowTokenResponseData;
+
+import io.netty.channel.ChannelHandlerContext;
 
 /**
  * @author Eric Zhao
  * @since 1.4.0
  */
 @RequestType(ClusterConstants.MSG_TYPE_FLOW)
-public class FlowRequestProcessor implements RequestProcessor<FlowRequestData, FlowTokenResponseData> {
+public class FlowRequestProcessor implements AsyncRequestProcessor<FlowRequestData, FlowTokenResponseData> {
+
+    @Override
+    public ClusterResponse<FlowTokenResponseData> processRequest(ClusterRequest<FlowRequestData> request,
+                                                                 final ChannelHandlerContext ctx) {
+        FlowRequestData data = request.getData();
+        TokenService tokenService = TokenServiceProvider.getService();
+        if (!data.isPriority() || data.getMaxWaitMs() <= 0 || !ClusterServerConfigManager.isAdmissionQueueEnabled()
+            || !(tokenService instanceof DefaultTokenService)) {
+            return processRequest(request);
+        }
+        // The request will be recycled, so keep what the deferred response needs.
+        final int xid = request.getId();
+        final int type = request.getType();
+        ((DefaultTokenService)tokenService).requestQueuedToken(data.getFlowId(), data.getCount(),
+            data.getMaxWaitMs(), new TokenResultCallback() {
+                @Override
+                public void onComplete(TokenResult result) {
+                    ctx.writeAndFlush(toResponse(result, xid, type));
+                }
+            });
+        return null;
+    }
 
     @Override
     public ClusterResponse<FlowTokenResponseData> processRequest(ClusterRequest<FlowRequestData> request) {
@@ -45,10 +74,11 @@ public class FlowRequestProcessor implements RequestProcessor<FlowRequestData, F
     }
 
     private ClusterResponse<FlowTokenResponseData> toResponse(TokenResult result, ClusterRequest request) {
-        return new ClusterResponse<>(request.getId(), request.getType(), result.getStatus(),
-            new FlowTokenResponseData()
-                .setRemainingCount(result.getRemaining())
-                .setWaitInMs(result.getWaitInMs())
-        );
+        return toResponse(result, request.getId(), request.getType());
+    }
+
+    private static ClusterResponse<FlowTokenResponseData> toResponse(TokenResult result, int xid, int type) {
+        FlowTokenResponseData data = RecyclableFlowTokenResponseData.newInstance(result.getRemaining(), result.getWaitInMs());
+        return RecyclableClusterResponse.newInstance(xid, type, result.getStatus(), data);
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.MetricExportResponseData;
+import com.alibaba.csp.sentinel.cluster.server.metric.ClusterMetricExporter;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * <p>Processor for subscribing the per-second stats of cluster flows in a namespace (the request data).
+ * The request is acknowledged with an empty response, then the stats are pushed to the channel every second
+ * until the channel is closed.</p>
+ *
+ * <p>The subscriber should re-send the request periodically to keep the connection from being closed
+ * as idle. Unlike ping, the subscription is not counted as a connected client of the namespace.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+@RequestType(ClusterConstants.MSG_TYPE_METRIC_SUBSCRIBE)
+public class MetricSubscribeRequestProcessor implements AsyncRequestProcessor<String, MetricExportResponseData> {
+
+    @Override
+    public ClusterResponse<MetricExportResponseData> processRequest(ClusterRequest<String> request,
+                                                                    ChannelHandlerContext ctx) {
+        String namespace = request.getData();
+        if (StringUtil.isBlank(namespace)) {
+            return badResponse(request);
+        }
+        ClusterMetricExporter.subscribe(ctx.channel(), request.getId(), namespace);
+        return new ClusterResponse<>(request.getId(), request.getType(), ClusterConstants.RESPONSE_STATUS_OK, null);
+    }
+
+    @Override
+    public ClusterResponse<MetricExportResponseData> processRequest(ClusterRequest<String> request) {
+        // The channel is required to push the stats.
+        return badResponse(request);
+    }
+
+    private ClusterResponse<MetricExportResponseData> badResponse(ClusterRequest<String> request) {
+        return new ClusterResponse<>(request.getId(), request.getType(), ClusterConstants.RESPONSE_STATUS_BAD, null);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+/**
+ * Processor for metric bucket deltas replicated from another token server. The deltas are merged into
+ * local statistics, so that the server could take over the flows without resetting the statistics.
+ * The request is one-way, so no response is written.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+@RequestType(ClusterConstants.MSG_TYPE_METRIC_SYNC)
+public class MetricSyncRequestProcessor implements RequestProcessor<MetricSyncRequestData, Void> {
+
+    @Override
+    public ClusterResponse<Void> processRequest(ClusterRequest<MetricSyncRequestData> request) {
+        MetricSyncRequestData data = request.getData();
+        if (data == null || data.getDeltaList() == null) {
+            return null;
+        }
+        for (MetricBucketDelta delta : data.getDeltaList()) {
+            ClusterMetric metric = ClusterMetricStatistics.getMetric(delta.getFlowId());
+            if (metric != null) {
+                metric.mergeDelta(delta.getWindowStart(), delta.getCounts());
+            }
+        }
+        return null;
+    }
+}
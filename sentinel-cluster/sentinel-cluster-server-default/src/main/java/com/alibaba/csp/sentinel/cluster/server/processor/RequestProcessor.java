@@ -32,7 +32,7 @@ public interface RequestProcessor<T, R> {
      * Process the cluster request.
      *
      * @param request Sentinel cluster request
-     * @return the response after processed
+     * @return the response after processed, or null if the request is one-way
      */
     ClusterResponse<R> processRequest(ClusterRequest<T> request);
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.recycle;
+
+/**
+ * Entity that can be returned to its object pool once it's no longer used.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface Recyclable {
+
+    /**
+     * Return the entity (and the recyclable entities it holds) to the pool.
+     * The entity must not be accessed after being recycled.
+     */
+    void recycle();
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.recycle;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+
+import io.netty.util.Recycler;
+
+/**
+ * Pooled {@link ClusterRequest} produced by the request decoder, which is recycled once processed.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class RecyclableClusterRequest<T> extends ClusterRequest<T> implements Recyclable {
+
+    @SuppressWarnings("rawtypes")
+    private static final Recycler<RecyclableClusterRequest> RECYCLER = new Recycler<RecyclableClusterRequest>() {
+        @Override
+        protected RecyclableClusterRequest newObject(Handle<RecyclableClusterRequest> handle) {
+            return new RecyclableClusterRequest<>(handle);
+        }
+    };
+
+    @SuppressWarnings("rawtypes")
+    private final Recycler.Handle<RecyclableClusterRequest> handle;
+
+    @SuppressWarnings("rawtypes")
+    private RecyclableClusterRequest(Recycler.Handle<RecyclableClusterRequest> handle) {
+        this.handle = handle;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RecyclableClusterRequest<T> newInstance(int id, int type, T data) {
+        RecyclableClusterRequest<T> request = RECYCLER.get();
+        request.setId(id).setType(type).setData(data);
+        return request;
+    }
+
+    @Override
+    public void recycle() {
+        T data = getData();
+        setData(null);
+        if (data instanceof Recyclable) {
+            ((Recyclable)data).recycle();
+        }
+        handle.recycle(this);
+    }
+}
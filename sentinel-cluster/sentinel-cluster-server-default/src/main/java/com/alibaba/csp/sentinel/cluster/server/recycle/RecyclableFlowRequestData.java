@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.recycle;
+
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+
+import io.netty.util.Recycler;
+
+/**
+ * Pooled {@link FlowRequestData}, recycled together with the request that holds it.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class RecyclableFlowRequestData extends FlowRequestData implements Recyclable {
+
+    private static final Recycler<RecyclableFlowRequestData> RECYCLER = new Recycler<RecyclableFlowRequestData>() {
+        @Override
+        protected RecyclableFlowRequestData newObject(Handle<RecyclableFlowRequestData> handle) {
+            return new RecyclableFlowRequestData(handle);
+        }
+    };
+
+    private final Recycler.Handle<RecyclableFlowRequestData> handle;
+
+    private RecyclableFlowRequestData(Recycler.Handle<RecyclableFlowRequestData> handle) {
+        this.handle = handle;
+    }
+
+    public static RecyclableFlowRequestData newInstance(long flowId, int count, boolean priority, int maxWaitMs) {
+        RecyclableFlowRequestData data = RECYCLER.get();
+        data.setFlowId(flowId).setCount(count).setPriority(priority).setMaxWaitMs(maxWaitMs);
+        return data;
+    }
+
+    @Override
+    public void recycle() {
+        handle.recycle(this);
+    }
+}
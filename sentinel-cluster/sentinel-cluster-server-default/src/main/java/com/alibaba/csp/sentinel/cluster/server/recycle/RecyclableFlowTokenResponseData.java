@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.recycle;
+
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import io.netty.util.Recycler;
+
+/**
+ * Pooled {@link FlowTokenResponseData}, recycled together with the response that holds it.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class RecyclableFlowTokenResponseData extends FlowTokenResponseData implements Recyclable {
+
+    private static final Recycler<RecyclableFlowTokenResponseData> RECYCLER
+        = new Recycler<RecyclableFlowTokenResponseData>() {
+        @Override
+        protected RecyclableFlowTokenResponseData newObject(Handle<RecyclableFlowTokenResponseData> handle) {
+            return new RecyclableFlowTokenResponseData(handle);
+        }
+    };
+
+    private final Recycler.Handle<RecyclableFlowTokenResponseData> handle;
+
+    private RecyclableFlowTokenResponseData(Recycler.Handle<RecyclableFlowTokenResponseData> handle) {
+        this.handle = handle;
+    }
+
+    public static RecyclableFlowTokenResponseData newInstance(int remainingCount, int waitInMs) {
+        RecyclableFlowTokenResponseData data = RECYCLER.get();
+        data.setRemainingCount(remainingCount).setWaitInMs(waitInMs).setTokenId(0);
+        return data;
+    }
+
+    @Override
+    public void recycle() {
+        handle.recycle(this);
+    }
+}
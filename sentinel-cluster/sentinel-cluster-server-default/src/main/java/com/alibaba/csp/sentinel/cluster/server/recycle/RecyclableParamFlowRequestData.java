@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.recycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+
+import io.netty.util.Recycler;
+
+/**
+ * Pooled {@link ParamFlowRequestData}, whose parameter list is reused across requests.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class RecyclableParamFlowRequestData extends ParamFlowRequestData implements Recyclable {
+
+    /**
+     * Lists that have grown larger than this are not kept in the pool.
+     */
+    private static final int MAX_POOLED_PARAM_CAPACITY = 64;
+
+    private static final Recycler<RecyclableParamFlowRequestData> RECYCLER
+        = new Recycler<RecyclableParamFlowRequestData>() {
+        @Override
+        protected RecyclableParamFlowRequestData newObject(Handle<RecyclableParamFlowRequestData> handle) {
+            return new RecyclableParamFlowRequestData(handle);
+        }
+    };
+
+    private final Recycler.Handle<RecyclableParamFlowRequestData> handle;
+    private ArrayList<Object> paramList = new ArrayList<>();
+
+    private RecyclableParamFlowRequestData(Recycler.Handle<RecyclableParamFlowRequestData> handle) {
+        this.handle = handle;
+    }
+
+    public static RecyclableParamFlowRequestData newInstance(long flowId, int count) {
+        RecyclableParamFlowRequestData data = RECYCLER.get();
+        data.setFlowId(flowId).setCount(count);
+        return data;
+    }
+
+    /**
+     * Get the reusable parameter list, which has been set as the parameters of the request.
+     *
+     * @param amount expected amount of parameters
+     * @return empty parameter list to fill
+     */
+    public List<Object> paramList(int amount) {
+        paramList.ensureCapacity(amount);
+        setParams(paramList);
+        return paramList;
+    }
+
+    @Override
+    public void recycle() {
+        setParams(null);
+        if (paramList.size() > MAX_POOLED_PARAM_CAPACITY) {
+            paramList = new ArrayList<>();
+        } else {
+            paramList.clear();
+        }
+        handle.recycle(this);
+    }
+}
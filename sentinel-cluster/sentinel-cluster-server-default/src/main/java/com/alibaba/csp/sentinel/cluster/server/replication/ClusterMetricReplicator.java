@@ -0,0 +1,152 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+
+/**
+ * <p>Replicates the flow statistics of a token server to its standby servers.</p>
+ *
+ * <p>Every {@code syncIntervalMs}, the counts added locally to each bucket since last sync are sent to
+ * all connected standby servers as a compact stream of bucket deltas. The standby servers merge the deltas
+ * into their own buckets, so that clients could fail over to them without resetting the statistics.
+ * At most {@code syncIntervalMs} of traffic is not replicated when the server dies.</p>
+ *
+ * <p>As only locally added counts are replicated, two servers could be configured as the standby of each other,
+ * so that the statistics are also kept when clients fail back.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ClusterMetricReplicator {
+
+    public static final int DEFAULT_SYNC_INTERVAL_MS = 20;
+    /**
+     * An empty sync frame is sent if nothing has been sent for this time, to keep the connections active.
+     */
+    private static final int IDLE_SYNC_INTERVAL_MS = 1000;
+
+    private final List<ClusterServerAddress> standbyServers;
+    private final int syncIntervalMs;
+
+    private final List<StandbyConnection> connections = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger idGenerator = new AtomicInteger(0);
+
+    private NioEventLoopGroup eventLoopGroup;
+    private ScheduledFuture<?> syncTask;
+    private long lastSyncTime;
+
+    public ClusterMetricReplicator(List<ClusterServerAddress> standbyServers) {
+        this(standbyServers, DEFAULT_SYNC_INTERVAL_MS);
+    }
+
+    public ClusterMetricReplicator(List<ClusterServerAddress> standbyServers, int syncIntervalMs) {
+        AssertUtil.notNull(standbyServers, "standbyServers cannot be null");
+        AssertUtil.isTrue(syncIntervalMs > 0, "syncIntervalMs should be positive");
+        this.standbyServers = new ArrayList<>(standbyServers);
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    public synchronized void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        this.eventLoopGroup = new NioEventLoopGroup(1,
+            new NamedThreadFactory("sentinel-cluster-metric-replicator", true));
+        ClusterMetricBucket.setDeltaTracking(true);
+        for (ClusterServerAddress address : standbyServers) {
+            StandbyConnection connection = new StandbyConnection(address, eventLoopGroup, running);
+            connections.add(connection);
+            connection.connect();
+        }
+        // Sync on the only event loop of the connections, so the frames are written without any hand-off.
+        this.syncTask = eventLoopGroup.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sync();
+                } catch (Throwable e) {
+                    RecordLog.warn("[ClusterMetricReplicator] Failed to sync metrics to standby servers", e);
+                }
+            }
+        }, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        RecordLog.info("[ClusterMetricReplicator] Replicating cluster metrics to standby servers: "
+            + standbyServers);
+    }
+
+    public synchronized void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        ClusterMetricBucket.setDeltaTracking(false);
+        syncTask.cancel(false);
+        for (StandbyConnection connection : connections) {
+            connection.close();
+        }
+        connections.clear();
+        eventLoopGroup.shutdownGracefully();
+        RecordLog.info("[ClusterMetricReplicator] Cluster metric replication stopped");
+    }
+
+    private void sync() {
+        // Deltas are always taken, so they won't pile up while no standby server is connected.
+        List<MetricBucketDelta> deltaList = new ArrayList<>();
+        ClusterMetricStatistics.collectDeltas(deltaList);
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (deltaList.isEmpty() && currentTime - lastSyncTime < IDLE_SYNC_INTERVAL_MS) {
+            return;
+        }
+        lastSyncTime = currentTime;
+
+        for (StandbyConnection connection : connections) {
+            if (!connection.isActive()) {
+                continue;
+            }
+            int from = 0;
+            do {
+                int to = Math.min(from + ClusterConstants.MAX_METRIC_SYNC_DELTA_COUNT, deltaList.size());
+                MetricSyncRequestData data = new MetricSyncRequestData().setDeltaList(deltaList.subList(from, to));
+                connection.write(new ClusterRequest<>(nextId(), ClusterConstants.MSG_TYPE_METRIC_SYNC, data));
+                from = to;
+            } while (from < deltaList.size());
+            connection.flush();
+        }
+    }
+
+    private int nextId() {
+        return idGenerator.incrementAndGet() & Integer.MAX_VALUE;
+    }
+}
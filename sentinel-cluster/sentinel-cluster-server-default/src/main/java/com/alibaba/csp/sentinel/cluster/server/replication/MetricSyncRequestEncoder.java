@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.replication;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.MetricSyncRequestDataWriter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Encoder of metric sync requests sent to standby servers, in the same frame format as token requests
+ * ({@code | length (2) | xid (4) | type (1) | data |}).
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+class MetricSyncRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
+
+    private final MetricSyncRequestDataWriter dataWriter = new MetricSyncRequestDataWriter();
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ClusterRequest request, ByteBuf out) throws Exception {
+        int lengthIndex = out.writerIndex();
+        out.writeShort(0);
+        out.writeInt(request.getId());
+        out.writeByte(request.getType());
+        dataWriter.writeTo((MetricSyncRequestData)request.getData(), out);
+        out.setShort(lengthIndex, out.writerIndex() - lengthIndex - 2);
+    }
+}
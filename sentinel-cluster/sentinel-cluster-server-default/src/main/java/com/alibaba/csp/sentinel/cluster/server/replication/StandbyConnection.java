@@ -0,0 +1,145 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.replication;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Connection from a token server to one of its standby servers, which reconnects on failure
+ * as long as the replicator is running.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class StandbyConnection {
+
+    private static final int RECONNECT_DELAY_MS = 2000;
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+
+    private final ClusterServerAddress address;
+    private final EventLoopGroup eventLoopGroup;
+    private final AtomicBoolean running;
+    private final Bootstrap bootstrap;
+
+    private volatile Channel channel;
+
+    StandbyConnection(ClusterServerAddress address, EventLoopGroup eventLoopGroup, AtomicBoolean running) {
+        this.address = address;
+        this.eventLoopGroup = eventLoopGroup;
+        this.running = running;
+        this.bootstrap = new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, true)
+            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                public void initChannel(SocketChannel ch) throws Exception {
+                    ch.pipeline().addLast(new MetricSyncRequestEncoder());
+                    ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            // Metric sync is one-way, so nothing is expected from the standby server.
+                            ReferenceCountUtil.release(msg);
+                        }
+
+                        @Override
+                        public void channelInactive(ChannelHandlerContext ctx) {
+                            RecordLog.info("[StandbyConnection] Disconnected from standby server <" + address + ">");
+                            scheduleReconnect();
+                        }
+                    });
+                }
+            });
+    }
+
+    void connect() {
+        bootstrap.connect(address.getHost(), address.getPort()).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (future.isSuccess()) {
+                    channel = future.channel();
+                    RecordLog.info("[StandbyConnection] Connected to standby server <" + address + ">");
+                } else {
+                    RecordLog.warn("[StandbyConnection] Could not connect to standby server <" + address + ">",
+                        future.cause());
+                    scheduleReconnect();
+                }
+            }
+        });
+    }
+
+    private void scheduleReconnect() {
+        channel = null;
+        if (!running.get() || eventLoopGroup.isShuttingDown()) {
+            return;
+        }
+        eventLoopGroup.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (running.get()) {
+                    connect();
+                }
+            }
+        }, RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    boolean isActive() {
+        Channel c = channel;
+        return c != null && c.isActive();
+    }
+
+    void write(Object msg) {
+        Channel c = channel;
+        if (c != null) {
+            c.write(msg, c.voidPromise());
+        }
+    }
+
+    void flush() {
+        Channel c = channel;
+        if (c != null) {
+            c.flush();
+        }
+    }
+
+    void close() {
+        Channel c = channel;
+        channel = null;
+        if (c != null) {
+            c.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.shard;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.processor.AsyncRequestProcessor;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
+import com.alibaba.csp.sentinel.cluster.server.recycle.Recyclable;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Recycler;
+
+/**
+ * A pooled task that processes a request on its shard and writes the response back to the channel.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class ShardTask implements Runnable {
+
+    private static final Recycler<ShardTask> RECYCLER = new Recycler<ShardTask>() {
+        @Override
+        protected ShardTask newObject(Handle<ShardTask> handle) {
+            return new ShardTask(handle);
+        }
+    };
+
+    private final Recycler.Handle<ShardTask> handle;
+
+    private ChannelHandlerContext ctx;
+    private RequestProcessor<?, ?> processor;
+    private ClusterRequest request;
+
+    private ShardTask(Recycler.Handle<ShardTask> handle) {
+        this.handle = handle;
+    }
+
+    static ShardTask newInstance(ChannelHandlerContext ctx, RequestProcessor<?, ?> processor,
+                                 ClusterRequest request) {
+        ShardTask task = RECYCLER.get();
+        task.ctx = ctx;
+        task.processor = processor;
+        task.request = request;
+        return task;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+        try {
+            ClusterResponse<?> response = processor instanceof AsyncRequestProcessor
+                ? ((AsyncRequestProcessor)processor).processRequest(request, ctx) : processor.processRequest(request);
+            if (response != null) {
+                ctx.writeAndFlush(response);
+            }
+        } catch (Throwable ex) {
+            RecordLog.warn("[ShardTask] Unexpected error when processing request: " + request, ex);
+        } finally {
+            recycle(true);
+        }
+    }
+
+    /**
+     * Drop the task and its request without processing, e.g. when the shard has been shut down.
+     */
+    void discard() {
+        recycle(true);
+    }
+
+    /**
+     * Return the task to the pool, leaving the request to the caller (e.g. when the task is not accepted).
+     */
+    void cancel() {
+        recycle(false);
+    }
+
+    private void recycle(boolean withRequest) {
+        if (withRequest && request instanceof Recyclable) {
+            ((Recyclable)request).recycle();
+        }
+        ctx = null;
+        processor = null;
+        request = null;
+        handle.recycle(this);
+    }
+}
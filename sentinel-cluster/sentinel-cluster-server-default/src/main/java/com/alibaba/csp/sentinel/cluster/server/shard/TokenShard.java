@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.shard;
+
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A single thread that owns a subset of flows. Event loops hand off tasks via a lock-free
+ * multi-producer single-consumer queue, and the shard thread parks when the queue is empty.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class TokenShard implements Runnable {
+
+    /**
+     * Upper bound of parking, in case a wakeup is missed.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Queue<ShardTask> taskQueue;
+    private final AtomicBoolean sleeping = new AtomicBoolean(false);
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    TokenShard(ThreadFactory threadFactory, int maxPendingTasks) {
+        this.taskQueue = PlatformDependent.newMpscQueue(maxPendingTasks);
+        this.thread = threadFactory.newThread(this);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Submit a task to the shard.
+     *
+     * @param task the task
+     * @return true if submitted, false if too many tasks are pending or the shard has been shut down
+     */
+    boolean submit(ShardTask task) {
+        if (!running || !taskQueue.offer(task)) {
+            return false;
+        }
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            ShardTask task = taskQueue.poll();
+            if (task != null) {
+                task.run();
+                continue;
+            }
+            sleeping.set(true);
+            // Re-check after announcing sleeping, so a concurrent submit either sees the flag or we see its task.
+            if (taskQueue.isEmpty() && running) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            sleeping.set(false);
+        }
+        ShardTask task;
+        while ((task = taskQueue.poll()) != null) {
+            task.discard();
+        }
+    }
+}
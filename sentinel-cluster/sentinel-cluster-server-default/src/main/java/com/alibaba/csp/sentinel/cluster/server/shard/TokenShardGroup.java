@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.shard;
+
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * <p>Sharded execution of token requests. Each flow is pinned to a single shard thread by its flow ID,
+ * so the statistics of a flow are always updated by the same thread, and event loops never contend on
+ * the metrics of hot flows.</p>
+ *
+ * <p>As requests of different flows may be processed on different shards, responses on the same
+ * connection might be out of order. Clients match responses by the request ID.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class TokenShardGroup {
+
+    public static final int DEFAULT_MAX_PENDING_TASKS = 65536;
+
+    private final TokenShard[] shards;
+
+    public TokenShardGroup(int shardCount) {
+        this(shardCount, DEFAULT_MAX_PENDING_TASKS);
+    }
+
+    /**
+     * @param shardCount      count of shard threads
+     * @param maxPendingTasks max count of pending tasks per shard (might be rounded up by the underlying queue)
+     */
+    public TokenShardGroup(int shardCount, int maxPendingTasks) {
+        AssertUtil.isTrue(shardCount > 0, "shardCount should be positive");
+        AssertUtil.isTrue(maxPendingTasks > 0, "maxPendingTasks should be positive");
+        NamedThreadFactory threadFactory = new NamedThreadFactory("sentinel-cluster-token-shard", true);
+        this.shards = new TokenShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new TokenShard(threadFactory, maxPendingTasks);
+        }
+    }
+
+    public void start() {
+        for (TokenShard shard : shards) {
+            shard.start();
+        }
+    }
+
+    public void shutdown() {
+        for (TokenShard shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Hand off the request to the shard that owns the flow. The response will be written to the channel
+     * by the shard thread, and the request will be recycled after being processed.
+     *
+     * @param flowId    flow ID of the request
+     * @param ctx       channel context of the request
+     * @param processor processor for the request
+     * @param request   the request
+     * @return true if dispatched, false if the shard is overloaded (the request is not taken)
+     */
+    public boolean dispatch(long flowId, ChannelHandlerContext ctx, RequestProcessor<?, ?> processor,
+                            ClusterRequest request) {
+        ShardTask task = ShardTask.newInstance(ctx, processor, request);
+        if (shards[shardIndex(flowId, shards.length)].submit(task)) {
+            return true;
+        }
+        task.cancel();
+        return false;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    static int shardIndex(long flowId, int shardCount) {
+        int h = (int)(flowId ^ (flowId >>> 32));
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) % shardCount;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultCallback;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterAdmissionQueueTest {
+
+    private static final String NAMESPACE = "admission-queue-test";
+    private static final long FLOW_ID = 2019101801L;
+
+    private final DefaultTokenService tokenService = new DefaultTokenService();
+
+    @Before
+    public void setUp() {
+        FlowRule rule = new FlowRule("admission-queue-resource")
+            .setCount(2)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(FLOW_ID)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+    }
+
+    @After
+    public void tearDown() {
+        ClusterFlowRuleManager.removeProperty(NAMESPACE);
+    }
+
+    @Test
+    public void testGrantWhenTokensReleased() throws Exception {
+        RecordingCallback pass1 = request(1500);
+        RecordingCallback pass2 = request(1500);
+        assertStatus(TokenResultStatus.OK, pass1);
+        assertStatus(TokenResultStatus.OK, pass2);
+
+        // No token will be released within the deadline.
+        RecordingCallback rejected = request(50);
+        assertStatus(TokenResultStatus.BLOCKED, rejected);
+
+        RecordingCallback queued = request(1500);
+        assertNull(queued.result);
+        assertEquals(1, ClusterAdmissionQueue.getQueue(FLOW_ID).getPendingCount());
+
+        assertTrue(queued.await(2000));
+        assertStatus(TokenResultStatus.OK, queued);
+        assertEquals(0, ClusterAdmissionQueue.getQueue(FLOW_ID).getPendingCount());
+    }
+
+    @Test
+    public void testRejectWhenRuleRemoved() throws Exception {
+        request(1500);
+        request(1500);
+        RecordingCallback queued = request(1500);
+        assertNull(queued.result);
+
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+        ClusterAdmissionQueue.drainAll(System.currentTimeMillis());
+        assertTrue(queued.await(100));
+        assertStatus(TokenResultStatus.NO_RULE_EXISTS, queued);
+    }
+
+    private RecordingCallback request(int maxWaitMs) {
+        RecordingCallback callback = new RecordingCallback();
+        tokenService.requestQueuedToken(FLOW_ID, 1, maxWaitMs, callback);
+        return callback;
+    }
+
+    private static void assertStatus(int status, RecordingCallback callback) {
+        assertNotNull(callback.result);
+        assertEquals(status, (int)callback.result.getStatus());
+    }
+
+    private static class RecordingCallback extends CountDownLatch implements TokenResultCallback {
+        private volatile TokenResult result;
+
+        RecordingCallback() {
+            super(1);
+        }
+
+        @Override
+        public void onComplete(TokenResult result) {
+            this.result = result;
+            countDown();
+        }
+
+        boolean await(long timeoutMs) throws InterruptedException {
+            return await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterPermitTableTest {
+
+    @Test
+    public void testAcquireAndRelease() {
+        ClusterPermitTable table = new ClusterPermitTable(4, 1);
+        long t1 = table.tryAcquire(1L, 2, 3, 1000, 0);
+        assertTrue(t1 > 0);
+        // 2 + 2 > 3
+        assertEquals(ClusterPermitTable.BLOCKED, table.tryAcquire(1L, 2, 3, 1000, 0));
+        // Other flows are not affected.
+        long t2 = table.tryAcquire(2L, 3, 3, 1000, 0);
+        assertTrue(t2 > 0 && t2 != t1);
+        assertEquals(2, table.getInFlightCount(1L));
+
+        assertTrue(table.release(t1));
+        assertFalse(table.release(t1));
+        assertEquals(0, table.getInFlightCount(1L));
+        assertTrue(table.tryAcquire(1L, 3, 3, 1000, 0) > 0);
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testExpiredPermitsReclaimed() {
+        ClusterPermitTable table = new ClusterPermitTable(4, 1);
+        long leaked = table.tryAcquire(1L, 1, 1, 100, 0);
+        assertTrue(leaked > 0);
+        assertEquals(ClusterPermitTable.BLOCKED, table.tryAcquire(1L, 1, 1, 100, 50));
+
+        // Expired permits are swept lazily on next acquiring.
+        assertTrue(table.tryAcquire(1L, 1, 1, 100, ClusterPermitTable.SWEEP_INTERVAL_MS + 100) > 0);
+        assertFalse(table.release(leaked));
+        assertEquals(1, table.getInFlightCount(1L));
+    }
+
+    @Test
+    public void testGrowAndRemoveWithProbing() {
+        ClusterPermitTable table = new ClusterPermitTable(2, 1);
+        List<Long> tokenIds = new ArrayList<Long>();
+        for (int i = 0; i < 1000; i++) {
+            long tokenId = table.tryAcquire(i % 10, 1, Integer.MAX_VALUE, i < 500 ? 10 : 10000, 0);
+            assertTrue(tokenId > 0);
+            tokenIds.add(tokenId);
+        }
+        assertEquals(1000, table.size());
+
+        // Release every third permit, then sweep the first half.
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue(table.release(tokenIds.get(i)));
+        }
+        int expired = 0;
+        for (int i = 0; i < 500; i++) {
+            if (i % 3 != 0) {
+                expired++;
+            }
+        }
+        assertEquals(expired, table.sweep(10));
+
+        for (int i = 500; i < 1000; i++) {
+            assertEquals(i % 3 != 0, table.release(tokenIds.get(i)));
+        }
+        assertEquals(0, table.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, table.getInFlightCount(i));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterMetricTest {
+
+    @Before
+    public void setUp() {
+        ClusterMetricBucket.setDeltaTracking(true);
+    }
+
+    @After
+    public void tearDown() {
+        ClusterMetricBucket.setDeltaTracking(false);
+    }
+
+    @Test
+    public void testReplicateDeltas() {
+        ClusterMetric primary = new ClusterMetric(10, 1000);
+        ClusterMetric standby = new ClusterMetric(10, 1000);
+        primary.add(ClusterFlowEvent.PASS, 3);
+        primary.add(ClusterFlowEvent.BLOCK, 1);
+
+        List<MetricBucketDelta> deltaList = new ArrayList<>();
+        primary.collectDeltas(1L, deltaList);
+        assertFalse(deltaList.isEmpty());
+        for (MetricBucketDelta delta : deltaList) {
+            assertEquals(1L, delta.getFlowId());
+            assertTrue(standby.mergeDelta(delta.getWindowStart(), delta.getCounts()));
+        }
+        assertEquals(3, standby.getSum(ClusterFlowEvent.PASS));
+        assertEquals(1, standby.getSum(ClusterFlowEvent.BLOCK));
+
+        // Deltas are taken only once.
+        List<MetricBucketDelta> emptyList = new ArrayList<>();
+        primary.collectDeltas(1L, emptyList);
+        assertTrue(emptyList.isEmpty());
+        // Merged counts are not replicated again.
+        standby.collectDeltas(1L, emptyList);
+        assertTrue(emptyList.isEmpty());
+        // Local counts of the standby are replicated, so the primary could take back the flow as well.
+        standby.add(ClusterFlowEvent.PASS, 2);
+        standby.collectDeltas(1L, emptyList);
+        assertEquals(1, emptyList.size());
+        assertEquals(2, emptyList.get(0).getCounts()[ClusterFlowEvent.PASS.ordinal()]);
+    }
+
+    @Test
+    public void testTakeBucketDeltaAfterTrackingEnabled() {
+        ClusterMetricBucket.setDeltaTracking(false);
+        ClusterMetricBucket bucket = new ClusterMetricBucket();
+        bucket.add(ClusterFlowEvent.PASS, 2);
+        assertEquals(0, bucket.takeDelta(ClusterFlowEvent.PASS));
+
+        ClusterMetricBucket.setDeltaTracking(true);
+        bucket.add(ClusterFlowEvent.PASS, 3);
+        assertEquals(5, bucket.get(ClusterFlowEvent.PASS));
+        assertEquals(3, bucket.takeDelta(ClusterFlowEvent.PASS));
+        assertEquals(0, bucket.takeDelta(ClusterFlowEvent.PASS));
+        bucket.add(ClusterFlowEvent.PASS, 1);
+        assertEquals(1, bucket.takeDelta(ClusterFlowEvent.PASS));
+    }
+
+    @Test
+    public void testDropDeltaOutOfWindow() {
+        ClusterMetric metric = new ClusterMetric(10, 1000);
+        long[] counts = new long[ClusterFlowEvent.values().length];
+        counts[ClusterFlowEvent.PASS.ordinal()] = 5;
+        long currentTime = TimeUtil.currentTimeMillis();
+
+        assertFalse(metric.mergeDelta(currentTime - 5000, counts));
+        assertFalse(metric.mergeDelta(currentTime + 5000, counts));
+        assertEquals(0, metric.getSum(ClusterFlowEvent.PASS));
+    }
+
+    @Test
+    public void testSumCompletedBuckets() {
+        ClusterMetric metric = new ClusterMetric(10, 1000);
+        metric.add(ClusterFlowEvent.PASS, 3);
+        metric.add(ClusterFlowEvent.BLOCK, 1);
+        long currentTime = TimeUtil.currentTimeMillis();
+        long startTime = currentTime - 1000;
+        long[] counts = new long[ClusterFlowEvent.values().length];
+
+        // The current bucket is not completed yet.
+        long nextStart = metric.sumCompletedBuckets(startTime, currentTime + 2000, currentTime, counts);
+        assertEquals(0, counts[ClusterFlowEvent.PASS.ordinal()]);
+        assertTrue(nextStart <= currentTime);
+
+        nextStart = metric.sumCompletedBuckets(nextStart, currentTime + 2000, currentTime + 100, counts);
+        assertEquals(3, counts[ClusterFlowEvent.PASS.ordinal()]);
+        assertEquals(1, counts[ClusterFlowEvent.BLOCK.ordinal()]);
+        assertTrue(nextStart > currentTime);
+
+        // Buckets are collected only once.
+        metric.sumCompletedBuckets(nextStart, currentTime + 2000, currentTime + 300, counts);
+        assertEquals(3, counts[ClusterFlowEvent.PASS.ordinal()]);
+    }
+
+    @Test
+    public void testNoDeltaWithoutTracking() {
+        ClusterMetricBucket.setDeltaTracking(false);
+        ClusterMetric metric = new ClusterMetric(10, 1000);
+        metric.add(ClusterFlowEvent.PASS, 3);
+
+        List<MetricBucketDelta> deltaList = new ArrayList<>();
+        metric.collectDeltas(1L, deltaList);
+        assertTrue(deltaList.isEmpty());
+        assertEquals(3, metric.getSum(ClusterFlowEvent.PASS));
+    }
+}
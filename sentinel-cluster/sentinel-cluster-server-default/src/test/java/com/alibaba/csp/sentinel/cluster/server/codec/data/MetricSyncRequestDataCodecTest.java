@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.cluster.request.data.MetricBucketDelta;
+import com.alibaba.csp.sentinel.cluster.request.data.MetricSyncRequestData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class MetricSyncRequestDataCodecTest {
+
+    @Test
+    public void testWriteAndDecode() {
+        MetricSyncRequestData data = new MetricSyncRequestData().setDeltaList(Arrays.asList(
+            new MetricBucketDelta().setFlowId(11L).setWindowStart(1000L).setCounts(new long[] {3, 0, 1, 0, 0, 0, 0}),
+            new MetricBucketDelta().setFlowId(12L).setWindowStart(1100L).setCounts(new long[] {0, 0, 0, 0, 0, 0, 2})
+        ));
+        ByteBuf buf = Unpooled.buffer();
+        new MetricSyncRequestDataWriter().writeTo(data, buf);
+        // Only non-zero counts are written.
+        assertEquals(2 + (17 + 8) + (17 + 4), buf.readableBytes());
+
+        MetricSyncRequestData decoded = new MetricSyncRequestDataDecoder().decode(buf);
+        assertNotNull(decoded);
+        assertEquals(2, decoded.getDeltaList().size());
+        MetricBucketDelta first = decoded.getDeltaList().get(0);
+        assertEquals(11L, first.getFlowId());
+        assertEquals(1000L, first.getWindowStart());
+        assertEquals(3, first.getCounts()[0]);
+        assertEquals(1, first.getCounts()[2]);
+        assertEquals(2, decoded.getDeltaList().get(1).getCounts()[6]);
+        buf.release();
+    }
+
+    @Test
+    public void testDecodeTruncated() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeShort(1);
+        buf.writeLong(11L);
+        buf.writeLong(1000L);
+        buf.writeByte(0x3);
+        buf.writeInt(1);
+        assertNull(new MetricSyncRequestDataDecoder().decode(buf));
+        buf.release();
+    }
+}
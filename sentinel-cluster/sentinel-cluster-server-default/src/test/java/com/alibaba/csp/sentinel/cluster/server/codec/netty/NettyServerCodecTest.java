@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.netty;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowResponseDataWriter;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.RequestDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.ResponseDataWriterRegistry;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.recycle.RecyclableFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class NettyServerCodecTest {
+
+    @Before
+    public void setUp() {
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestDataDecoder());
+        ResponseDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_FLOW, new FlowResponseDataWriter());
+    }
+
+    @Test
+    public void testEncodeResponseWithLengthPrefix() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyResponseEncoder());
+        FlowTokenResponseData data = RecyclableFlowTokenResponseData.newInstance(5, 20);
+        assertTrue(channel.writeOutbound(RecyclableClusterResponse.newInstance(12, ClusterConstants.MSG_TYPE_FLOW,
+            ClusterConstants.RESPONSE_STATUS_OK, data)));
+
+        ByteBuf frame = channel.readOutbound();
+        try {
+            assertEquals(2 + 6 + 8, frame.readableBytes());
+            assertEquals(6 + 8, frame.readShort());
+            assertEquals(12, frame.readInt());
+            assertEquals(ClusterConstants.MSG_TYPE_FLOW, frame.readByte());
+            assertEquals(ClusterConstants.RESPONSE_STATUS_OK, frame.readByte());
+            assertEquals(5, frame.readInt());
+            assertEquals(20, frame.readInt());
+        } finally {
+            frame.release();
+            channel.finish();
+        }
+    }
+
+    @Test
+    public void testDecodeFlowRequestFrame() {
+        EmbeddedChannel channel = new EmbeddedChannel(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2),
+            new NettyRequestDecoder());
+        ByteBuf in = Unpooled.buffer();
+        in.writeShort(4 + 1 + 13);
+        in.writeInt(7);
+        in.writeByte(ClusterConstants.MSG_TYPE_FLOW);
+        in.writeLong(111L);
+        in.writeInt(2);
+        in.writeBoolean(true);
+        assertTrue(channel.writeInbound(in));
+
+        ClusterRequest<FlowRequestData> request = channel.readInbound();
+        assertEquals(7, request.getId());
+        assertEquals(ClusterConstants.MSG_TYPE_FLOW, request.getType());
+        assertEquals(111L, request.getData().getFlowId());
+        assertEquals(2, request.getData().getCount());
+        assertTrue(request.getData().isPriority());
+        assertFalse(channel.finish());
+    }
+}
@@ -1,5 +1,9 @@
 package com.alibaba.csp.sentinel.cluster.server.config;
 
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.cluster.ClusterServerAddress;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -17,6 +21,13 @@ public class ClusterServerConfigManagerTest {
         assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig1));
         assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig2));
         assertTrue(ClusterServerConfigManager.isValidTransportConfig(goodConfig1));
+
+        ServerTransportConfig badConfig3 = new ServerTransportConfig().setPort(23456)
+            .setStandbyServers(Arrays.asList(new ClusterServerAddress("10.0.0.2", 18730), new ClusterServerAddress()));
+        ServerTransportConfig goodConfig2 = new ServerTransportConfig().setPort(23456)
+            .setStandbyServers(Arrays.asList(new ClusterServerAddress("10.0.0.2", 18730)));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig3));
+        assertTrue(ClusterServerConfigManager.isValidTransportConfig(goodConfig2));
     }
 
     @Test
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class BatchFlowRequestProcessorTest {
+
+    private static final String NAMESPACE = "batch-processor-test";
+    private static final long FLOW_ID = 2357111L;
+
+    private final BatchFlowRequestProcessor processor = new BatchFlowRequestProcessor();
+
+    @Before
+    public void setUp() {
+        ClusterFlowRuleManager.register2Property(NAMESPACE);
+        FlowRule rule = new FlowRule("abc").setCount(1).setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(FLOW_ID)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+    }
+
+    @After
+    public void tearDown() {
+        ClusterFlowRuleManager.removeProperty(NAMESPACE);
+    }
+
+    @Test
+    public void testResultsInRequestOrder() {
+        // The same rule is requested twice, so the second one is blocked by the global threshold.
+        ClusterResponse<BatchFlowTokenResponseData> response = processor.processRequest(batchRequest(
+            flowRequest(FLOW_ID), flowRequest(FLOW_ID + 1), flowRequest(FLOW_ID), flowRequest(-1L)));
+
+        assertEquals(ClusterConstants.RESPONSE_STATUS_OK, response.getStatus());
+        List<TokenResult> results = response.getData().getResultList();
+        assertEquals(4, results.size());
+        assertEquals(TokenResultStatus.OK, (int)results.get(0).getStatus());
+        assertEquals(TokenResultStatus.NO_RULE_EXISTS, (int)results.get(1).getStatus());
+        assertEquals(TokenResultStatus.BLOCKED, (int)results.get(2).getStatus());
+        assertEquals(TokenResultStatus.BAD_REQUEST, (int)results.get(3).getStatus());
+    }
+
+    @Test
+    public void testBadRequest() {
+        ClusterRequest<BatchFlowRequestData> request = new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_BATCH_FLOW,
+            new BatchFlowRequestData());
+        assertEquals(ClusterConstants.RESPONSE_STATUS_BAD, processor.processRequest(request).getStatus());
+    }
+
+    private ClusterRequest<BatchFlowRequestData> batchRequest(FlowRequestData... requests) {
+        return new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_BATCH_FLOW,
+            new BatchFlowRequestData().setRequestList(Arrays.asList(requests)));
+    }
+
+    private FlowRequestData flowRequest(long flowId) {
+        return new FlowRequestData().setFlowId(flowId).setCount(1).setPriority(false);
+    }
+}
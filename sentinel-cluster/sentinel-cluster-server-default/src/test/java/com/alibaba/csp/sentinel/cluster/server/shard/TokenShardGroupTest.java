@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.shard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
+
+import io.netty.channel.ChannelHandlerContext;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class TokenShardGroupTest {
+
+    @Test
+    public void testShardIndex() {
+        for (long flowId = 1; flowId < 1000; flowId++) {
+            int index = TokenShardGroup.shardIndex(flowId, 3);
+            assertTrue(index >= 0 && index < 3);
+            assertEquals(index, TokenShardGroup.shardIndex(flowId, 3));
+        }
+        assertEquals(0, TokenShardGroup.shardIndex(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void testFlowPinnedToSingleShard() throws Exception {
+        final int flowCount = 8;
+        final int requestPerFlow = 50;
+        final Map<Long, Thread> flowThreads = new ConcurrentHashMap<>();
+        final CountDownLatch latch = new CountDownLatch(flowCount * requestPerFlow);
+        final boolean[] conflict = new boolean[1];
+        RequestProcessor<FlowRequestData, Object> processor = new RequestProcessor<FlowRequestData, Object>() {
+            @Override
+            public ClusterResponse<Object> processRequest(ClusterRequest<FlowRequestData> request) {
+                long flowId = request.getData().getFlowId();
+                Thread previous = flowThreads.put(flowId, Thread.currentThread());
+                if (previous != null && previous != Thread.currentThread()) {
+                    conflict[0] = true;
+                }
+                latch.countDown();
+                return new ClusterResponse<>(request.getId(), request.getType(), 0, null);
+            }
+        };
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+
+        TokenShardGroup group = new TokenShardGroup(4);
+        group.start();
+        try {
+            for (int i = 0; i < requestPerFlow; i++) {
+                for (long flowId = 1; flowId <= flowCount; flowId++) {
+                    ClusterRequest<FlowRequestData> request = new ClusterRequest<>(i, ClusterConstants.MSG_TYPE_FLOW,
+                        new FlowRequestData().setFlowId(flowId).setCount(1));
+                    assertTrue(group.dispatch(flowId, ctx, processor, request));
+                }
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertFalse(conflict[0]);
+            assertEquals(flowCount, flowThreads.size());
+            verify(ctx, times(flowCount * requestPerFlow)).writeAndFlush(any());
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectWhenOverloaded() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        RequestProcessor<FlowRequestData, Object> processor = new RequestProcessor<FlowRequestData, Object>() {
+            @Override
+            public ClusterResponse<Object> processRequest(ClusterRequest<FlowRequestData> request) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ClusterResponse<>(request.getId(), request.getType(), 0, null);
+            }
+        };
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(1L).setCount(1));
+
+        TokenShardGroup group = new TokenShardGroup(1, 1);
+        group.start();
+        try {
+            assertTrue(group.dispatch(1L, ctx, processor, request));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // The shard is blocked, so the queue will be full at some point.
+            boolean rejected = false;
+            for (int i = 0; i < 100000 && !rejected; i++) {
+                rejected = !group.dispatch(1L, ctx, processor, request);
+            }
+            assertTrue(rejected);
+        } finally {
+            release.countDown();
+            group.shutdown();
+        }
+    }
+}
@@ -31,8 +31,25 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    /**
+     * Whether pacing rules should report the waiting time rather than block the calling thread.
+     */
+    private final boolean nonBlocking;
+    private long waitInMs;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        this(resourceWrapper, chain, context, false);
+    }
+
+    AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context, boolean nonBlocking) {
         super(resourceWrapper, chain, context);
+        this.nonBlocking = nonBlocking;
+    }
+
+    AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context, boolean nonBlocking,
+               long createTime) {
+        super(resourceWrapper, chain, context, createTime);
+        this.nonBlocking = nonBlocking;
     }
 
     /**
@@ -57,6 +74,33 @@ public class AsyncEntry extends CtEntry {
         }
     }
 
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    /**
+     * Get the time the caller should wait before invoking the protected resource.
+     * Only non-blocking entries may have a positive waiting time.
+     *
+     * @return waiting time in milliseconds, 0 if the resource can be invoked immediately
+     * @since 1.7.0
+     */
+    public long getWaitInMs() {
+        return waitInMs;
+    }
+
+    /**
+     * Record the waiting time required by a rule. As all pass slots are reserved at the same moment,
+     * the entry waits for the latest of them.
+     *
+     * @param waitInMs waiting time in milliseconds
+     */
+    public void recordWaitInMs(long waitInMs) {
+        if (waitInMs > this.waitInMs) {
+            this.waitInMs = waitInMs;
+        }
+    }
+
     public Context getAsyncContext() {
         return asyncContext;
     }
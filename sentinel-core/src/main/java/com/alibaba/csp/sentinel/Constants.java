@@ -62,7 +62,7 @@ public final class Constants {
     /**
      * Global statistic node for inbound traffic. Usually used for {@link SystemRule} checking.
      */
-    public final static ClusterNode ENTRY_NODE = new ClusterNode();
+    public final static ClusterNode ENTRY_NODE = new ClusterNode(TOTAL_IN_RESOURCE_NAME);
 
     /**
      * Response time that exceeds TIME_DROP_VALVE will be calculated as TIME_DROP_VALVE. Default value is 4900 ms.
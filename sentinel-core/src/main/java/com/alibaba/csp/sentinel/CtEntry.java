@@ -44,6 +44,14 @@ class CtEntry extends Entry {
         setUpEntryFor(context);
     }
 
+    CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context, long createTime) {
+        super(resourceWrapper, createTime);
+        this.chain = chain;
+        this.context = context;
+
+        setUpEntryFor(context);
+    }
+
     private void setUpEntryFor(Context context) {
         // The entry should not be associated to NullContext.
         if (context instanceof NullContext) {
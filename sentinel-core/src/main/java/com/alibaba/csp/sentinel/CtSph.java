@@ -16,8 +16,6 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.context.Context;
@@ -31,6 +29,10 @@ import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.DenseIdRegistry;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Supplier;
 
 /**
  * {@inheritDoc}
@@ -46,12 +48,18 @@ public class CtSph implements Sph {
 
     /**
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
-     * {@link ProcessorSlotChain}, no matter in which {@link Context}.
+     * {@link ProcessorSlotChain}, no matter in which {@link Context}. The resource names are
+     * interned to dense ids, and the slot chains are indexed by the resource id.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
+    private static final DenseIdRegistry<ProcessorSlotChain> chainRegistry
+        = new DenseIdRegistry<ProcessorSlotChain>(Constants.MAX_SLOT_CHAIN_SIZE);
 
-    private static final Object LOCK = new Object();
+    private static final Supplier<ProcessorSlotChain> CHAIN_FACTORY = new Supplier<ProcessorSlotChain>() {
+        @Override
+        public ProcessorSlotChain get() {
+            return SlotChainProvider.newSlotChain();
+        }
+    };
 
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
@@ -62,7 +70,7 @@ public class CtSph implements Sph {
     }
 
     private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
-                                                      Object... args) throws BlockException {
+                                                      boolean nonBlocking, Object... args) throws BlockException {
         Context context = ContextUtil.getContext();
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
@@ -86,7 +94,7 @@ public class CtSph implements Sph {
             return asyncEntryWithNoChain(resourceWrapper, context);
         }
 
-        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context);
+        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context, nonBlocking);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
             // Initiate the async context only when the entry successfully passed the slot chain.
@@ -111,7 +119,7 @@ public class CtSph implements Sph {
 
     private AsyncEntry asyncEntryInternal(ResourceWrapper resourceWrapper, int count, Object... args)
         throws BlockException {
-        return asyncEntryWithPriorityInternal(resourceWrapper, count, false, args);
+        return asyncEntryWithPriorityInternal(resourceWrapper, count, false, false, args);
     }
 
     private Entry entryWithPriority(ResourceWrapper resourceWrapper, int count, boolean prioritized, Object... args)
@@ -156,6 +164,67 @@ public class CtSph implements Sph {
         return e;
     }
 
+    private EntryGroup entryGroupInternal(ResourceWrapper[] resources, int count, boolean async, boolean nonBlocking,
+                                          Object[][] args) throws BlockException {
+        Context context = ContextUtil.getContext();
+        // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
+        // so here init the entries only. No rule checking will be done, as well as global switch is turned off.
+        boolean checking = !(context instanceof NullContext) && Constants.ON;
+        if (context == null) {
+            // Using default context.
+            context = MyContextUtil.myEnter(Constants.CONTEXT_DEFAULT_NAME, "", resources[0].getType());
+        }
+        // All entries of the group share the same creation time.
+        long createTime = TimeUtil.currentTimeMillis();
+        CtEntry[] entries = async ? new AsyncEntry[resources.length] : new CtEntry[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            ResourceWrapper resource = resources[i];
+            ProcessorSlot<Object> chain = checking ? lookProcessChain(resource) : null;
+            entries[i] = async ? new AsyncEntry(resource, chain, context, nonBlocking, createTime)
+                : new CtEntry(resource, chain, context, createTime);
+            if (chain == null) {
+                continue;
+            }
+            try {
+                chain.entry(context, resource, null, count, false, EntryGroup.argsOf(args, i));
+            } catch (BlockException e1) {
+                // The entries are nested in current context, so the blocked entry and the entered ones
+                // could be exited in one pass from the innermost, without initiating any async context.
+                // The entered ones are rolled back, so that they are not recorded as completed requests.
+                for (int j = i; j >= 0; j--) {
+                    if (j < i) {
+                        entries[j].setRolledBack(true);
+                    }
+                    entries[j].exitForContext(context, count, EntryGroup.argsOf(args, j));
+                }
+                throw e1;
+            } catch (Throwable e1) {
+                // This should not happen, unless there are errors existing in Sentinel internal.
+                RecordLog.warn("Sentinel unexpected exception in entryGroupInternal", e1);
+            }
+        }
+        if (async) {
+            for (CtEntry entry : entries) {
+                ((AsyncEntry)entry).initAsyncContext();
+            }
+            // Remove the async entries from current context, from the innermost.
+            for (int i = entries.length - 1; i >= 0; i--) {
+                ((AsyncEntry)entries[i]).cleanCurrentEntryInLocal();
+            }
+        }
+        return new EntryGroup(entries, count, args);
+    }
+
+    private EntryGroup entryGroupInternal(String[] names, EntryType type, int count, boolean async,
+                                          boolean nonBlocking, Object[][] args) throws BlockException {
+        AssertUtil.isTrue(names != null && names.length > 0, "resource names cannot be empty");
+        ResourceWrapper[] resources = new ResourceWrapper[names.length];
+        for (int i = 0; i < names.length; i++) {
+            resources[i] = new StringResourceWrapper(names[i], type);
+        }
+        return entryGroupInternal(resources, count, async, nonBlocking, args);
+    }
+
     /**
      * Do all {@link Rule}s checking about the resource.
      *
@@ -192,26 +261,26 @@ public class CtSph implements Sph {
      * @return {@link ProcessorSlotChain} of the resource
      */
     ProcessorSlot<Object> lookProcessChain(ResourceWrapper resourceWrapper) {
-        ProcessorSlotChain chain = chainMap.get(resourceWrapper);
-        if (chain == null) {
-            synchronized (LOCK) {
-                chain = chainMap.get(resourceWrapper);
-                if (chain == null) {
-                    // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
-                        return null;
-                    }
-
-                    chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
-                }
+        if (resourceWrapper instanceof ResourceHandle) {
+            ResourceHandle handle = (ResourceHandle)resourceWrapper;
+            ProcessorSlotChain chain = handle.getChain();
+            if (chain == null) {
+                chain = lookUpChain(resourceWrapper);
+                // Null chain is not cached, so that the handle could retry when the registry has space.
+                handle.setChain(chain);
             }
+            return chain;
+        }
+        return lookUpChain(resourceWrapper);
+    }
+
+    private ProcessorSlotChain lookUpChain(ResourceWrapper resourceWrapper) {
+        // Entry size limit is guarded by the registry, so absent id means the amount has exceeded.
+        int resourceId = chainRegistry.register(resourceWrapper.getName(), CHAIN_FACTORY);
+        if (resourceId == DenseIdRegistry.ABSENT) {
+            return null;
         }
-        return chain;
+        return chainRegistry.get(resourceId);
     }
 
     /**
@@ -221,7 +290,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     public static int entrySize() {
-        return chainMap.size();
+        return chainRegistry.size();
     }
 
     /**
@@ -230,16 +299,25 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static void resetChainMap() {
-        chainMap.clear();
+        chainRegistry.clear();
     }
 
     /**
-     * Only for internal test.
+     * Get the created slot chain of the resource. Only for internal test.
      *
-     * @since 0.2.0
+     * @since 1.7.0
+     */
+    static ProcessorSlotChain getChain(ResourceWrapper resourceWrapper) {
+        return chainRegistry.get(resourceWrapper.getName());
+    }
+
+    /**
+     * Put the slot chain for the resource regardless of the size limit. Only for internal test.
+     *
+     * @since 1.7.0
      */
-    static Map<ResourceWrapper, ProcessorSlotChain> getChainMap() {
-        return chainMap;
+    static void putChain(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+        chainRegistry.put(resourceWrapper.getName(), chain);
     }
 
     /**
@@ -251,6 +329,23 @@ public class CtSph implements Sph {
         }
     }
 
+    /**
+     * Create a protected resource with the pre-resolved handle, which skips lookups by resource name.
+     *
+     * <p>This is not a part of {@link Sph}, so that existing implementations of the interface are kept
+     * compatible. Use {@link ResourceHandle#entry()} instead of calling it directly.</p>
+     *
+     * @param handle the pre-resolved handle of the resource
+     * @param count  the count that the resource requires
+     * @param args   the parameters of the method. It can also be counted by setting hot parameter rule
+     * @return entry get
+     * @throws BlockException if the block criteria is met
+     * @since 1.7.0
+     */
+    public Entry entry(ResourceHandle handle, int count, Object... args) throws BlockException {
+        return entryWithPriority(handle, count, false, args);
+    }
+
     @Override
     public Entry entry(String name) throws BlockException {
         StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
@@ -317,6 +412,29 @@ public class CtSph implements Sph {
         return asyncEntryInternal(resource, count, args);
     }
 
+    /**
+     * Create a protected asynchronous resource without blocking the calling thread. When a pacing rule
+     * requires the request to queue, the waiting time is recorded in {@link AsyncEntry#getWaitInMs()}
+     * and the caller is responsible for delaying the invocation (e.g. with a timer).
+     *
+     * <p>This is not a part of {@link Sph}, so that existing implementations of the interface are kept
+     * compatible. Use {@link SphU#asyncEntryNonBlocking} instead of calling it directly.</p>
+     *
+     * @param name  the unique name for the protected resource
+     * @param type  the resource is an inbound or an outbound method. This is used
+     *              to mark whether it can be blocked when the system is unstable
+     * @param count the count that the resource requires
+     * @param args  the parameters of the method. It can also be counted by setting hot parameter rule
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.7.0
+     */
+    public AsyncEntry asyncEntryNonBlocking(String name, EntryType type, int count, Object... args)
+        throws BlockException {
+        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        return asyncEntryWithPriorityInternal(resource, count, false, true, args);
+    }
+
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized) throws BlockException {
         StringResourceWrapper resource = new StringResourceWrapper(name, type);
@@ -329,4 +447,66 @@ public class CtSph implements Sph {
         StringResourceWrapper resource = new StringResourceWrapper(name, type);
         return entryWithPriority(resource, count, prioritized, args);
     }
+
+    /**
+     * Create a group of protected resources, which are entered together within one context and exited
+     * together. If any resource is blocked, the resources entered before it are exited immediately.
+     *
+     * <p>This is not a part of {@link Sph}, so that existing implementations of the interface are kept
+     * compatible. Use {@link SphU#entryGroup(String[], EntryType, int, Object[][])} instead of calling it
+     * directly.</p>
+     *
+     * @param names the unique names of the protected resources, in the order to enter
+     * @param type  the resources are inbound or outbound methods. This is used
+     *              to mark whether they can be blocked when the system is unstable
+     * @param count the count that each resource requires
+     * @param args  the parameters of each resource (indexed as the names), or null if absent
+     * @return the entry group
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public EntryGroup entryGroup(String[] names, EntryType type, int count, Object[][] args) throws BlockException {
+        return entryGroupInternal(names, type, count, false, false, args);
+    }
+
+    /**
+     * Create a group of pre-resolved protected resources, which are entered together within one context
+     * and exited together. If any resource is blocked, the resources entered before it are exited immediately.
+     *
+     * <p>This is not a part of {@link Sph}, so that existing implementations of the interface are kept
+     * compatible. Use {@link SphU#entryGroup(ResourceHandle[])} instead of calling it directly.</p>
+     *
+     * @param handles the handles of the protected resources, in the order to enter
+     * @param count   the count that each resource requires
+     * @param args    the parameters of each resource (indexed as the handles), or null if absent
+     * @return the entry group
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public EntryGroup entryGroup(ResourceHandle[] handles, int count, Object[][] args) throws BlockException {
+        AssertUtil.isTrue(handles != null && handles.length > 0, "resource handles cannot be empty");
+        return entryGroupInternal(handles, count, false, false, args);
+    }
+
+    /**
+     * Create a group of protected asynchronous resources without blocking the calling thread. The resources
+     * are entered together and removed from current context once all of them pass. When a pacing rule
+     * requires the request to queue, the waiting time is recorded in {@link EntryGroup#getWaitInMs()}.
+     *
+     * <p>This is not a part of {@link Sph}, so that existing implementations of the interface are kept
+     * compatible. Use {@link SphU#asyncEntryGroupNonBlocking} instead of calling it directly.</p>
+     *
+     * @param names the unique names of the protected resources, in the order to enter
+     * @param type  the resources are inbound or outbound methods. This is used
+     *              to mark whether they can be blocked when the system is unstable
+     * @param count the count that each resource requires
+     * @param args  the parameters of each resource (indexed as the names), or null if absent
+     * @return the asynchronous entry group
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public EntryGroup asyncEntryGroupNonBlocking(String[] names, EntryType type, int count, Object[][] args)
+        throws BlockException {
+        return entryGroupInternal(names, type, count, true, true, args);
+    }
 }
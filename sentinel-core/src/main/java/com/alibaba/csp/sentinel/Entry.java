@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel;
 
+import java.util.Arrays;
+
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.node.Node;
@@ -59,11 +61,24 @@ public abstract class Entry implements AutoCloseable {
      */
     private Node originNode;
     private Throwable error;
+    private Throwable bizError;
+    /**
+     * Whether the entry has passed but is rolled back, as another entry of its {@link EntryGroup} is blocked.
+     */
+    private boolean rolledBack;
+    /**
+     * IDs of cluster concurrency permits held by this entry, which are released when the entry exits.
+     */
+    private long[] clusterTokenIds;
     protected ResourceWrapper resourceWrapper;
 
     public Entry(ResourceWrapper resourceWrapper) {
+        this(resourceWrapper, TimeUtil.currentTimeMillis());
+    }
+
+    Entry(ResourceWrapper resourceWrapper, long createTime) {
         this.resourceWrapper = resourceWrapper;
-        this.createTime = TimeUtil.currentTimeMillis();
+        this.createTime = createTime;
     }
 
     public ResourceWrapper getResourceWrapper() {
@@ -139,6 +154,65 @@ public abstract class Entry implements AutoCloseable {
         this.error = error;
     }
 
+    /**
+     * Get the business exception traced via {@link Tracer} during this entry.
+     *
+     * @return the traced business exception, or null if absent
+     * @since 1.7.0
+     */
+    public Throwable getBizError() {
+        return bizError;
+    }
+
+    public void setBizError(Throwable bizError) {
+        this.bizError = bizError;
+    }
+
+    /**
+     * Check whether the entry has passed but is rolled back, as another entry of its {@link EntryGroup}
+     * is blocked. The statistics of a rolled back entry should be undone on exit, rather than recorded
+     * as a completed request.
+     *
+     * @return true if the entry is rolled back
+     * @since 1.7.0
+     */
+    public boolean isRolledBack() {
+        return rolledBack;
+    }
+
+    void setRolledBack(boolean rolledBack) {
+        this.rolledBack = rolledBack;
+    }
+
+    /**
+     * Hold a cluster concurrency permit until this entry exits.
+     *
+     * @param tokenId ID of the permit granted by the token server
+     * @since 1.7.0
+     */
+    public void addClusterTokenId(long tokenId) {
+        long[] ids = clusterTokenIds;
+        if (ids == null) {
+            ids = new long[] {tokenId};
+        } else {
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            ids[ids.length - 1] = tokenId;
+        }
+        this.clusterTokenIds = ids;
+    }
+
+    /**
+     * Take the cluster concurrency permits held by this entry, so that they are released only once.
+     *
+     * @return IDs of the held permits, or null if no permit is held
+     * @since 1.7.0
+     */
+    public long[] takeClusterTokenIds() {
+        long[] ids = clusterTokenIds;
+        this.clusterTokenIds = null;
+        return ids;
+    }
+
     /**
      * Get origin {@link Node} of the this {@link Entry}.
      *
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+
+/**
+ * <p>A group of entries of several resources that protect the same call, e.g. the route and the matching
+ * APIs of a gateway request. The resources are entered together in one context with a shared timestamp,
+ * and exited together in the reverse order of entering:</p>
+ *
+ * <pre>
+ * EntryGroup group = null;
+ * try {
+ *     group = SphU.entryGroup(new String[] {"abc", "GET:abc"}, EntryType.IN);
+ *     // Business logic.
+ * } catch (BlockException ex) {
+ *     // Blocked. Resources entered before the blocked one have been exited.
+ * } finally {
+ *     if (group != null) {
+ *         group.exit();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class EntryGroup implements AutoCloseable {
+
+    private static final Object[] OBJECTS0 = new Object[0];
+
+    private final Entry[] entries;
+    private final int count;
+    private final Object[][] args;
+
+    EntryGroup(Entry[] entries, int count, Object[][] args) {
+        this.entries = entries;
+        this.count = count;
+        this.args = args;
+    }
+
+    /**
+     * @return amount of entries in the group
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @param index index of the resource, in the order of entering
+     * @return the entry of the resource
+     */
+    public Entry getEntry(int index) {
+        return entries[index];
+    }
+
+    /**
+     * Get the context of the innermost asynchronous entry, where the nested invocations should run on.
+     *
+     * @return the async context, or null if the group is not asynchronous
+     */
+    public Context getAsyncContext() {
+        Entry last = entries[entries.length - 1];
+        return last instanceof AsyncEntry ? ((AsyncEntry)last).getAsyncContext() : null;
+    }
+
+    /**
+     * Get the time the caller should wait before invoking the protected resources, i.e. the latest
+     * waiting time of all asynchronous entries.
+     *
+     * @return waiting time in milliseconds, 0 if the resources can be invoked immediately
+     */
+    public long getWaitInMs() {
+        long waitInMs = 0;
+        for (Entry entry : entries) {
+            if (entry instanceof AsyncEntry) {
+                waitInMs = Math.max(waitInMs, ((AsyncEntry)entry).getWaitInMs());
+            }
+        }
+        return waitInMs;
+    }
+
+    /**
+     * Exit all entries in the reverse order of entering.
+     *
+     * @throws ErrorEntryFreeException if the entries in current context do not match the group
+     */
+    public void exit() throws ErrorEntryFreeException {
+        for (int i = entries.length - 1; i >= 0; i--) {
+            entries[i].exit(count, argsOf(args, i));
+        }
+    }
+
+    /**
+     * Equivalent to {@link #exit()}.
+     */
+    @Override
+    public void close() {
+        exit();
+    }
+
+    static Object[] argsOf(Object[][] args, int index) {
+        if (args == null || index >= args.length || args[index] == null) {
+            return OBJECTS0;
+        }
+        return args[index];
+    }
+}
@@ -36,4 +36,14 @@ public class Env {
         InitExecutor.doInit();
     }
 
+    /**
+     * Get the default {@link Sph}, which also provides entry points that are not a part of the interface.
+     *
+     * @return the default {@link CtSph}
+     * @since 1.7.0
+     */
+    static CtSph ctSph() {
+        return (CtSph)sph;
+    }
+
 }
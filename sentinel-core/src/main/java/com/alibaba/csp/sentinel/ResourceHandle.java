@@ -0,0 +1,241 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>A pre-resolved resource. The handle caches the slot chain, the cluster node and the current
+ * snapshots of flow rules, degrade rules and circuit breakers of the resource, so entering the resource
+ * via the handle does not need any lookup by resource name.</p>
+ *
+ * <p>The handle is designed to be resolved once and kept for hot paths:</p>
+ *
+ * <pre>
+ * private static final ResourceHandle HANDLE = ResourceHandle.of("abc");
+ *
+ * Entry entry = null;
+ * try {
+ *     entry = HANDLE.entry();
+ *     // Business logic.
+ * } catch (BlockException ex) {
+ *     // Blocked.
+ * } finally {
+ *     if (entry != null) {
+ *         entry.exit();
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>Rule snapshots are tagged with the rule version of the rule managers (see
+ * {@link FlowRuleManager#getRuleVersion()}). Once new rules are loaded, the version changes
+ * and the snapshot will be refreshed on next entry.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class ResourceHandle extends StringResourceWrapper {
+
+    private static final Object[] OBJECTS0 = new Object[0];
+
+    private volatile ProcessorSlotChain chain;
+    private volatile ClusterNode clusterNode;
+
+    private volatile RuleSnapshot<List<FlowRule>> flowRuleSnapshot;
+    private volatile RuleSnapshot<Set<DegradeRule>> degradeRuleSnapshot;
+    private volatile RuleSnapshot<List<CircuitBreaker>> circuitBreakerSnapshot;
+
+    private final Function<String, Collection<FlowRule>> flowRuleProvider =
+        new Function<String, Collection<FlowRule>>() {
+            @Override
+            public Collection<FlowRule> apply(String resource) {
+                return getFlowRules();
+            }
+        };
+
+    private ResourceHandle(String name, EntryType type) {
+        super(name, type);
+    }
+
+    /**
+     * Resolve an outbound resource.
+     *
+     * @param name the unique name of the resource
+     * @return the handle of the resource
+     */
+    public static ResourceHandle of(String name) {
+        return of(name, EntryType.OUT);
+    }
+
+    /**
+     * Resolve a resource.
+     *
+     * @param name the unique name of the resource
+     * @param type the resource is an inbound or an outbound method
+     * @return the handle of the resource
+     */
+    public static ResourceHandle of(String name, EntryType type) {
+        return new ResourceHandle(name, type);
+    }
+
+    /**
+     * Enter the resource.
+     *
+     * @return entry get
+     * @throws BlockException if the block criteria is met
+     */
+    public Entry entry() throws BlockException {
+        return Env.ctSph().entry(this, 1, OBJECTS0);
+    }
+
+    /**
+     * Enter the resource.
+     *
+     * @param count the count that the resource requires
+     * @return entry get
+     * @throws BlockException if the block criteria is met
+     */
+    public Entry entry(int count) throws BlockException {
+        return Env.ctSph().entry(this, count, OBJECTS0);
+    }
+
+    /**
+     * Enter the resource.
+     *
+     * @param count the count that the resource requires
+     * @param args  the parameters of the method. It can also be counted by setting hot parameter rule
+     * @return entry get
+     * @throws BlockException if the block criteria is met
+     */
+    public Entry entry(int count, Object... args) throws BlockException {
+        return Env.ctSph().entry(this, count, args);
+    }
+
+    ProcessorSlotChain getChain() {
+        return chain;
+    }
+
+    void setChain(ProcessorSlotChain chain) {
+        this.chain = chain;
+    }
+
+    /**
+     * Get the cluster node of the resource.
+     *
+     * @return the cluster node, or null if the resource has not been entered yet
+     */
+    public ClusterNode getClusterNode() {
+        ClusterNode node = clusterNode;
+        if (node == null) {
+            node = ClusterBuilderSlot.getClusterNode(getName());
+            // The cluster node of a resource never changes once created.
+            clusterNode = node;
+        }
+        return node;
+    }
+
+    /**
+     * Get current flow rules of the resource.
+     *
+     * @return flow rules of the resource, or null if absent
+     */
+    public List<FlowRule> getFlowRules() {
+        // The version must be read before the rules, so that a snapshot will never be newer than its version.
+        long version = FlowRuleManager.getRuleVersion();
+        RuleSnapshot<List<FlowRule>> snapshot = flowRuleSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new RuleSnapshot<List<FlowRule>>(version, FlowRuleManager.getRulesOfResource(getName()));
+            flowRuleSnapshot = snapshot;
+        }
+        return snapshot.rules;
+    }
+
+    /**
+     * Get current degrade rules of the resource.
+     *
+     * @return degrade rules of the resource, or null if absent
+     */
+    public Set<DegradeRule> getDegradeRules() {
+        long version = DegradeRuleManager.getRuleVersion();
+        RuleSnapshot<Set<DegradeRule>> snapshot = degradeRuleSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new RuleSnapshot<Set<DegradeRule>>(version, DegradeRuleManager.getRulesOfResource(getName()));
+            degradeRuleSnapshot = snapshot;
+        }
+        return snapshot.rules;
+    }
+
+    /**
+     * Get current circuit breakers of the resource.
+     *
+     * @return circuit breakers of the resource, or null if absent
+     */
+    public List<CircuitBreaker> getCircuitBreakers() {
+        long version = DegradeRuleManager.getRuleVersion();
+        RuleSnapshot<List<CircuitBreaker>> snapshot = circuitBreakerSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new RuleSnapshot<List<CircuitBreaker>>(version,
+                DegradeRuleManager.getCircuitBreakers(getName()));
+            circuitBreakerSnapshot = snapshot;
+        }
+        return snapshot.rules;
+    }
+
+    /**
+     * Get the provider of flow rules of this resource, which returns the cached snapshot
+     * regardless of the resource name passed in.
+     *
+     * @return the flow rule provider
+     */
+    public Function<String, Collection<FlowRule>> flowRuleProvider() {
+        return flowRuleProvider;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceHandle{" +
+            "name='" + name + '\'' +
+            ", type=" + type +
+            '}';
+    }
+
+    /**
+     * Immutable rules tagged with the rule version when they were read.
+     */
+    private static final class RuleSnapshot<T> {
+        private final long version;
+        private final T rules;
+
+        RuleSnapshot(long version, T rules) {
+            this.version = version;
+            this.rules = rules;
+        }
+    }
+}
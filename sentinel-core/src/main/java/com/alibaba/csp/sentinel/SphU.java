@@ -243,6 +243,91 @@ public class SphU {
         return Env.sph.asyncEntry(name, type, count, args);
     }
 
+    /**
+     * Checking all {@link Rule}s about the asynchronous resource without blocking current thread.
+     * If a rate limiter rule requires the request to queue, the request passes with a waiting time
+     * available in {@link AsyncEntry#getWaitInMs()}, and the caller should delay the invocation with a timer.
+     *
+     * @param name  the unique name for the protected resource
+     * @param type  the resource is an inbound or an outbound method. This is used
+     *              to mark whether it can be blocked when the system is unstable,
+     *              only inbound traffic could be blocked by {@link SystemRule}
+     * @param count tokens required
+     * @param args  extra parameters
+     * @throws BlockException if the block criteria is met, eg. when any rule's threshold is exceeded
+     * @since 1.7.0
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, EntryType type, int count, Object... args)
+        throws BlockException {
+        return Env.ctSph().asyncEntryNonBlocking(name, type, count, args);
+    }
+
+    /**
+     * Checking all {@link Rule}s about a group of resources that protect the same call. The resources are
+     * entered in the given order within one context, and the returned group should be exited once.
+     * If any resource is blocked, the resources entered before it are exited before throwing.
+     *
+     * @param names the unique names of the protected resources
+     * @param type  the resources are inbound or outbound methods. This is used
+     *              to mark whether they can be blocked when the system is unstable,
+     *              only inbound traffic could be blocked by {@link SystemRule}
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public static EntryGroup entryGroup(String[] names, EntryType type) throws BlockException {
+        return Env.ctSph().entryGroup(names, type, 1, null);
+    }
+
+    /**
+     * Checking all {@link Rule}s about a group of resources that protect the same call. The resources are
+     * entered in the given order within one context, and the returned group should be exited once.
+     * If any resource is blocked, the resources entered before it are exited before throwing.
+     *
+     * @param names the unique names of the protected resources
+     * @param type  the resources are inbound or outbound methods. This is used
+     *              to mark whether they can be blocked when the system is unstable,
+     *              only inbound traffic could be blocked by {@link SystemRule}
+     * @param count tokens required by each resource
+     * @param args  extra parameters of each resource (indexed as the names), or null if absent
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public static EntryGroup entryGroup(String[] names, EntryType type, int count, Object[][] args)
+        throws BlockException {
+        return Env.ctSph().entryGroup(names, type, count, args);
+    }
+
+    /**
+     * Checking all {@link Rule}s about a group of pre-resolved resources that protect the same call.
+     * The resources are entered in the given order within one context, and the returned group should be
+     * exited once. If any resource is blocked, the resources entered before it are exited before throwing.
+     *
+     * @param handles the handles of the protected resources
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public static EntryGroup entryGroup(ResourceHandle[] handles) throws BlockException {
+        return Env.ctSph().entryGroup(handles, 1, null);
+    }
+
+    /**
+     * Checking all {@link Rule}s about a group of asynchronous resources without blocking current thread.
+     * The waiting time required by rate limiter rules is available in {@link EntryGroup#getWaitInMs()}.
+     *
+     * @param names the unique names of the protected resources
+     * @param type  the resources are inbound or outbound methods. This is used
+     *              to mark whether they can be blocked when the system is unstable,
+     *              only inbound traffic could be blocked by {@link SystemRule}
+     * @param count tokens required by each resource
+     * @param args  extra parameters of each resource (indexed as the names), or null if absent
+     * @throws BlockException if the block criteria of any resource is met
+     * @since 1.7.0
+     */
+    public static EntryGroup asyncEntryGroupNonBlocking(String[] names, EntryType type, int count, Object[][] args)
+        throws BlockException {
+        return Env.ctSph().asyncEntryGroupNonBlocking(names, type, count, args);
+    }
+
     /**
      * Checking all {@link Rule}s related the resource. The entry is prioritized.
      *
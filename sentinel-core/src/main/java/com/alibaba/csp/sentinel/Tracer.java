@@ -114,10 +114,30 @@ public class Tracer {
         traceExceptionToNode(e, count, entry, curNode);
     }
 
+    /**
+     * Trace provided {@link Throwable} and increment exception count to all entries of provided group.
+     *
+     * @param e     exception to record
+     * @param group entry group to record
+     * @since 1.7.0
+     */
+    public static void traceEntryGroup(Throwable e, EntryGroup group) {
+        if (group == null) {
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            traceEntry(e, 1, group.getEntry(i));
+        }
+    }
+
     private static void traceExceptionToNode(Throwable t, int count, Entry entry, DefaultNode curNode) {
         if (curNode == null) {
             return;
         }
+        if (entry != null) {
+            // Circuit breakers read the business exception when the entry exits.
+            entry.setBizError(t);
+        }
         for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
             m.addException(entry.getResourceWrapper().getName(), count, t);
         }
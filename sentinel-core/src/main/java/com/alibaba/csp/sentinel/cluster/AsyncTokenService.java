@@ -0,0 +1,38 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+/**
+ * {@link TokenService} which could request tokens without blocking the caller thread.
+ * This is an optional capability, so callers should check it by {@code instanceof} and
+ * fall back to the synchronous methods of {@link TokenService} if absent.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface AsyncTokenService extends TokenService {
+
+    /**
+     * Request tokens from remote token server without blocking the caller thread.
+     * The callback is usually invoked in an I/O thread, so it should never block.
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param prioritized whether the request is prioritized
+     * @param callback callback to receive the result of the token request
+     */
+    void requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized, TokenResultCallback callback);
+}
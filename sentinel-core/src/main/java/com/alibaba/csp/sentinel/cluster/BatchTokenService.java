@@ -0,0 +1,38 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import java.util.List;
+
+/**
+ * {@link TokenService} which could request tokens of several rules in one round trip. This is an optional
+ * capability, so tokens are requested rule by rule if it is absent.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface BatchTokenService extends TokenService {
+
+    /**
+     * Request tokens of several rules from remote token server at one time.
+     *
+     * @param ruleIds the unique rule IDs
+     * @param acquireCount token count to acquire for each rule
+     * @param prioritized whether the request is prioritized
+     * @return results of the token requests, in the same order as the rule IDs
+     */
+    List<TokenResult> requestTokens(List<Long> ruleIds, int acquireCount, boolean prioritized);
+}
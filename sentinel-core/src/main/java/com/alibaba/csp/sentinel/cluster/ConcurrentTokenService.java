@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+/**
+ * {@link TokenService} which could grant concurrency permits of cluster rules whose threshold is the global
+ * count of in-flight invocations. This is an optional capability, so such rules are handled like cluster
+ * failures (e.g. fallback to local check) if it is absent.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface ConcurrentTokenService extends TokenService {
+
+    /**
+     * Acquire concurrency permits of a cluster rule. The granted permits are held until released by
+     * {@link #releaseConcurrentToken(Long)}, or until their lease expires in the token server
+     * (e.g. the client crashed).
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount permit count to acquire
+     * @return result of the request, where {@link TokenResult#getTokenId()} identifies the granted permits
+     */
+    TokenResult requestConcurrentToken(Long ruleId, int acquireCount);
+
+    /**
+     * Release concurrency permits granted by {@link #requestConcurrentToken(Long, int)}. The release is
+     * one-way (and might be batched), so nothing is returned.
+     *
+     * @param tokenId ID of the granted permits
+     */
+    void releaseConcurrentToken(Long tokenId);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+/**
+ * {@link TokenService} which could lease tokens to the client. This is an optional capability,
+ * so cluster rules in lease mode fall back to requesting tokens one by one if it is absent.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface TokenLeaseService extends TokenService {
+
+    /**
+     * Lease a batch of tokens from remote token server. The leased tokens are accounted as passed
+     * in the token server, and can be spent locally without further requests.
+     *
+     * @param ruleId the unique rule ID
+     * @param leaseCount max count of tokens to lease
+     * @return result of the lease request, where {@link TokenResult#getRemaining()} is the granted token count
+     */
+    TokenResult requestTokenLease(Long ruleId, int leaseCount);
+}
@@ -29,6 +29,11 @@ public class TokenResult {
 
     private int remaining;
     private int waitInMs;
+    /**
+     * ID of the concurrency permit granted by the token server, which should be released after the
+     * invocation completes (since 1.7.0).
+     */
+    private long tokenId;
 
     private Map<String, String> attachments;
 
@@ -65,6 +70,15 @@ public class TokenResult {
         return this;
     }
 
+    public long getTokenId() {
+        return tokenId;
+    }
+
+    public TokenResult setTokenId(long tokenId) {
+        this.tokenId = tokenId;
+        return this;
+    }
+
     public Map<String, String> getAttachments() {
         return attachments;
     }
@@ -80,6 +94,7 @@ public class TokenResult {
             "status=" + status +
             ", remaining=" + remaining +
             ", waitInMs=" + waitInMs +
+            ", tokenId=" + tokenId +
             ", attachments=" + attachments +
             '}';
     }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+/**
+ * Callback of asynchronous token requests, see {@link AsyncTokenService#requestTokenAsync}.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface TokenResultCallback {
+
+    /**
+     * Invoked when the token request is completed. Failures (e.g. time out) are reported as
+     * a result with {@link TokenResultStatus#FAIL}, the same as the synchronous methods.
+     *
+     * @param result result of the token request
+     */
+    void onComplete(TokenResult result);
+}
@@ -52,12 +52,20 @@ public class SentinelConfig {
     public static final String TOTAL_METRIC_FILE_COUNT = "csp.sentinel.metric.file.total.count";
     public static final String COLD_FACTOR = "csp.sentinel.flow.cold.factor";
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
+    public static final String STATISTIC_LOCK_FREE_ROTATION = "csp.sentinel.statistic.rotation.lockfree";
+    public static final String STATISTIC_PACKED_BUCKET = "csp.sentinel.statistic.bucket.packed";
+    public static final String STATISTIC_PACKED_BUCKET_STRIPES = "csp.sentinel.statistic.bucket.packed.stripes";
+    public static final String METRIC_FILE_BINARY = "csp.sentinel.metric.file.binary";
 
     static final String DEFAULT_CHARSET = "UTF-8";
     static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
     static final int DEFAULT_TOTAL_METRIC_FILE_COUNT = 6;
     static final int DEFAULT_COLD_FACTOR = 3;
     static final int DEFAULT_STATISTIC_MAX_RT = 4900;
+    static final boolean DEFAULT_STATISTIC_LOCK_FREE_ROTATION = false;
+    static final boolean DEFAULT_STATISTIC_PACKED_BUCKET = false;
+    static final int DEFAULT_STATISTIC_PACKED_BUCKET_STRIPES = 1;
+    static final boolean DEFAULT_METRIC_FILE_BINARY = false;
 
     static {
         try {
@@ -95,6 +103,11 @@ public class SentinelConfig {
         SentinelConfig.setConfig(TOTAL_METRIC_FILE_COUNT, String.valueOf(DEFAULT_TOTAL_METRIC_FILE_COUNT));
         SentinelConfig.setConfig(COLD_FACTOR, String.valueOf(DEFAULT_COLD_FACTOR));
         SentinelConfig.setConfig(STATISTIC_MAX_RT, String.valueOf(DEFAULT_STATISTIC_MAX_RT));
+        SentinelConfig.setConfig(STATISTIC_LOCK_FREE_ROTATION, String.valueOf(DEFAULT_STATISTIC_LOCK_FREE_ROTATION));
+        SentinelConfig.setConfig(STATISTIC_PACKED_BUCKET, String.valueOf(DEFAULT_STATISTIC_PACKED_BUCKET));
+        SentinelConfig.setConfig(STATISTIC_PACKED_BUCKET_STRIPES,
+            String.valueOf(DEFAULT_STATISTIC_PACKED_BUCKET_STRIPES));
+        SentinelConfig.setConfig(METRIC_FILE_BINARY, String.valueOf(DEFAULT_METRIC_FILE_BINARY));
     }
 
     private static void loadProps() {
@@ -230,4 +243,54 @@ public class SentinelConfig {
             return DEFAULT_STATISTIC_MAX_RT;
         }
     }
+
+    /**
+     * Whether the sliding windows of statistic nodes should rotate deprecated buckets in lock-free mode.
+     *
+     * @return true if lock-free rotation is enabled, otherwise false
+     * @since 1.7.0
+     */
+    public static boolean statisticLockFreeRotation() {
+        return Boolean.parseBoolean(props.get(STATISTIC_LOCK_FREE_ROTATION));
+    }
+
+    /**
+     * Whether statistic nodes should use packed primitive buckets instead of {@code LongAdder} buckets.
+     *
+     * @return true if packed buckets are enabled, otherwise false
+     * @since 1.7.0
+     */
+    public static boolean statisticPackedBucket() {
+        return Boolean.parseBoolean(props.get(STATISTIC_PACKED_BUCKET));
+    }
+
+    /**
+     * Get the amount of stripes of the packed buckets in second-level statistic nodes. More stripes reduce
+     * contention of hot resources on multi-core hosts, at the cost of one cache line per stripe per bucket.
+     *
+     * @return the amount of stripes of the packed buckets
+     * @since 1.7.0
+     */
+    public static int statisticPackedBucketStripes() {
+        try {
+            int stripes = Integer.parseInt(props.get(STATISTIC_PACKED_BUCKET_STRIPES));
+            if (stripes > 0) {
+                return stripes;
+            }
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse statisticPackedBucketStripes fail, use default value: "
+                + DEFAULT_STATISTIC_PACKED_BUCKET_STRIPES, throwable);
+        }
+        return DEFAULT_STATISTIC_PACKED_BUCKET_STRIPES;
+    }
+
+    /**
+     * Whether metric logs should be written in the fixed-width binary format instead of the text format.
+     *
+     * @return true if the binary metric format is enabled, otherwise false
+     * @since 1.7.0
+     */
+    public static boolean metricFileBinary() {
+        return Boolean.parseBoolean(props.get(METRIC_FILE_BINARY));
+    }
 }
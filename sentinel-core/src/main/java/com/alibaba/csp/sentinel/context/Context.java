@@ -22,6 +22,7 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.DenseIdRegistry;
 
 /**
  * This class holds metadata of current invocation:<br/>
@@ -78,6 +79,11 @@ public class Context {
 
     private final boolean async;
 
+    /**
+     * Dense id of the context name, resolved lazily from {@link ContextUtil}.
+     */
+    private int id = DenseIdRegistry.ABSENT;
+
     /**
      * Create a new async context.
      *
@@ -108,6 +114,25 @@ public class Context {
         return name;
     }
 
+    /**
+     * Get the dense id of the context name, which is unique among all context names
+     * registered via {@link ContextUtil}.
+     *
+     * @return the id of the context name, or {@link DenseIdRegistry#ABSENT} if the name is not registered
+     * @since 1.7.0
+     */
+    public int getId() {
+        if (id == DenseIdRegistry.ABSENT) {
+            id = ContextUtil.getContextId(name);
+        }
+        return id;
+    }
+
+    Context setId(int id) {
+        this.id = id;
+        return this;
+    }
+
     public Node getCurNode() {
         return curEntry.getCurNode();
     }
@@ -15,10 +15,6 @@
  */
 package com.alibaba.csp.sentinel.context;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
@@ -29,6 +25,8 @@ import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.DenseIdRegistry;
+import com.alibaba.csp.sentinel.util.function.Supplier;
 
 /**
  * Utility class to get or create {@link Context} in current thread.
@@ -50,11 +48,13 @@ public class ContextUtil {
     private static ThreadLocal<Context> contextHolder = new ThreadLocal<>();
 
     /**
-     * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
+     * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name,
+     * which is interned to a dense id. Besides the default context, at most
+     * {@link Constants#MAX_CONTEXT_NAME_SIZE} contexts can be created.
      */
-    private static volatile Map<String, DefaultNode> contextNameNodeMap = new HashMap<>();
+    private static final DenseIdRegistry<DefaultNode> contextNodeRegistry
+        = new DenseIdRegistry<>(Constants.MAX_CONTEXT_NAME_SIZE + 1);
 
-    private static final ReentrantLock LOCK = new ReentrantLock();
     private static final Context NULL_CONTEXT = new NullContext();
 
     static {
@@ -66,18 +66,16 @@ public class ContextUtil {
         String defaultContextName = Constants.CONTEXT_DEFAULT_NAME;
         EntranceNode node = new EntranceNode(new StringResourceWrapper(defaultContextName, EntryType.IN), null);
         Constants.ROOT.addChild(node);
-        contextNameNodeMap.put(defaultContextName, node);
+        contextNodeRegistry.put(defaultContextName, node);
     }
 
     /**
      * Not thread-safe, only for test.
      */
     static void resetContextMap() {
-        if (contextNameNodeMap != null) {
-            RecordLog.warn("Context map cleared and reset to initial state");
-            contextNameNodeMap.clear();
-            initDefaultContext();
-        }
+        RecordLog.warn("Context map cleared and reset to initial state");
+        contextNodeRegistry.clear();
+        initDefaultContext();
     }
 
     /**
@@ -120,37 +118,17 @@ public class ContextUtil {
     protected static Context trueEnter(String name, String origin) {
         Context context = contextHolder.get();
         if (context == null) {
-            Map<String, DefaultNode> localCacheNameMap = contextNameNodeMap;
-            DefaultNode node = localCacheNameMap.get(name);
-            if (node == null) {
-                if (localCacheNameMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
+            int id = contextNodeRegistry.idOf(name);
+            if (id == DenseIdRegistry.ABSENT) {
+                id = contextNodeRegistry.register(name, new EntranceNodeFactory(name));
+                if (id == DenseIdRegistry.ABSENT) {
+                    // Amount of context has exceeded the threshold.
                     setNullContext();
                     return NULL_CONTEXT;
-                } else {
-                    try {
-                        LOCK.lock();
-                        node = contextNameNodeMap.get(name);
-                        if (node == null) {
-                            if (contextNameNodeMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                                setNullContext();
-                                return NULL_CONTEXT;
-                            } else {
-                                node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
-                                // Add entrance node.
-                                Constants.ROOT.addChild(node);
-
-                                Map<String, DefaultNode> newMap = new HashMap<>(contextNameNodeMap.size() + 1);
-                                newMap.putAll(contextNameNodeMap);
-                                newMap.put(name, node);
-                                contextNameNodeMap = newMap;
-                            }
-                        }
-                    } finally {
-                        LOCK.unlock();
-                    }
                 }
             }
-            context = new Context(node, name);
+            context = new Context(contextNodeRegistry.get(id), name);
+            context.setId(id);
             context.setOrigin(origin);
             contextHolder.set(context);
         }
@@ -158,6 +136,23 @@ public class ContextUtil {
         return context;
     }
 
+    private static final class EntranceNodeFactory implements Supplier<DefaultNode> {
+
+        private final String name;
+
+        EntranceNodeFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public DefaultNode get() {
+            EntranceNode node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
+            // Add entrance node.
+            Constants.ROOT.addChild(node);
+            return node;
+        }
+    }
+
     private static boolean shouldWarn = true;
 
     private static void setNullContext() {
@@ -211,7 +206,18 @@ public class ContextUtil {
      * @since 0.2.0
      */
     public static int contextSize() {
-        return contextNameNodeMap.size();
+        return contextNodeRegistry.size();
+    }
+
+    /**
+     * Get the dense id of provided context name.
+     *
+     * @param name the context name
+     * @return the id of the context name, or {@link DenseIdRegistry#ABSENT} if the context has not been created
+     * @since 1.7.0
+     */
+    public static int getContextId(String name) {
+        return contextNodeRegistry.idOf(name);
     }
 
     /**
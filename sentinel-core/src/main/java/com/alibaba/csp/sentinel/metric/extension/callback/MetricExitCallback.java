@@ -17,7 +17,10 @@ public class MetricExitCallback implements ProcessorSlotExitCallback {
     @Override
     public void onExit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
-            if (context.getCurEntry().getError() == null) {
+            if (context.getCurEntry().isRolledBack()) {
+                // Rolled back as another entry of the group is blocked, which is not a completed request.
+                m.decreaseThreadNum(resourceWrapper.getName(), args);
+            } else if (context.getCurEntry().getError() == null) {
                 long realRt = TimeUtil.currentTimeMillis() - context.getCurEntry().getCreateTime();
                 m.addRt(resourceWrapper.getName(), realRt, args);
                 m.addSuccess(resourceWrapper.getName(), count, args);
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.node;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -54,6 +55,32 @@ public class ClusterNode extends StatisticNode {
 
     private final ReentrantLock lock = new ReentrantLock();
 
+    /**
+     * Name of the resource. Only named nodes are tracked by {@link DirtyNodeTracker}.
+     */
+    private final String name;
+
+    /**
+     * Whether the node has been written since the last drain of {@link DirtyNodeTracker}.
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    public ClusterNode() {
+        this(null);
+    }
+
+    /**
+     * @param name name of the resource
+     * @since 1.7.0
+     */
+    public ClusterNode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
     /**
      * <p>Get {@link Node} of the specific origin. Usually the origin is the Service Consumer's app name.</p>
      * <p>If the origin node for given origin is absent, then a new {@link StatisticNode}
@@ -102,4 +129,45 @@ public class ClusterNode extends StatisticNode {
             this.increaseExceptionQps(count);
         }
     }
+
+    @Override
+    public void addPassRequest(int count) {
+        super.addPassRequest(count);
+        markDirty();
+    }
+
+    @Override
+    public void addRtAndSuccess(long rt, int successCount) {
+        super.addRtAndSuccess(rt, successCount);
+        markDirty();
+    }
+
+    @Override
+    public void increaseBlockQps(int count) {
+        super.increaseBlockQps(count);
+        markDirty();
+    }
+
+    @Override
+    public void increaseExceptionQps(int count) {
+        super.increaseExceptionQps(count);
+        markDirty();
+    }
+
+    @Override
+    public void addOccupiedPass(int acquireCount) {
+        super.addOccupiedPass(acquireCount);
+        markDirty();
+    }
+
+    private void markDirty() {
+        // Only a plain read on the hot path once the node is dirty.
+        if (name != null && !dirty.get() && dirty.compareAndSet(false, true)) {
+            DirtyNodeTracker.add(this);
+        }
+    }
+
+    void clearDirty() {
+        dirty.set(false);
+    }
 }
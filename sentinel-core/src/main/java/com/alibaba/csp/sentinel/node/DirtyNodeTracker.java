@@ -0,0 +1,52 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tracks the {@link ClusterNode}s written since the last drain, so the metric timer only visits
+ * resources that are actually active rather than all resources.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class DirtyNodeTracker {
+
+    private static final Queue<ClusterNode> DIRTY_NODES = new ConcurrentLinkedQueue<ClusterNode>();
+
+    static void add(ClusterNode node) {
+        DIRTY_NODES.offer(node);
+    }
+
+    /**
+     * Move all nodes marked dirty into provided list. The dirty marks are cleared before the nodes are
+     * visited, so any later write marks the node again.
+     *
+     * @param nodes the list to add dirty nodes to
+     */
+    public static void drainTo(List<ClusterNode> nodes) {
+        ClusterNode node;
+        while ((node = DIRTY_NODES.poll()) != null) {
+            node.clearDirty();
+            nodes.add(node);
+        }
+    }
+
+    private DirtyNodeTracker() {}
+}
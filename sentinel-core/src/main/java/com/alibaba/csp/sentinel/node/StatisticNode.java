@@ -20,10 +20,14 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricNodePool;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
 import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.PackedBucketLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.PackedOccupiableBucketLeapArray;
 
 /**
  * <p>The statistic node keep three kinds of real-time statistics metrics:</p>
@@ -92,14 +96,13 @@ public class StatisticNode implements Node {
      * Holds statistics of the recent {@code INTERVAL} seconds. The {@code INTERVAL} is divided into time spans
      * by given {@code sampleCount}.
      */
-    private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
-        IntervalProperty.INTERVAL);
+    private transient volatile Metric rollingCounterInSecond = newSecondMetric();
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
      * meaning each bucket per second, in this way we can get accurate statistics of each second.
      */
-    private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
+    private transient ArrayMetric rollingCounterInMinute = newMinuteMetric();
 
     /**
      * The counter for thread count.
@@ -111,6 +114,29 @@ public class StatisticNode implements Node {
      */
     private long lastFetchTime = -1;
 
+    /**
+     * The last time (start of the second) when metrics were collected by {@link #collectMetrics}.
+     */
+    private long lastCollectTime = -1;
+
+    private static Metric newSecondMetric() {
+        boolean lockFree = SentinelConfig.statisticLockFreeRotation();
+        if (SentinelConfig.statisticPackedBucket()) {
+            return new ArrayMetric(new PackedOccupiableBucketLeapArray(SampleCountProperty.SAMPLE_COUNT,
+                IntervalProperty.INTERVAL, SentinelConfig.statisticPackedBucketStripes(), lockFree));
+        }
+        return new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL, true, lockFree);
+    }
+
+    private static ArrayMetric newMinuteMetric() {
+        boolean lockFree = SentinelConfig.statisticLockFreeRotation();
+        if (SentinelConfig.statisticPackedBucket()) {
+            // The minute-level metric holds 60 buckets, so a single stripe is used to keep the footprint small.
+            return new ArrayMetric(new PackedBucketLeapArray(60, 60 * 1000, 1, lockFree));
+        }
+        return new ArrayMetric(60, 60 * 1000, false, lockFree);
+    }
+
     @Override
     public Map<Long, MetricNode> metrics() {
         // The fetch operation is thread-safe under a single-thread scheduler pool.
@@ -131,6 +157,41 @@ public class StatisticNode implements Node {
         return metrics;
     }
 
+    /**
+     * <p>Collect valid metrics of the completed seconds since last fetch. This has the same semantics as
+     * {@link #metrics()}, but metric nodes are acquired from provided pool and no map is built.</p>
+     * <p>The fetch operation is thread-safe under a single-thread scheduler pool.</p>
+     *
+     * @param currentTime current time, aligned to the start of current second
+     * @param pool        the pool to acquire metric nodes from
+     * @param metrics     the list to add collected metric nodes to, in ascending order of time
+     * @return true if current (incomplete) second already holds statistics, so metrics of the node should
+     * be collected again later even if it is not written anymore
+     * @since 1.7.0
+     */
+    public boolean collectMetrics(long currentTime, MetricNodePool pool, List<MetricNode> metrics) {
+        if (currentTime <= lastCollectTime) {
+            // Already collected in this round.
+            return false;
+        }
+        lastCollectTime = currentTime;
+        // The minute-level metric holds buckets of the recent 60 seconds including current second.
+        long time = Math.max(lastFetchTime + 1000, currentTime - 59 * 1000);
+        for (; time < currentTime; time += 1000) {
+            MetricNode node = pool.acquire();
+            if (rollingCounterInMinute.fillDetail(time, node) && isValidMetricNode(node)) {
+                metrics.add(node);
+                lastFetchTime = time;
+            } else {
+                pool.release(node);
+            }
+        }
+        MetricNode current = pool.acquire();
+        boolean pending = rollingCounterInMinute.fillDetail(currentTime, current) && isValidMetricNode(current);
+        pool.release(current);
+        return pending;
+    }
+
     private boolean isNodeInTime(MetricNode node, long currentTime) {
         return node.getTimestamp() > lastFetchTime && node.getTimestamp() < currentTime;
     }
@@ -142,7 +203,7 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        rollingCounterInSecond = newSecondMetric();
     }
 
     @Override
@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.FileInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Reads metrics data from memory-mapped binary log file, see {@link MetricBinaryFormat}.
+ * Records are filtered by timestamp and resource id in place, so only matched records are decoded.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+class BinaryMetricsReader extends MetricsReader {
+
+    public BinaryMetricsReader(Charset charset) {
+        super(charset);
+    }
+
+    @Override
+    boolean readMetricsInOneFileByEndTime(List<MetricNode> list, String fileName, long offset,
+                                          long beginTimeMs, long endTimeMs, String identity) throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        FileInputStream in = new FileInputStream(fileName);
+        try {
+            MappedByteBuffer records = mapRecords(in.getChannel(), offset);
+            if (records == null) {
+                return true;
+            }
+            String[] dictionary = MetricBinaryFormat.readDictionary(fileName);
+            int resourceId = identity == null ? -1 : MetricBinaryFormat.indexOf(dictionary, identity);
+            for (int pos = 0; pos < records.limit(); pos += MetricBinaryFormat.RECORD_SIZE) {
+                long currentSecond = MetricBinaryFormat.timestampAt(records, pos) / 1000;
+                // currentSecond should >= beginSecond, otherwise a wrong metric file must occur
+                if (currentSecond < beginSecond || currentSecond > endSecond) {
+                    return false;
+                }
+                if (identity == null || MetricBinaryFormat.resourceIdAt(records, pos) == resourceId) {
+                    list.add(MetricBinaryFormat.decode(records, pos, dictionary));
+                }
+                if (list.size() >= MAX_LINES_RETURN) {
+                    return false;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return true;
+    }
+
+    @Override
+    void readMetricsInOneFile(List<MetricNode> list, String fileName,
+                              long offset, int recommendLines) throws Exception {
+        long lastSecond = -1;
+        if (list.size() > 0) {
+            lastSecond = list.get(list.size() - 1).getTimestamp() / 1000;
+        }
+        FileInputStream in = new FileInputStream(fileName);
+        try {
+            MappedByteBuffer records = mapRecords(in.getChannel(), offset);
+            if (records == null) {
+                return;
+            }
+            String[] dictionary = MetricBinaryFormat.readDictionary(fileName);
+            for (int pos = 0; pos < records.limit(); pos += MetricBinaryFormat.RECORD_SIZE) {
+                long currentSecond = MetricBinaryFormat.timestampAt(records, pos) / 1000;
+                if (list.size() >= recommendLines && currentSecond != lastSecond) {
+                    break;
+                }
+                list.add(MetricBinaryFormat.decode(records, pos, dictionary));
+                lastSecond = currentSecond;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Map the complete records from {@code offset}. A partially written tail record is excluded.
+     *
+     * @return mapped records, or null if no record is available
+     */
+    private static MappedByteBuffer mapRecords(FileChannel channel, long offset) throws Exception {
+        long size = channel.size();
+        long limit = size - size % MetricBinaryFormat.RECORD_SIZE;
+        if (offset >= limit) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, limit - offset);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Layout of the binary metric log format.</p>
+ *
+ * <p>Every record of a binary metric file takes {@link #RECORD_SIZE} bytes (big-endian):</p>
+ * <pre>
+ * timestamp(8)|resourceId(4)|passQps(8)|blockQps(8)|successQps(8)|exceptionQps(8)|rt(8)|occupiedPassQps(8)|padding(4)
+ * </pre>
+ * <p>Resource names are interned in a dictionary file {@code ${metricFileName}.dict}, which is a sequence of
+ * {@link java.io.DataOutput#writeUTF(String)} entries. The id of a resource is the order of its entry, so
+ * every metric file is self-contained. The index file has the same layout as the text format.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class MetricBinaryFormat {
+
+    static final int RECORD_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final String DICT_FILE_SUFFIX = ".dict";
+
+    private static final int RESOURCE_ID_OFFSET = 8;
+    private static final int PASS_QPS_OFFSET = 12;
+    private static final int BLOCK_QPS_OFFSET = 20;
+    private static final int SUCCESS_QPS_OFFSET = 28;
+    private static final int EXCEPTION_QPS_OFFSET = 36;
+    private static final int RT_OFFSET = 44;
+    private static final int OCCUPIED_PASS_QPS_OFFSET = 52;
+
+    static void encode(ByteBuffer buf, MetricNode node, int resourceId) {
+        buf.putLong(0, node.getTimestamp());
+        buf.putInt(RESOURCE_ID_OFFSET, resourceId);
+        buf.putLong(PASS_QPS_OFFSET, node.getPassQps());
+        buf.putLong(BLOCK_QPS_OFFSET, node.getBlockQps());
+        buf.putLong(SUCCESS_QPS_OFFSET, node.getSuccessQps());
+        buf.putLong(EXCEPTION_QPS_OFFSET, node.getExceptionQps());
+        buf.putLong(RT_OFFSET, node.getRt());
+        buf.putLong(OCCUPIED_PASS_QPS_OFFSET, node.getOccupiedPassQps());
+    }
+
+    static long timestampAt(ByteBuffer buf, int pos) {
+        return buf.getLong(pos);
+    }
+
+    static int resourceIdAt(ByteBuffer buf, int pos) {
+        return buf.getInt(pos + RESOURCE_ID_OFFSET);
+    }
+
+    static MetricNode decode(ByteBuffer buf, int pos, String[] dictionary) {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(buf.getLong(pos));
+        int resourceId = buf.getInt(pos + RESOURCE_ID_OFFSET);
+        node.setResource(resourceId < dictionary.length ? dictionary[resourceId] : "");
+        node.setPassQps(buf.getLong(pos + PASS_QPS_OFFSET));
+        node.setBlockQps(buf.getLong(pos + BLOCK_QPS_OFFSET));
+        node.setSuccessQps(buf.getLong(pos + SUCCESS_QPS_OFFSET));
+        node.setExceptionQps(buf.getLong(pos + EXCEPTION_QPS_OFFSET));
+        node.setRt(buf.getLong(pos + RT_OFFSET));
+        node.setOccupiedPassQps(buf.getLong(pos + OCCUPIED_PASS_QPS_OFFSET));
+        return node;
+    }
+
+    /**
+     * Read the resource name dictionary of given metric file. The dictionary is always flushed before
+     * the records referring to it, so it should be read after the size of the metric file is fixed.
+     *
+     * @param metricFileName the metric file name
+     * @return resource names indexed by their ids
+     * @throws Exception if any I/O error occurs
+     */
+    static String[] readDictionary(String metricFileName) throws Exception {
+        File dictFile = new File(formDictFileName(metricFileName));
+        if (!dictFile.exists()) {
+            return new String[0];
+        }
+        List<String> names = new ArrayList<String>();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dictFile)));
+        try {
+            while (true) {
+                names.add(in.readUTF());
+            }
+        } catch (EOFException ignore) {
+            // End of the dictionary, or a partially written tail entry.
+        } finally {
+            in.close();
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
+    static int indexOf(String[] dictionary, String resource) {
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(resource)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Form dictionary file name of the {@code metricFileName}.
+     *
+     * @param metricFileName the metric file name
+     * @return the dictionary file name of the metricFileName
+     */
+    static String formDictFileName(String metricFileName) {
+        return metricFileName + DICT_FILE_SUFFIX;
+    }
+
+    private MetricBinaryFormat() {}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A bounded pool of {@link MetricNode} for the metric timer, so metric nodes are reused between flushes
+ * instead of being allocated every second. Note that the pool is not thread-safe.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class MetricNodePool {
+
+    private final int maxSize;
+    private final Deque<MetricNode> freeNodes;
+
+    public MetricNodePool(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be positive");
+        }
+        this.maxSize = maxSize;
+        this.freeNodes = new ArrayDeque<MetricNode>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * Get a metric node from the pool, or a new one if the pool is empty.
+     * All fields of the node should be overwritten by the caller.
+     *
+     * @return a metric node
+     */
+    public MetricNode acquire() {
+        MetricNode node = freeNodes.pollFirst();
+        return node == null ? new MetricNode() : node;
+    }
+
+    /**
+     * Return a metric node to the pool. The node is dropped if the pool is full.
+     *
+     * @param node the metric node no longer used
+     */
+    public void release(MetricNode node) {
+        if (node != null && freeNodes.size() < maxSize) {
+            freeNodes.offerFirst(node);
+        }
+    }
+
+    public int size() {
+        return freeNodes.size();
+    }
+}
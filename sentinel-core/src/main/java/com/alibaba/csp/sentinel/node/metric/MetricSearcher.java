@@ -19,6 +19,8 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -35,6 +37,7 @@ public class MetricSearcher {
 
     private static final Charset defaultCharset = Charset.forName(SentinelConfig.charset());
     private final MetricsReader metricsReader;
+    private final boolean binary;
 
     private String baseDir;
     private String baseFileName;
@@ -55,6 +58,20 @@ public class MetricSearcher {
      * @param charset
      */
     public MetricSearcher(String baseDir, String baseFileName, Charset charset) {
+        this(baseDir, baseFileName, charset, false);
+    }
+
+    /**
+     * @param baseDir      metric文件所在目录
+     * @param baseFileName metric文件名的关键字，比如 alihot-metrics.bin
+     * @param binary       whether the metric files are in the binary format, see {@link MetricBinaryFormat}
+     * @since 1.7.0
+     */
+    public MetricSearcher(String baseDir, String baseFileName, boolean binary) {
+        this(baseDir, baseFileName, defaultCharset, binary);
+    }
+
+    private MetricSearcher(String baseDir, String baseFileName, Charset charset, boolean binary) {
         if (baseDir == null) {
             throw new IllegalArgumentException("baseDir can't be null");
         }
@@ -69,7 +86,8 @@ public class MetricSearcher {
             this.baseDir += File.separator;
         }
         this.baseFileName = baseFileName;
-        metricsReader = new MetricsReader(charset);
+        this.binary = binary;
+        metricsReader = binary ? new BinaryMetricsReader(charset) : new MetricsReader(charset);
     }
 
     /**
@@ -192,6 +210,9 @@ public class MetricSearcher {
 
     private long findOffset(long beginTime, String metricFileName,
                             String idxFileName, long offsetInIndex) throws Exception {
+        if (binary) {
+            return findOffsetInMappedIndex(beginTime, metricFileName, idxFileName, offsetInIndex);
+        }
         lastPosition.metricFileName = null;
         lastPosition.indexFileName = null;
         if (!new File(idxFileName).exists()) {
@@ -220,4 +241,52 @@ public class MetricSearcher {
             indexIn.close();
         }
     }
+
+    /**
+     * Seconds in the index file are strictly increasing, so the first entry no earlier than {@code beginTime}
+     * can be binary searched in the memory-mapped index rather than scanned.
+     */
+    private long findOffsetInMappedIndex(long beginTime, String metricFileName,
+                                         String idxFileName, long offsetInIndex) throws Exception {
+        lastPosition.metricFileName = null;
+        lastPosition.indexFileName = null;
+        if (!new File(idxFileName).exists()) {
+            return -1;
+        }
+        long beginSecond = beginTime / 1000;
+        FileInputStream in = new FileInputStream(idxFileName);
+        try {
+            FileChannel channel = in.getChannel();
+            // A partially written tail entry is excluded.
+            long entryCount = channel.size() / MetricBinaryFormat.INDEX_ENTRY_SIZE;
+            long from = offsetInIndex / MetricBinaryFormat.INDEX_ENTRY_SIZE;
+            if (from >= entryCount) {
+                return -1;
+            }
+            int n = (int)(entryCount - from);
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY,
+                from * MetricBinaryFormat.INDEX_ENTRY_SIZE, (long)n * MetricBinaryFormat.INDEX_ENTRY_SIZE);
+            int low = 0;
+            int high = n;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (index.getLong(mid * MetricBinaryFormat.INDEX_ENTRY_SIZE) < beginSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == n) {
+                return -1;
+            }
+            int pos = low * MetricBinaryFormat.INDEX_ENTRY_SIZE;
+            lastPosition.offsetInIndex = (from + low) * MetricBinaryFormat.INDEX_ENTRY_SIZE;
+            lastPosition.metricFileName = metricFileName;
+            lastPosition.indexFileName = idxFileName;
+            lastPosition.second = index.getLong(pos);
+            return index.getLong(pos + 8);
+        } finally {
+            in.close();
+        }
+    }
 }
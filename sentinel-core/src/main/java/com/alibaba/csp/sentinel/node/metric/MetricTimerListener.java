@@ -15,38 +15,72 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
-import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.ClusterNode;
-import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.node.DirtyNodeTracker;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
+ * <p>Flushes metrics of the completed seconds to the metric log every second.</p>
+ * <p>Only the cluster nodes written since the last flush (tracked by {@link DirtyNodeTracker}) are visited,
+ * together with the nodes whose current second was not complete yet at the last flush. So the cost of a flush
+ * is proportional to the count of active resources rather than all resources. Metric nodes are reused
+ * via a pool.</p>
+ *
  * @author jialiang.linjl
  */
 public class MetricTimerListener implements Runnable {
 
     private static final MetricWriter metricWriter = new MetricWriter(SentinelConfig.singleMetricFileSize(),
-        SentinelConfig.totalMetricFileCount());
+        SentinelConfig.totalMetricFileCount(), SentinelConfig.metricFileBinary());
+
+    private static final int MAX_POOLED_METRIC_NODES = 8192;
+
+    /*
+     * Following states are only accessed under the single-thread metric scheduler.
+     */
+    private final MetricNodePool nodePool = new MetricNodePool(MAX_POOLED_METRIC_NODES);
+    private final Deque<List<MetricNode>> listPool = new ArrayDeque<List<MetricNode>>();
+    private final Map<Long, List<MetricNode>> maps = new TreeMap<Long, List<MetricNode>>();
+    private final List<MetricNode> collected = new ArrayList<MetricNode>();
+
+    private List<ClusterNode> visiting = new ArrayList<ClusterNode>();
+    /**
+     * Nodes holding statistics of an incomplete second at the last flush.
+     */
+    private List<ClusterNode> pending = new ArrayList<ClusterNode>();
 
     @Override
     public void run() {
-        Map<Long, List<MetricNode>> maps = new TreeMap<Long, List<MetricNode>>();
-        for (Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
-            String name = e.getKey().getName();
-            ClusterNode node = e.getValue();
-            Map<Long, MetricNode> metrics = node.metrics();
-            aggregate(maps, metrics, name);
+        long currentTime = TimeUtil.currentTimeMillis();
+        currentTime = currentTime - currentTime % 1000;
+
+        List<ClusterNode> nodes = pending;
+        pending = visiting;
+        visiting = nodes;
+        DirtyNodeTracker.drainTo(visiting);
+        for (ClusterNode node : visiting) {
+            int from = collected.size();
+            if (node.collectMetrics(currentTime, nodePool, collected)) {
+                pending.add(node);
+            }
+            for (int i = from; i < collected.size(); i++) {
+                collected.get(i).setResource(node.getName());
+            }
         }
-        aggregate(maps, Constants.ENTRY_NODE.metrics(), Constants.TOTAL_IN_RESOURCE_NAME);
-        if (!maps.isEmpty()) {
+        visiting.clear();
+
+        if (!collected.isEmpty()) {
+            aggregate();
             for (Entry<Long, List<MetricNode>> entry : maps.entrySet()) {
                 try {
                     metricWriter.write(entry.getKey(), entry.getValue());
@@ -54,20 +88,33 @@ public class MetricTimerListener implements Runnable {
                     RecordLog.warn("[MetricTimerListener] Write metric error", e);
                 }
             }
+            recycle();
         }
     }
 
-    private void aggregate(Map<Long, List<MetricNode>> maps, Map<Long, MetricNode> metrics, String resourceName) {
-        for (Entry<Long, MetricNode> entry : metrics.entrySet()) {
-            long time = entry.getKey();
-            MetricNode metricNode = entry.getValue();
-            metricNode.setResource(resourceName);
-            if (maps.get(time) == null) {
-                maps.put(time, new ArrayList<MetricNode>());
+    private void aggregate() {
+        for (MetricNode node : collected) {
+            List<MetricNode> nodes = maps.get(node.getTimestamp());
+            if (nodes == null) {
+                nodes = listPool.pollFirst();
+                if (nodes == null) {
+                    nodes = new ArrayList<MetricNode>();
+                }
+                maps.put(node.getTimestamp(), nodes);
             }
-            List<MetricNode> nodes = maps.get(time);
-            nodes.add(entry.getValue());
+            nodes.add(node);
         }
     }
 
+    private void recycle() {
+        for (List<MetricNode> nodes : maps.values()) {
+            nodes.clear();
+            listPool.offerFirst(nodes);
+        }
+        maps.clear();
+        for (MetricNode node : collected) {
+            nodePool.release(node);
+        }
+        collected.clear();
+    }
 }
@@ -19,13 +19,16 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.LogBase;
 import com.alibaba.csp.sentinel.util.PidUtil;
@@ -41,6 +44,11 @@ import com.alibaba.csp.sentinel.log.RecordLog;
  * <li>metric of different day should in different file;</li>
  * <li>every metric file is accompanied with an index file, which file name is {@code ${metricFileName}.idx}</li>
  * </ol>
+ * <p>
+ * Metrics are written as text lines ({@link MetricNode#toFatString()}) by default. In binary mode, metrics are
+ * written as fixed-width records with an interned resource-name dictionary (see {@link MetricBinaryFormat}),
+ * and the file name is like {@code ${appName}-metrics.bin.pid${pid}.yyyy-MM-dd.[number]}.
+ * </p>
  *
  * @author leyou
  */
@@ -55,6 +63,10 @@ public class MetricWriter {
      * @see #formMetricFileName(String, int)
      */
     public static final String METRIC_FILE = "metrics.log";
+    /**
+     * @since 1.7.0
+     */
+    public static final String METRIC_BINARY_FILE = "metrics.bin";
     public static final String METRIC_FILE_INDEX_SUFFIX = ".idx";
     public static final Comparator<String> METRIC_FILE_NAME_CMP = new MetricFileNameComparator();
 
@@ -70,15 +82,24 @@ public class MetricWriter {
      */
     private File curMetricFile;
     private File curMetricIndexFile;
+    private File curMetricDictFile;
 
     private FileOutputStream outMetric;
     private DataOutputStream outIndex;
     private BufferedOutputStream outMetricBuf;
+    private DataOutputStream outDict;
     private long singleFileSize;
     private int totalFileCount;
     private boolean append = false;
     private final int pid = PidUtil.getPid();
 
+    private final boolean binary;
+    /**
+     * Resource ids interned in the dictionary of current binary metric file.
+     */
+    private final Map<String, Integer> resourceIds = new HashMap<String, Integer>();
+    private final ByteBuffer recordBuf = ByteBuffer.allocate(MetricBinaryFormat.RECORD_SIZE);
+
     /**
      * 秒级统计，忽略毫秒数。
      */
@@ -89,12 +110,23 @@ public class MetricWriter {
     }
 
     public MetricWriter(long singleFileSize, int totalFileCount) {
+        this(singleFileSize, totalFileCount, false);
+    }
+
+    /**
+     * @param singleFileSize max size of a single metric file
+     * @param totalFileCount max count of metric files
+     * @param binary         whether to write metrics in the binary format
+     * @since 1.7.0
+     */
+    public MetricWriter(long singleFileSize, int totalFileCount, boolean binary) {
         if (singleFileSize <= 0 || totalFileCount <= 0) {
             throw new IllegalArgumentException();
         }
         RecordLog.info(
             "[MetricWriter] Creating new MetricWriter, singleFileSize=" + singleFileSize + ", totalFileCount="
-                + totalFileCount);
+                + totalFileCount + ", binary=" + binary);
+        this.binary = binary;
         this.baseDir = METRIC_BASE_DIR;
         File dir = new File(baseDir);
         if (!dir.exists()) {
@@ -132,10 +164,11 @@ public class MetricWriter {
         }
         // first write, should create file
         if (curMetricFile == null) {
-            baseFileName = formMetricFileName(appName, pid);
+            baseFileName = formMetricFileName(appName, pid, binary);
             closeAndNewFile(nextFileNameOfDay(time));
         }
-        if (!(curMetricFile.exists() && curMetricIndexFile.exists())) {
+        if (!(curMetricFile.exists() && curMetricIndexFile.exists())
+            || (binary && !curMetricDictFile.exists())) {
             closeAndNewFile(nextFileNameOfDay(time));
         }
 
@@ -143,10 +176,7 @@ public class MetricWriter {
         if (second < lastSecond) {
             // 时间靠前的直接忽略，不应该发生。
         } else if (second == lastSecond) {
-            for (MetricNode node : nodes) {
-                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-            }
-            outMetricBuf.flush();
+            writeNodes(nodes);
             if (!validSize()) {
                 closeAndNewFile(nextFileNameOfDay(time));
             }
@@ -154,18 +184,12 @@ public class MetricWriter {
             writeIndex(second, outMetric.getChannel().position());
             if (isNewDay(lastSecond, second)) {
                 closeAndNewFile(nextFileNameOfDay(time));
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
             } else {
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
@@ -181,6 +205,35 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outDict != null) {
+            outDict.close();
+        }
+    }
+
+    private void writeNodes(List<MetricNode> nodes) throws Exception {
+        if (binary) {
+            for (MetricNode node : nodes) {
+                MetricBinaryFormat.encode(recordBuf, node, resourceIdOf(node.getResource()));
+                outMetricBuf.write(recordBuf.array(), 0, MetricBinaryFormat.RECORD_SIZE);
+            }
+            // The dictionary must be visible before the records referring to it.
+            outDict.flush();
+        } else {
+            for (MetricNode node : nodes) {
+                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
+            }
+        }
+        outMetricBuf.flush();
+    }
+
+    private int resourceIdOf(String resource) throws Exception {
+        Integer id = resourceIds.get(resource);
+        if (id == null) {
+            id = resourceIds.size();
+            outDict.writeUTF(resource);
+            resourceIds.put(resource, id);
+        }
+        return id;
     }
 
     private void writeIndex(long time, long offset) throws Exception {
@@ -199,6 +252,7 @@ public class MetricWriter {
             String fileName = file.getName();
             if (fileName.contains(fileNameModel)
                 && !fileName.endsWith(METRIC_FILE_INDEX_SUFFIX)
+                && !fileName.endsWith(MetricBinaryFormat.DICT_FILE_SUFFIX)
                 && !fileName.endsWith(".lck")) {
                 list.add(file.getAbsolutePath());
             }
@@ -331,6 +385,10 @@ public class MetricWriter {
             RecordLog.info("[MetricWriter] Removing metric file: " + fileName);
             new File(indexFile).delete();
             RecordLog.info("[MetricWriter] Removing metric index file: " + indexFile);
+            String dictFile = MetricBinaryFormat.formDictFileName(fileName);
+            if (new File(dictFile).delete()) {
+                RecordLog.info("[MetricWriter] Removing metric dictionary file: " + dictFile);
+            }
         }
     }
 
@@ -342,6 +400,9 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outDict != null) {
+            outDict.close();
+        }
         outMetric = new FileOutputStream(fileName, append);
         outMetricBuf = new BufferedOutputStream(outMetric);
         curMetricFile = new File(fileName);
@@ -350,6 +411,14 @@ public class MetricWriter {
         outIndex = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile, append)));
         RecordLog.info("[MetricWriter] New metric file created: " + fileName);
         RecordLog.info("[MetricWriter] New metric index file created: " + idxFile);
+        if (binary) {
+            // Resource ids are scoped to a single metric file.
+            resourceIds.clear();
+            String dictFile = MetricBinaryFormat.formDictFileName(fileName);
+            curMetricDictFile = new File(dictFile);
+            outDict = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dictFile, append)));
+            RecordLog.info("[MetricWriter] New metric dictionary file created: " + dictFile);
+        }
     }
 
     private boolean validSize() throws Exception {
@@ -375,6 +444,20 @@ public class MetricWriter {
      * @return metric file name.
      */
     public static String formMetricFileName(String appName, int pid) {
+        return formMetricFileName(appName, pid, false);
+    }
+
+    /**
+     * Form metric file name use the specific appName, pid and format. Note that only
+     * form the file name, not include path.
+     *
+     * @param appName
+     * @param pid
+     * @param binary whether the metric file is in the binary format
+     * @return metric file name.
+     * @since 1.7.0
+     */
+    public static String formMetricFileName(String appName, int pid, boolean binary) {
         if (appName == null) {
             appName = "";
         }
@@ -384,7 +467,7 @@ public class MetricWriter {
         if (appName.contains(dot)) {
             appName = appName.replace(dot, separator);
         }
-        String name = appName + separator + METRIC_FILE;
+        String name = appName + separator + (binary ? METRIC_BINARY_FILE : METRIC_FILE);
         if (LogBase.isLogNameUsePid()) {
             name += ".pid" + pid;
         }
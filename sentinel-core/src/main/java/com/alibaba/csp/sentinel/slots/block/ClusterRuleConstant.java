@@ -29,5 +29,10 @@ public final class ClusterRuleConstant {
 
     public static final int DEFAULT_CLUSTER_SAMPLE_COUNT = 10;
 
+    /**
+     * Default lease of cluster concurrency permits (in ms), after which permits not released are reclaimed.
+     */
+    public static final int DEFAULT_CONCURRENCY_PERMIT_LEASE_MS = 10 * 1000;
+
     private ClusterRuleConstant() {}
 }
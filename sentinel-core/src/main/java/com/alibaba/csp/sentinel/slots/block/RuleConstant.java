@@ -15,8 +15,6 @@
  */
 package com.alibaba.csp.sentinel.slots.block;
 
-import com.alibaba.csp.sentinel.node.IntervalProperty;
-
 /**
  * @author youji.zj
  * @author jialiang.linjl
@@ -26,15 +24,37 @@ public final class RuleConstant {
     public static final int FLOW_GRADE_THREAD = 0;
     public static final int FLOW_GRADE_QPS = 1;
 
+    /**
+     * Degrade by average response time in the statistic interval of the rule.
+     */
     public static final int DEGRADE_GRADE_RT = 0;
     /**
-     * Degrade by biz exception ratio in the current {@link IntervalProperty#INTERVAL} second(s).
+     * Degrade by biz exception ratio in the statistic interval of the rule.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_RATIO = 1;
     /**
-     * Degrade by biz exception count in the last 60 seconds.
+     * Degrade by biz exception count in the statistic interval of the rule.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_COUNT = 2;
+    /**
+     * Degrade by the ratio of slow requests (whose RT exceeds the max allowed RT)
+     * in the statistic interval of the rule.
+     *
+     * @since 1.7.0
+     */
+    public static final int DEGRADE_GRADE_SLOW_REQUEST_RATIO = 3;
+
+    /**
+     * Default minimum amount of requests in the statistic interval that could trigger circuit breaking.
+     */
+    public static final int DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT = 5;
+    public static final int DEGRADE_DEFAULT_STAT_INTERVAL_MS = 1000;
+    /**
+     * Default statistic interval of the exception count mode, which counts the exceptions in the last minute.
+     *
+     * @since 1.7.0
+     */
+    public static final int DEGRADE_EXCEPTION_COUNT_STAT_INTERVAL_MS = 60 * 1000;
 
     public static final int AUTHORITY_WHITE = 0;
     public static final int AUTHORITY_BLACK = 1;
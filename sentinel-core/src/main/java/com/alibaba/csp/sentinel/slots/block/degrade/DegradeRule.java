@@ -15,52 +15,51 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.context.Context;
-import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slots.block.AbstractRule;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 
 /**
  * <p>
  * Degrade is used when the resources are in an unstable state, these resources
- * will be degraded within the next defined time window. There are two ways to
+ * will be degraded within the next defined time window. There are four ways to
  * measure whether a resource is stable or not:
  * </p>
  * <ul>
  * <li>
- * Average response time ({@code DEGRADE_GRADE_RT}): When
- * the average RT exceeds the threshold ('count' in 'DegradeRule', in milliseconds), the
- * resource enters a quasi-degraded state. If the RT of next coming 5
- * requests still exceed this threshold, this resource will be downgraded, which
- * means that in the next time window (defined in 'timeWindow', in seconds) all the
- * access to this resource will be blocked.
+ * Average response time ({@code DEGRADE_GRADE_RT}): When the average RT of completed requests
+ * in the statistic interval exceeds the threshold ('count' in 'DegradeRule', in milliseconds),
+ * the resource will be degraded.
  * </li>
  * <li>
- * Exception ratio: When the ratio of exception count per second and the
- * success qps exceeds the threshold, access to the resource will be blocked in
- * the coming window.
+ * Exception ratio ({@code DEGRADE_GRADE_EXCEPTION_RATIO}): When the ratio of business exceptions
+ * in the statistic interval exceeds the threshold, the resource will be degraded.
+ * </li>
+ * <li>
+ * Exception count ({@code DEGRADE_GRADE_EXCEPTION_COUNT}): When the amount of business exceptions
+ * in the statistic interval exceeds the threshold, the resource will be degraded.
+ * </li>
+ * <li>
+ * Slow request ratio ({@code DEGRADE_GRADE_SLOW_REQUEST_RATIO}): A request is slow if its RT exceeds
+ * the max allowed RT ('count' in 'DegradeRule', in milliseconds). When the ratio of slow requests
+ * in the statistic interval reaches {@code slowRatioThreshold}, the resource will be degraded.
  * </li>
  * </ul>
  *
+ * <p>Each rule is enforced by a {@link CircuitBreaker}, which works with its own statistics in
+ * {@code statIntervalMs}, and will not trip if the amount of requests in the interval is less than
+ * {@code minRequestAmount}. After degraded for 'timeWindow' seconds, one probe request is permitted.
+ * The resource recovers if the probe is normal, otherwise it will be degraded for another time window.</p>
+ *
  * @author jialiang.linjl
  */
 public class DegradeRule extends AbstractRule {
 
-    private static final int RT_MAX_EXCEED_N = 5;
-
-    @SuppressWarnings("PMD.ThreadPoolCreationRule")
-    private static ScheduledExecutorService pool = Executors.newScheduledThreadPool(
-        Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("sentinel-degrade-reset-task", true));
-
     public DegradeRule() {}
 
     public DegradeRule(String resourceName) {
@@ -68,7 +67,8 @@ public class DegradeRule extends AbstractRule {
     }
 
     /**
-     * RT threshold or exception ratio threshold count.
+     * RT threshold, exception ratio threshold, exception count threshold, or max allowed RT of
+     * the slow request ratio mode.
      */
     private double count;
 
@@ -78,11 +78,33 @@ public class DegradeRule extends AbstractRule {
     private int timeWindow;
 
     /**
-     * Degrade strategy (0: average RT, 1: exception ratio).
+     * Degrade strategy (0: average RT, 1: exception ratio, 2: exception count, 3: slow request ratio).
      */
     private int grade = RuleConstant.DEGRADE_GRADE_RT;
 
-    private final AtomicBoolean cut = new AtomicBoolean(false);
+    /**
+     * Minimum amount of requests in the statistic interval that could trigger circuit breaking.
+     *
+     * @since 1.7.0
+     */
+    private int minRequestAmount = RuleConstant.DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT;
+
+    /**
+     * The statistic interval (in milliseconds) of the circuit breaker. If absent, the default interval of
+     * the grade is used (one minute for the exception count mode, one second for the others).
+     *
+     * @since 1.7.0
+     */
+    private Integer statIntervalMs;
+
+    /**
+     * The threshold of slow request ratio in range [0, 1], only for the slow request ratio mode.
+     *
+     * @since 1.7.0
+     */
+    private double slowRatioThreshold = 1.0d;
+
+    private final AtomicLong passCount = new AtomicLong(0);
 
     public int getGrade() {
         return grade;
@@ -93,8 +115,6 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
-    private AtomicLong passCount = new AtomicLong(0);
-
     public double getCount() {
         return count;
     }
@@ -104,24 +124,52 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
-    private boolean isCut() {
-        return cut.get();
+    public int getTimeWindow() {
+        return timeWindow;
+    }
+
+    public DegradeRule setTimeWindow(int timeWindow) {
+        this.timeWindow = timeWindow;
+        return this;
+    }
+
+    public int getMinRequestAmount() {
+        return minRequestAmount;
+    }
+
+    public DegradeRule setMinRequestAmount(int minRequestAmount) {
+        this.minRequestAmount = minRequestAmount;
+        return this;
+    }
+
+    public int getStatIntervalMs() {
+        if (statIntervalMs != null) {
+            return statIntervalMs;
+        }
+        // Exception count was counted in the minute window before the circuit breaker was introduced.
+        return grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT
+            ? RuleConstant.DEGRADE_EXCEPTION_COUNT_STAT_INTERVAL_MS : RuleConstant.DEGRADE_DEFAULT_STAT_INTERVAL_MS;
     }
 
-    private void setCut(boolean cut) {
-        this.cut.set(cut);
+    public DegradeRule setStatIntervalMs(int statIntervalMs) {
+        this.statIntervalMs = statIntervalMs;
+        return this;
     }
 
+    /**
+     * @deprecated since 1.7.0, the amount of passed requests is no longer tracked by the rule
+     */
+    @Deprecated
     public AtomicLong getPassCount() {
         return passCount;
     }
 
-    public int getTimeWindow() {
-        return timeWindow;
+    public double getSlowRatioThreshold() {
+        return slowRatioThreshold;
     }
 
-    public DegradeRule setTimeWindow(int timeWindow) {
-        this.timeWindow = timeWindow;
+    public DegradeRule setSlowRatioThreshold(double slowRatioThreshold) {
+        this.slowRatioThreshold = slowRatioThreshold;
         return this;
     }
 
@@ -148,70 +196,49 @@ public class DegradeRule extends AbstractRule {
         if (grade != that.grade) {
             return false;
         }
+        if (minRequestAmount != that.minRequestAmount) {
+            return false;
+        }
+        if (getStatIntervalMs() != that.getStatIntervalMs()) {
+            return false;
+        }
+        if (Double.compare(that.slowRatioThreshold, slowRatioThreshold) != 0) {
+            return false;
+        }
         return true;
     }
 
     @Override
     public int hashCode() {
         int result = super.hashCode();
-        result = 31 * result + new Double(count).hashCode();
+        result = 31 * result + Double.valueOf(count).hashCode();
         result = 31 * result + timeWindow;
         result = 31 * result + grade;
+        result = 31 * result + minRequestAmount;
+        result = 31 * result + getStatIntervalMs();
+        result = 31 * result + Double.valueOf(slowRatioThreshold).hashCode();
         return result;
     }
 
+    /**
+     * Check the rule with its {@link CircuitBreaker} built by {@link DegradeRuleManager}. As a circuit breaker
+     * only collects statistics of a loaded rule, a rule that has not been loaded always passes.
+     *
+     * @deprecated since 1.7.0, degrade rules are enforced by {@link CircuitBreaker}s in {@link DegradeSlot}
+     */
     @Override
+    @Deprecated
     public boolean passCheck(Context context, DefaultNode node, int acquireCount, Object... args) {
-        if (cut.get()) {
-            return false;
-        }
-
-        ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(this.getResource());
-        if (clusterNode == null) {
+        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(getResource());
+        if (circuitBreakers == null) {
             return true;
         }
-
-        if (grade == RuleConstant.DEGRADE_GRADE_RT) {
-            double rt = clusterNode.avgRt();
-            if (rt < this.count) {
-                passCount.set(0);
-                return true;
-            }
-
-            // Sentinel will degrade the service only if count exceeds.
-            if (passCount.incrementAndGet() < RT_MAX_EXCEED_N) {
-                return true;
-            }
-        } else if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO) {
-            double exception = clusterNode.exceptionQps();
-            double success = clusterNode.successQps();
-            double total = clusterNode.totalQps();
-            // if total qps less than RT_MAX_EXCEED_N, pass.
-            if (total < RT_MAX_EXCEED_N) {
-                return true;
-            }
-
-            double realSuccess = success - exception;
-            if (realSuccess <= 0 && exception < RT_MAX_EXCEED_N) {
-                return true;
-            }
-
-            if (exception / success < count) {
-                return true;
-            }
-        } else if (grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT) {
-            double exception = clusterNode.totalException();
-            if (exception < count) {
-                return true;
+        for (CircuitBreaker cb : circuitBreakers) {
+            if (cb.getRule() == this || this.equals(cb.getRule())) {
+                return cb.tryPass(context);
             }
         }
-
-        if (cut.compareAndSet(false, true)) {
-            ResetTask resetTask = new ResetTask(this);
-            pool.schedule(resetTask, timeWindow, TimeUnit.SECONDS);
-        }
-
-        return false;
+        return true;
     }
 
     @Override
@@ -222,22 +249,9 @@ public class DegradeRule extends AbstractRule {
             ", count=" + count +
             ", limitApp=" + getLimitApp() +
             ", timeWindow=" + timeWindow +
+            ", minRequestAmount=" + minRequestAmount +
+            ", statIntervalMs=" + getStatIntervalMs() +
+            ", slowRatioThreshold=" + slowRatioThreshold +
             "}";
     }
-
-    private static final class ResetTask implements Runnable {
-
-        private DegradeRule rule;
-
-        ResetTask(DegradeRule rule) {
-            this.rule = rule;
-        }
-
-        @Override
-        public void run() {
-            rule.getPassCount().set(0);
-            rule.cut.set(false);
-        }
-    }
 }
-
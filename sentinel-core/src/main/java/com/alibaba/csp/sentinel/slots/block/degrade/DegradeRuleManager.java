@@ -22,8 +22,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.ResourceHandle;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
@@ -33,6 +35,10 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.SlowRequestRatioCircuitBreaker;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -44,6 +50,12 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 public final class DegradeRuleManager {
 
     private static final Map<String, Set<DegradeRule>> degradeRules = new ConcurrentHashMap<>();
+    private static final Map<String, List<CircuitBreaker>> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Version of the degrade rules, which increases after the rule map has been replaced.
+     */
+    private static final AtomicLong ruleVersion = new AtomicLong(0);
 
     private static final RulePropertyListener LISTENER = new RulePropertyListener();
     private static SentinelProperty<List<DegradeRule>> currentProperty
@@ -71,19 +83,37 @@ public final class DegradeRuleManager {
 
     public static void checkDegrade(ResourceWrapper resource, Context context, DefaultNode node, int count)
         throws BlockException {
-
-        Set<DegradeRule> rules = degradeRules.get(resource.getName());
-        if (rules == null) {
+        List<CircuitBreaker> breakers = getCircuitBreakers(resource);
+        if (breakers == null) {
             return;
         }
 
-        for (DegradeRule rule : rules) {
-            if (!rule.passCheck(context, node, count)) {
-                throw new DegradeException(rule.getLimitApp(), rule);
+        for (int i = 0; i < breakers.size(); i++) {
+            CircuitBreaker cb = breakers.get(i);
+            if (!cb.tryPass(context)) {
+                throw new DegradeException(cb.getRule().getLimitApp(), cb.getRule());
             }
         }
     }
 
+    static List<CircuitBreaker> getCircuitBreakers(ResourceWrapper resource) {
+        if (resource instanceof ResourceHandle) {
+            return ((ResourceHandle)resource).getCircuitBreakers();
+        }
+        return circuitBreakers.get(resource.getName());
+    }
+
+    /**
+     * Get the circuit breakers of given resource. The returned list should not be modified.
+     *
+     * @param resource the resource name
+     * @return circuit breakers of the resource, or null if absent
+     * @since 1.7.0
+     */
+    public static List<CircuitBreaker> getCircuitBreakers(String resource) {
+        return resource == null ? null : circuitBreakers.get(resource);
+    }
+
     public static boolean hasConfig(String resource) {
         if (resource == null) {
             return false;
@@ -91,6 +121,27 @@ public final class DegradeRuleManager {
         return degradeRules.containsKey(resource);
     }
 
+    /**
+     * Get the degrade rules of given resource. The returned set should not be modified.
+     *
+     * @param resource the resource name
+     * @return degrade rules of the resource, or null if absent
+     * @since 1.7.0
+     */
+    public static Set<DegradeRule> getRulesOfResource(String resource) {
+        return resource == null ? null : degradeRules.get(resource);
+    }
+
+    /**
+     * Get current version of the degrade rules. The version increases every time after new rules are loaded.
+     *
+     * @return current version of the degrade rules
+     * @since 1.7.0
+     */
+    public static long getRuleVersion() {
+        return ruleVersion.get();
+    }
+
     /**
      * Get a copy of the rules.
      *
@@ -156,22 +207,63 @@ public final class DegradeRuleManager {
 
         @Override
         public void configUpdate(List<DegradeRule> conf) {
-            Map<String, Set<DegradeRule>> rules = loadDegradeConf(conf);
-            if (rules != null) {
-                degradeRules.clear();
-                degradeRules.putAll(rules);
-            }
+            reloadFrom(conf);
             RecordLog.info("[DegradeRuleManager] Degrade rules received: " + degradeRules);
         }
 
         @Override
         public void configLoad(List<DegradeRule> conf) {
+            reloadFrom(conf);
+            RecordLog.info("[DegradeRuleManager] Degrade rules loaded: " + degradeRules);
+        }
+
+        private synchronized void reloadFrom(List<DegradeRule> conf) {
             Map<String, Set<DegradeRule>> rules = loadDegradeConf(conf);
             if (rules != null) {
+                Map<String, List<CircuitBreaker>> cbs = buildCircuitBreakers(rules);
                 degradeRules.clear();
                 degradeRules.putAll(rules);
+                circuitBreakers.clear();
+                circuitBreakers.putAll(cbs);
+                ruleVersion.incrementAndGet();
             }
-            RecordLog.info("[DegradeRuleManager] Degrade rules loaded: " + degradeRules);
+        }
+
+        /**
+         * Build circuit breakers for the rules. The circuit breaker of an unchanged rule is reused,
+         * so that its state and statistics are kept.
+         */
+        private Map<String, List<CircuitBreaker>> buildCircuitBreakers(Map<String, Set<DegradeRule>> rules) {
+            Map<String, List<CircuitBreaker>> cbMap = new HashMap<>(rules.size());
+            for (Map.Entry<String, Set<DegradeRule>> e : rules.entrySet()) {
+                List<CircuitBreaker> cbs = new ArrayList<>(e.getValue().size());
+                for (DegradeRule rule : e.getValue()) {
+                    CircuitBreaker cb = getExistingSameCircuitBreaker(rule);
+                    if (cb == null) {
+                        cb = newCircuitBreakerFrom(rule);
+                    }
+                    if (cb != null) {
+                        cbs.add(cb);
+                    }
+                }
+                if (!cbs.isEmpty()) {
+                    cbMap.put(e.getKey(), cbs);
+                }
+            }
+            return cbMap;
+        }
+
+        private CircuitBreaker getExistingSameCircuitBreaker(DegradeRule rule) {
+            List<CircuitBreaker> cbs = circuitBreakers.get(rule.getResource());
+            if (cbs == null) {
+                return null;
+            }
+            for (CircuitBreaker cb : cbs) {
+                if (rule.equals(cb.getRule())) {
+                    return cb;
+                }
+            }
+            return null;
         }
 
         private Map<String, Set<DegradeRule>> loadDegradeConf(List<DegradeRule> list) {
@@ -205,12 +297,45 @@ public final class DegradeRuleManager {
         }
     }
 
+    /**
+     * Create a circuit breaker instance from the rule.
+     *
+     * @param rule a valid degrade rule
+     * @return new circuit breaker based on the rule; null if the rule is not supported
+     * @since 1.7.0
+     */
+    public static CircuitBreaker newCircuitBreakerFrom(/*@Valid*/ DegradeRule rule) {
+        switch (rule.getGrade()) {
+            case RuleConstant.DEGRADE_GRADE_RT:
+                return new ResponseTimeCircuitBreaker(rule);
+            case RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO:
+            case RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT:
+                return new ExceptionCircuitBreaker(rule);
+            case RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO:
+                return new SlowRequestRatioCircuitBreaker(rule);
+            default:
+                return null;
+        }
+    }
+
     public static boolean isValidRule(DegradeRule rule) {
         boolean baseValid = rule != null && !StringUtil.isBlank(rule.getResource())
             && rule.getCount() >= 0 && rule.getTimeWindow() > 0;
         if (!baseValid) {
             return false;
         }
+        if (rule.getGrade() < RuleConstant.DEGRADE_GRADE_RT
+            || rule.getGrade() > RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO) {
+            return false;
+        }
+        if (rule.getMinRequestAmount() <= 0 || rule.getStatIntervalMs() <= 0) {
+            return false;
+        }
+        // Check slow request ratio mode.
+        if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO
+            && (rule.getSlowRatioThreshold() < 0 || rule.getSlowRatioThreshold() > 1)) {
+            return false;
+        }
         // Warn for RT mode that exceeds the {@code TIME_DROP_VALVE}.
         int maxAllowedRt = Constants.TIME_DROP_VALVE;
         if (rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT && rule.getCount() > maxAllowedRt) {
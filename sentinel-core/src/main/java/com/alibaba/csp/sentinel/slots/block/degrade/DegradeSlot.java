@@ -15,11 +15,15 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 
 /**
  * A {@link ProcessorSlot} dedicates to {@link DegradeRule} checking.
@@ -37,6 +41,17 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        Entry curEntry = context.getCurEntry();
+        // Blocked (or rolled back) requests are not recorded by circuit breakers.
+        if (curEntry != null && curEntry.getError() == null && !curEntry.isRolledBack()) {
+            List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(resourceWrapper);
+            if (circuitBreakers != null) {
+                // Indexed loop to keep the exit path allocation-free.
+                for (int i = 0; i < circuitBreakers.size(); i++) {
+                    circuitBreakers.get(i).onRequestComplete(context);
+                }
+            }
+        }
         fireExit(context, resourceWrapper, count, args);
     }
 }
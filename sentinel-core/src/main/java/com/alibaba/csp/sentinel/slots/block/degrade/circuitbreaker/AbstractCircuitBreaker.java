@@ -0,0 +1,171 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Base circuit breaker with the state machine. No timer is needed for recovery: the first request
+ * arriving after the recovery time point transforms the circuit breaker from {@code OPEN} to {@code HALF_OPEN}
+ * and is permitted as the probe.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public abstract class AbstractCircuitBreaker implements CircuitBreaker {
+
+    protected final DegradeRule rule;
+    protected final int recoveryTimeoutMs;
+
+    protected final AtomicReference<State> currentState = new AtomicReference<State>(State.CLOSED);
+
+    /**
+     * The time point when the next probe could be permitted, only meaningful in {@code OPEN}
+     * or {@code HALF_OPEN} state.
+     */
+    protected final AtomicLong nextRetryTimestamp = new AtomicLong(0);
+
+    public AbstractCircuitBreaker(DegradeRule rule) {
+        AssertUtil.notNull(rule, "rule cannot be null");
+        AssertUtil.isTrue(rule.getTimeWindow() > 0, "timeWindow should be positive");
+        this.rule = rule;
+        this.recoveryTimeoutMs = rule.getTimeWindow() * 1000;
+    }
+
+    /**
+     * Get the sample count of the statistic window of given interval. The interval is divided into 10 buckets
+     * if possible, otherwise a single bucket is used.
+     *
+     * @param statIntervalMs statistic interval in milliseconds
+     * @return the sample count
+     */
+    static int sampleCountOf(int statIntervalMs) {
+        return statIntervalMs % 10 == 0 ? 10 : 1;
+    }
+
+    @Override
+    public DegradeRule getRule() {
+        return rule;
+    }
+
+    @Override
+    public State currentState() {
+        return currentState.get();
+    }
+
+    @Override
+    public boolean tryPass(Context context) {
+        State state = currentState.get();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        // In OPEN state, the first request after the recovery time point is permitted as the probe.
+        // In HALF_OPEN state, another probe is permitted only if the former probe has not completed
+        // within the recovery timeout (e.g. it was blocked by other slots so no completion was recorded).
+        long now = TimeUtil.currentTimeMillis();
+        long retryTimestamp = nextRetryTimestamp.get();
+        if (now < retryTimestamp || !nextRetryTimestamp.compareAndSet(retryTimestamp, now + recoveryTimeoutMs)) {
+            return false;
+        }
+        if (state == State.OPEN) {
+            fromOpenToHalfOpen();
+        }
+        return true;
+    }
+
+    /**
+     * Reset the statistics when the circuit breaker transforms to {@code CLOSED}.
+     */
+    protected abstract void resetStat();
+
+    /**
+     * Get the entry to record on completion.
+     *
+     * @param context context of current invocation
+     * @return the entry, or null if the entry should not be recorded (e.g. blocked)
+     */
+    static Entry completedEntryOf(Context context) {
+        if (context == null) {
+            return null;
+        }
+        Entry entry = context.getCurEntry();
+        if (entry == null || entry.getError() != null) {
+            return null;
+        }
+        return entry;
+    }
+
+    protected boolean fromCloseToOpen(double snapshotValue) {
+        updateNextRetryTimestamp();
+        if (currentState.compareAndSet(State.CLOSED, State.OPEN)) {
+            notifyObservers(State.CLOSED, State.OPEN, snapshotValue);
+            return true;
+        }
+        return false;
+    }
+
+    protected boolean fromOpenToHalfOpen() {
+        if (currentState.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            notifyObservers(State.OPEN, State.HALF_OPEN, null);
+            return true;
+        }
+        return false;
+    }
+
+    protected boolean fromHalfOpenToOpen(double snapshotValue) {
+        updateNextRetryTimestamp();
+        if (currentState.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+            notifyObservers(State.HALF_OPEN, State.OPEN, snapshotValue);
+            return true;
+        }
+        return false;
+    }
+
+    protected boolean fromHalfOpenToClose() {
+        if (currentState.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            resetStat();
+            notifyObservers(State.HALF_OPEN, State.CLOSED, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The recovery time point must be updated before the state becomes OPEN, otherwise
+     * a stale time point might be seen by concurrent requests in OPEN state.
+     */
+    private void updateNextRetryTimestamp() {
+        nextRetryTimestamp.set(TimeUtil.currentTimeMillis() + recoveryTimeoutMs);
+    }
+
+    private void notifyObservers(State prevState, State newState, Double snapshotValue) {
+        for (CircuitBreakerStateChangeObserver observer : EventObserverRegistry.getStateChangeObservers()) {
+            try {
+                observer.onStateChange(prevState, newState, rule, snapshotValue);
+            } catch (Throwable ex) {
+                RecordLog.warn("[CircuitBreaker] Unexpected error in state change observer, rule: " + rule, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Registry for {@link CircuitBreakerStateChangeObserver}s.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public final class EventObserverRegistry {
+
+    private static final Map<String, CircuitBreakerStateChangeObserver> stateChangeObserverMap
+        = new ConcurrentHashMap<String, CircuitBreakerStateChangeObserver>();
+
+    /**
+     * Register a circuit breaker state change observer. The former observer with the same name will be replaced.
+     *
+     * @param name     unique name of the observer
+     * @param observer the observer
+     */
+    public static void addStateChangeObserver(String name, CircuitBreakerStateChangeObserver observer) {
+        AssertUtil.notNull(name, "name cannot be null");
+        AssertUtil.notNull(observer, "observer cannot be null");
+        stateChangeObserverMap.put(name, observer);
+    }
+
+    public static CircuitBreakerStateChangeObserver removeStateChangeObserver(String name) {
+        if (name == null) {
+            return null;
+        }
+        return stateChangeObserverMap.remove(name);
+    }
+
+    public static Collection<CircuitBreakerStateChangeObserver> getStateChangeObservers() {
+        return stateChangeObserverMap.values();
+    }
+
+    public static void clearStateChangeObserver() {
+        stateChangeObserverMap.clear();
+    }
+
+    private EventObserverRegistry() {}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Circuit breaker by business exception ratio ({@link RuleConstant#DEGRADE_GRADE_EXCEPTION_RATIO})
+ * or business exception count ({@link RuleConstant#DEGRADE_GRADE_EXCEPTION_COUNT}). Business exceptions
+ * should be recorded via {@code Tracer}.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
+
+    private final int strategy;
+    private final int minRequestAmount;
+    private final double threshold;
+
+    private final LeapArray<SimpleErrorCounter> stat;
+
+    public ExceptionCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        this.strategy = rule.getGrade();
+        AssertUtil.isTrue(strategy == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO
+                || strategy == RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT,
+            "rule strategy should be exception ratio or count");
+        AssertUtil.isTrue(rule.getMinRequestAmount() > 0, "minRequestAmount should be positive");
+        AssertUtil.isTrue(rule.getStatIntervalMs() > 0, "statIntervalMs should be positive");
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.threshold = rule.getCount();
+        this.stat = new SimpleErrorCounterLeapArray(sampleCountOf(rule.getStatIntervalMs()), rule.getStatIntervalMs());
+    }
+
+    @Override
+    protected void resetStat() {
+        for (SimpleErrorCounter counter : stat.values()) {
+            counter.reset();
+        }
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = completedEntryOf(context);
+        if (entry == null) {
+            return;
+        }
+        Throwable error = entry.getBizError();
+        SimpleErrorCounter counter = stat.currentWindow().value();
+        if (error != null) {
+            counter.getErrorCount().add(1);
+        }
+        counter.getTotalCount().add(1);
+
+        handleStateChangeWhenThresholdExceeded(error);
+    }
+
+    private void handleStateChangeWhenThresholdExceeded(Throwable error) {
+        State state = currentState.get();
+        if (state == State.OPEN) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            // In detecting request.
+            if (error == null) {
+                fromHalfOpenToClose();
+            } else {
+                fromHalfOpenToOpen(1.0d);
+            }
+            return;
+        }
+
+        long errCount = 0;
+        long totalCount = 0;
+        List<SimpleErrorCounter> counters = stat.values();
+        for (SimpleErrorCounter counter : counters) {
+            errCount += counter.getErrorCount().sum();
+            totalCount += counter.getTotalCount().sum();
+        }
+        if (totalCount < minRequestAmount || errCount == 0) {
+            return;
+        }
+        double curCount = errCount;
+        if (strategy == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO) {
+            curCount = errCount * 1.0d / totalCount;
+        }
+        if (curCount >= threshold) {
+            fromCloseToOpen(curCount);
+        }
+    }
+
+    static class SimpleErrorCounter {
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalCount = new LongAdder();
+
+        public LongAdder getErrorCount() {
+            return errorCount;
+        }
+
+        public LongAdder getTotalCount() {
+            return totalCount;
+        }
+
+        public SimpleErrorCounter reset() {
+            errorCount.reset();
+            totalCount.reset();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "SimpleErrorCounter{" +
+                "errorCount=" + errorCount +
+                ", totalCount=" + totalCount +
+                '}';
+        }
+    }
+
+    static class SimpleErrorCounterLeapArray extends LeapArray<SimpleErrorCounter> {
+
+        SimpleErrorCounterLeapArray(int sampleCount, int intervalInMs) {
+            super(sampleCount, intervalInMs);
+        }
+
+        @Override
+        public SimpleErrorCounter newEmptyBucket(long timeMillis) {
+            return new SimpleErrorCounter();
+        }
+
+        @Override
+        protected WindowWrap<SimpleErrorCounter> resetWindowTo(WindowWrap<SimpleErrorCounter> w, long startTime) {
+            // Update the start time and reset value.
+            w.resetTo(startTime);
+            w.value().reset();
+            return w;
+        }
+    }
+}
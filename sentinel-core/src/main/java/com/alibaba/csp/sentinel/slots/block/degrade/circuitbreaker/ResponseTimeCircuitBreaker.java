@@ -0,0 +1,152 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * Circuit breaker by average response time ({@link RuleConstant#DEGRADE_GRADE_RT}) of completed requests
+ * in the statistic interval.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
+
+    private final double maxAllowedRt;
+    private final int minRequestAmount;
+
+    private final LeapArray<SimpleRtCounter> stat;
+
+    public ResponseTimeCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT, "rule strategy should be RT");
+        AssertUtil.isTrue(rule.getMinRequestAmount() > 0, "minRequestAmount should be positive");
+        AssertUtil.isTrue(rule.getStatIntervalMs() > 0, "statIntervalMs should be positive");
+        this.maxAllowedRt = rule.getCount();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.stat = new SimpleRtCounterLeapArray(sampleCountOf(rule.getStatIntervalMs()), rule.getStatIntervalMs());
+    }
+
+    @Override
+    protected void resetStat() {
+        for (SimpleRtCounter counter : stat.values()) {
+            counter.reset();
+        }
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = completedEntryOf(context);
+        if (entry == null) {
+            return;
+        }
+        long rt = Math.min(TimeUtil.currentTimeMillis() - entry.getCreateTime(), Constants.TIME_DROP_VALVE);
+        SimpleRtCounter counter = stat.currentWindow().value();
+        counter.getTotalRt().add(rt);
+        counter.getTotalCount().add(1);
+
+        handleStateChangeWhenThresholdExceeded(rt);
+    }
+
+    private void handleStateChangeWhenThresholdExceeded(long rt) {
+        State state = currentState.get();
+        if (state == State.OPEN) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            // In detecting request.
+            if (rt < maxAllowedRt) {
+                fromHalfOpenToClose();
+            } else {
+                fromHalfOpenToOpen(rt);
+            }
+            return;
+        }
+
+        long totalRt = 0;
+        long totalCount = 0;
+        List<SimpleRtCounter> counters = stat.values();
+        for (SimpleRtCounter counter : counters) {
+            totalRt += counter.getTotalRt().sum();
+            totalCount += counter.getTotalCount().sum();
+        }
+        if (totalCount < minRequestAmount) {
+            return;
+        }
+        double avgRt = totalRt * 1.0d / totalCount;
+        if (avgRt >= maxAllowedRt) {
+            fromCloseToOpen(avgRt);
+        }
+    }
+
+    static class SimpleRtCounter {
+        private final LongAdder totalRt = new LongAdder();
+        private final LongAdder totalCount = new LongAdder();
+
+        public LongAdder getTotalRt() {
+            return totalRt;
+        }
+
+        public LongAdder getTotalCount() {
+            return totalCount;
+        }
+
+        public SimpleRtCounter reset() {
+            totalRt.reset();
+            totalCount.reset();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "SimpleRtCounter{" +
+                "totalRt=" + totalRt +
+                ", totalCount=" + totalCount +
+                '}';
+        }
+    }
+
+    static class SimpleRtCounterLeapArray extends LeapArray<SimpleRtCounter> {
+
+        SimpleRtCounterLeapArray(int sampleCount, int intervalInMs) {
+            super(sampleCount, intervalInMs);
+        }
+
+        @Override
+        public SimpleRtCounter newEmptyBucket(long timeMillis) {
+            return new SimpleRtCounter();
+        }
+
+        @Override
+        protected WindowWrap<SimpleRtCounter> resetWindowTo(WindowWrap<SimpleRtCounter> w, long startTime) {
+            w.resetTo(startTime);
+            w.value().reset();
+            return w;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Circuit breaker by the ratio of slow requests ({@link RuleConstant#DEGRADE_GRADE_SLOW_REQUEST_RATIO}).
+ * A completed request is regarded as slow if its response time is larger than the max allowed RT
+ * ('count' in the rule, in milliseconds). The circuit breaker trips when the ratio of slow requests
+ * in the statistic interval reaches {@code slowRatioThreshold}.</p>
+ *
+ * <p>Recording a completed request does not allocate: the statistics are aggregated by
+ * iterating the buckets in place.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class SlowRequestRatioCircuitBreaker extends AbstractCircuitBreaker {
+
+    private final long maxAllowedRt;
+    private final double maxSlowRequestRatio;
+    private final int minRequestAmount;
+
+    private final SlowRequestLeapArray stat;
+
+    public SlowRequestRatioCircuitBreaker(DegradeRule rule) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO,
+            "rule strategy should be slow request ratio");
+        AssertUtil.isTrue(rule.getMinRequestAmount() > 0, "minRequestAmount should be positive");
+        AssertUtil.isTrue(rule.getStatIntervalMs() > 0, "statIntervalMs should be positive");
+        AssertUtil.isTrue(rule.getSlowRatioThreshold() >= 0 && rule.getSlowRatioThreshold() <= 1,
+            "slowRatioThreshold should be in range [0, 1]");
+        this.maxAllowedRt = Math.round(rule.getCount());
+        this.maxSlowRequestRatio = rule.getSlowRatioThreshold();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.stat = new SlowRequestLeapArray(sampleCountOf(rule.getStatIntervalMs()), rule.getStatIntervalMs());
+    }
+
+    @Override
+    protected void resetStat() {
+        stat.resetAll();
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = completedEntryOf(context);
+        if (entry == null) {
+            return;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long rt = now - entry.getCreateTime();
+        boolean slow = rt > maxAllowedRt;
+
+        SlowRequestCounter counter = stat.currentWindow(now).value();
+        if (slow) {
+            counter.slowCount.add(1);
+        }
+        counter.totalCount.add(1);
+
+        handleStateChangeWhenThresholdExceeded(now, slow);
+    }
+
+    private void handleStateChangeWhenThresholdExceeded(long now, boolean slow) {
+        State state = currentState.get();
+        if (state == State.OPEN) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            // In detecting request.
+            if (slow) {
+                fromHalfOpenToOpen(1.0d);
+            } else {
+                fromHalfOpenToClose();
+            }
+            return;
+        }
+
+        long totalCount = stat.totalCount(now);
+        if (totalCount < minRequestAmount) {
+            return;
+        }
+        long slowCount = stat.slowCount(now);
+        if (slowCount == 0) {
+            return;
+        }
+        double currentRatio = slowCount * 1.0d / totalCount;
+        if (currentRatio >= maxSlowRequestRatio) {
+            fromCloseToOpen(currentRatio);
+        }
+    }
+
+    static class SlowRequestCounter {
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalCount = new LongAdder();
+
+        public LongAdder getSlowCount() {
+            return slowCount;
+        }
+
+        public LongAdder getTotalCount() {
+            return totalCount;
+        }
+
+        public SlowRequestCounter reset() {
+            slowCount.reset();
+            totalCount.reset();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "SlowRequestCounter{" +
+                "slowCount=" + slowCount +
+                ", totalCount=" + totalCount +
+                '}';
+        }
+    }
+
+    static class SlowRequestLeapArray extends LeapArray<SlowRequestCounter> {
+
+        SlowRequestLeapArray(int sampleCount, int intervalInMs) {
+            super(sampleCount, intervalInMs);
+        }
+
+        @Override
+        public SlowRequestCounter newEmptyBucket(long timeMillis) {
+            return new SlowRequestCounter();
+        }
+
+        @Override
+        protected WindowWrap<SlowRequestCounter> resetWindowTo(WindowWrap<SlowRequestCounter> w, long startTime) {
+            w.resetTo(startTime);
+            w.value().reset();
+            return w;
+        }
+
+        long slowCount(long timeMillis) {
+            long sum = 0;
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SlowRequestCounter> w = array.get(i);
+                if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                    sum += w.value().slowCount.sum();
+                }
+            }
+            return sum;
+        }
+
+        long totalCount(long timeMillis) {
+            long sum = 0;
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SlowRequestCounter> w = array.get(i);
+                if (w != null && !isWindowDeprecated(timeMillis, w)) {
+                    sum += w.value().totalCount.sum();
+                }
+            }
+            return sum;
+        }
+
+        void resetAll() {
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SlowRequestCounter> w = array.get(i);
+                if (w != null) {
+                    w.value().reset();
+                }
+            }
+        }
+    }
+}
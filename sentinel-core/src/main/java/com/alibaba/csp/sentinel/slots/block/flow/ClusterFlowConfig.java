@@ -48,6 +48,20 @@ public class ClusterFlowConfig {
      */
     private int windowIntervalMs = RuleConstant.DEFAULT_WINDOW_INTERVAL_MS;
 
+    /**
+     * The valid time (in milliseconds) of a token lease. If positive, the token client leases a batch of tokens
+     * for such a short slice and spends them locally, rather than requesting the token server for every
+     * invocation. Non-positive value means the lease mode is disabled (since 1.7.0).
+     */
+    private int leaseIntervalMs = 0;
+
+    /**
+     * The lease (in milliseconds) of concurrency permits granted by the token server, which only takes effect
+     * when the grade of the rule is thread count. Permits not released within the lease (e.g. the client crashed)
+     * are reclaimed by the token server, so it should be longer than the slowest invocation (since 1.7.0).
+     */
+    private int permitLeaseMs = ClusterRuleConstant.DEFAULT_CONCURRENCY_PERMIT_LEASE_MS;
+
     public Long getFlowId() {
         return flowId;
     }
@@ -102,6 +116,24 @@ public class ClusterFlowConfig {
         return this;
     }
 
+    public int getLeaseIntervalMs() {
+        return leaseIntervalMs;
+    }
+
+    public ClusterFlowConfig setLeaseIntervalMs(int leaseIntervalMs) {
+        this.leaseIntervalMs = leaseIntervalMs;
+        return this;
+    }
+
+    public int getPermitLeaseMs() {
+        return permitLeaseMs;
+    }
+
+    public ClusterFlowConfig setPermitLeaseMs(int permitLeaseMs) {
+        this.permitLeaseMs = permitLeaseMs;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -114,6 +146,8 @@ public class ClusterFlowConfig {
         if (strategy != that.strategy) { return false; }
         if (sampleCount != that.sampleCount) { return false; }
         if (windowIntervalMs != that.windowIntervalMs) { return false; }
+        if (leaseIntervalMs != that.leaseIntervalMs) { return false; }
+        if (permitLeaseMs != that.permitLeaseMs) { return false; }
         return flowId != null ? flowId.equals(that.flowId) : that.flowId == null;
     }
 
@@ -125,6 +159,8 @@ public class ClusterFlowConfig {
         result = 31 * result + strategy;
         result = 31 * result + sampleCount;
         result = 31 * result + windowIntervalMs;
+        result = 31 * result + leaseIntervalMs;
+        result = 31 * result + permitLeaseMs;
         return result;
     }
 
@@ -137,6 +173,8 @@ public class ClusterFlowConfig {
             ", strategy=" + strategy +
             ", sampleCount=" + sampleCount +
             ", windowIntervalMs=" + windowIntervalMs +
+            ", leaseIntervalMs=" + leaseIntervalMs +
+            ", permitLeaseMs=" + permitLeaseMs +
             '}';
     }
 }
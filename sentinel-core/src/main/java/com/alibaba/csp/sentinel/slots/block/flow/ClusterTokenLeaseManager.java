@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Token leases of cluster flow rules in lease mode (see {@link ClusterFlowConfig#getLeaseIntervalMs()}).</p>
+ *
+ * <p>A lease is a batch of tokens granted by the token server for a short slice. Invocations spend the
+ * tokens from a local atomic counter, and only the one that finds the lease expired or used up renews it
+ * from the token server. Tokens not spent before the lease expires are simply discarded, so the global
+ * threshold is never exceeded, at the cost of slight under-utilization.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+final class ClusterTokenLeaseManager {
+
+    private static final TokenResult OK_RESULT = new TokenResult(TokenResultStatus.OK);
+    private static final TokenResult BLOCKED_RESULT = new TokenResult(TokenResultStatus.BLOCKED);
+
+    private static final ConcurrentHashMap<Long, TokenLease> LEASE_MAP = new ConcurrentHashMap<Long, TokenLease>();
+
+    /**
+     * Try to acquire tokens from the lease of given rule, and renew the lease if necessary.
+     *
+     * @param service      the token service
+     * @param rule         valid cluster flow rule in lease mode
+     * @param acquireCount count of tokens to acquire
+     * @return the result, or null if the lease is being renewed by another thread
+     */
+    static TokenResult tryAcquire(TokenLeaseService service, FlowRule rule, int acquireCount) {
+        Long flowId = rule.getClusterConfig().getFlowId();
+        TokenLease lease = LEASE_MAP.get(flowId);
+        if (lease == null) {
+            lease = new TokenLease();
+            TokenLease old = LEASE_MAP.putIfAbsent(flowId, lease);
+            if (old != null) {
+                lease = old;
+            }
+        }
+        return lease.tryAcquire(service, flowId, acquireCount, rule.getCount(),
+            rule.getClusterConfig().getLeaseIntervalMs());
+    }
+
+    static int calcLeaseCount(double count, int leaseIntervalMs, int acquireCount) {
+        int leaseCount = (int)Math.ceil(count * leaseIntervalMs / 1000);
+        return Math.max(leaseCount, acquireCount);
+    }
+
+    /**
+     * Drop leases of the rules that are no longer in lease mode (e.g. removed or switched to other modes)
+     * when flow rules are reloaded. Tokens left in the dropped leases are simply discarded.
+     *
+     * @param rules all loaded flow rules, grouped by resource
+     */
+    static void retainLeases(Collection<List<FlowRule>> rules) {
+        if (LEASE_MAP.isEmpty()) {
+            return;
+        }
+        Set<Long> flowIds = new HashSet<Long>();
+        for (List<FlowRule> resourceRules : rules) {
+            for (FlowRule rule : resourceRules) {
+                if (rule.isClusterMode() && rule.getClusterConfig() != null
+                    && rule.getClusterConfig().getLeaseIntervalMs() > 0) {
+                    flowIds.add(rule.getClusterConfig().getFlowId());
+                }
+            }
+        }
+        LEASE_MAP.keySet().retainAll(flowIds);
+    }
+
+    static boolean hasLease(Long flowId) {
+        return LEASE_MAP.containsKey(flowId);
+    }
+
+    static void clear() {
+        LEASE_MAP.clear();
+    }
+
+    static final class TokenLease {
+
+        private final AtomicInteger remaining = new AtomicInteger(0);
+        private final AtomicBoolean renewing = new AtomicBoolean(false);
+        private volatile long expireTime = 0;
+        /**
+         * Whether the token server has refused to grant any token for current lease.
+         */
+        private volatile boolean exhausted = false;
+
+        TokenResult tryAcquire(TokenLeaseService service, long flowId, int acquireCount, double count,
+                               int leaseIntervalMs) {
+            long currentTime = TimeUtil.currentTimeMillis();
+            if (currentTime < expireTime) {
+                if (trySpend(acquireCount)) {
+                    return OK_RESULT;
+                }
+                if (exhausted) {
+                    // No tokens left in the cluster for current slice, so don't bother the token server.
+                    return BLOCKED_RESULT;
+                }
+            }
+            if (!renewing.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                TokenResult result = service.requestTokenLease(flowId,
+                    calcLeaseCount(count, leaseIntervalMs, acquireCount));
+                if (result == null) {
+                    return null;
+                }
+                switch (result.getStatus()) {
+                    case TokenResultStatus.OK:
+                        int granted = result.getRemaining();
+                        boolean pass = granted >= acquireCount;
+                        remaining.set(pass ? granted - acquireCount : granted);
+                        exhausted = false;
+                        expireTime = currentTime + leaseIntervalMs;
+                        return pass ? OK_RESULT : BLOCKED_RESULT;
+                    case TokenResultStatus.BLOCKED:
+                        remaining.set(0);
+                        exhausted = true;
+                        expireTime = currentTime + leaseIntervalMs;
+                        return result;
+                    default:
+                        // Let the caller handle other status (e.g. fallback to local check).
+                        return result;
+                }
+            } finally {
+                renewing.set(false);
+            }
+        }
+
+        private boolean trySpend(int acquireCount) {
+            while (true) {
+                int current = remaining.get();
+                if (current < acquireCount) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - acquireCount)) {
+                    return true;
+                }
+            }
+        }
+
+        int getRemaining() {
+            return remaining.get();
+        }
+    }
+
+    private ClusterTokenLeaseManager() {}
+}
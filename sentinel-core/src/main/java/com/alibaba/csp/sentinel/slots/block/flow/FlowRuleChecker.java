@@ -15,13 +15,20 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.cluster.BatchTokenService;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
+import com.alibaba.csp.sentinel.cluster.ConcurrentTokenService;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -30,6 +37,7 @@ import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingController;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.util.function.Function;
@@ -41,21 +49,109 @@ import com.alibaba.csp.sentinel.util.function.Function;
  */
 public class FlowRuleChecker {
 
+    /**
+     * Max count of cluster rules whose tokens are requested in one batch (consistent with the frame limit of
+     * the default token client).
+     */
+    private static final int MAX_BATCH_RULE_COUNT = 64;
+
     public void checkFlow(Function<String, Collection<FlowRule>> ruleProvider, ResourceWrapper resource,
                           Context context, DefaultNode node, int count, boolean prioritized) throws BlockException {
         if (ruleProvider == null || resource == null) {
             return;
         }
         Collection<FlowRule> rules = ruleProvider.apply(resource.getName());
-        if (rules != null) {
-            for (FlowRule rule : rules) {
-                if (!canPassCheck(rule, context, node, count, prioritized)) {
+        if (rules == null) {
+            return;
+        }
+        if (rules.size() > 1 && rules instanceof List) {
+            checkFlowInBatch((List<FlowRule>)rules, context, node, count, prioritized);
+            return;
+        }
+        for (FlowRule rule : rules) {
+            if (!canPassCheck(rule, context, node, count, prioritized)) {
+                throw new FlowException(rule.getLimitApp(), rule);
+            }
+        }
+    }
+
+    /**
+     * Check the rules in order, while the tokens of each run of consecutive cluster rules are requested
+     * in one round trip. A run is only requested after all rules before it have passed, so that tokens
+     * are not acquired for the rules which would never be checked.
+     */
+    private void checkFlowInBatch(List<FlowRule> rules, Context context, DefaultNode node, int count,
+                                  boolean prioritized) throws BlockException {
+        int size = rules.size();
+        int from = 0;
+        while (from < size) {
+            int to = batchRunEnd(rules, from);
+            List<TokenResult> results = to - from > 1
+                ? requestClusterTokensInBatch(pickClusterService(), rules.subList(from, to), count, prioritized)
+                : null;
+            for (int i = from; i < to; i++) {
+                FlowRule rule = rules.get(i);
+                boolean pass = results == null ? canPassCheck(rule, context, node, count, prioritized)
+                    : applyTokenResult(results.get(i - from), rule, context, node, count, prioritized);
+                if (!pass) {
                     throw new FlowException(rule.getLimitApp(), rule);
                 }
             }
+            from = to;
         }
     }
 
+    /**
+     * @return end index (exclusive) of the run of consecutive batchable cluster rules starting at given index,
+     * or {@code from + 1} if the rule at given index is not batchable
+     */
+    static int batchRunEnd(List<FlowRule> rules, int from) {
+        int to = from + 1;
+        if (!isBatchableClusterRule(rules.get(from))) {
+            return to;
+        }
+        int size = rules.size();
+        while (to < size && to - from < MAX_BATCH_RULE_COUNT && isBatchableClusterRule(rules.get(to))) {
+            to++;
+        }
+        return to;
+    }
+
+    /**
+     * Request tokens of given cluster rules in one round trip.
+     *
+     * @return token results in the same order as the rules, or null if the tokens should be requested one by one
+     */
+    static List<TokenResult> requestClusterTokensInBatch(TokenService clusterService, List<FlowRule> batchRules,
+                                                         int count, boolean prioritized) {
+        if (!(clusterService instanceof BatchTokenService)) {
+            return null;
+        }
+        try {
+            List<Long> flowIds = new ArrayList<Long>(batchRules.size());
+            for (FlowRule rule : batchRules) {
+                flowIds.add(rule.getClusterConfig().getFlowId());
+            }
+            List<TokenResult> results = ((BatchTokenService)clusterService).requestTokens(flowIds, count,
+                prioritized);
+            if (results == null || results.size() != batchRules.size()) {
+                return null;
+            }
+            return results;
+        } catch (Throwable ex) {
+            RecordLog.warn("[FlowRuleChecker] Request cluster tokens in batch unexpected failed", ex);
+            return null;
+        }
+    }
+
+    private static boolean isBatchableClusterRule(FlowRule rule) {
+        // Leased rules acquire tokens locally in most cases, and concurrency permits should be held until exit,
+        // so they're not requested in batch.
+        return rule.getLimitApp() != null && rule.isClusterMode() && rule.getClusterConfig() != null
+            && rule.getClusterConfig().getFlowId() != null && rule.getClusterConfig().getLeaseIntervalMs() <= 0
+            && rule.getGrade() == RuleConstant.FLOW_GRADE_QPS;
+    }
+
     public boolean canPassCheck(/*@NonNull*/ FlowRule rule, Context context, DefaultNode node,
                                                     int acquireCount) {
         return canPassCheck(rule, context, node, acquireCount, false);
@@ -82,7 +178,28 @@ public class FlowRuleChecker {
             return true;
         }
 
-        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
+        TrafficShapingController rater = rule.getRater();
+        if (rater instanceof PacingController) {
+            AsyncEntry nonBlockingEntry = nonBlockingEntryOf(context);
+            if (nonBlockingEntry != null) {
+                // Reserve the pass slot and let the caller delay, rather than parking current thread.
+                long waitInMs = ((PacingController)rater).tryReserve(selectedNode, acquireCount);
+                if (waitInMs == PacingController.REJECTED) {
+                    return false;
+                }
+                nonBlockingEntry.recordWaitInMs(waitInMs);
+                return true;
+            }
+        }
+        return rater.canPass(selectedNode, acquireCount, prioritized);
+    }
+
+    private static AsyncEntry nonBlockingEntryOf(Context context) {
+        Entry curEntry = context.getCurEntry();
+        if (curEntry instanceof AsyncEntry && ((AsyncEntry)curEntry).isNonBlocking()) {
+            return (AsyncEntry)curEntry;
+        }
+        return null;
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -152,7 +269,22 @@ public class FlowRuleChecker {
                 return fallbackToLocalOrPass(rule, context, node, acquireCount, prioritized);
             }
             long flowId = rule.getClusterConfig().getFlowId();
-            TokenResult result = clusterService.requestToken(flowId, acquireCount, prioritized);
+            if (rule.getGrade() == RuleConstant.FLOW_GRADE_THREAD) {
+                if (!(clusterService instanceof ConcurrentTokenService)) {
+                    // The token service could not count in-flight invocations.
+                    return fallbackToLocalOrPass(rule, context, node, acquireCount, prioritized);
+                }
+                return passClusterConcurrencyCheck((ConcurrentTokenService)clusterService, rule, context, node,
+                    acquireCount, prioritized);
+            }
+            TokenResult result = null;
+            if (rule.getClusterConfig().getLeaseIntervalMs() > 0 && !prioritized
+                && clusterService instanceof TokenLeaseService) {
+                result = ClusterTokenLeaseManager.tryAcquire((TokenLeaseService)clusterService, rule, acquireCount);
+            }
+            if (result == null) {
+                result = clusterService.requestToken(flowId, acquireCount, prioritized);
+            }
             return applyTokenResult(result, rule, context, node, acquireCount, prioritized);
             // If client is absent, then fallback to local mode.
         } catch (Throwable ex) {
@@ -163,6 +295,51 @@ public class FlowRuleChecker {
         return fallbackToLocalOrPass(rule, context, node, acquireCount, prioritized);
     }
 
+    private static boolean passClusterConcurrencyCheck(ConcurrentTokenService clusterService, FlowRule rule,
+                                                       Context context, DefaultNode node, int acquireCount,
+                                                       boolean prioritized) {
+        TokenResult result = clusterService.requestConcurrentToken(rule.getClusterConfig().getFlowId(),
+            acquireCount);
+        if (result.getStatus() == TokenResultStatus.OK) {
+            Entry curEntry = context.getCurEntry();
+            if (curEntry != null) {
+                // The permit is held until the entry exits.
+                curEntry.addClusterTokenId(result.getTokenId());
+            } else {
+                // Nothing could carry the permit, so just give it back.
+                clusterService.releaseConcurrentToken(result.getTokenId());
+            }
+            return true;
+        }
+        return applyTokenResult(result, rule, context, node, acquireCount, prioritized);
+    }
+
+    /**
+     * Release cluster concurrency permits held by current entry of the context.
+     *
+     * @param context current context
+     * @since 1.7.0
+     */
+    public void releaseClusterTokens(Context context) {
+        Entry curEntry = context == null ? null : context.getCurEntry();
+        long[] tokenIds = curEntry == null ? null : curEntry.takeClusterTokenIds();
+        if (tokenIds == null) {
+            return;
+        }
+        try {
+            TokenService clusterService = pickClusterService();
+            if (!(clusterService instanceof ConcurrentTokenService)) {
+                // Permits will be reclaimed by the token server when their lease expires.
+                return;
+            }
+            for (long tokenId : tokenIds) {
+                ((ConcurrentTokenService)clusterService).releaseConcurrentToken(tokenId);
+            }
+        } catch (Throwable ex) {
+            RecordLog.warn("[FlowRuleChecker] Release cluster concurrency tokens unexpected failed", ex);
+        }
+    }
+
     private static boolean fallbackToLocalOrPass(FlowRule rule, Context context, DefaultNode node, int acquireCount,
                                                  boolean prioritized) {
         if (rule.getClusterConfig().isFallbackToLocalWhenFail()) {
@@ -190,6 +367,11 @@ public class FlowRuleChecker {
             case TokenResultStatus.OK:
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
+                AsyncEntry nonBlockingEntry = nonBlockingEntryOf(context);
+                if (nonBlockingEntry != null) {
+                    nonBlockingEntry.recordWaitInMs(result.getWaitInMs());
+                    return true;
+                }
                 // Wait for next tick.
                 try {
                     Thread.sleep(result.getWaitInMs());
@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -31,6 +32,7 @@ import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingController;
 
 /**
  * <p>
@@ -48,6 +50,11 @@ public class FlowRuleManager {
 
     private static final Map<String, List<FlowRule>> flowRules = new ConcurrentHashMap<String, List<FlowRule>>();
 
+    /**
+     * Version of the flow rules, which increases after the rule map has been replaced.
+     */
+    private static final AtomicLong ruleVersion = new AtomicLong(0);
+
     private static final FlowPropertyListener LISTENER = new FlowPropertyListener();
     private static SentinelProperty<List<FlowRule>> currentProperty = new DynamicSentinelProperty<List<FlowRule>>();
 
@@ -98,6 +105,72 @@ public class FlowRuleManager {
         currentProperty.updateValue(rules);
     }
 
+    /**
+     * Get the flow rules of given resource. The returned list should not be modified.
+     *
+     * @param resource the resource name
+     * @return flow rules of the resource, or null if absent
+     * @since 1.7.0
+     */
+    public static List<FlowRule> getRulesOfResource(String resource) {
+        return resource == null ? null : flowRules.get(resource);
+    }
+
+    /**
+     * <p>Get current version of the flow rules. The version increases every time after new rules are loaded,
+     * so a snapshot of rules taken no earlier than reading version {@code v} is up-to-date as long as
+     * the version remains {@code v}.</p>
+     *
+     * @return current version of the flow rules
+     * @since 1.7.0
+     */
+    public static long getRuleVersion() {
+        return ruleVersion.get();
+    }
+
+    /**
+     * Get the estimated count of requests waiting in the virtual queues of the pacing
+     * (rate limiter) rules of provided resource.
+     *
+     * @param resource the resource name
+     * @return estimated queue depth of the resource, 0 if no pacing rule exists
+     * @since 1.7.0
+     */
+    public static int getQueueDepth(String resource) {
+        List<FlowRule> rules = getRulesOfResource(resource);
+        if (rules == null) {
+            return 0;
+        }
+        int depth = 0;
+        for (FlowRule rule : rules) {
+            if (rule.getRater() instanceof PacingController) {
+                depth += ((PacingController)rule.getRater()).getQueueDepth();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Get the longest time in milliseconds until the last queued request of provided resource is due to pass.
+     *
+     * @param resource the resource name
+     * @return queueing time of the resource in milliseconds, 0 if no request is queued
+     * @since 1.7.0
+     */
+    public static long getQueueingTimeMs(String resource) {
+        List<FlowRule> rules = getRulesOfResource(resource);
+        if (rules == null) {
+            return 0;
+        }
+        long queueingTime = 0;
+        for (FlowRule rule : rules) {
+            if (rule.getRater() instanceof PacingController) {
+                queueingTime = Math.max(queueingTime, ((PacingController)rule.getRater()).getQueueingTimeMs());
+            }
+        }
+        return queueingTime;
+    }
+
     static Map<String, List<FlowRule>> getFlowRuleMap() {
         return flowRules;
     }
@@ -132,6 +205,8 @@ public class FlowRuleManager {
             if (rules != null) {
                 flowRules.clear();
                 flowRules.putAll(rules);
+                ruleVersion.incrementAndGet();
+                ClusterTokenLeaseManager.retainLeases(rules.values());
             }
             RecordLog.info("[FlowRuleManager] Flow rules received: " + flowRules);
         }
@@ -142,6 +217,8 @@ public class FlowRuleManager {
             if (rules != null) {
                 flowRules.clear();
                 flowRules.putAll(rules);
+                ruleVersion.incrementAndGet();
+                ClusterTokenLeaseManager.retainLeases(rules.values());
             }
             RecordLog.info("[FlowRuleManager] Flow rules loaded: " + flowRules);
         }
@@ -195,6 +195,9 @@ public final class FlowRuleUtil {
         if (!isWindowConfigValid(clusterConfig.getSampleCount(), clusterConfig.getWindowIntervalMs())) {
             return false;
         }
+        if (rule.getGrade() == RuleConstant.FLOW_GRADE_THREAD && clusterConfig.getPermitLeaseMs() <= 0) {
+            return false;
+        }
         switch (rule.getStrategy()) {
             case ClusterRuleConstant.FLOW_CLUSTER_STRATEGY_NORMAL:
                 return true;
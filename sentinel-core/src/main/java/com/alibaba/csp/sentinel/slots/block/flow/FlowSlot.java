@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import com.alibaba.csp.sentinel.ResourceHandle;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
@@ -165,11 +166,19 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     void checkFlow(ResourceWrapper resource, Context context, DefaultNode node, int count, boolean prioritized)
         throws BlockException {
-        checker.checkFlow(ruleProvider, resource, context, node, count, prioritized);
+        if (resource instanceof ResourceHandle) {
+            // Rules of the pre-resolved resource are cached in the handle, so no lookup by name is needed.
+            checker.checkFlow(((ResourceHandle)resource).flowRuleProvider(), resource, context, node, count,
+                prioritized);
+        } else {
+            checker.checkFlow(ruleProvider, resource, context, node, count, prioritized);
+        }
     }
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        // Concurrency permits of cluster rules are held by the entry until it exits (even if blocked).
+        checker.releaseClusterTokens(context);
         fireExit(context, resourceWrapper, count, args);
     }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+
+/**
+ * <p>A traffic shaping controller that paces requests through a virtual wait queue.</p>
+ *
+ * <p>Besides the blocking {@link #canPass(Node, int, boolean)}, which parks the caller until its
+ * turn, the controller can reserve a pass slot and only tell the caller how long to wait. This lets
+ * asynchronous callers (e.g. event loops) delay with a timer instead of sleeping.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public interface PacingController extends TrafficShapingController {
+
+    /**
+     * Returned by {@link #tryReserve(Node, int)} when the request cannot be queued.
+     */
+    long REJECTED = -1;
+
+    /**
+     * Reserve a pass slot in the virtual wait queue without blocking.
+     *
+     * @param node         resource node
+     * @param acquireCount count to acquire
+     * @return the time in milliseconds the caller should wait before passing (0 for passing immediately),
+     * or {@link #REJECTED} if the expected waiting time exceeds the max queueing time
+     */
+    long tryReserve(Node node, int acquireCount);
+
+    /**
+     * Get the time in milliseconds until the last reserved slot is due to pass.
+     *
+     * @return current queueing time in milliseconds
+     */
+    long getQueueingTimeMs();
+
+    /**
+     * Get the estimated count of requests waiting in the virtual queue.
+     *
+     * @return estimated queue depth
+     */
+    int getQueueDepth();
+}
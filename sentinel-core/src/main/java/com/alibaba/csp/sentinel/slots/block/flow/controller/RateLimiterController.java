@@ -17,15 +17,13 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
-
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
 
 /**
  * @author jialiang.linjl
  */
-public class RateLimiterController implements TrafficShapingController {
+public class RateLimiterController implements PacingController {
 
     private final int maxQueueingTimeMs;
     private final double count;
@@ -44,14 +42,30 @@ public class RateLimiterController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long waitTime = tryReserve(node, acquireCount);
+        if (waitTime == REJECTED) {
+            return false;
+        }
+        if (waitTime > 0) {
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long tryReserve(Node node, int acquireCount) {
         // Pass when acquire count is less or equal than 0.
         if (acquireCount <= 0) {
-            return true;
+            return 0;
         }
         // Reject when count is less or equal than 0.
         // Otherwise,the costTime will be max of long and waitTime will overflow in some cases.
         if (count <= 0) {
-            return false;
+            return REJECTED;
         }
 
         long currentTime = TimeUtil.currentTimeMillis();
@@ -64,30 +78,34 @@ public class RateLimiterController implements TrafficShapingController {
         if (expectedTime <= currentTime) {
             // Contention may exist here, but it's okay.
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            // Calculate the time to wait.
-            long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
-            if (waitTime > maxQueueingTimeMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > maxQueueingTimeMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    // in race condition waitTime may <= 0
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return 0;
+        }
+        // Calculate the time to wait.
+        long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            return REJECTED;
+        }
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            latestPassedTime.addAndGet(-costTime);
+            return REJECTED;
         }
-        return false;
+        // in race condition waitTime may <= 0
+        return waitTime > 0 ? waitTime : 0;
+    }
+
+    @Override
+    public long getQueueingTimeMs() {
+        return Math.max(latestPassedTime.get() - TimeUtil.currentTimeMillis(), 0);
     }
 
+    @Override
+    public int getQueueDepth() {
+        if (count <= 0) {
+            return 0;
+        }
+        // Every queued request holds a slot of (1000 / count) ms.
+        return (int)Math.ceil(getQueueingTimeMs() * count / 1000);
+    }
 }
@@ -24,7 +24,7 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * @author jialiang.linjl
  * @since 1.4.0
  */
-public class WarmUpRateLimiterController extends WarmUpController {
+public class WarmUpRateLimiterController extends WarmUpController implements PacingController {
 
     private final int timeoutInMs;
     private final AtomicLong latestPassedTime = new AtomicLong(-1);
@@ -41,6 +41,22 @@ public class WarmUpRateLimiterController extends WarmUpController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long waitTime = tryReserve(node, acquireCount);
+        if (waitTime == REJECTED) {
+            return false;
+        }
+        if (waitTime > 0) {
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long tryReserve(Node node, int acquireCount) {
         long previousQps = (long) node.previousPassQps();
         syncToken(previousQps);
 
@@ -62,27 +78,32 @@ public class WarmUpRateLimiterController extends WarmUpController {
 
         if (expectedTime <= currentTime) {
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            long waitTime = costTime + latestPassedTime.get() - currentTime;
-            if (waitTime > timeoutInMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > timeoutInMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return 0;
+        }
+        long waitTime = costTime + latestPassedTime.get() - currentTime;
+        if (waitTime > timeoutInMs) {
+            return REJECTED;
+        }
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        if (waitTime > timeoutInMs) {
+            latestPassedTime.addAndGet(-costTime);
+            return REJECTED;
+        }
+        return waitTime > 0 ? waitTime : 0;
+    }
+
+    @Override
+    public long getQueueingTimeMs() {
+        return Math.max(latestPassedTime.get() - TimeUtil.currentTimeMillis(), 0);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        if (count <= 0) {
+            return 0;
         }
-        return false;
+        // Estimated with the stable interval, so the depth may be overestimated while warming up.
+        return (int)Math.ceil(getQueueingTimeMs() * count / 1000);
     }
 }
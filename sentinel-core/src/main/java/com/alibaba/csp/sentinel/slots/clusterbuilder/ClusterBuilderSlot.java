@@ -15,8 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.clusterbuilder;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.Context;
@@ -59,14 +59,11 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * in this map.
      * </p>
      * <p>
-     * The longer the application runs, the more stable this mapping will
-     * become. so we don't concurrent map but a lock. as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * Lookup of the concurrent map does not lock, and putting a new node won't copy the whole
+     * map, so creating lots of resources at startup won't stall the callers.
      * </p>
      */
-    private static volatile Map<ResourceWrapper, ClusterNode> clusterNodeMap = new HashMap<>();
-
-    private static final Object lock = new Object();
+    private static final Map<ResourceWrapper, ClusterNode> clusterNodeMap = new ConcurrentHashMap<>();
 
     private volatile ClusterNode clusterNode = null;
 
@@ -75,15 +72,12 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
                       boolean prioritized, Object... args)
         throws Throwable {
         if (clusterNode == null) {
-            synchronized (lock) {
+            // Each resource has its own slot chain, so the lock only guards the slot of current resource.
+            synchronized (this) {
                 if (clusterNode == null) {
                     // Create the cluster node.
-                    clusterNode = new ClusterNode();
-                    HashMap<ResourceWrapper, ClusterNode> newMap = new HashMap<>(Math.max(clusterNodeMap.size(), 16));
-                    newMap.putAll(clusterNodeMap);
-                    newMap.put(node.getId(), clusterNode);
-
-                    clusterNodeMap = newMap;
+                    clusterNode = new ClusterNode(resourceWrapper.getName());
+                    clusterNodeMap.put(node.getId(), clusterNode);
                 }
             }
         }
@@ -127,16 +121,8 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
         if (id == null) {
             return null;
         }
-        ClusterNode clusterNode = null;
-
-        for (EntryType nodeType : EntryType.values()) {
-            clusterNode = clusterNodeMap.get(new StringResourceWrapper(id, nodeType));
-            if (clusterNode != null) {
-                break;
-            }
-        }
-
-        return clusterNode;
+        // Only the resource name is considered in ResourceWrapper#equals, so the entry type does not matter.
+        return clusterNodeMap.get(new StringResourceWrapper(id, EntryType.IN));
     }
 
     /**
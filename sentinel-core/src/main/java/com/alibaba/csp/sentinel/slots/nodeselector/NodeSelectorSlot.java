@@ -15,8 +15,9 @@
  */
 package com.alibaba.csp.sentinel.slots.nodeselector;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -125,9 +126,15 @@ import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
 
     /**
-     * {@link DefaultNode}s of the same resource in different context.
+     * {@link DefaultNode}s of the same resource in different context, indexed by the context id.
+     * The array is copied on write (growing by doubling when needed) when a node of a new context is created.
      */
-    private volatile Map<String, DefaultNode> map = new HashMap<String, DefaultNode>(10);
+    private volatile DefaultNode[] nodes = new DefaultNode[8];
+
+    /**
+     * {@link DefaultNode}s of contexts that are not registered via {@link ContextUtil} (thus no context id).
+     */
+    private final Map<String, DefaultNode> unindexedNodes = new ConcurrentHashMap<String, DefaultNode>();
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
@@ -150,16 +157,14 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
          * The answer is all {@link DefaultNode}s with same resource name share one
          * {@link ClusterNode}. See {@link ClusterBuilderSlot} for detail.
          */
-        DefaultNode node = map.get(context.getName());
+        int contextId = context.getId();
+        DefaultNode node = getNode(contextId, context.getName());
         if (node == null) {
             synchronized (this) {
-                node = map.get(context.getName());
+                node = getNode(contextId, context.getName());
                 if (node == null) {
                     node = new DefaultNode(resourceWrapper, null);
-                    HashMap<String, DefaultNode> cacheMap = new HashMap<String, DefaultNode>(map.size());
-                    cacheMap.putAll(map);
-                    cacheMap.put(context.getName(), node);
-                    map = cacheMap;
+                    putNode(contextId, context.getName(), node);
                 }
                 // Build invocation tree
                 ((DefaultNode)context.getLastNode()).addChild(node);
@@ -170,6 +175,28 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
         fireEntry(context, resourceWrapper, node, count, prioritized, args);
     }
 
+    private DefaultNode getNode(int contextId, String contextName) {
+        if (contextId < 0) {
+            return unindexedNodes.get(contextName);
+        }
+        DefaultNode[] nodes = this.nodes;
+        return contextId < nodes.length ? nodes[contextId] : null;
+    }
+
+    private void putNode(int contextId, String contextName, DefaultNode node) {
+        if (contextId < 0) {
+            unindexedNodes.put(contextName, node);
+            return;
+        }
+        DefaultNode[] oldNodes = this.nodes;
+        // Always copy the array, as readers may hold the current one without synchronization,
+        // so the new node must only be published by the volatile write below.
+        DefaultNode[] newNodes = Arrays.copyOf(oldNodes,
+            contextId < oldNodes.length ? oldNodes.length : Math.max(contextId + 1, oldNodes.length << 1));
+        newNodes[contextId] = node;
+        this.nodes = newNodes;
+    }
+
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         fireExit(context, resourceWrapper, count, args);
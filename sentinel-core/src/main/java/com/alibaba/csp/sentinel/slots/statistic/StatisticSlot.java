@@ -132,7 +132,22 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         DefaultNode node = (DefaultNode)context.getCurNode();
 
-        if (context.getCurEntry().getError() == null) {
+        if (context.getCurEntry().isRolledBack()) {
+            // Rolled back as another entry of the group is blocked, so undo the pass and thread count
+            // as if the request has never passed. No response time or success is recorded.
+            node.addPassRequest(-count);
+            node.decreaseThreadNum();
+
+            if (context.getCurEntry().getOriginNode() != null) {
+                context.getCurEntry().getOriginNode().addPassRequest(-count);
+                context.getCurEntry().getOriginNode().decreaseThreadNum();
+            }
+
+            if (resourceWrapper.getType() == EntryType.IN) {
+                Constants.ENTRY_NODE.addPassRequest(-count);
+                Constants.ENTRY_NODE.decreaseThreadNum();
+            }
+        } else if (context.getCurEntry().getError() == null) {
             // Calculate response time (max RT is TIME_DROP_VALVE).
             long rt = TimeUtil.currentTimeMillis() - context.getCurEntry().getCreateTime();
             if (rt > Constants.TIME_DROP_VALVE) {
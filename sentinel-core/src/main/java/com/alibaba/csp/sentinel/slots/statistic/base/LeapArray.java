@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.statistic.base;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -51,6 +52,20 @@ public abstract class LeapArray<T> {
      */
     private final ReentrantLock updateLock = new ReentrantLock();
 
+    /**
+     * The latest bucket claimed for each slot, only present in lock-free rotation mode.
+     * The stamp is {@code windowStart << 1 | k}, where {@code k} is the index of the active bucket
+     * of the slot in {@link #rotationWraps}, or {@code -1} if no bucket has been claimed yet.
+     */
+    private final AtomicLongArray rotationStamps;
+
+    /**
+     * Two buckets for each slot (active and standby), only present in lock-free rotation mode.
+     * The standby bucket is always clean, so a deprecated slot is rotated by switching the stamp
+     * to the standby bucket, and the retired bucket is cleaned afterwards.
+     */
+    private final AtomicReferenceArray<WindowWrap<T>> rotationWraps;
+
     /**
      * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
      *
@@ -58,6 +73,19 @@ public abstract class LeapArray<T> {
      * @param intervalInMs the total time interval of this {@link LeapArray} in milliseconds
      */
     public LeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
+     *
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval of this {@link LeapArray} in milliseconds
+     * @param lockFreeRotation whether to rotate deprecated buckets via CAS on an epoch stamp
+     *                         instead of the update lock (two buckets are kept for each slot)
+     * @since 1.7.0
+     */
+    public LeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
         AssertUtil.isTrue(sampleCount > 0, "bucket count is invalid: " + sampleCount);
         AssertUtil.isTrue(intervalInMs > 0, "total time interval of the sliding window should be positive");
         AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
@@ -67,6 +95,26 @@ public abstract class LeapArray<T> {
         this.sampleCount = sampleCount;
 
         this.array = new AtomicReferenceArray<>(sampleCount);
+        if (lockFreeRotation) {
+            this.rotationStamps = new AtomicLongArray(sampleCount);
+            for (int i = 0; i < sampleCount; i++) {
+                rotationStamps.set(i, -1);
+            }
+            this.rotationWraps = new AtomicReferenceArray<>(sampleCount * 2);
+        } else {
+            this.rotationStamps = null;
+            this.rotationWraps = null;
+        }
+    }
+
+    /**
+     * Check whether deprecated buckets are rotated in lock-free mode.
+     *
+     * @return true if lock-free rotation is enabled, otherwise false
+     * @since 1.7.0
+     */
+    public boolean isLockFreeRotation() {
+        return rotationStamps != null;
     }
 
     /**
@@ -95,6 +143,29 @@ public abstract class LeapArray<T> {
      */
     protected abstract WindowWrap<T> resetWindowTo(WindowWrap<T> windowWrap, long startTime);
 
+    /**
+     * Clear the value of a retired bucket in lock-free rotation mode, so that it could be used
+     * as the standby bucket of the slot. The start time of the bucket does not matter here.
+     *
+     * @param windowWrap the retired bucket
+     * @since 1.7.0
+     */
+    protected void clearWindowValue(WindowWrap<T> windowWrap) {
+        resetWindowTo(windowWrap, windowWrap.windowStart());
+    }
+
+    /**
+     * Initialize a clean bucket that has just been rotated to provided start time in lock-free rotation mode.
+     * Other threads may have already recorded into the bucket, so the initialization should be additive.
+     *
+     * @param windowWrap the rotated bucket
+     * @param startTime  the start time of the bucket in milliseconds
+     * @since 1.7.0
+     */
+    protected void initRotatedWindow(WindowWrap<T> windowWrap, long startTime) {
+        // Do nothing by default.
+    }
+
     private int calculateTimeIdx(/*@Valid*/ long timeMillis) {
         long timeId = timeMillis / windowLengthInMs;
         // Calculate current index so we can map the timestamp to the leap array.
@@ -120,6 +191,14 @@ public abstract class LeapArray<T> {
         // Calculate current bucket start time.
         long windowStart = calculateWindowStart(timeMillis);
 
+        if (rotationStamps != null) {
+            WindowWrap<T> current = array.get(idx);
+            if (current != null && windowStart == current.windowStart()) {
+                return current;
+            }
+            return rotateWindow(idx, windowStart, timeMillis);
+        }
+
         /*
          * Get bucket item at given time from the array.
          *
@@ -199,6 +278,60 @@ public abstract class LeapArray<T> {
         }
     }
 
+    /**
+     * Get the bucket at provided window start in lock-free rotation mode.
+     *
+     * The stamp of the slot decides which of the two buckets is active. A deprecated slot is rotated
+     * by switching the stamp to the clean standby bucket via CAS, so threads that lose the CAS could
+     * read the new stamp and record into the same bucket right away, without waiting for any reset.
+     * The winner cleans the retired bucket after the switch, then it becomes the next standby bucket.
+     *
+     * Note that the retired bucket will be reused after an entire interval, so the clean-up
+     * would be incomplete only if the winner was paused for that long.
+     */
+    private WindowWrap<T> rotateWindow(int idx, long windowStart, long timeMillis) {
+        while (true) {
+            long stamp = rotationStamps.get(idx);
+            int k = (int)(stamp & 1);
+            if (stamp >= 0) {
+                long claimedStart = stamp >> 1;
+                if (claimedStart == windowStart) {
+                    // The bucket has been claimed (maybe by another thread) and it is already clean.
+                    return rotationWraps.get(idx * 2 + k).resetTo(windowStart);
+                } else if (claimedStart > windowStart) {
+                    // Should not go through here, as the provided time is already behind.
+                    return new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
+                }
+            }
+            int next = stamp >= 0 ? 1 - k : 0;
+            WindowWrap<T> window = standbyWindow(idx * 2 + next, windowStart, timeMillis);
+            if (rotationStamps.compareAndSet(idx, stamp, windowStart << 1 | next)) {
+                window.resetTo(windowStart);
+                initRotatedWindow(window, windowStart);
+                array.set(idx, window);
+                if (stamp >= 0) {
+                    clearWindowValue(rotationWraps.get(idx * 2 + k));
+                }
+                return window;
+            }
+            // Contention failed, read the stamp again to record into the bucket claimed by the winner.
+        }
+    }
+
+    private WindowWrap<T> standbyWindow(int wrapIdx, long windowStart, long timeMillis) {
+        WindowWrap<T> window = rotationWraps.get(wrapIdx);
+        if (window != null) {
+            return window;
+        }
+        // The standby bucket is created only once for each slot.
+        window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
+        clearWindowValue(window);
+        if (rotationWraps.compareAndSet(wrapIdx, null, window)) {
+            return window;
+        }
+        return rotationWraps.get(wrapIdx);
+    }
+
     /**
      * Get the previous bucket item before provided timestamp.
      *
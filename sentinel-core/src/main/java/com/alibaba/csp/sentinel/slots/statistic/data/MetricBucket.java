@@ -32,18 +32,34 @@ public class MetricBucket {
     private volatile long minRt;
 
     public MetricBucket() {
-        MetricEvent[] events = MetricEvent.values();
-        this.counters = new LongAdder[events.length];
-        for (MetricEvent event : events) {
-            counters[event.ordinal()] = new LongAdder();
+        this(true);
+    }
+
+    /**
+     * Constructor for buckets that keep the counters in their own layout.
+     * Subclasses that do not create adders should override {@link #get(MetricEvent)},
+     * {@link #add(MetricEvent, long)} and {@link #resetCounters()}.
+     *
+     * @param createAdders whether to create one {@link LongAdder} for each metric event
+     * @since 1.7.0
+     */
+    protected MetricBucket(boolean createAdders) {
+        if (createAdders) {
+            MetricEvent[] events = MetricEvent.values();
+            this.counters = new LongAdder[events.length];
+            for (MetricEvent event : events) {
+                counters[event.ordinal()] = new LongAdder();
+            }
+        } else {
+            this.counters = null;
         }
         initMinRt();
     }
 
     public MetricBucket reset(MetricBucket bucket) {
+        resetCounters();
         for (MetricEvent event : MetricEvent.values()) {
-            counters[event.ordinal()].reset();
-            counters[event.ordinal()].add(bucket.get(event));
+            add(event, bucket.get(event));
         }
         initMinRt();
         return this;
@@ -59,13 +75,18 @@ public class MetricBucket {
      * @return new metric bucket in initial state
      */
     public MetricBucket reset() {
-        for (MetricEvent event : MetricEvent.values()) {
-            counters[event.ordinal()].reset();
-        }
+        resetCounters();
         initMinRt();
         return this;
     }
 
+    protected void resetCounters() {
+        // Iterate the counters directly, as `MetricEvent.values()` would copy the array on every call.
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
     public long get(MetricEvent event) {
         return counters[event.ordinal()].sum();
     }
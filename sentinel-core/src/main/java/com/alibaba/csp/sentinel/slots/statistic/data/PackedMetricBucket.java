@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A {@link MetricBucket} that keeps all events of the window in one contiguous primitive array
+ * instead of one {@code LongAdder} per event.</p>
+ *
+ * <p>The array is divided into {@code stripeCount} stripes. Each stripe holds one counter per
+ * {@link MetricEvent} (indexed by ordinal) and is padded to the size of a cache line, so threads
+ * updating different stripes won't share a cache line. A thread always updates the stripe
+ * picked by its thread id, and reading an event sums the counter in every stripe.</p>
+ *
+ * <pre>
+ * | PASS BLOCK EXCEPTION SUCCESS RT OCCUPIED_PASS pad pad | PASS BLOCK ... pad pad | ...
+ * |&lt;-------------------- stripe 0 (64 bytes) ----------&gt;|&lt;------ stripe 1 ------&gt;|
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class PackedMetricBucket extends MetricBucket {
+
+    private static final int CACHE_LINE_LONGS = 8;
+    private static final int EVENT_COUNT = MetricEvent.values().length;
+
+    /**
+     * Amount of longs per stripe, rounded up to whole cache lines.
+     */
+    private static final int STRIPE_WIDTH = (EVENT_COUNT + CACHE_LINE_LONGS - 1) / CACHE_LINE_LONGS * CACHE_LINE_LONGS;
+
+    /**
+     * Default stripe count. A single stripe keeps the bucket smaller than the {@code LongAdder} based layout;
+     * more stripes could be configured for hot resources on multi-core hosts.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 1;
+
+    private final AtomicLongArray cells;
+    private final int stripeMask;
+
+    public PackedMetricBucket() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount amount of stripes, which will be rounded up to power of two
+     */
+    public PackedMetricBucket(int stripeCount) {
+        super(false);
+        AssertUtil.isTrue(stripeCount > 0, "stripe count should be positive");
+        int stripes = normalizeStripeCount(stripeCount);
+        this.stripeMask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * STRIPE_WIDTH);
+    }
+
+    static int normalizeStripeCount(int stripeCount) {
+        int n = 1;
+        while (n < stripeCount) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    public int getStripeCount() {
+        return stripeMask + 1;
+    }
+
+    private int stripeOffset() {
+        return ((int)Thread.currentThread().getId() & stripeMask) * STRIPE_WIDTH;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        int ordinal = event.ordinal();
+        long sum = 0;
+        for (int offset = 0; offset < cells.length(); offset += STRIPE_WIDTH) {
+            sum += cells.get(offset + ordinal);
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        cells.getAndAdd(stripeOffset() + event.ordinal(), n);
+        return this;
+    }
+
+    @Override
+    protected void resetCounters() {
+        for (int offset = 0; offset < cells.length(); offset += STRIPE_WIDTH) {
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                cells.set(offset + i, 0);
+            }
+        }
+    }
+}
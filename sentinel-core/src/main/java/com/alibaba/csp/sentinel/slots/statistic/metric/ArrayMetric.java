@@ -41,15 +41,28 @@ public class ArrayMetric implements Metric {
     }
 
     public ArrayMetric(int sampleCount, int intervalInMs, boolean enableOccupy) {
+        this(sampleCount, intervalInMs, enableOccupy, false);
+    }
+
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param enableOccupy     whether to support occupying future buckets
+     * @param lockFreeRotation whether to rotate deprecated buckets via CAS instead of the update lock
+     * @since 1.7.0
+     */
+    public ArrayMetric(int sampleCount, int intervalInMs, boolean enableOccupy, boolean lockFreeRotation) {
         if (enableOccupy) {
-            this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs);
+            this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs, lockFreeRotation);
         } else {
-            this.data = new BucketLeapArray(sampleCount, intervalInMs);
+            this.data = new BucketLeapArray(sampleCount, intervalInMs, lockFreeRotation);
         }
     }
 
     /**
-     * For unit test.
+     * Create the metric with a customized leap array (e.g. {@link PackedBucketLeapArray}).
+     *
+     * @param array the underlying leap array
      */
     public ArrayMetric(LeapArray<MetricBucket> array) {
         this.data = array;
@@ -180,6 +193,34 @@ public class ArrayMetric implements Metric {
         return details;
     }
 
+    /**
+     * Fill the statistics of the bucket starting at given time into provided metric node, without allocation.
+     *
+     * @param windowStart start time of the bucket
+     * @param node        the metric node to fill
+     * @return true if the bucket of given time is present and filled, otherwise false
+     * @since 1.7.0
+     */
+    public boolean fillDetail(long windowStart, MetricNode node) {
+        MetricBucket bucket = data.getWindowValue(windowStart);
+        if (bucket == null) {
+            return false;
+        }
+        node.setBlockQps(bucket.block());
+        node.setExceptionQps(bucket.exception());
+        node.setPassQps(bucket.pass());
+        long successQps = bucket.success();
+        node.setSuccessQps(successQps);
+        if (successQps != 0) {
+            node.setRt(bucket.rt() / successQps);
+        } else {
+            node.setRt(bucket.rt());
+        }
+        node.setTimestamp(windowStart);
+        node.setOccupiedPassQps(bucket.occupiedPass());
+        return true;
+    }
+
     @Override
     public MetricBucket[] windows() {
         data.currentWindow();
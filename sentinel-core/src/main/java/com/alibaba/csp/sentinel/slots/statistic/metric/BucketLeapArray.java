@@ -32,6 +32,16 @@ public class BucketLeapArray extends LeapArray<MetricBucket> {
         super(sampleCount, intervalInMs);
     }
 
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param lockFreeRotation whether to rotate deprecated buckets without the update lock
+     * @since 1.7.0
+     */
+    public BucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+    }
+
     @Override
     public MetricBucket newEmptyBucket(long time) {
         return new MetricBucket();
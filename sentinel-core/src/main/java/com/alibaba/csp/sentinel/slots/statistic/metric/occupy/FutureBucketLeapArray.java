@@ -32,6 +32,10 @@ public class FutureBucketLeapArray extends LeapArray<MetricBucket> {
         super(sampleCount, intervalInMs);
     }
 
+    public FutureBucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+    }
+
     @Override
     public MetricBucket newEmptyBucket(long time) {
         return new MetricBucket();
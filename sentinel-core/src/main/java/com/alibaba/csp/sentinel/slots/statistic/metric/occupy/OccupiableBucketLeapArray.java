@@ -31,14 +31,35 @@ public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
     private final FutureBucketLeapArray borrowArray;
 
     public OccupiableBucketLeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param lockFreeRotation whether to rotate deprecated buckets (including the borrow buckets)
+     *                         without the update lock
+     * @since 1.7.0
+     */
+    public OccupiableBucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
         // This class is the original "CombinedBucketArray".
-        super(sampleCount, intervalInMs);
-        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs);
+        super(sampleCount, intervalInMs, lockFreeRotation);
+        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs, lockFreeRotation);
+    }
+
+    /**
+     * Create a new bucket without any data. Subclasses may provide another bucket layout.
+     *
+     * @return new empty bucket
+     * @since 1.7.0
+     */
+    protected MetricBucket createBucket() {
+        return new MetricBucket();
     }
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        MetricBucket newBucket = new MetricBucket();
+        MetricBucket newBucket = createBucket();
 
         MetricBucket borrowBucket = borrowArray.getWindowValue(time);
         if (borrowBucket != null) {
@@ -63,6 +84,20 @@ public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
         return w;
     }
 
+    @Override
+    protected void clearWindowValue(WindowWrap<MetricBucket> w) {
+        // The borrowed pass will be added when the bucket is rotated again.
+        w.value().reset();
+    }
+
+    @Override
+    protected void initRotatedWindow(WindowWrap<MetricBucket> w, long time) {
+        MetricBucket borrowBucket = borrowArray.getWindowValue(time);
+        if (borrowBucket != null) {
+            w.value().addPass((int)borrowBucket.pass());
+        }
+    }
+
     @Override
     public long currentWaiting() {
         borrowArray.currentWindow();
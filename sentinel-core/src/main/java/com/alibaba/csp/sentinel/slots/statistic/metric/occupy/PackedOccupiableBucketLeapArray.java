@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric.occupy;
+
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.PackedMetricBucket;
+
+/**
+ * An {@link OccupiableBucketLeapArray} using {@link PackedMetricBucket} as the bucket.
+ * The borrow (future) buckets are rarely used, so they still keep the default layout.
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class PackedOccupiableBucketLeapArray extends OccupiableBucketLeapArray {
+
+    private final int stripeCount;
+
+    public PackedOccupiableBucketLeapArray(int sampleCount, int intervalInMs, int stripeCount) {
+        this(sampleCount, intervalInMs, stripeCount, false);
+    }
+
+    public PackedOccupiableBucketLeapArray(int sampleCount, int intervalInMs, int stripeCount,
+                                           boolean lockFreeRotation) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+        this.stripeCount = stripeCount;
+    }
+
+    @Override
+    protected MetricBucket createBucket() {
+        return new PackedMetricBucket(stripeCount);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.alibaba.csp.sentinel.util.function.Supplier;
+
+/**
+ * <p>A concurrent registry that interns names to dense int ids (0, 1, 2...) and keeps one value for each id,
+ * so that once the id is known, the lookup is plain array indexing.</p>
+ *
+ * <p>Lookup never locks. Registering a new name takes the lock for constant time work only
+ * (the value array grows by doubling), rather than copying the whole registry, so registering
+ * a large amount of names is linear in total.</p>
+ *
+ * @param <V> type of the value
+ * @author agent
+ * @since 1.7.0
+ */
+public final class DenseIdRegistry<V> {
+
+    /**
+     * Id for absent names, or names rejected because the registry is full.
+     */
+    public static final int ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxSize;
+    private final ConcurrentMap<String, Integer> idMap = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    private volatile AtomicReferenceArray<V> values = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile int size = 0;
+
+    /**
+     * @param maxSize max amount of names that could be registered via {@link #register(String, Supplier)}
+     */
+    public DenseIdRegistry(int maxSize) {
+        AssertUtil.isTrue(maxSize > 0, "maxSize should be positive");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the id of given name.
+     *
+     * @param name the name
+     * @return the id if the name has been registered, otherwise {@link #ABSENT}
+     */
+    public int idOf(String name) {
+        Integer id = idMap.get(name);
+        return id == null ? ABSENT : id;
+    }
+
+    /**
+     * Get the value of given id.
+     *
+     * @param id the id
+     * @return the value if present, otherwise null
+     */
+    public V get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        AtomicReferenceArray<V> array = values;
+        return id < array.length() ? array.get(id) : null;
+    }
+
+    public V get(String name) {
+        return get(idOf(name));
+    }
+
+    /**
+     * Get the id of given name. If absent, the name will be registered with the value created by
+     * {@code valueFactory}, unless the size of the registry has reached {@code maxSize}.
+     *
+     * @param name         the name
+     * @param valueFactory factory for the value of the new id
+     * @return the id of the name, or {@link #ABSENT} if the registry is full
+     */
+    public int register(String name, Supplier<V> valueFactory) {
+        Integer id = idMap.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (size >= maxSize) {
+            return ABSENT;
+        }
+        synchronized (lock) {
+            id = idMap.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size >= maxSize) {
+                return ABSENT;
+            }
+            return append(name, valueFactory.get());
+        }
+    }
+
+    /**
+     * Put or replace the value of given name, regardless of {@code maxSize}.
+     *
+     * @param name  the name
+     * @param value the value
+     * @return the id of the name
+     */
+    public int put(String name, V value) {
+        synchronized (lock) {
+            Integer id = idMap.get(name);
+            if (id != null) {
+                values.set(id, value);
+                return id;
+            }
+            return append(name, value);
+        }
+    }
+
+    private int append(String name, V value) {
+        int id = size;
+        AtomicReferenceArray<V> array = values;
+        if (id >= array.length()) {
+            AtomicReferenceArray<V> newArray = new AtomicReferenceArray<>(array.length() << 1);
+            for (int i = 0; i < id; i++) {
+                newArray.set(i, array.get(i));
+            }
+            array = newArray;
+            values = newArray;
+        }
+        // The value must be visible before the id is published.
+        array.set(id, value);
+        size = id + 1;
+        idMap.put(name, id);
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get all values in order of their ids.
+     *
+     * @return list of values
+     */
+    public List<V> values() {
+        AtomicReferenceArray<V> array = values;
+        int n = Math.min(size, array.length());
+        List<V> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(array.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * Remove all names and values. Ids of the removed names should not be used anymore.
+     */
+    public void clear() {
+        synchronized (lock) {
+            idMap.clear();
+            values = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+            size = 0;
+        }
+    }
+}
@@ -20,11 +20,18 @@ import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -32,6 +39,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -190,6 +199,37 @@ public class AsyncEntryIntegrationTest {
         queryInvocationTree(true);
     }
 
+    @Test
+    public void testNonBlockingAsyncEntryWithRateLimiter() throws Exception {
+        String resourceName = "test-non-blocking-async";
+        FlowRule rule = new FlowRule(resourceName)
+            .setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        try {
+            List<AsyncEntry> entries = new ArrayList<AsyncEntry>();
+            long start = TimeUtil.currentTimeMillis();
+            for (int i = 0; i < 5; i++) {
+                entries.add(SphU.asyncEntryNonBlocking(resourceName, EntryType.OUT, 1));
+            }
+            // Current thread should not be parked, the waiting time is recorded in the entries instead.
+            assertTrue(TimeUtil.currentTimeMillis() - start < 300);
+            assertEquals(0, entries.get(0).getWaitInMs());
+            for (int i = 1; i < entries.size(); i++) {
+                assertTrue(entries.get(i).getWaitInMs() > entries.get(i - 1).getWaitInMs());
+            }
+            assertTrue(FlowRuleManager.getQueueDepth(resourceName) >= 4);
+            assertTrue(FlowRuleManager.getQueueingTimeMs(resourceName) > 300);
+
+            for (AsyncEntry entry : entries) {
+                entry.exit();
+            }
+        } finally {
+            FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        }
+    }
+
     private DefaultNode queryInvocationTree(boolean check) {
         DefaultNode root = Constants.ROOT;
         DefaultNode entranceNode = shouldHasChildFor(root, contextName, check);
@@ -257,14 +257,14 @@ public class CtSphTest {
     @Test
     public void testLookUpSlotChain() {
         ResourceWrapper r1 = new StringResourceWrapper("firstRes", EntryType.IN);
-        assertFalse(CtSph.getChainMap().containsKey(r1));
+        assertNull(CtSph.getChain(r1));
         ProcessorSlot<Object> chainR1 = ctSph.lookProcessChain(r1);
         assertNotNull("The slot chain for r1 should be created", chainR1);
         assertSame("Should return the cached slot chain once it has been created", chainR1, ctSph.lookProcessChain(r1));
 
         fillFullResources();
         ResourceWrapper r2 = new StringResourceWrapper("secondRes", EntryType.IN);
-        assertFalse(CtSph.getChainMap().containsKey(r2));
+        assertNull(CtSph.getChain(r2));
         assertNull("The slot chain for r2 should not be created because amount exceeded", ctSph.lookProcessChain(r2));
         assertNull(ctSph.lookProcessChain(r2));
     }
@@ -279,21 +279,21 @@ public class CtSphTest {
     private void fillFullResources() {
         for (int i = 0; i < Constants.MAX_SLOT_CHAIN_SIZE; i++) {
             ResourceWrapper resourceWrapper = new StringResourceWrapper("test-resource-" + i, EntryType.IN);
-            CtSph.getChainMap().put(resourceWrapper, SlotChainProvider.newSlotChain());
+            CtSph.putChain(resourceWrapper, SlotChainProvider.newSlotChain());
         }
     }
 
     private void addShouldNotPassSlotFor(ResourceWrapper resourceWrapper) {
         ProcessorSlotChain slotChain = new DefaultProcessorSlotChain();
         slotChain.addLast(new ShouldNotPassSlot());
-        CtSph.getChainMap().put(resourceWrapper, slotChain);
+        CtSph.putChain(resourceWrapper, slotChain);
     }
 
     private ShouldPassSlot addShouldPassSlotFor(ResourceWrapper resourceWrapper) {
         ProcessorSlotChain slotChain = new DefaultProcessorSlotChain();
         ShouldPassSlot shouldPassSlot = new ShouldPassSlot();
         slotChain.addLast(shouldPassSlot);
-        CtSph.getChainMap().put(resourceWrapper, slotChain);
+        CtSph.putChain(resourceWrapper, slotChain);
         return shouldPassSlot;
     }
 
@@ -301,7 +301,7 @@ public class CtSphTest {
         ProcessorSlotChain slotChain = new DefaultProcessorSlotChain();
         MustBlockSlot mustBlockSlot = new MustBlockSlot();
         slotChain.addLast(mustBlockSlot);
-        CtSph.getChainMap().put(resourceWrapper, slotChain);
+        CtSph.putChain(resourceWrapper, slotChain);
         return mustBlockSlot;
     }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextTestUtil;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker.State;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link EntryGroup}.
+ *
+ * @author agent
+ */
+public class EntryGroupTest {
+
+    private static final String CONTEXT_NAME = "entry-group-context";
+
+    @Before
+    public void setUp() {
+        ContextTestUtil.cleanUpContext();
+    }
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(Collections.<FlowRule>emptyList());
+        DegradeRuleManager.loadRules(Collections.<DegradeRule>emptyList());
+        ContextTestUtil.cleanUpContext();
+    }
+
+    @Test
+    public void testEntryGroupNestedInContext() throws BlockException {
+        String[] names = {"testEntryGroupNestedInContext", "GET:testEntryGroupNestedInContext"};
+        ContextUtil.enter(CONTEXT_NAME);
+        EntryGroup group = SphU.entryGroup(names, EntryType.IN);
+
+        Context context = ContextUtil.getContext();
+        assertEquals(2, group.size());
+        assertSame(group.getEntry(1), context.getCurEntry());
+        assertSame(group.getEntry(0), ((CtEntry)group.getEntry(1)).parent);
+        assertEquals(group.getEntry(0).getCreateTime(), group.getEntry(1).getCreateTime());
+        assertNull(group.getAsyncContext());
+        assertEquals(1, ClusterBuilderSlot.getClusterNode(names[0]).curThreadNum());
+
+        group.exit();
+        assertNull(context.getCurEntry());
+        assertEquals(0, ClusterBuilderSlot.getClusterNode(names[0]).curThreadNum());
+        assertEquals(0, ClusterBuilderSlot.getClusterNode(names[1]).curThreadNum());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testEntryGroupBlockedExitEnteredResources() {
+        String[] names = {"testEntryGroupBlocked", "GET:testEntryGroupBlocked"};
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(names[1])
+            .setGrade(RuleConstant.FLOW_GRADE_QPS).setCount(0)));
+        ContextUtil.enter(CONTEXT_NAME);
+        try {
+            SphU.entryGroup(names, EntryType.IN);
+            fail("The group should be blocked");
+        } catch (BlockException ex) {
+            assertEquals(names[1], ex.getRule().getResource());
+        }
+
+        assertNull(ContextUtil.getContext().getCurEntry());
+        ClusterNode node = ClusterBuilderSlot.getClusterNode(names[0]);
+        assertEquals(0, node.curThreadNum());
+        // The entered resource is rolled back, so neither pass nor success is recorded.
+        assertEquals(0, (long)node.passQps());
+        assertEquals(0, (long)node.successQps());
+        assertEquals(1, (long)ClusterBuilderSlot.getClusterNode(names[1]).blockQps());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testRolledBackEntryNotRecordedByCircuitBreaker() throws Exception {
+        String[] names = {"testRolledBackEntryNotRecordedByCircuitBreaker",
+            "GET:testRolledBackEntryNotRecordedByCircuitBreaker"};
+        DegradeRuleManager.loadRules(Collections.singletonList(new DegradeRule(names[0])
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT).setCount(1).setTimeWindow(1)
+            .setMinRequestAmount(1)));
+        CircuitBreaker cb = DegradeRuleManager.getCircuitBreakers(names[0]).get(0);
+        Entry entry = SphU.entry(names[0]);
+        Tracer.traceEntry(new IllegalStateException(), entry);
+        entry.exit();
+        assertEquals(State.OPEN, cb.currentState());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(names[1])
+            .setGrade(RuleConstant.FLOW_GRADE_QPS).setCount(0)));
+        try {
+            SphU.entryGroup(names, EntryType.IN);
+            fail("The group should be blocked");
+        } catch (BlockException ex) {
+            assertEquals(names[1], ex.getRule().getResource());
+        }
+        // The probe never ran, so the circuit breaker should not be closed.
+        assertEquals(State.HALF_OPEN, cb.currentState());
+        ClusterNode node = ClusterBuilderSlot.getClusterNode(names[0]);
+        assertEquals(0, node.curThreadNum());
+        assertEquals(0, (long)node.passQps());
+        assertEquals(0, (long)node.successQps());
+    }
+
+    @Test
+    public void testEntryGroupWithHandles() throws BlockException {
+        ResourceHandle[] handles = {ResourceHandle.of("testEntryGroupWithHandles", EntryType.IN),
+            ResourceHandle.of("GET:testEntryGroupWithHandles", EntryType.IN)};
+        ContextUtil.enter(CONTEXT_NAME);
+        EntryGroup group = SphU.entryGroup(handles);
+        assertSame(handles[1], group.getEntry(1).getResourceWrapper());
+        assertNotNull(handles[0].getChain());
+        group.exit();
+
+        assertNull(ContextUtil.getContext().getCurEntry());
+        assertEquals(1, (long)handles[1].getClusterNode().passQps());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testAsyncEntryGroup() throws BlockException {
+        String[] names = {"testAsyncEntryGroup", "testAsyncEntryGroupApi"};
+        ContextUtil.enter(CONTEXT_NAME);
+        Object[][] args = {null, {"foo"}};
+        EntryGroup group = SphU.asyncEntryGroupNonBlocking(names, EntryType.IN, 1, args);
+
+        // The async entries have been removed from current context.
+        assertNull(ContextUtil.getContext().getCurEntry());
+        Context asyncContext = group.getAsyncContext();
+        assertNotNull(asyncContext);
+        assertSame(group.getEntry(1), asyncContext.getCurEntry());
+        assertEquals(0, group.getWaitInMs());
+        ContextUtil.exit();
+
+        group.exit();
+        assertEquals(0, ClusterBuilderSlot.getClusterNode(names[0]).curThreadNum());
+        assertEquals(0, ClusterBuilderSlot.getClusterNode(names[1]).curThreadNum());
+    }
+}
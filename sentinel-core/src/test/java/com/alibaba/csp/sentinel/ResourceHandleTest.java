@@ -0,0 +1,129 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ResourceHandle}.
+ *
+ * @author agent
+ */
+public class ResourceHandleTest {
+
+    @Before
+    public void setUp() {
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testEntryWithHandle() throws BlockException {
+        String resourceName = "testEntryWithHandle";
+        ResourceHandle handle = ResourceHandle.of(resourceName, EntryType.IN);
+
+        Entry e = handle.entry();
+        assertSame(handle, e.resourceWrapper);
+        assertEquals(EntryType.IN, e.resourceWrapper.getType());
+        e.exit();
+
+        assertNotNull(handle.getChain());
+        assertSame(handle.getChain(), CtSph.getChain(handle));
+        assertSame(ClusterBuilderSlot.getClusterNode(resourceName), handle.getClusterNode());
+        assertEquals(1, handle.getClusterNode().totalSuccess());
+
+        // Entering with the name should share the same chain and statistics with the handle.
+        e = SphU.entry(resourceName, EntryType.IN);
+        e.exit();
+        assertEquals(2, handle.getClusterNode().totalSuccess());
+    }
+
+    @Test
+    public void testFlowRuleSnapshotRefreshedAfterReload() throws BlockException {
+        String resourceName = "testFlowRuleSnapshotRefreshedAfterReload";
+        ResourceHandle handle = ResourceHandle.of(resourceName);
+        assertNull(handle.getFlowRules());
+
+        FlowRule rule = new FlowRule(resourceName).setCount(0);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        assertEquals(1, handle.getFlowRules().size());
+        try {
+            handle.entry().exit();
+            fail("Should be blocked by the flow rule");
+        } catch (FlowException ex) {
+            assertSame(rule, ex.getRule());
+        }
+
+        long version = FlowRuleManager.getRuleVersion();
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        assertTrue(FlowRuleManager.getRuleVersion() > version);
+        assertNull(handle.getFlowRules());
+        handle.entry().exit();
+    }
+
+    @Test
+    public void testDegradeRuleSnapshotRefreshedAfterReload() {
+        String resourceName = "testDegradeRuleSnapshotRefreshedAfterReload";
+        ResourceHandle handle = ResourceHandle.of(resourceName);
+        assertNull(handle.getDegradeRules());
+
+        DegradeRule rule = new DegradeRule(resourceName)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(10)
+            .setTimeWindow(5);
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+        assertTrue(handle.getDegradeRules().contains(rule));
+
+        DegradeRuleManager.setRulesForResource(resourceName, Collections.<DegradeRule>emptySet());
+        assertNull(handle.getDegradeRules());
+    }
+
+    @Test
+    public void testSnapshotNotNewerThanVersion() {
+        String resourceName = "testSnapshotNotNewerThanVersion";
+        ResourceHandle handle = ResourceHandle.of(resourceName);
+        List<FlowRule> rules = Collections.singletonList(new FlowRule(resourceName).setCount(10));
+        for (int i = 0; i < 10; i++) {
+            FlowRuleManager.loadRules(i % 2 == 0 ? rules : new ArrayList<FlowRule>());
+            assertEquals(i % 2 == 0, handle.getFlowRules() != null);
+        }
+    }
+}
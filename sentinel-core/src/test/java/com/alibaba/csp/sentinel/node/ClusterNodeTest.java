@@ -151,4 +151,29 @@ public class ClusterNodeTest {
         assertEquals(1, clusterNode.exceptionQps(), 0.01);
         assertEquals(1, clusterNode.totalException());
     }
+
+    @Test
+    public void testDirtyTracking() {
+        ClusterNode namedNode = new ClusterNode("testDirtyTracking");
+        ClusterNode unnamedNode = new ClusterNode();
+
+        namedNode.addPassRequest(1);
+        namedNode.addRtAndSuccess(10, 1);
+        unnamedNode.addPassRequest(1);
+
+        List<ClusterNode> dirtyNodes = new ArrayList<ClusterNode>();
+        DirtyNodeTracker.drainTo(dirtyNodes);
+        // The node is tracked only once until drained.
+        assertEquals(1, Collections.frequency(dirtyNodes, namedNode));
+        assertFalse(dirtyNodes.contains(unnamedNode));
+
+        dirtyNodes.clear();
+        DirtyNodeTracker.drainTo(dirtyNodes);
+        assertFalse(dirtyNodes.contains(namedNode));
+
+        // Written again after the drain.
+        namedNode.increaseBlockQps(1);
+        DirtyNodeTracker.drainTo(dirtyNodes);
+        assertTrue(dirtyNodes.contains(namedNode));
+    }
 }
@@ -16,6 +16,8 @@
 package com.alibaba.csp.sentinel.node;
 
 import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricNodePool;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import org.junit.Test;
 
@@ -30,6 +32,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -47,6 +50,36 @@ public class StatisticNodeTest {
 
     private static final int THREAD_COUNT = 20;
 
+    @Test
+    public void testCollectMetrics() {
+        StatisticNode node = new StatisticNode();
+        MetricNodePool pool = new MetricNodePool(16);
+        List<MetricNode> metrics = new ArrayList<MetricNode>();
+
+        node.addPassRequest(3);
+        node.addRtAndSuccess(20, 2);
+        long currentTime = TimeUtil.currentTimeMillis();
+        currentTime = currentTime - currentTime % 1000;
+
+        // Current second is not complete yet, so it should be collected later.
+        assertTrue(node.collectMetrics(currentTime, pool, metrics));
+        assertTrue(metrics.isEmpty());
+
+        long nextSecond = currentTime + 1000;
+        assertFalse(node.collectMetrics(nextSecond, pool, metrics));
+        assertEquals(1, metrics.size());
+        MetricNode metricNode = metrics.get(0);
+        assertEquals(currentTime, metricNode.getTimestamp());
+        assertEquals(3, metricNode.getPassQps());
+        assertEquals(2, metricNode.getSuccessQps());
+        assertEquals(10, metricNode.getRt());
+
+        // Collected metrics should not be collected again.
+        metrics.clear();
+        assertFalse(node.collectMetrics(nextSecond + 1000, pool, metrics));
+        assertTrue(metrics.isEmpty());
+    }
+
     /**
      * A simple test for statistic threadNum and qps by using StatisticNode
      *
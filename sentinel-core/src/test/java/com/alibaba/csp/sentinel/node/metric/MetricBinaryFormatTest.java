@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ */
+public class MetricBinaryFormatTest {
+
+    @Test
+    public void testEncodeAndDecode() {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(1529998904000L);
+        node.setPassQps(10);
+        node.setBlockQps(2);
+        node.setSuccessQps(9);
+        node.setExceptionQps(1);
+        node.setRt(23);
+        node.setOccupiedPassQps(3);
+
+        ByteBuffer buf = ByteBuffer.allocate(MetricBinaryFormat.RECORD_SIZE * 2);
+        ByteBuffer record = ByteBuffer.allocate(MetricBinaryFormat.RECORD_SIZE);
+        MetricBinaryFormat.encode(record, node, 1);
+        buf.position(MetricBinaryFormat.RECORD_SIZE);
+        buf.put(record.array());
+
+        int pos = MetricBinaryFormat.RECORD_SIZE;
+        assertEquals(1529998904000L, MetricBinaryFormat.timestampAt(buf, pos));
+        assertEquals(1, MetricBinaryFormat.resourceIdAt(buf, pos));
+
+        MetricNode decoded = MetricBinaryFormat.decode(buf, pos, new String[] {"a", "b|c"});
+        assertEquals("b|c", decoded.getResource());
+        assertEquals(node.getTimestamp(), decoded.getTimestamp());
+        assertEquals(node.getPassQps(), decoded.getPassQps());
+        assertEquals(node.getBlockQps(), decoded.getBlockQps());
+        assertEquals(node.getSuccessQps(), decoded.getSuccessQps());
+        assertEquals(node.getExceptionQps(), decoded.getExceptionQps());
+        assertEquals(node.getRt(), decoded.getRt());
+        assertEquals(node.getOccupiedPassQps(), decoded.getOccupiedPassQps());
+    }
+
+    @Test
+    public void testReadDictionary() throws Exception {
+        File metricFile = File.createTempFile("sentinel-metrics", ".bin");
+        File dictFile = new File(MetricBinaryFormat.formDictFileName(metricFile.getAbsolutePath()));
+        try {
+            assertEquals(0, MetricBinaryFormat.readDictionary(metricFile.getAbsolutePath()).length);
+
+            DataOutputStream out = new DataOutputStream(new FileOutputStream(dictFile));
+            out.writeUTF("GET:/foo");
+            out.writeUTF("资源");
+            // A partially written tail entry should be ignored.
+            out.writeShort(10);
+            out.close();
+
+            String[] dictionary = MetricBinaryFormat.readDictionary(metricFile.getAbsolutePath());
+            assertArrayEquals(new String[] {"GET:/foo", "资源"}, dictionary);
+            assertEquals(1, MetricBinaryFormat.indexOf(dictionary, "资源"));
+            assertEquals(-1, MetricBinaryFormat.indexOf(dictionary, "absent"));
+        } finally {
+            metricFile.delete();
+            dictFile.delete();
+        }
+    }
+}
@@ -79,5 +79,15 @@ public class MetricWriterTest {
         assertFalse(MetricWriter.fileNameMatches(fileName5, baseFileName5));
     }
 
+    @Test
+    public void testBinaryFileNameMatches() {
+        String baseFileName = MetricWriter.formMetricFileName("Sentinel-SDK-Demo", 1234, true);
+        assertTrue(baseFileName.startsWith("Sentinel-SDK-Demo-metrics.bin"));
+        assertTrue(MetricWriter.fileNameMatches(baseFileName + ".2018-03-06.11", baseFileName));
+        assertFalse(MetricWriter.fileNameMatches(baseFileName + ".2018-03-06.11.dict", baseFileName));
+        assertFalse(MetricWriter.fileNameMatches(
+            MetricWriter.formMetricFileName("Sentinel-SDK-Demo", 1234) + ".2018-03-06", baseFileName));
+    }
+
 
 }
\ No newline at end of file
@@ -15,7 +15,13 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.SlowRequestRatioCircuitBreaker;
 
 import org.junit.Test;
 
@@ -49,5 +55,63 @@ public class DegradeRuleManagerTest {
         assertTrue(DegradeRuleManager.isValidRule(rule3.setCount(1.0d)));
         assertTrue(DegradeRuleManager.isValidRule(rule3.setCount(0.0d)));
         assertFalse(DegradeRuleManager.isValidRule(rule4));
+        assertFalse(DegradeRuleManager.isValidRule(new DegradeRule("zz").setTimeWindow(2).setMinRequestAmount(0)));
+        assertFalse(DegradeRuleManager.isValidRule(new DegradeRule("zz").setTimeWindow(2).setStatIntervalMs(0)));
+        assertFalse(DegradeRuleManager.isValidRule(new DegradeRule("zz").setTimeWindow(2).setGrade(10)));
+        DegradeRule rule5 = new DegradeRule("zz")
+            .setCount(100)
+            .setGrade(RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO)
+            .setSlowRatioThreshold(1.2)
+            .setTimeWindow(2);
+        assertFalse(DegradeRuleManager.isValidRule(rule5));
+        assertTrue(DegradeRuleManager.isValidRule(rule5.setSlowRatioThreshold(0.8)));
+        assertTrue(DegradeRuleManager.newCircuitBreakerFrom(rule5) instanceof SlowRequestRatioCircuitBreaker);
+    }
+
+    @Test
+    public void testDefaultStatIntervalOfGrade() {
+        assertEquals(RuleConstant.DEGRADE_DEFAULT_STAT_INTERVAL_MS, new DegradeRule("abc").getStatIntervalMs());
+        DegradeRule rule = new DegradeRule("abc")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+        assertEquals(RuleConstant.DEGRADE_EXCEPTION_COUNT_STAT_INTERVAL_MS, rule.getStatIntervalMs());
+        assertEquals(rule, new DegradeRule("abc")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setStatIntervalMs(RuleConstant.DEGRADE_EXCEPTION_COUNT_STAT_INTERVAL_MS));
+        assertEquals(1000, rule.setStatIntervalMs(1000).getStatIntervalMs());
+    }
+
+    @Test
+    public void testCircuitBreakerReusedForSameRule() {
+        String resource = "testCircuitBreakerReusedForSameRule";
+        DegradeRule rule1 = new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(10)
+            .setTimeWindow(2);
+        DegradeRule rule2 = new DegradeRule(resource)
+            .setCount(100)
+            .setTimeWindow(2);
+        try {
+            DegradeRuleManager.loadRules(Arrays.asList(rule1, rule2));
+            List<CircuitBreaker> cbs = DegradeRuleManager.getCircuitBreakers(resource);
+            assertEquals(2, cbs.size());
+
+            DegradeRule rule3 = new DegradeRule(resource)
+                .setCount(200)
+                .setTimeWindow(2);
+            DegradeRuleManager.loadRules(Arrays.asList(rule1, rule3));
+            List<CircuitBreaker> newCbs = DegradeRuleManager.getCircuitBreakers(resource);
+            assertEquals(2, newCbs.size());
+            for (CircuitBreaker cb : newCbs) {
+                if (cb.getRule().equals(rule1)) {
+                    assertTrue(cbs.contains(cb));
+                } else {
+                    assertSame(rule3, cb.getRule());
+                    assertFalse(cbs.contains(cb));
+                }
+            }
+        } finally {
+            DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+        }
+        assertNull(DegradeRuleManager.getCircuitBreakers(resource));
     }
 }
\ No newline at end of file
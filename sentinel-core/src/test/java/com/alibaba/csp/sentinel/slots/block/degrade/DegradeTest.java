@@ -19,112 +19,326 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.After;
 import org.junit.Test;
 
-import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.context.Context;
-import com.alibaba.csp.sentinel.node.ClusterNode;
-import com.alibaba.csp.sentinel.node.DefaultNode;
-import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
-import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker.State;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreakerStateChangeObserver;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.EventObserverRegistry;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.SlowRequestRatioCircuitBreaker;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author jialiang.linjl
  */
 public class DegradeTest {
 
-    @Test
-    public void testAverageRtDegrade() throws InterruptedException {
-        String key = "test_degrade_average_rt";
-        ClusterNode cn = mock(ClusterNode.class);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+    @After
+    public void tearDown() {
+        EventObserverRegistry.clearStateChangeObserver();
+    }
 
+    private Context mockCompletedRequest(long rt, Throwable bizError) {
+        Entry entry = mock(Entry.class);
+        when(entry.getCreateTime()).thenReturn(TimeUtil.currentTimeMillis() - rt);
+        when(entry.getBizError()).thenReturn(bizError);
         Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
-        when(cn.avgRt()).thenReturn(2d);
+        when(context.getCurEntry()).thenReturn(entry);
+        return context;
+    }
 
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(1);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
+    private Context mockBlockedRequest() {
+        Entry entry = mock(Entry.class);
+        when(entry.getError()).thenReturn(new DegradeException("default"));
+        Context context = mock(Context.class);
+        when(context.getCurEntry()).thenReturn(entry);
+        return context;
+    }
 
+    @Test
+    public void testAverageRtDegrade() throws InterruptedException {
+        DegradeRule rule = new DegradeRule("test_degrade_average_rt")
+            .setCount(50)
+            .setTimeWindow(1)
+            .setMinRequestAmount(5)
+            .setStatIntervalMs(20 * 1000);
+        CircuitBreaker cb = new ResponseTimeCircuitBreaker(rule);
+        Context context = mock(Context.class);
+
+        // Slow requests less than the min request amount won't trip the circuit breaker.
         for (int i = 0; i < 4; i++) {
-            assertTrue(rule.passCheck(context, node, 1));
+            assertTrue(cb.tryPass(context));
+            cb.onRequestComplete(mockCompletedRequest(100, null));
         }
+        assertEquals(State.CLOSED, cb.currentState());
 
-        // The third time will fail.
-        assertFalse(rule.passCheck(context, node, 1));
-        assertFalse(rule.passCheck(context, node, 1));
+        // The average RT of the 5 requests exceeds the threshold.
+        cb.onRequestComplete(mockCompletedRequest(100, null));
+        assertEquals(State.OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
 
-        // Restore.
-        TimeUnit.MILLISECONDS.sleep(2200);
-        assertTrue(rule.passCheck(context, node, 1));
+        // Probe after recovery timeout, which is still slow.
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        assertEquals(State.HALF_OPEN, cb.currentState());
+        // Only one probe is permitted.
+        assertFalse(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(100, null));
+        assertEquals(State.OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
+
+        // Probe again, which is normal.
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(0, null));
+        assertEquals(State.CLOSED, cb.currentState());
+        assertTrue(cb.tryPass(context));
+
+        // Statistics have been reset after recovered.
+        for (int i = 0; i < 4; i++) {
+            cb.onRequestComplete(mockCompletedRequest(100, null));
+        }
+        assertEquals(State.CLOSED, cb.currentState());
     }
 
     @Test
     public void testExceptionRatioModeDegrade() throws Throwable {
-        String key = "test_degrade_exception_ratio";
-        ClusterNode cn = mock(ClusterNode.class);
-        when(cn.exceptionQps()).thenReturn(2d);
-        // Indicates that there are QPS more than min threshold.
-        when(cn.totalQps()).thenReturn(12d);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+        DegradeRule rule = new DegradeRule("test_degrade_exception_ratio")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setCount(0.5)
+            .setTimeWindow(1)
+            .setMinRequestAmount(10)
+            .setStatIntervalMs(20 * 1000);
+        CircuitBreaker cb = new ExceptionCircuitBreaker(rule);
+        Context context = mock(Context.class);
+
+        for (int i = 0; i < 5; i++) {
+            cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        }
+        // Blocked requests are not recorded.
+        for (int i = 0; i < 10; i++) {
+            cb.onRequestComplete(mockBlockedRequest());
+        }
+        assertEquals(State.CLOSED, cb.currentState());
+        for (int i = 0; i < 4; i++) {
+            cb.onRequestComplete(mockCompletedRequest(0, null));
+        }
+        assertEquals(State.CLOSED, cb.currentState());
 
+        // 5 exceptions in 10 requests.
+        cb.onRequestComplete(mockCompletedRequest(0, null));
+        assertEquals(State.OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        assertEquals(State.OPEN, cb.currentState());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(0, null));
+        assertEquals(State.CLOSED, cb.currentState());
+    }
+
+    @Test
+    public void testExceptionCountModeDegrade() throws Throwable {
+        DegradeRule rule = new DegradeRule("test_degrade_exception_count")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(4)
+            .setTimeWindow(1)
+            .setMinRequestAmount(1)
+            .setStatIntervalMs(20 * 1000);
+        CircuitBreaker cb = new ExceptionCircuitBreaker(rule);
         Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
 
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(0.15);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
-        rule.setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO);
+        for (int i = 0; i < 3; i++) {
+            cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+            cb.onRequestComplete(mockCompletedRequest(0, null));
+        }
+        assertEquals(State.CLOSED, cb.currentState());
+        assertTrue(cb.tryPass(context));
 
-        when(cn.successQps()).thenReturn(8d);
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        assertEquals(State.OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
+    }
 
-        // Will fail.
-        assertFalse(rule.passCheck(context, node, 1));
+    @Test
+    public void testExceptionCountModeCountsInMinuteByDefault() throws Throwable {
+        DegradeRule rule = new DegradeRule("test_degrade_exception_count_in_minute")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(2)
+            .setTimeWindow(1)
+            .setMinRequestAmount(1);
+        assertEquals(60 * 1000, rule.getStatIntervalMs());
+        CircuitBreaker cb = new ExceptionCircuitBreaker(rule);
 
-        // Restore from the degrade timeout.
-        TimeUnit.MILLISECONDS.sleep(2200);
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        assertEquals(State.CLOSED, cb.currentState());
 
-        when(cn.successQps()).thenReturn(20d);
-        // Will pass.
-        assertTrue(rule.passCheck(context, node, 1));
+        // The exceptions in different seconds of the same minute are counted together.
+        TimeUnit.MILLISECONDS.sleep(1100);
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        assertEquals(State.OPEN, cb.currentState());
     }
 
     @Test
-    public void testExceptionCountModeDegrade() throws Throwable {
-        String key = "test_degrade_exception_count";
-        ClusterNode cn = mock(ClusterNode.class);
-        when(cn.totalException()).thenReturn(10L);
-        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(key, EntryType.IN), cn);
+    public void testSlowRequestRatioModeDegrade() throws Exception {
+        DegradeRule rule = new DegradeRule("test_degrade_slow_request_ratio")
+            .setGrade(RuleConstant.DEGRADE_GRADE_SLOW_REQUEST_RATIO)
+            .setCount(50)
+            .setSlowRatioThreshold(0.5)
+            .setTimeWindow(1)
+            .setMinRequestAmount(4)
+            .setStatIntervalMs(20 * 1000);
+        CircuitBreaker cb = new SlowRequestRatioCircuitBreaker(rule);
+        Context context = mock(Context.class);
+
+        // A single very slow request won't trip the circuit breaker.
+        cb.onRequestComplete(mockCompletedRequest(4000, null));
+        for (int i = 0; i < 3; i++) {
+            cb.onRequestComplete(mockCompletedRequest(10, null));
+        }
+        assertEquals(State.CLOSED, cb.currentState());
+        assertTrue(cb.tryPass(context));
 
+        // 3 slow requests in 6 requests.
+        cb.onRequestComplete(mockCompletedRequest(100, null));
+        assertEquals(State.CLOSED, cb.currentState());
+        cb.onRequestComplete(mockCompletedRequest(100, null));
+        assertEquals(State.OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(100, null));
+        assertEquals(State.OPEN, cb.currentState());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        cb.onRequestComplete(mockCompletedRequest(10, null));
+        assertEquals(State.CLOSED, cb.currentState());
+    }
+
+    @Test
+    public void testHalfOpenProbeRetryWhenNotCompleted() throws Exception {
+        DegradeRule rule = new DegradeRule("test_degrade_probe_not_completed")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(1)
+            .setTimeWindow(1)
+            .setMinRequestAmount(1);
+        CircuitBreaker cb = new ExceptionCircuitBreaker(rule);
         Context context = mock(Context.class);
-        DefaultNode node = mock(DefaultNode.class);
-        when(node.getClusterNode()).thenReturn(cn);
 
-        DegradeRule rule = new DegradeRule();
-        rule.setCount(4);
-        rule.setResource(key);
-        rule.setTimeWindow(2);
-        rule.setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT);
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        assertEquals(State.OPEN, cb.currentState());
 
-        when(cn.totalException()).thenReturn(4L);
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        // The probe is blocked by other rules, so no completion is recorded.
+        cb.onRequestComplete(mockBlockedRequest());
+        assertEquals(State.HALF_OPEN, cb.currentState());
+        assertFalse(cb.tryPass(context));
 
-        // Will fail.
-        assertFalse(rule.passCheck(context, node, 1));
+        // Another probe is permitted after the recovery timeout.
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(context));
+        assertFalse(cb.tryPass(context));
+    }
 
-        // Restore from the degrade timeout.
-        TimeUnit.MILLISECONDS.sleep(2200);
+    @Test
+    public void testDegradeWithSlotChain() throws Exception {
+        String resource = "test_degrade_with_slot_chain";
+        DegradeRuleManager.loadRules(Collections.singletonList(new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(2)
+            .setTimeWindow(1)
+            .setMinRequestAmount(1)));
+        try {
+            for (int i = 0; i < 2; i++) {
+                Entry entry = SphU.entry(resource);
+                Tracer.trace(new IllegalStateException());
+                entry.exit();
+            }
+            try {
+                SphU.entry(resource).exit();
+                fail("Should be degraded");
+            } catch (DegradeException ex) {
+                assertEquals(resource, ex.getRule().getResource());
+            }
+
+            TimeUnit.MILLISECONDS.sleep(1100);
+            SphU.entry(resource).exit();
+            assertEquals(State.CLOSED, DegradeRuleManager.getCircuitBreakers(resource).get(0).currentState());
+        } finally {
+            DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+            ContextUtil.exit();
+        }
+    }
+
+    @Test
+    public void testPassCheckWithCircuitBreaker() {
+        String resource = "test_degrade_pass_check";
+        DegradeRule rule = new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(1)
+            .setTimeWindow(10)
+            .setMinRequestAmount(1);
+        Context context = mock(Context.class);
+        // The rule is not loaded, so there is no circuit breaker to check with.
+        assertTrue(rule.passCheck(context, null, 1));
 
-        when(cn.totalException()).thenReturn(0L);
-        // Will pass.
-        assertTrue(rule.passCheck(context, node, 1));
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+        try {
+            assertTrue(rule.passCheck(context, null, 1));
+            DegradeRuleManager.getCircuitBreakers(resource).get(0)
+                .onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+            assertFalse(rule.passCheck(context, null, 1));
+        } finally {
+            DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+        }
     }
 
+    @Test
+    public void testStateChangeObserver() throws Exception {
+        final List<String> events = new ArrayList<String>();
+        EventObserverRegistry.addStateChangeObserver("testObserver", new CircuitBreakerStateChangeObserver() {
+            @Override
+            public void onStateChange(State prevState, State newState, DegradeRule rule, Double snapshotValue) {
+                events.add(prevState + "->" + newState + ":" + snapshotValue);
+            }
+        });
+        DegradeRule rule = new DegradeRule("test_degrade_state_observer")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setCount(2)
+            .setTimeWindow(1)
+            .setMinRequestAmount(1);
+        CircuitBreaker cb = new ExceptionCircuitBreaker(rule);
+
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        cb.onRequestComplete(mockCompletedRequest(0, new IllegalStateException()));
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(cb.tryPass(mock(Context.class)));
+        cb.onRequestComplete(mockCompletedRequest(0, null));
+
+        assertEquals(3, events.size());
+        assertEquals("CLOSED->OPEN:2.0", events.get(0));
+        assertEquals("OPEN->HALF_OPEN:null", events.get(1));
+        assertEquals("HALF_OPEN->CLOSED:null", events.get(2));
+    }
 }
@@ -0,0 +1,129 @@
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenLeaseService;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class ClusterTokenLeaseManagerTest {
+
+    @After
+    public void tearDown() {
+        ClusterTokenLeaseManager.clear();
+    }
+
+    @Test
+    public void testCalcLeaseCount() {
+        assertEquals(10, ClusterTokenLeaseManager.calcLeaseCount(100, 100, 1));
+        assertEquals(1, ClusterTokenLeaseManager.calcLeaseCount(5, 100, 1));
+        assertEquals(3, ClusterTokenLeaseManager.calcLeaseCount(5, 100, 3));
+    }
+
+    @Test
+    public void testSpendLeaseLocally() {
+        LeaseTokenService service = new LeaseTokenService(10);
+        FlowRule rule = leaseRule(1L, 100, 60000);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(TokenResultStatus.OK, (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+        }
+        assertEquals(1, service.leaseRequests);
+
+        // The lease is used up, so renew it (only half granted this time).
+        service.available = 5;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TokenResultStatus.OK, (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+        }
+        assertEquals(2, service.leaseRequests);
+
+        // The token server has no tokens left, then the requests are blocked locally until the lease expires.
+        assertEquals(TokenResultStatus.BLOCKED,
+            (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+        assertEquals(3, service.leaseRequests);
+        assertEquals(TokenResultStatus.BLOCKED,
+            (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+        assertEquals(3, service.leaseRequests);
+    }
+
+    @Test
+    public void testFailStatusReturnedToCaller() {
+        LeaseTokenService service = new LeaseTokenService(10);
+        service.status = TokenResultStatus.FAIL;
+        FlowRule rule = leaseRule(2L, 100, 60000);
+        assertEquals(TokenResultStatus.FAIL, (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+        service.status = TokenResultStatus.OK;
+        assertEquals(TokenResultStatus.OK, (int)ClusterTokenLeaseManager.tryAcquire(service, rule, 1).getStatus());
+    }
+
+    @Test
+    public void testDropLeasesOnRuleReload() {
+        LeaseTokenService service = new LeaseTokenService(10);
+        FlowRule rule1 = leaseRule(3L, 100, 60000);
+        FlowRule rule2 = leaseRule(4L, 100, 60000);
+        ClusterTokenLeaseManager.tryAcquire(service, rule1, 1);
+        ClusterTokenLeaseManager.tryAcquire(service, rule2, 1);
+        assertTrue(ClusterTokenLeaseManager.hasLease(3L));
+        assertTrue(ClusterTokenLeaseManager.hasLease(4L));
+
+        // Rule 4 is no longer in lease mode.
+        rule2.getClusterConfig().setLeaseIntervalMs(0);
+        ClusterTokenLeaseManager.retainLeases(Collections.singletonList(Arrays.asList(rule1, rule2)));
+        assertTrue(ClusterTokenLeaseManager.hasLease(3L));
+        assertFalse(ClusterTokenLeaseManager.hasLease(4L));
+
+        ClusterTokenLeaseManager.retainLeases(Collections.<List<FlowRule>>emptyList());
+        assertFalse(ClusterTokenLeaseManager.hasLease(3L));
+    }
+
+    private FlowRule leaseRule(Long flowId, double count, int leaseIntervalMs) {
+        FlowRule rule = new FlowRule("abc").setCount(count).setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(flowId).setLeaseIntervalMs(leaseIntervalMs));
+        return rule;
+    }
+
+    private static class LeaseTokenService implements TokenLeaseService {
+        private int available;
+        private int status = TokenResultStatus.OK;
+        private int leaseRequests;
+
+        LeaseTokenService(int available) {
+            this.available = available;
+        }
+
+        @Override
+        public TokenResult requestTokenLease(Long ruleId, int leaseCount) {
+            leaseRequests++;
+            if (status != TokenResultStatus.OK) {
+                return new TokenResult(status);
+            }
+            int granted = Math.min(leaseCount, available);
+            available -= granted;
+            if (granted <= 0) {
+                return new TokenResult(TokenResultStatus.BLOCKED);
+            }
+            return new TokenResult(TokenResultStatus.OK).setRemaining(granted);
+        }
+
+        @Override
+        public TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
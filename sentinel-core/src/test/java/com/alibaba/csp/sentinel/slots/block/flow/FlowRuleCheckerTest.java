@@ -15,15 +15,23 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.cluster.BatchTokenService;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 import org.junit.After;
 import org.junit.Before;
@@ -166,6 +174,89 @@ public class FlowRuleCheckerTest {
         assertTrue(checker.canPassCheck(rule, context, node, 1));
     }
 
+    @Test
+    public void testBatchRunOfConsecutiveClusterRules() {
+        FlowRule leaseRule = clusterRule(3L);
+        leaseRule.getClusterConfig().setLeaseIntervalMs(100);
+        List<FlowRule> rules = Arrays.asList(clusterRule(1L), clusterRule(2L), new FlowRule("abc").setCount(1),
+            clusterRule(4L), leaseRule, clusterRule(5L), clusterRule(6L), clusterRule(7L));
+
+        assertEquals(2, FlowRuleChecker.batchRunEnd(rules, 0));
+        assertEquals(2, FlowRuleChecker.batchRunEnd(rules, 1));
+        assertEquals(3, FlowRuleChecker.batchRunEnd(rules, 2));
+        assertEquals(4, FlowRuleChecker.batchRunEnd(rules, 3));
+        assertEquals(5, FlowRuleChecker.batchRunEnd(rules, 4));
+        assertEquals(8, FlowRuleChecker.batchRunEnd(rules, 5));
+    }
+
+    @Test
+    public void testRequestClusterTokensInBatch() {
+        List<FlowRule> rules = Arrays.asList(clusterRule(1L), clusterRule(2L));
+        BatchService service = new BatchService();
+        List<TokenResult> results = FlowRuleChecker.requestClusterTokensInBatch(service, rules, 2, false);
+        assertEquals(Arrays.asList(1L, 2L), service.lastRuleIds);
+        assertEquals(2, results.size());
+        assertEquals(TokenResultStatus.OK, (int)results.get(0).getStatus());
+
+        // Unexpected results should fall back to requesting tokens one by one.
+        service.resultCount = 1;
+        assertNull(FlowRuleChecker.requestClusterTokensInBatch(service, rules, 2, false));
+        assertNull(FlowRuleChecker.requestClusterTokensInBatch(null, rules, 2, false));
+    }
+
+    @Test
+    public void testCheckFlowInBatchStopsAtBlockedRule() throws Exception {
+        FlowRule blockRule = new FlowRule("abc").setCount(0);
+        blockRule.setRater(new DefaultController(0, RuleConstant.FLOW_GRADE_QPS));
+        final List<FlowRule> rules = Arrays.asList(blockRule, clusterRule(1L), clusterRule(2L));
+        Function<String, Collection<FlowRule>> ruleProvider = new Function<String, Collection<FlowRule>>() {
+            @Override
+            public Collection<FlowRule> apply(String resource) {
+                return rules;
+            }
+        };
+        StringResourceWrapper resource = new StringResourceWrapper("abc", EntryType.IN);
+        DefaultNode node = new DefaultNode(resource, new ClusterNode("abc"));
+        try {
+            new FlowRuleChecker().checkFlow(ruleProvider, resource, new Context(node, "ctx"), node, 1, false);
+            fail("The first rule should block");
+        } catch (FlowException ex) {
+            assertSame(blockRule, ex.getRule());
+        }
+    }
+
+    private FlowRule clusterRule(Long flowId) {
+        FlowRule rule = new FlowRule("abc").setCount(10).setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(flowId));
+        return rule;
+    }
+
+    private static class BatchService implements BatchTokenService {
+        private List<Long> lastRuleIds;
+        private int resultCount = -1;
+
+        @Override
+        public List<TokenResult> requestTokens(List<Long> ruleIds, int acquireCount, boolean prioritized) {
+            this.lastRuleIds = ruleIds;
+            int count = resultCount < 0 ? ruleIds.size() : resultCount;
+            List<TokenResult> results = new ArrayList<TokenResult>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(new TokenResult(TokenResultStatus.OK));
+            }
+            return results;
+        }
+
+        @Override
+        public TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         FlowRuleManager.loadRules(null);
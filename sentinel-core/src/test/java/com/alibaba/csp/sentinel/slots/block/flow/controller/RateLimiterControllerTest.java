@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -95,4 +96,36 @@ public class RateLimiterControllerTest {
             assertTrue(paceController.canPass(node, 0));
         }
     }
+
+    @Test
+    public void testPaceController_tryReserveWithoutBlocking() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+        Node node = mock(Node.class);
+
+        long start = TimeUtil.currentTimeMillis();
+        assertEquals(0, paceController.tryReserve(node, 1));
+        long lastWait = 0;
+        for (int i = 0; i < 5; i++) {
+            long waitInMs = paceController.tryReserve(node, 1);
+            assertTrue(waitInMs > lastWait);
+            lastWait = waitInMs;
+        }
+        // Slots are reserved rather than waited for.
+        assertTrue(TimeUtil.currentTimeMillis() - start < 400);
+        assertTrue(paceController.getQueueingTimeMs() > 400);
+        assertTrue(paceController.getQueueDepth() >= 5);
+
+        // The virtual queue is full.
+        assertEquals(PacingController.REJECTED, paceController.tryReserve(node, 1));
+    }
+
+    @Test
+    public void testPaceController_tryReserveZeroattack() {
+        RateLimiterController paceController = new RateLimiterController(500, 0d);
+        Node node = mock(Node.class);
+
+        assertEquals(PacingController.REJECTED, paceController.tryReserve(node, 1));
+        assertEquals(0, paceController.tryReserve(node, 0));
+        assertEquals(0, paceController.getQueueDepth());
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PackedMetricBucket}.
+ *
+ * @author agent
+ */
+public class PackedMetricBucketTest {
+
+    @Test
+    public void testStripeCountNormalized() {
+        assertEquals(1, new PackedMetricBucket(1).getStripeCount());
+        assertEquals(4, new PackedMetricBucket(3).getStripeCount());
+        assertEquals(8, new PackedMetricBucket(8).getStripeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalStripeCount() {
+        new PackedMetricBucket(0);
+    }
+
+    @Test
+    public void testAddAndReset() {
+        PackedMetricBucket bucket = new PackedMetricBucket(4);
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addSuccess(1);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.success());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+        assertEquals(0, bucket.exception());
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(Constants.TIME_DROP_VALVE, bucket.minRt());
+    }
+
+    @Test
+    public void testResetFromOtherBucket() {
+        MetricBucket borrowed = new MetricBucket();
+        borrowed.addPass(5);
+        PackedMetricBucket bucket = new PackedMetricBucket(2);
+        bucket.addBlock(7);
+
+        bucket.reset(borrowed);
+        assertEquals(5, bucket.pass());
+        assertEquals(0, bucket.block());
+    }
+
+    @Test
+    public void testMultiThreadAdd() throws Exception {
+        final PackedMetricBucket bucket = new PackedMetricBucket(8);
+        final int nThreads = 16;
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        for (int i = 0; i < nThreads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count; j++) {
+                        bucket.addPass(1);
+                        bucket.addSuccess(2);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals(nThreads * count, bucket.pass());
+        assertEquals(nThreads * count * 2, bucket.success());
+    }
+}
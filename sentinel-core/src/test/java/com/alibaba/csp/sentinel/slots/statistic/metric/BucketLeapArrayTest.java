@@ -215,4 +215,60 @@ public class BucketLeapArrayTest {
 
         assertEquals(1, leapArray.list().size());
     }
+
+    @Test
+    public void testLockFreeRotationResetDeprecatedWindow() {
+        BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs, true);
+        assertTrue(leapArray.isLockFreeRotation());
+        long time = TimeUtil.currentTimeMillis();
+        long windowStart = time - time % windowLengthInMs;
+
+        WindowWrap<MetricBucket> window = leapArray.currentWindow(windowStart);
+        window.value().addPass(3);
+
+        WindowWrap<MetricBucket> rotated = leapArray.currentWindow(windowStart + intervalInMs);
+        // The deprecated bucket is switched to the standby bucket of the slot.
+        assertNotSame(window, rotated);
+        assertEquals(windowStart + intervalInMs, rotated.windowStart());
+        assertEquals(0L, rotated.value().pass());
+        // The retired bucket is cleaned after the switch.
+        assertEquals(0L, window.value().pass());
+        rotated.value().addPass(2);
+
+        WindowWrap<MetricBucket> rotatedAgain = leapArray.currentWindow(windowStart + intervalInMs * 2);
+        assertSame(window, rotatedAgain);
+        assertEquals(windowStart + intervalInMs * 2, rotatedAgain.windowStart());
+        assertEquals(0L, rotatedAgain.value().pass());
+        assertEquals(0L, rotated.value().pass());
+    }
+
+    @Test
+    public void testLockFreeRotationMultiThread() throws Exception {
+        final long time = TimeUtil.currentTimeMillis();
+        final long windowStart = time - time % windowLengthInMs;
+        final int nThreads = 16;
+        final BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs, true);
+        final WindowWrap<MetricBucket> first = leapArray.currentWindow(windowStart);
+        first.value().addPass(100);
+
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                // No matter which thread rotates the bucket, the pass should go to the new window.
+                leapArray.currentWindow(windowStart + intervalInMs).value().addPass(1);
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < nThreads; i++) {
+            new Thread(task).start();
+        }
+        latch.await();
+
+        WindowWrap<MetricBucket> window = leapArray.currentWindow(windowStart + intervalInMs);
+        assertNotSame(first, window);
+        assertEquals(windowStart + intervalInMs, window.windowStart());
+        assertEquals(nThreads, window.value().pass());
+        assertEquals(0L, first.value().pass());
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.util.function.Supplier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class DenseIdRegistryTest {
+
+    private static Supplier<String> valueOf(final String value) {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testRegisterDenseIds() {
+        DenseIdRegistry<String> registry = new DenseIdRegistry<>(100);
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, registry.register("r" + i, valueOf("v" + i)));
+        }
+        assertEquals(40, registry.size());
+        // Registering again should return the existing id and keep the value.
+        assertEquals(3, registry.register("r3", valueOf("other")));
+        assertEquals("v3", registry.get(3));
+        assertEquals("v39", registry.get("r39"));
+        assertEquals(DenseIdRegistry.ABSENT, registry.idOf("absent"));
+        assertNull(registry.get(DenseIdRegistry.ABSENT));
+        assertNull(registry.get(100));
+    }
+
+    @Test
+    public void testMaxSize() {
+        DenseIdRegistry<String> registry = new DenseIdRegistry<>(2);
+        registry.register("a", valueOf("a"));
+        registry.register("b", valueOf("b"));
+        assertEquals(DenseIdRegistry.ABSENT, registry.register("c", valueOf("c")));
+        assertEquals(2, registry.put("c", "c"));
+        assertEquals("c", registry.get("c"));
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertEquals(DenseIdRegistry.ABSENT, registry.idOf("a"));
+        assertEquals(0, registry.register("c", valueOf("c")));
+    }
+
+    @Test
+    public void testConcurrentRegister() throws Exception {
+        final DenseIdRegistry<String> registry = new DenseIdRegistry<>(10000);
+        final AtomicInteger created = new AtomicInteger();
+        final Set<Integer> ids = Collections.synchronizedSet(new HashSet<Integer>());
+        final int nThreads = 8;
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < count; i++) {
+                        final String name = "r" + i;
+                        int id = registry.register(name, new Supplier<String>() {
+                            @Override
+                            public String get() {
+                                created.incrementAndGet();
+                                return name;
+                            }
+                        });
+                        assertEquals(name, registry.get(id));
+                        ids.add(id);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals(count, created.get());
+        assertEquals(count, registry.size());
+        assertEquals(count, ids.size());
+    }
+}
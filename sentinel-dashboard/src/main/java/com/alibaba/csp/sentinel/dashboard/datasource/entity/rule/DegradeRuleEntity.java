@@ -35,6 +35,9 @@ public class DegradeRuleEntity implements RuleEntity {
      * 0 rt 限流; 1为异常;
      */
     private Integer grade;
+    private Integer minRequestAmount;
+    private Integer statIntervalMs;
+    private Double slowRatioThreshold;
     private Date gmtCreate;
     private Date gmtModified;
 
@@ -48,6 +51,9 @@ public class DegradeRuleEntity implements RuleEntity {
         entity.setCount(rule.getCount());
         entity.setTimeWindow(rule.getTimeWindow());
         entity.setGrade(rule.getGrade());
+        entity.setMinRequestAmount(rule.getMinRequestAmount());
+        entity.setStatIntervalMs(rule.getStatIntervalMs());
+        entity.setSlowRatioThreshold(rule.getSlowRatioThreshold());
         return entity;
     }
 
@@ -128,6 +134,30 @@ public class DegradeRuleEntity implements RuleEntity {
         this.grade = grade;
     }
 
+    public Integer getMinRequestAmount() {
+        return minRequestAmount;
+    }
+
+    public void setMinRequestAmount(Integer minRequestAmount) {
+        this.minRequestAmount = minRequestAmount;
+    }
+
+    public Integer getStatIntervalMs() {
+        return statIntervalMs;
+    }
+
+    public void setStatIntervalMs(Integer statIntervalMs) {
+        this.statIntervalMs = statIntervalMs;
+    }
+
+    public Double getSlowRatioThreshold() {
+        return slowRatioThreshold;
+    }
+
+    public void setSlowRatioThreshold(Double slowRatioThreshold) {
+        this.slowRatioThreshold = slowRatioThreshold;
+    }
+
     @Override
     public Date getGmtCreate() {
         return gmtCreate;
@@ -153,6 +183,15 @@ public class DegradeRuleEntity implements RuleEntity {
         rule.setCount(count);
         rule.setTimeWindow(timeWindow);
         rule.setGrade(grade);
+        if (minRequestAmount != null) {
+            rule.setMinRequestAmount(minRequestAmount);
+        }
+        if (statIntervalMs != null) {
+            rule.setStatIntervalMs(statIntervalMs);
+        }
+        if (slowRatioThreshold != null) {
+            rule.setSlowRatioThreshold(slowRatioThreshold);
+        }
         return rule;
     }
 }
@@ -101,6 +101,8 @@ public final class ParamFlowChecker {
         if (rule.getGrade() == RuleConstant.FLOW_GRADE_QPS) {
             if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER) {
                 return passThrottleLocalCheck(resourceWrapper, rule, acquireCount, value);
+            } else if (rule.isHeavyHitterMode()) {
+                return passHeavyHitterLocalCheck(resourceWrapper, rule, acquireCount, value);
             } else {
                 return passDefaultLocalCheck(resourceWrapper, rule, acquireCount, value);
             }
@@ -195,6 +197,28 @@ public final class ParamFlowChecker {
         }
     }
 
+    static boolean passHeavyHitterLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
+                                             Object value) {
+        ParameterMetric metric = getParameterMetric(resourceWrapper);
+        ParamHeavyHitterCounter counter = metric == null ? null : metric.getRuleHeavyHitterCounter(rule);
+        if (counter == null) {
+            return true;
+        }
+
+        // Calculate max token count (threshold)
+        Integer itemThreshold = rule.retrieveExclusiveItemCount(value);
+        long tokenCount = itemThreshold == null ? (long)rule.getCount() : itemThreshold;
+        if (tokenCount == 0) {
+            return false;
+        }
+
+        long maxCount = tokenCount + rule.getBurstCount();
+        if (acquireCount > maxCount) {
+            return false;
+        }
+        return counter.tryAcquire(value, acquireCount, maxCount, TimeUtil.currentTimeMillis());
+    }
+
     static boolean passThrottleLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                           Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
@@ -65,6 +65,12 @@ public class ParamFlowRule extends AbstractRule {
     private int burstCount = 0;
     private long durationInSec = 1;
 
+    /**
+     * Whether to count parameter values of QPS rules (default behavior) with a fixed-memory sketch plus an exact
+     * table of top-K hot values, instead of an exact counter per value (since 1.7.0).
+     */
+    private boolean heavyHitterMode = false;
+
     /**
      * Original exclusion items of parameters.
      */
@@ -120,6 +126,15 @@ public class ParamFlowRule extends AbstractRule {
         return this;
     }
 
+    public boolean isHeavyHitterMode() {
+        return heavyHitterMode;
+    }
+
+    public ParamFlowRule setHeavyHitterMode(boolean heavyHitterMode) {
+        this.heavyHitterMode = heavyHitterMode;
+        return this;
+    }
+
     public int getGrade() {
         return grade;
     }
@@ -210,6 +225,7 @@ public class ParamFlowRule extends AbstractRule {
         if (maxQueueingTimeMs != that.maxQueueingTimeMs) { return false; }
         if (burstCount != that.burstCount) { return false; }
         if (durationInSec != that.durationInSec) { return false; }
+        if (heavyHitterMode != that.heavyHitterMode) { return false; }
         if (clusterMode != that.clusterMode) { return false; }
         if (!Objects.equals(paramIdx, that.paramIdx)) { return false; }
         if (!Objects.equals(paramFlowItemList, that.paramFlowItemList)) { return false; }
@@ -228,6 +244,7 @@ public class ParamFlowRule extends AbstractRule {
         result = 31 * result + maxQueueingTimeMs;
         result = 31 * result + burstCount;
         result = 31 * result + (int)(durationInSec ^ (durationInSec >>> 32));
+        result = 31 * result + (heavyHitterMode ? 1 : 0);
         result = 31 * result + (paramFlowItemList != null ? paramFlowItemList.hashCode() : 0);
         result = 31 * result + (clusterMode ? 1 : 0);
         result = 31 * result + (clusterConfig != null ? clusterConfig.hashCode() : 0);
@@ -244,6 +261,7 @@ public class ParamFlowRule extends AbstractRule {
             ", maxQueueingTimeMs=" + maxQueueingTimeMs +
             ", burstCount=" + burstCount +
             ", durationInSec=" + durationInSec +
+            ", heavyHitterMode=" + heavyHitterMode +
             ", paramFlowItemList=" + paramFlowItemList +
             ", clusterMode=" + clusterMode +
             ", clusterConfig=" + clusterConfig +
@@ -0,0 +1,206 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.slots.statistic.data.CountMinSketch;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Fixed-memory pass counter for the heavy-hitter mode of parameter flow rules
+ * (see {@link ParamFlowRule#isHeavyHitterMode()}).</p>
+ *
+ * <p>Values are counted in tumbling windows of {@code durationInSec}. The long tail of values is
+ * counted by a {@link CountMinSketch}, whose estimation never underestimates, so the threshold is never
+ * exceeded (though a rarely seen value might be blocked early on hash collisions). Once a value has consumed
+ * half of its threshold in a window, it is promoted to a small exact table of top-K values, where it is
+ * limited exactly. Idle values in the exact table are evicted when room is needed.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class ParamHeavyHitterCounter {
+
+    static final int DEFAULT_DEPTH = 4;
+    static final int DEFAULT_WIDTH = 2048;
+    static final int DEFAULT_TOP_K = 64;
+
+    private final long windowLengthMs;
+    private final int topK;
+
+    /**
+     * Two sketches are used alternately: the sketch of the previous window is cleared and reused
+     * for the next window, so rolling the window does not allocate.
+     */
+    private final CountMinSketch[] sketches;
+    private final AtomicReference<Window> window = new AtomicReference<Window>();
+    private final ConcurrentMap<Object, ExactCounter> hotValues;
+
+    public ParamHeavyHitterCounter(long windowLengthMs) {
+        this(windowLengthMs, DEFAULT_DEPTH, DEFAULT_WIDTH, DEFAULT_TOP_K);
+    }
+
+    public ParamHeavyHitterCounter(long windowLengthMs, int depth, int width, int topK) {
+        AssertUtil.isTrue(windowLengthMs > 0, "windowLengthMs should be positive");
+        AssertUtil.isTrue(topK >= 0, "topK should not be negative");
+        this.windowLengthMs = windowLengthMs;
+        this.topK = topK;
+        this.sketches = new CountMinSketch[] {new CountMinSketch(depth, width), new CountMinSketch(depth, width)};
+        this.hotValues = new ConcurrentHashMap<Object, ExactCounter>(topK * 2);
+        this.window.set(new Window(0, sketches[0]));
+    }
+
+    /**
+     * Try to count {@code acquireCount} passes for given value in current window.
+     *
+     * @param value        parameter value
+     * @param acquireCount count to acquire
+     * @param maxCount     max pass count of the value in a window
+     * @param currentTime  current time in milliseconds
+     * @return true if the passes are counted, false if the threshold would be exceeded
+     */
+    public boolean tryAcquire(Object value, int acquireCount, long maxCount, long currentTime) {
+        Window w = currentWindow(currentTime);
+        ExactCounter exact = hotValues.get(value);
+        if (exact != null) {
+            return exact.tryAdd(w.start, acquireCount, maxCount);
+        }
+
+        long estimate = w.sketch.add(value, acquireCount);
+        if (estimate > maxCount) {
+            // Blocked requests should not consume the threshold.
+            w.sketch.add(value, -acquireCount);
+            return false;
+        }
+        if (estimate * 2 >= maxCount) {
+            promote(value, w.start, estimate);
+        }
+        return true;
+    }
+
+    /**
+     * Get the estimated pass count of given value in current window.
+     *
+     * @param value       parameter value
+     * @param currentTime current time in milliseconds
+     * @return the estimated pass count
+     */
+    public long estimate(Object value, long currentTime) {
+        Window w = currentWindow(currentTime);
+        ExactCounter exact = hotValues.get(value);
+        if (exact != null) {
+            return exact.windowStart == w.start ? exact.count.get() : 0;
+        }
+        return w.sketch.estimate(value);
+    }
+
+    boolean isHotValue(Object value) {
+        return hotValues.containsKey(value);
+    }
+
+    int hotValueCount() {
+        return hotValues.size();
+    }
+
+    private void promote(Object value, long windowStart, long estimate) {
+        if (hotValues.size() >= topK && !evictIdle(windowStart)) {
+            // All hot values are active, just keep counting the value in the sketch.
+            return;
+        }
+        // The estimation is an upper bound of real count, so it's safe to start from it.
+        hotValues.putIfAbsent(value, new ExactCounter(windowStart, estimate));
+    }
+
+    private boolean evictIdle(long windowStart) {
+        Iterator<ExactCounter> it = hotValues.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().windowStart < windowStart) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Window currentWindow(long currentTime) {
+        long windowStart = currentTime - currentTime % windowLengthMs;
+        Window w = window.get();
+        if (w.start >= windowStart) {
+            return w;
+        }
+        return rollWindow(windowStart);
+    }
+
+    private synchronized Window rollWindow(long windowStart) {
+        Window w = window.get();
+        if (w.start >= windowStart) {
+            return w;
+        }
+        // Only one thread could clear the spare sketch, and it is not published until cleared.
+        // A thread that stalls for a whole window with the stale window at hand might still update
+        // the spare sketch, which only skews the count of the new window slightly.
+        CountMinSketch sketch = w.sketch == sketches[0] ? sketches[1] : sketches[0];
+        sketch.clear();
+        Window newWindow = new Window(windowStart, sketch);
+        window.set(newWindow);
+        return newWindow;
+    }
+
+    private static class Window {
+        private final long start;
+        private final CountMinSketch sketch;
+
+        Window(long start, CountMinSketch sketch) {
+            this.start = start;
+            this.sketch = sketch;
+        }
+    }
+
+    private static class ExactCounter {
+        private volatile long windowStart;
+        private final AtomicLong count;
+
+        ExactCounter(long windowStart, long count) {
+            this.windowStart = windowStart;
+            this.count = new AtomicLong(count);
+        }
+
+        boolean tryAdd(long currentWindowStart, int acquireCount, long maxCount) {
+            if (windowStart != currentWindowStart) {
+                synchronized (this) {
+                    if (windowStart < currentWindowStart) {
+                        count.set(0);
+                        windowStart = currentWindowStart;
+                    }
+                }
+            }
+            while (true) {
+                long c = count.get();
+                if (c + acquireCount > maxCount) {
+                    return false;
+                }
+                if (count.compareAndSet(c, c + acquireCount)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
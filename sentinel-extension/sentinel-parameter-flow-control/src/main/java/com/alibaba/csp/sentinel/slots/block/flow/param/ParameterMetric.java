@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
 
@@ -53,6 +54,23 @@ public class ParameterMetric {
      */
     private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
     private final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+    /**
+     * Format: (rule, heavyHitterCounter), only for rules in heavy-hitter mode.
+     *
+     * @since 1.7.0
+     */
+    private final Map<ParamFlowRule, ParamHeavyHitterCounter> ruleHeavyHitterCounters = new HashMap<>();
+
+    /**
+     * Get the heavy-hitter counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated heavy-hitter counter, or null if the rule is not in heavy-hitter mode
+     * @since 1.7.0
+     */
+    public ParamHeavyHitterCounter getRuleHeavyHitterCounter(ParamFlowRule rule) {
+        return ruleHeavyHitterCounters.get(rule);
+    }
 
     /**
      * Get the token counter for given parameter rule.
@@ -81,10 +99,43 @@ public class ParameterMetric {
             threadCountMap.clear();
             ruleTimeCounters.clear();
             ruleTokenCounter.clear();
+            ruleHeavyHitterCounters.clear();
         }
     }
 
     public void initialize(ParamFlowRule rule) {
+        if (isHeavyHitterRule(rule)) {
+            initializeHeavyHitterCounter(rule);
+        } else {
+            initializeCacheCounters(rule);
+        }
+
+        if (!threadCountMap.containsKey(rule.getParamIdx())) {
+            synchronized (lock) {
+                if (threadCountMap.get(rule.getParamIdx()) == null) {
+                    threadCountMap.put(rule.getParamIdx(),
+                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
+                }
+            }
+        }
+    }
+
+    static boolean isHeavyHitterRule(ParamFlowRule rule) {
+        return rule.isHeavyHitterMode() && rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_DEFAULT;
+    }
+
+    private void initializeHeavyHitterCounter(ParamFlowRule rule) {
+        if (!ruleHeavyHitterCounters.containsKey(rule)) {
+            synchronized (lock) {
+                if (ruleHeavyHitterCounters.get(rule) == null) {
+                    ruleHeavyHitterCounters.put(rule, new ParamHeavyHitterCounter(rule.getDurationInSec() * 1000));
+                }
+            }
+        }
+    }
+
+    private void initializeCacheCounters(ParamFlowRule rule) {
         if (!ruleTimeCounters.containsKey(rule)) {
             synchronized (lock) {
                 if (ruleTimeCounters.get(rule) == null) {
@@ -102,70 +153,38 @@ public class ParameterMetric {
                 }
             }
         }
-
-        if (!threadCountMap.containsKey(rule.getParamIdx())) {
-            synchronized (lock) {
-                if (threadCountMap.get(rule.getParamIdx()) == null) {
-                    threadCountMap.put(rule.getParamIdx(),
-                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
-                }
-            }
-        }
     }
 
     @SuppressWarnings("rawtypes")
     public void decreaseThreadCount(Object... args) {
-        if (args == null) {
+        // Skip quickly if no parameter is tracked.
+        if (args == null || threadCountMap.isEmpty()) {
             return;
         }
 
         try {
             for (int index = 0; index < args.length; index++) {
-                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
-                if (threadCount == null) {
-                    continue;
-                }
-
                 Object arg = args[index];
                 if (arg == null) {
                     continue;
                 }
-                if (Collection.class.isAssignableFrom(arg.getClass())) {
+                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
+                if (threadCount == null) {
+                    continue;
+                }
 
+                if (arg instanceof Collection) {
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        int currentValue = oldValue.decrementAndGet();
-                        if (currentValue <= 0) {
-                            threadCount.remove(arg);
-                        }
-                    }
-
+                    decreaseThreadCount(threadCount, arg);
                 }
-
             }
         } catch (Throwable e) {
             RecordLog.warn("[ParameterMetric] Param exception", e);
@@ -174,62 +193,59 @@ public class ParameterMetric {
 
     @SuppressWarnings("rawtypes")
     public void addThreadCount(Object... args) {
-        if (args == null) {
+        // Skip quickly if no parameter is tracked.
+        if (args == null || threadCountMap.isEmpty()) {
             return;
         }
 
         try {
             for (int index = 0; index < args.length; index++) {
-                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
-                if (threadCount == null) {
-                    continue;
-                }
-
                 Object arg = args[index];
-
                 if (arg == null) {
                     continue;
                 }
+                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
+                if (threadCount == null) {
+                    continue;
+                }
 
-                if (Collection.class.isAssignableFrom(arg.getClass())) {
+                if (arg instanceof Collection) {
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        addThreadCount(threadCount, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        addThreadCount(threadCount, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        oldValue.incrementAndGet();
-                    } else {
-                        threadCount.put(arg, new AtomicInteger(1));
-                    }
-
+                    addThreadCount(threadCount, arg);
                 }
-
             }
-
         } catch (Throwable e) {
             RecordLog.warn("[ParameterMetric] Param exception", e);
         }
     }
 
+    private static void addThreadCount(CacheMap<Object, AtomicInteger> threadCount, Object value) {
+        // Look up first, so that no counter is allocated for an existing value.
+        AtomicInteger oldValue = threadCount.get(value);
+        if (oldValue == null) {
+            oldValue = threadCount.putIfAbsent(value, new AtomicInteger(1));
+            if (oldValue == null) {
+                return;
+            }
+        }
+        oldValue.incrementAndGet();
+    }
+
+    private static void decreaseThreadCount(CacheMap<Object, AtomicInteger> threadCount, Object value) {
+        AtomicInteger oldValue = threadCount.get(value);
+        if (oldValue != null && oldValue.decrementAndGet() <= 0) {
+            threadCount.remove(value);
+        }
+    }
+
     public long getThreadCount(int index, Object value) {
         CacheMap<Object, AtomicInteger> cacheMap = threadCountMap.get(index);
         if (cacheMap == null) {
@@ -256,4 +272,8 @@ public class ParameterMetric {
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTimeCounterMap() {
         return ruleTimeCounters;
     }
+
+    Map<ParamFlowRule, ParamHeavyHitterCounter> getRuleHeavyHitterCounterMap() {
+        return ruleHeavyHitterCounters;
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A thread-safe count-min sketch for approximate counting of parameter values in fixed memory.</p>
+ *
+ * <p>The estimated count of a value is never less than its real count, and is larger only when
+ * hash collisions occur. The memory footprint is {@code depth * width} longs regardless of how many
+ * distinct values are counted.</p>
+ *
+ * @author agent
+ * @since 1.7.0
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param depth count of hash rows
+     * @param width count of counters per row, will be rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        AssertUtil.isTrue(depth > 0, "depth should be positive");
+        AssertUtil.isTrue(width > 0 && width <= (1 << 30), "width should be in range (0, 2^30]");
+        int w = 1;
+        while (w < width) {
+            w <<= 1;
+        }
+        this.depth = depth;
+        this.mask = w - 1;
+        this.counts = new AtomicLongArray(depth * w);
+    }
+
+    /**
+     * Add {@code delta} to the count of given value.
+     *
+     * @param value the value
+     * @param delta the count to add, can be negative to revert a previous add
+     * @return the estimated count of the value after adding
+     */
+    public long add(Object value, long delta) {
+        int h1 = spread(value.hashCode());
+        int h2 = (h1 >>> 16) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            long c = counts.addAndGet(indexOf(i, h1, h2), delta);
+            if (c < estimate) {
+                estimate = c;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Get the estimated count of given value.
+     *
+     * @param value the value
+     * @return the estimated count
+     */
+    public long estimate(Object value) {
+        int h1 = spread(value.hashCode());
+        int h2 = (h1 >>> 16) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            long c = counts.get(indexOf(i, h1, h2));
+            if (c < estimate) {
+                estimate = c;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Reset all counts to zero, so that the sketch could be reused. It should not be called while
+     * other threads are counting with the sketch.
+     */
+    public void clear() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    private int indexOf(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static int spread(int h) {
+        // Murmur3 finalizer, so that poor hashCode() implementations still distribute well.
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for {@link ParamHeavyHitterCounter}.
+ *
+ * @author agent
+ */
+public class ParamHeavyHitterCounterTest {
+
+    @Test
+    public void testHotValueLimitedExactly() {
+        ParamHeavyHitterCounter counter = new ParamHeavyHitterCounter(1000, 4, 64, 2);
+        long time = 20_000L;
+        String hot = "hot";
+        long maxCount = 10;
+        for (int i = 0; i < maxCount; i++) {
+            assertTrue(counter.tryAcquire(hot, 1, maxCount, time));
+        }
+        assertTrue(counter.isHotValue(hot));
+        assertFalse(counter.tryAcquire(hot, 1, maxCount, time + 500));
+        assertEquals(maxCount, counter.estimate(hot, time + 500));
+
+        // Counters are reset in the next window.
+        assertTrue(counter.tryAcquire(hot, 1, maxCount, time + 1000));
+        assertEquals(1, counter.estimate(hot, time + 1000));
+    }
+
+    @Test
+    public void testSketchResetWhenReused() {
+        ParamHeavyHitterCounter counter = new ParamHeavyHitterCounter(1000, 4, 64, 0);
+        long time = 20_000L;
+        String value = "v";
+        // The sketches are reused alternately, so counts of each window should start from zero.
+        for (int i = 0; i < 4; i++) {
+            long windowStart = time + i * 1000;
+            assertTrue(counter.tryAcquire(value, 3, 3, windowStart));
+            assertFalse(counter.tryAcquire(value, 1, 3, windowStart + 500));
+            assertEquals(3, counter.estimate(value, windowStart + 500));
+        }
+    }
+
+    @Test
+    public void testTailValuesNeverExceedThreshold() {
+        ParamHeavyHitterCounter counter = new ParamHeavyHitterCounter(1000, 4, 64, 4);
+        long time = 20_000L;
+        long maxCount = 3;
+        int n = 500;
+        for (int i = 0; i < n; i++) {
+            int passed = 0;
+            for (int j = 0; j < maxCount + 2; j++) {
+                if (counter.tryAcquire("param-" + i, 1, maxCount, time)) {
+                    passed++;
+                }
+            }
+            assertTrue(passed <= maxCount);
+        }
+        assertEquals(4, counter.hotValueCount());
+    }
+
+    @Test
+    public void testBlockedAcquireNotCounted() {
+        ParamHeavyHitterCounter counter = new ParamHeavyHitterCounter(1000, 4, 1024, 0);
+        long time = 20_000L;
+        String value = "v";
+        assertTrue(counter.tryAcquire(value, 4, 5, time));
+        assertFalse(counter.tryAcquire(value, 2, 5, time));
+        assertTrue(counter.tryAcquire(value, 1, 5, time));
+        assertEquals(5, counter.estimate(value, time));
+    }
+
+    @Test
+    public void testIdleHotValueEvicted() {
+        ParamHeavyHitterCounter counter = new ParamHeavyHitterCounter(1000, 4, 1024, 1);
+        long time = 20_000L;
+        assertTrue(counter.tryAcquire("a", 2, 2, time));
+        assertTrue(counter.isHotValue("a"));
+
+        // "b" cannot be promoted while "a" is active in current window.
+        assertTrue(counter.tryAcquire("b", 2, 2, time));
+        assertFalse(counter.isHotValue("b"));
+        assertFalse(counter.tryAcquire("b", 1, 2, time));
+
+        // "a" is idle in the next window, so "b" takes its place.
+        assertTrue(counter.tryAcquire("b", 2, 2, time + 1000));
+        assertTrue(counter.isHotValue("b"));
+        assertFalse(counter.isHotValue("a"));
+    }
+}
@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -76,6 +77,34 @@ public class ParameterMetricTest {
         assertEquals(0, metric.getRuleTokenCounterMap().size());
     }
 
+    @Test
+    public void testInitHeavyHitterRule() {
+        ParameterMetric metric = new ParameterMetric();
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setHeavyHitterMode(true);
+        metric.initialize(rule);
+        ParamHeavyHitterCounter counter = metric.getRuleHeavyHitterCounter(rule);
+        assertNotNull(counter);
+        assertNull(metric.getRuleTimeCounter(rule));
+        assertNull(metric.getRuleTokenCounter(rule));
+        assertNotNull(metric.getThreadCountMap().get(rule.getParamIdx()));
+        metric.initialize(rule);
+        assertSame(counter, metric.getRuleHeavyHitterCounter(rule));
+
+        // Heavy-hitter mode only applies to QPS rules with default control behavior.
+        ParamFlowRule rule2 = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setHeavyHitterMode(true)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        metric.initialize(rule2);
+        assertNull(metric.getRuleHeavyHitterCounter(rule2));
+        assertNotNull(metric.getRuleTimeCounter(rule2));
+
+        metric.clear();
+        assertEquals(0, metric.getRuleHeavyHitterCounterMap().size());
+    }
+
     @Test
     public void testAddAndDecreaseThreadCountCommon() {
         testAddAndDecreaseThreadCount(PARAM_TYPE_NORMAL);
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CountMinSketch}.
+ *
+ * @author agent
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testWidthRoundedUpToPowerOfTwo() {
+        CountMinSketch sketch = new CountMinSketch(4, 1000);
+        assertEquals(4, sketch.getDepth());
+        assertEquals(1024, sketch.getWidth());
+    }
+
+    @Test
+    public void testNeverUnderestimate() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            sketch.add("param-" + i, i % 7 + 1);
+        }
+        for (int i = 0; i < n; i++) {
+            assertTrue(sketch.estimate("param-" + i) >= i % 7 + 1);
+        }
+    }
+
+    @Test
+    public void testAddAndRevert() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        String paramA = "a";
+        assertEquals(0, sketch.estimate(paramA));
+        assertEquals(3, sketch.add(paramA, 3));
+        assertEquals(5, sketch.add(paramA, 2));
+        assertEquals(3, sketch.add(paramA, -2));
+        assertEquals(3, sketch.estimate(paramA));
+        assertEquals(0, sketch.estimate("b"));
+    }
+
+    @Test
+    public void testClear() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        sketch.add("a", 3);
+        sketch.add("b", 2);
+        sketch.clear();
+        assertEquals(0, sketch.estimate("a"));
+        assertEquals(0, sketch.estimate("b"));
+        assertEquals(1, sketch.add("a", 1));
+    }
+}
@@ -56,8 +56,9 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
                     appName = "";
                 }
                 if (searcher == null) {
+                    boolean binary = SentinelConfig.metricFileBinary();
                     searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR,
-                        MetricWriter.formMetricFileName(appName, PidUtil.getPid()));
+                        MetricWriter.formMetricFileName(appName, PidUtil.getPid(), binary), binary);
                 }
             }
         }